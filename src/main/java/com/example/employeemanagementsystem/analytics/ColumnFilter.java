@@ -0,0 +1,124 @@
+package com.example.employeemanagementsystem.analytics;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Conjunction of row filters for {@link EmployeeColumnStore#aggregate}: allowed values of the
+ * dictionary columns plus inclusive ranges on salary, hire date and date of birth.
+ * Rows with a null salary or date never match a range on that attribute.
+ */
+public final class ColumnFilter {
+
+    private final Map<EmployeeColumnStore.Column, Set<String>> allowedValues = new EnumMap<>(EmployeeColumnStore.Column.class);
+    private double minSalary = Double.NEGATIVE_INFINITY;
+    private double maxSalary = Double.POSITIVE_INFINITY;
+    private boolean salaryFiltered;
+    private LocalDate hiredFrom;
+    private LocalDate hiredTo;
+    private LocalDate bornFrom;
+    private LocalDate bornTo;
+
+    /**
+     * @return a filter matching every row
+     */
+    public static ColumnFilter all() {
+        return new ColumnFilter();
+    }
+
+    /**
+     * Only keep rows whose column holds one of the values (a null value matches unset columns).
+     * Repeated calls on the same column intersect.
+     */
+    public ColumnFilter whereIn(EmployeeColumnStore.Column column, Collection<String> values) {
+        Set<String> allowed = new HashSet<>(values);
+        allowedValues.merge(column, allowed, (current, added) -> {
+            current.retainAll(added);
+            return current;
+        });
+        return this;
+    }
+
+    /**
+     * Only keep rows with a salary in the range; null bounds are open.
+     */
+    public ColumnFilter salaryBetween(Double min, Double max) {
+        salaryFiltered = true;
+        if (min != null) {
+            minSalary = Math.max(minSalary, min);
+        }
+        if (max != null) {
+            maxSalary = Math.min(maxSalary, max);
+        }
+        return this;
+    }
+
+    /**
+     * Only keep rows hired in the range; null bounds are open.
+     */
+    public ColumnFilter hiredBetween(LocalDate from, LocalDate to) {
+        hiredFrom = from != null ? from : LocalDate.MIN;
+        hiredTo = to != null ? to : LocalDate.MAX;
+        return this;
+    }
+
+    /**
+     * Only keep rows born in the range; null bounds are open.
+     */
+    public ColumnFilter bornBetween(LocalDate from, LocalDate to) {
+        bornFrom = from != null ? from : LocalDate.MIN;
+        bornTo = to != null ? to : LocalDate.MAX;
+        return this;
+    }
+
+    Map<EmployeeColumnStore.Column, Set<String>> getAllowedValues() {
+        return Collections.unmodifiableMap(allowedValues);
+    }
+
+    boolean isSalaryFiltered() {
+        return salaryFiltered;
+    }
+
+    double getMinSalary() {
+        return minSalary;
+    }
+
+    double getMaxSalary() {
+        return maxSalary;
+    }
+
+    LocalDate getHiredFrom() {
+        return hiredFrom;
+    }
+
+    LocalDate getHiredTo() {
+        return hiredTo;
+    }
+
+    LocalDate getBornFrom() {
+        return bornFrom;
+    }
+
+    LocalDate getBornTo() {
+        return bornTo;
+    }
+
+    /**
+     * @return true if the filter matches every row
+     */
+    public boolean isEmpty() {
+        return allowedValues.isEmpty() && !salaryFiltered && hiredFrom == null && bornFrom == null;
+    }
+
+    @Override
+    public String toString() {
+        return "ColumnFilter [allowedValues=" + allowedValues + ", salary=" + (salaryFiltered ? minSalary + ".." + maxSalary : "any") +
+               ", hired=" + (hiredFrom != null ? hiredFrom + ".." + hiredTo : "any") +
+               ", born=" + (bornFrom != null ? bornFrom + ".." + bornTo : "any") + "]";
+    }
+}
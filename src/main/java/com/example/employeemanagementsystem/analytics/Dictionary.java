@@ -0,0 +1,79 @@
+package com.example.employeemanagementsystem.analytics;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dictionary encoding of a low-cardinality string column: every distinct value gets a dense
+ * int code in order of first appearance, so the column itself can be an {@code int[]} and
+ * per-group accumulators can be arrays indexed by code. Code 0 is reserved for null.
+ * Codes are never reused within a dictionary; once most of them are unused the owning store
+ * replaces it with a {@linkplain #compact compacted} copy. Not thread-safe (guarded by the owning store).
+ */
+final class Dictionary {
+
+    static final int NULL_CODE = 0;
+
+    private final Map<String, Integer> codes = new HashMap<>();
+    private final List<String> values = new ArrayList<>();
+
+    Dictionary() {
+        values.add(null);
+    }
+
+    /**
+     * @return the code of the value, assigning a new one if it has not been seen
+     */
+    int encode(String value) {
+        if (value == null) {
+            return NULL_CODE;
+        }
+        Integer code = codes.get(value);
+        if (code == null) {
+            code = values.size();
+            codes.put(value, code);
+            values.add(value);
+        }
+        return code;
+    }
+
+    /**
+     * @return the code of the value, or -1 if it has never been seen
+     */
+    int lookup(String value) {
+        if (value == null) {
+            return NULL_CODE;
+        }
+        return codes.getOrDefault(value, -1);
+    }
+
+    String decode(int code) {
+        return values.get(code);
+    }
+
+    /**
+     * Build a dictionary of just the values still in use, keeping their relative order.
+     *
+     * @param references rows referencing each code; codes past the end are unused
+     * @param remap      filled with the new code of every used old code
+     * @return the compacted dictionary
+     */
+    Dictionary compact(int[] references, int[] remap) {
+        Dictionary compacted = new Dictionary();
+        for (int code = NULL_CODE + 1; code < values.size(); code++) {
+            if (code < references.length && references[code] > 0) {
+                remap[code] = compacted.encode(values.get(code));
+            }
+        }
+        return compacted;
+    }
+
+    /**
+     * @return number of codes, including the null code
+     */
+    int size() {
+        return values.size();
+    }
+}
@@ -0,0 +1,625 @@
+package com.example.employeemanagementsystem.analytics;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory columnar copy of the analytic employee attributes. Department, job title and gender
+ * are dictionary-encoded into {@code int[]} columns, salary is a {@code double[]} (NaN for null)
+ * and hire date and date of birth are {@code int[]} epoch days. Rows are kept dense: a removed row
+ * is replaced by the last one, so every scan is a straight loop over {@code [0, size)}.
+ * <p>
+ * Queries run over batches of rows, one column at a time: each filter is a tight loop over a
+ * primitive column, group keys are mixed-radix numbers over the dictionary codes, and aggregates
+ * are accumulated into arrays indexed by group key. Readers share a read lock; writers are exclusive.
+ * <p>
+ * The store also keeps a {@link SalarySketch} per value of every column, updated on each upsert and
+ * remove, so salary percentiles never need a scan.
+ * <p>
+ * Rows referencing each dictionary code are counted. When most codes of a column are no longer
+ * used (values renamed or removed), the column is re-encoded against a compacted dictionary, so
+ * churn cannot grow the group-key space towards {@link #MAX_GROUPS}.
+ */
+public class EmployeeColumnStore {
+
+    /**
+     * Dictionary-encoded columns, usable as group-by dimensions and value filters.
+     */
+    public enum Column {
+        DEPARTMENT,
+        JOB_TITLE,
+        GENDER
+    }
+
+    /**
+     * Upper bound on the number of distinct group keys of one query (product of the column cardinalities).
+     */
+    public static final int MAX_GROUPS = 1 << 18;
+
+    // Epoch day stored for a null date; below every range bound
+    static final int NULL_DAY = Integer.MIN_VALUE;
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int INITIAL_SKETCHES = 16;
+
+    // A dictionary is compacted once its unused codes outnumber both this and its used codes
+    private static final int MIN_UNUSED_CODES = 64;
+
+    // Rows evaluated per batch; the batch's vectors stay in the L1 cache
+    private static final int BATCH_SIZE = 1024;
+
+    // Doubles per group in a scan's accumulator array
+    private static final int ACCUMULATORS = 8;
+
+    // Large stores are scanned in parallel ranges, each with its own accumulators, then merged
+    private static final int PARALLELISM = Runtime.getRuntime().availableProcessors();
+    private static final int PARALLEL_ROWS_PER_TASK = 256 * 1024;
+    private static final long MAX_PARALLEL_ACCUMULATORS = 1 << 16;
+    private static final Column[] COLUMNS = Column.values();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Dictionary[] dictionaries = new Dictionary[COLUMNS.length];
+    private final LongIntMap rowsById = new LongIntMap(INITIAL_CAPACITY);
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private final int[][] codes = new int[COLUMNS.length][INITIAL_CAPACITY];
+    private double[] salaries = new double[INITIAL_CAPACITY];
+    private int[] hireDays = new int[INITIAL_CAPACITY];
+    private int[] birthDays = new int[INITIAL_CAPACITY];
+    private int size;
+
+    // Salary sketch per column and dictionary code, null until the value has a salary
+    private final SalarySketch[][] sketches = new SalarySketch[COLUMNS.length][];
+
+    // Rows referencing each dictionary code, and the number of codes referenced at all, per column
+    private final int[][] references = new int[COLUMNS.length][];
+    private final int[] usedCodes = new int[COLUMNS.length];
+
+    public EmployeeColumnStore() {
+        resetDictionaries();
+    }
+
+    private void resetDictionaries() {
+        for (int c = 0; c < COLUMNS.length; c++) {
+            dictionaries[c] = new Dictionary();
+            sketches[c] = new SalarySketch[INITIAL_SKETCHES];
+            references[c] = new int[INITIAL_SKETCHES];
+            usedCodes[c] = 0;
+        }
+    }
+
+    /**
+     * Insert or replace the row of an employee.
+     */
+    public void upsert(long id, String department, String jobTitle, String gender, Double salary,
+                       LocalDate hireDate, LocalDate dateOfBirth) {
+        lock.writeLock().lock();
+        try {
+            int row = rowsById.get(id);
+            if (row == LongIntMap.MISSING) {
+                ensureCapacity(size + 1);
+                row = size++;
+                rowsById.put(id, row);
+                ids[row] = id;
+            } else {
+                removeFromSketches(row);
+                releaseCodes(row);
+            }
+            codes[Column.DEPARTMENT.ordinal()][row] = dictionaries[Column.DEPARTMENT.ordinal()].encode(department);
+            codes[Column.JOB_TITLE.ordinal()][row] = dictionaries[Column.JOB_TITLE.ordinal()].encode(jobTitle);
+            codes[Column.GENDER.ordinal()][row] = dictionaries[Column.GENDER.ordinal()].encode(gender);
+            salaries[row] = salary != null ? salary : Double.NaN;
+            hireDays[row] = toDay(hireDate);
+            birthDays[row] = toDay(dateOfBirth);
+            retainCodes(row);
+            addToSketches(row);
+            compactSparseDictionaries();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove the row of an employee, if present.
+     */
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            int row = rowsById.remove(id);
+            if (row == LongIntMap.MISSING) {
+                return;
+            }
+            removeFromSketches(row);
+            releaseCodes(row);
+            int last = --size;
+            if (row != last) {
+                ids[row] = ids[last];
+                for (int[] column : codes) {
+                    column[row] = column[last];
+                }
+                salaries[row] = salaries[last];
+                hireDays[row] = hireDays[last];
+                birthDays[row] = birthDays[last];
+                rowsById.put(ids[row], row);
+            }
+            compactSparseDictionaries();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove all rows. The dictionaries start over too, so a rebuild keeps only the values it loads.
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            rowsById.clear();
+            size = 0;
+            resetDictionaries();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return number of rows
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return true if the employee has a row
+     */
+    public boolean contains(long id) {
+        lock.readLock().lock();
+        try {
+            return rowsById.get(id) != LongIntMap.MISSING;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Copy the salary sketches of every value of a column.
+     *
+     * @param column the column
+     * @return a sketch per value with at least one salary (the null key for unset values), in order of first appearance
+     */
+    public Map<String, SalarySketch> salarySketches(Column column) {
+        lock.readLock().lock();
+        try {
+            Map<String, SalarySketch> result = new LinkedHashMap<>();
+            SalarySketch[] columnSketches = sketches[column.ordinal()];
+            Dictionary dictionary = dictionaries[column.ordinal()];
+            for (int code = 0; code < Math.min(columnSketches.length, dictionary.size()); code++) {
+                SalarySketch sketch = columnSketches[code];
+                if (sketch != null && sketch.getCount() > 0) {
+                    result.put(dictionary.decode(code), sketch.copy());
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Aggregate the rows matching the filter, grouped by the given columns.
+     *
+     * @param filter  row filter
+     * @param groupBy group-by columns, in key order (empty for a single overall group)
+     * @return one aggregate per non-empty group, in ascending key-code order
+     * @throws IllegalArgumentException if the group-by columns allow more than {@link #MAX_GROUPS} keys
+     */
+    public List<GroupAggregate> aggregate(ColumnFilter filter, List<Column> groupBy) {
+        lock.readLock().lock();
+        try {
+            int[][] keyColumns = new int[groupBy.size()][];
+            int[] strides = new int[groupBy.size()];
+            long groups = 1;
+            for (int k = 0; k < groupBy.size(); k++) {
+                keyColumns[k] = codes[groupBy.get(k).ordinal()];
+                strides[k] = (int) groups;
+                groups *= dictionaries[groupBy.get(k).ordinal()].size();
+                if (groups > MAX_GROUPS) {
+                    throw new IllegalArgumentException("Group-by " + groupBy + " has more than " + MAX_GROUPS + " possible groups");
+                }
+            }
+
+            Predicates predicates = filter.isEmpty() ? null : compile(filter);
+            int n = size;
+            int tasks = (int) Math.min(Math.min(PARALLELISM, n / PARALLEL_ROWS_PER_TASK + 1), MAX_PARALLEL_ACCUMULATORS / groups);
+            Scan[] scans = new Scan[Math.max(1, tasks)];
+            for (int t = 0; t < scans.length; t++) {
+                // Batch-aligned ranges, so every scan sees whole batches
+                int from = (int) ((long) n * t / scans.length) / BATCH_SIZE * BATCH_SIZE;
+                int to = t == scans.length - 1 ? n : (int) ((long) n * (t + 1) / scans.length) / BATCH_SIZE * BATCH_SIZE;
+                scans[t] = new Scan(predicates, keyColumns, strides, (int) groups, from, to);
+            }
+            if (scans.length == 1) {
+                scans[0].run();
+            } else {
+                // Workers only read the columns; the read lock held here keeps writers out until they finish
+                Arrays.stream(scans).parallel().forEach(Scan::run);
+            }
+            for (int t = 1; t < scans.length; t++) {
+                scans[0].merge(scans[t]);
+            }
+            return scans[0].result(groupBy);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Filter constants resolved against the dictionaries; null arrays mean "not filtered"
+    private Predicates compile(ColumnFilter filter) {
+        Predicates predicates = new Predicates();
+        predicates.allowed = new boolean[COLUMNS.length][];
+        for (Map.Entry<Column, Set<String>> entry : filter.getAllowedValues().entrySet()) {
+            Dictionary dictionary = dictionaries[entry.getKey().ordinal()];
+            boolean[] allowed = new boolean[dictionary.size()];
+            for (String value : entry.getValue()) {
+                int code = dictionary.lookup(value);
+                if (code >= 0) {
+                    allowed[code] = true;
+                }
+            }
+            predicates.allowed[entry.getKey().ordinal()] = allowed;
+        }
+        predicates.salaryFiltered = filter.isSalaryFiltered();
+        predicates.minSalary = filter.getMinSalary();
+        predicates.maxSalary = filter.getMaxSalary();
+        if (filter.getHiredFrom() != null) {
+            predicates.hireRange = dayRange(filter.getHiredFrom(), filter.getHiredTo());
+        }
+        if (filter.getBornFrom() != null) {
+            predicates.birthRange = dayRange(filter.getBornFrom(), filter.getBornTo());
+        }
+        return predicates;
+    }
+
+    // Lower bound above NULL_DAY so rows without a date never match
+    private static int[] dayRange(LocalDate from, LocalDate to) {
+        return new int[]{Math.max(toDay(from), NULL_DAY + 1), toDay(to)};
+    }
+
+    private static final class Predicates {
+        boolean[][] allowed;
+        boolean salaryFiltered;
+        double minSalary;
+        double maxSalary;
+        int[] hireRange;
+        int[] birthRange;
+    }
+
+    /**
+     * Evaluates a query over a range of rows, one batch at a time. Each filter is a branch-free pass
+     * over the batch that narrows a match flag per row; the matching rows are then compacted into a
+     * selection vector, group keys are computed for the selection one column at a time, and the
+     * aggregates are accumulated per group key. The per-batch vectors are reused and stay in the
+     * L1 cache; the accumulators of a group are interleaved so an update touches one cache line.
+     */
+    private final class Scan implements Runnable {
+
+        // Accumulator layout per group key: ACCUMULATORS consecutive doubles
+        private static final int COUNT = 0;
+        private static final int SALARY_COUNT = 1;
+        private static final int SUM = 2;
+        private static final int SUM_OF_SQUARES = 3;
+        private static final int MIN = 4;
+        private static final int MAX = 5;
+
+        private final Predicates predicates;
+        private final int[][] keyColumns;
+        private final int[] strides;
+        private final int from;
+        private final int to;
+
+        private final boolean[] matches = new boolean[BATCH_SIZE];
+        private final int[] selection = new int[BATCH_SIZE];
+        private final int[] keys = new int[BATCH_SIZE];
+        private final double[] accumulators;
+
+        Scan(Predicates predicates, int[][] keyColumns, int[] strides, int groups, int from, int to) {
+            this.predicates = predicates;
+            this.keyColumns = keyColumns;
+            this.strides = strides;
+            this.from = from;
+            this.to = to;
+            accumulators = new double[groups * ACCUMULATORS];
+            for (int g = 0; g < groups; g++) {
+                accumulators[g * ACCUMULATORS + MIN] = Double.POSITIVE_INFINITY;
+                accumulators[g * ACCUMULATORS + MAX] = Double.NEGATIVE_INFINITY;
+            }
+        }
+
+        @Override
+        public void run() {
+            for (int start = from; start < to; start += BATCH_SIZE) {
+                int end = Math.min(to, start + BATCH_SIZE);
+                int selected = predicates != null ? select(start, end) : selectAll(start, end);
+                if (keyColumns.length == 0) {
+                    accumulateTotal(selected);
+                } else {
+                    computeKeys(selected);
+                    accumulateGroups(selected);
+                }
+            }
+        }
+
+        private int selectAll(int start, int end) {
+            int[] rows = selection;
+            int length = end - start;
+            for (int i = 0; i < length; i++) {
+                rows[i] = start + i;
+            }
+            return length;
+        }
+
+        private int select(int start, int end) {
+            boolean[] match = matches;
+            int length = end - start;
+            Arrays.fill(match, 0, length, true);
+
+            for (int c = 0; c < COLUMNS.length; c++) {
+                boolean[] allowed = predicates.allowed[c];
+                if (allowed != null) {
+                    int[] column = codes[c];
+                    for (int i = 0; i < length; i++) {
+                        match[i] &= allowed[column[start + i]];
+                    }
+                }
+            }
+            if (predicates.salaryFiltered) {
+                double low = predicates.minSalary;
+                double high = predicates.maxSalary;
+                double[] column = salaries;
+                for (int i = 0; i < length; i++) {
+                    double salary = column[start + i];
+                    match[i] &= salary >= low & salary <= high;
+                }
+            }
+            if (predicates.hireRange != null) {
+                matchDays(hireDays, predicates.hireRange, start, length);
+            }
+            if (predicates.birthRange != null) {
+                matchDays(birthDays, predicates.birthRange, start, length);
+            }
+
+            // Branch-free compaction: always write, advance only on a match
+            int[] rows = selection;
+            int selected = 0;
+            for (int i = 0; i < length; i++) {
+                rows[selected] = start + i;
+                selected += match[i] ? 1 : 0;
+            }
+            return selected;
+        }
+
+        private void matchDays(int[] column, int[] range, int start, int length) {
+            boolean[] match = matches;
+            int low = range[0];
+            int high = range[1];
+            for (int i = 0; i < length; i++) {
+                int day = column[start + i];
+                match[i] &= day >= low & day <= high;
+            }
+        }
+
+        // Mixed-radix group key, pre-multiplied by the accumulator stride:
+        // (code(column 0) + code(column 1) * |column 0| + ...) * ACCUMULATORS
+        private void computeKeys(int selected) {
+            int[] rows = selection;
+            int[] groupKeys = keys;
+            int[] first = keyColumns[0];
+            for (int j = 0; j < selected; j++) {
+                groupKeys[j] = first[rows[j]] * ACCUMULATORS;
+            }
+            for (int k = 1; k < keyColumns.length; k++) {
+                int[] column = keyColumns[k];
+                int stride = strides[k] * ACCUMULATORS;
+                for (int j = 0; j < selected; j++) {
+                    groupKeys[j] += column[rows[j]] * stride;
+                }
+            }
+        }
+
+        // Single group: accumulate in locals, so the loop carries no memory dependencies
+        private void accumulateTotal(int selected) {
+            double[] column = salaries;
+            int[] rows = selection;
+            double present = 0;
+            double sum = 0;
+            double squares = 0;
+            double low = accumulators[MIN];
+            double high = accumulators[MAX];
+            for (int j = 0; j < selected; j++) {
+                double salary = column[rows[j]];
+                boolean has = salary == salary;
+                double value = has ? salary : 0;
+                present += has ? 1 : 0;
+                sum += value;
+                squares += value * value;
+                low = salary < low ? salary : low;
+                high = salary > high ? salary : high;
+            }
+            accumulators[COUNT] += selected;
+            accumulators[SALARY_COUNT] += present;
+            accumulators[SUM] += sum;
+            accumulators[SUM_OF_SQUARES] += squares;
+            accumulators[MIN] = low;
+            accumulators[MAX] = high;
+        }
+
+        private void accumulateGroups(int selected) {
+            double[] column = salaries;
+            int[] rows = selection;
+            int[] groupKeys = keys;
+            double[] acc = accumulators;
+            for (int j = 0; j < selected; j++) {
+                int o = groupKeys[j];
+                double salary = column[rows[j]];
+                boolean has = salary == salary;
+                double value = has ? salary : 0;
+                acc[o + COUNT] += 1;
+                acc[o + SALARY_COUNT] += has ? 1 : 0;
+                acc[o + SUM] += value;
+                acc[o + SUM_OF_SQUARES] += value * value;
+                double low = acc[o + MIN];
+                double high = acc[o + MAX];
+                acc[o + MIN] = salary < low ? salary : low;
+                acc[o + MAX] = salary > high ? salary : high;
+            }
+        }
+
+        void merge(Scan other) {
+            double[] acc = accumulators;
+            double[] add = other.accumulators;
+            for (int o = 0; o < acc.length; o += ACCUMULATORS) {
+                acc[o + COUNT] += add[o + COUNT];
+                acc[o + SALARY_COUNT] += add[o + SALARY_COUNT];
+                acc[o + SUM] += add[o + SUM];
+                acc[o + SUM_OF_SQUARES] += add[o + SUM_OF_SQUARES];
+                acc[o + MIN] = Math.min(acc[o + MIN], add[o + MIN]);
+                acc[o + MAX] = Math.max(acc[o + MAX], add[o + MAX]);
+            }
+        }
+
+        List<GroupAggregate> result(List<Column> groupBy) {
+            List<GroupAggregate> result = new ArrayList<>();
+            double[] acc = accumulators;
+            for (int g = 0; g < acc.length / ACCUMULATORS; g++) {
+                int o = g * ACCUMULATORS;
+                if (acc[o + COUNT] == 0) {
+                    continue;
+                }
+                List<String> key = new ArrayList<>(groupBy.size());
+                for (int k = 0; k < groupBy.size(); k++) {
+                    Dictionary dictionary = dictionaries[groupBy.get(k).ordinal()];
+                    key.add(dictionary.decode(g / strides[k] % dictionary.size()));
+                }
+                boolean hasSalary = acc[o + SALARY_COUNT] > 0;
+                result.add(new GroupAggregate(key, (long) acc[o + COUNT], (long) acc[o + SALARY_COUNT], acc[o + SUM],
+                        hasSalary ? acc[o + MIN] : Double.NaN, hasSalary ? acc[o + MAX] : Double.NaN, acc[o + SUM_OF_SQUARES]));
+            }
+            return result;
+        }
+    }
+
+    private void addToSketches(int row) {
+        double salary = salaries[row];
+        if (Double.isNaN(salary)) {
+            return;
+        }
+        for (int c = 0; c < COLUMNS.length; c++) {
+            int code = codes[c][row];
+            if (code >= sketches[c].length) {
+                sketches[c] = Arrays.copyOf(sketches[c], Math.max(code + 1, sketches[c].length * 2));
+            }
+            if (sketches[c][code] == null) {
+                sketches[c][code] = new SalarySketch();
+            }
+            sketches[c][code].add(salary);
+        }
+    }
+
+    private void removeFromSketches(int row) {
+        double salary = salaries[row];
+        if (Double.isNaN(salary)) {
+            return;
+        }
+        for (int c = 0; c < COLUMNS.length; c++) {
+            sketches[c][codes[c][row]].remove(salary);
+        }
+    }
+
+    private void retainCodes(int row) {
+        for (int c = 0; c < COLUMNS.length; c++) {
+            int code = codes[c][row];
+            if (code >= references[c].length) {
+                references[c] = Arrays.copyOf(references[c], Math.max(code + 1, references[c].length * 2));
+            }
+            if (references[c][code]++ == 0) {
+                usedCodes[c]++;
+            }
+        }
+    }
+
+    private void releaseCodes(int row) {
+        for (int c = 0; c < COLUMNS.length; c++) {
+            if (--references[c][codes[c][row]] == 0) {
+                usedCodes[c]--;
+            }
+        }
+    }
+
+    private void compactSparseDictionaries() {
+        for (int c = 0; c < COLUMNS.length; c++) {
+            int unused = dictionaries[c].size() - usedCodes[c];
+            if (unused > Math.max(MIN_UNUSED_CODES, usedCodes[c])) {
+                compact(c);
+            }
+        }
+    }
+
+    // Re-encodes a column against a dictionary of its used values; counts and sketches move with their codes
+    private void compact(int c) {
+        Dictionary dictionary = dictionaries[c];
+        int[] remap = new int[dictionary.size()];
+        Dictionary compacted = dictionary.compact(references[c], remap);
+        int[] column = codes[c];
+        for (int row = 0; row < size; row++) {
+            column[row] = remap[column[row]];
+        }
+        int capacity = Math.max(INITIAL_SKETCHES, compacted.size());
+        int[] counts = new int[capacity];
+        SalarySketch[] columnSketches = new SalarySketch[capacity];
+        for (int code = 0; code < Math.min(remap.length, references[c].length); code++) {
+            if (references[c][code] > 0) {
+                counts[remap[code]] = references[c][code];
+                columnSketches[remap[code]] = code < sketches[c].length ? sketches[c][code] : null;
+            }
+        }
+        dictionaries[c] = compacted;
+        references[c] = counts;
+        sketches[c] = columnSketches;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= ids.length) {
+            return;
+        }
+        int grown = Math.max(capacity, ids.length + (ids.length >> 1));
+        ids = Arrays.copyOf(ids, grown);
+        for (int c = 0; c < codes.length; c++) {
+            codes[c] = Arrays.copyOf(codes[c], grown);
+        }
+        salaries = Arrays.copyOf(salaries, grown);
+        hireDays = Arrays.copyOf(hireDays, grown);
+        birthDays = Arrays.copyOf(birthDays, grown);
+    }
+
+    // Epoch day clamped to the int range; LocalDate.MIN/MAX stand for open range bounds
+    private static int toDay(LocalDate date) {
+        if (date == null) {
+            return NULL_DAY;
+        }
+        long day = date.toEpochDay();
+        return (int) Math.max(NULL_DAY + 1L, Math.min(Integer.MAX_VALUE, day));
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.employeemanagementsystem.analytics;
+
+import java.util.List;
+
+/**
+ * Aggregates of one group of a column store query.
+ *
+ * @param key         group values, one per group-by column (null for unset values)
+ * @param count       number of matching employees
+ * @param salaryCount number of matching employees with a salary
+ * @param salarySum   sum of salaries
+ * @param salaryMin   smallest salary, NaN if no employee has one
+ * @param salaryMax   largest salary, NaN if no employee has one
+ * @param salarySumOfSquares sum of squared salaries, for the standard deviation
+ */
+public record GroupAggregate(List<String> key, long count, long salaryCount, double salarySum,
+                             double salaryMin, double salaryMax, double salarySumOfSquares) {
+
+    /**
+     * @return the average salary, or null if no employee in the group has one
+     */
+    public Double salaryAverage() {
+        return salaryCount == 0 ? null : salarySum / salaryCount;
+    }
+
+    /**
+     * @return the population standard deviation of salaries, or null if no employee in the group has one
+     */
+    public Double salaryStandardDeviation() {
+        if (salaryCount == 0) {
+            return null;
+        }
+        double mean = salarySum / salaryCount;
+        return Math.sqrt(Math.max(0, salarySumOfSquares / salaryCount - mean * mean));
+    }
+}
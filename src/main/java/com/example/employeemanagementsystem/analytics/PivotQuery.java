@@ -0,0 +1,177 @@
+package com.example.employeemanagementsystem.analytics;
+
+import com.example.employeemanagementsystem.analytics.EmployeeColumnStore.Column;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * A pivot (cross-tab) query: up to {@link #MAX_DIMENSIONS} group-by columns, value and range
+ * filters, and a row cap. Filter values are kept sorted, so queries that differ only in parameter
+ * order or repeated values share the same {@link #shape()}, which is what results are cached by.
+ */
+public final class PivotQuery {
+
+    public static final int MAX_DIMENSIONS = 3;
+
+    // API names of the dimensions
+    private static final Map<Column, String> NAMES = new EnumMap<>(Map.of(
+            Column.DEPARTMENT, "department",
+            Column.JOB_TITLE, "jobTitle",
+            Column.GENDER, "gender"));
+
+    private final List<Column> groupBy;
+    private final int limit;
+    private final Map<Column, SortedSet<String>> values = new EnumMap<>(Column.class);
+    private Double minSalary;
+    private Double maxSalary;
+    private LocalDate hiredFrom;
+    private LocalDate hiredTo;
+    private LocalDate bornFrom;
+    private LocalDate bornTo;
+
+    /**
+     * @param groupBy group-by columns in output order (at most {@link #MAX_DIMENSIONS}, no repeats)
+     * @param limit   maximum number of rows returned
+     * @throws IllegalArgumentException if the group-by columns are invalid or the limit is not positive
+     */
+    public PivotQuery(List<Column> groupBy, int limit) {
+        if (groupBy.size() > MAX_DIMENSIONS) {
+            throw new IllegalArgumentException("At most " + MAX_DIMENSIONS + " group-by dimensions are allowed");
+        }
+        if (groupBy.stream().distinct().count() != groupBy.size()) {
+            throw new IllegalArgumentException("Group-by dimensions must not repeat");
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        this.groupBy = List.copyOf(groupBy);
+        this.limit = limit;
+    }
+
+    /**
+     * Only keep employees whose column holds one of the values; repeated calls intersect.
+     */
+    public PivotQuery where(Column column, Collection<String> allowed) {
+        SortedSet<String> sorted = new TreeSet<>(allowed);
+        values.merge(column, sorted, (current, added) -> {
+            current.retainAll(added);
+            return current;
+        });
+        return this;
+    }
+
+    public PivotQuery salaryBetween(Double min, Double max) {
+        this.minSalary = min;
+        this.maxSalary = max;
+        return this;
+    }
+
+    public PivotQuery hiredBetween(LocalDate from, LocalDate to) {
+        this.hiredFrom = from;
+        this.hiredTo = to;
+        return this;
+    }
+
+    public PivotQuery bornBetween(LocalDate from, LocalDate to) {
+        this.bornFrom = from;
+        this.bornTo = to;
+        return this;
+    }
+
+    /**
+     * @param name dimension name, e.g. {@code department}, {@code jobTitle} or {@code job-title}
+     * @return the column
+     * @throws IllegalArgumentException if no dimension has that name
+     */
+    public static Column dimension(String name) {
+        String normalized = name.trim().replace("-", "").replace("_", "");
+        for (Map.Entry<Column, String> entry : NAMES.entrySet()) {
+            if (entry.getValue().equalsIgnoreCase(normalized)) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalArgumentException("Unknown dimension '" + name + "'. Dimensions: " + NAMES.values());
+    }
+
+    /**
+     * @return the API name of the column
+     */
+    public static String dimensionName(Column column) {
+        return NAMES.get(column);
+    }
+
+    public List<Column> getGroupBy() {
+        return groupBy;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * @return the column store filter for this query
+     */
+    public ColumnFilter toFilter() {
+        ColumnFilter filter = ColumnFilter.all();
+        values.forEach(filter::whereIn);
+        if (minSalary != null || maxSalary != null) {
+            filter.salaryBetween(minSalary, maxSalary);
+        }
+        if (hiredFrom != null || hiredTo != null) {
+            filter.hiredBetween(hiredFrom, hiredTo);
+        }
+        if (bornFrom != null || bornTo != null) {
+            filter.bornBetween(bornFrom, bornTo);
+        }
+        return filter;
+    }
+
+    /**
+     * Canonical, immutable form of a query. Equality is structural, so filter values containing
+     * separators or brackets cannot make two different queries collide.
+     */
+    public record Shape(List<Column> groupBy, Map<Column, List<String>> values, Double minSalary, Double maxSalary,
+                        LocalDate hiredFrom, LocalDate hiredTo, LocalDate bornFrom, LocalDate bornTo, int limit) {
+
+        // For logs only; not unambiguous
+        @Override
+        public String toString() {
+            StringBuilder shape = new StringBuilder("by=").append(groupBy);
+            // Copied into an EnumMap, which cannot be built from an empty map of another type, for the column order
+            Map<Column, List<String>> sortedValues = new EnumMap<>(Column.class);
+            sortedValues.putAll(values);
+            sortedValues.forEach((column, allowed) -> shape.append(';').append(column).append('=').append(allowed));
+            if (minSalary != null || maxSalary != null) {
+                shape.append(";salary=").append(minSalary).append("..").append(maxSalary);
+            }
+            if (hiredFrom != null || hiredTo != null) {
+                shape.append(";hired=").append(hiredFrom).append("..").append(hiredTo);
+            }
+            if (bornFrom != null || bornTo != null) {
+                shape.append(";born=").append(bornFrom).append("..").append(bornTo);
+            }
+            return shape.append(";limit=").append(limit).toString();
+        }
+    }
+
+    /**
+     * @return the canonical form of the query, equal for equivalent queries
+     */
+    public Shape shape() {
+        Map<Column, List<String>> sortedValues = new EnumMap<>(Column.class);
+        values.forEach((column, allowed) -> sortedValues.put(column, List.copyOf(allowed)));
+        return new Shape(groupBy, Map.copyOf(sortedValues), minSalary, maxSalary, hiredFrom, hiredTo, bornFrom, bornTo,
+                limit);
+    }
+
+    @Override
+    public String toString() {
+        return "PivotQuery [" + shape() + "]";
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.employeemanagementsystem.analytics;
+
+import java.util.Arrays;
+
+/**
+ * Mergeable quantile sketch of salaries with a relative-error guarantee: every quantile it
+ * returns is within {@link #RELATIVE_ACCURACY} of a salary of that rank. Values are counted in
+ * logarithmic buckets {@code (gamma^(i-1), gamma^i]}, so the size depends on the spread of the
+ * salaries (a few hundred buckets from 1 to 10^7), not on how many there are. Because a sketch is
+ * just bucket counts, two sketches merge exactly by adding counts, and a value can be removed
+ * again, which keeps the sketch correct under updates and deletes.
+ * Values below 1 are counted as 0. Not thread-safe (guarded by the owning store).
+ */
+public final class SalarySketch {
+
+    public static final double RELATIVE_ACCURACY = 0.01;
+
+    // Smallest value with its own bucket; anything below is counted in the zero bucket
+    private static final double MIN_INDEXABLE = 1.0;
+
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+
+    private static final long[] EMPTY = new long[0];
+
+    // counts[j] holds bucket index offset + j
+    private long[] counts = EMPTY;
+    private int offset;
+    private long zeroCount;
+    private long count;
+
+    public SalarySketch() {
+    }
+
+    private SalarySketch(SalarySketch other) {
+        counts = other.counts.clone();
+        offset = other.offset;
+        zeroCount = other.zeroCount;
+        count = other.count;
+    }
+
+    /**
+     * @return an independent copy of this sketch
+     */
+    public SalarySketch copy() {
+        return new SalarySketch(this);
+    }
+
+    public void add(double value) {
+        if (value < MIN_INDEXABLE) {
+            zeroCount++;
+        } else {
+            int index = index(value);
+            ensureBucket(index);
+            counts[index - offset]++;
+        }
+        count++;
+    }
+
+    /**
+     * Remove a value previously added.
+     *
+     * @throws IllegalStateException if the value's bucket is empty
+     */
+    public void remove(double value) {
+        if (value < MIN_INDEXABLE) {
+            if (zeroCount == 0) {
+                throw new IllegalStateException("Salary " + value + " is not in the sketch");
+            }
+            zeroCount--;
+        } else {
+            int index = index(value);
+            int j = index - offset;
+            if (j < 0 || j >= counts.length || counts[j] == 0) {
+                throw new IllegalStateException("Salary " + value + " is not in the sketch");
+            }
+            counts[j]--;
+        }
+        count--;
+    }
+
+    /**
+     * Add all values of another sketch to this one.
+     */
+    public void merge(SalarySketch other) {
+        if (other.counts.length > 0) {
+            ensureBucket(other.offset);
+            ensureBucket(other.offset + other.counts.length - 1);
+            for (int j = 0; j < other.counts.length; j++) {
+                counts[other.offset + j - offset] += other.counts[j];
+            }
+        }
+        zeroCount += other.zeroCount;
+        count += other.count;
+    }
+
+    /**
+     * @return number of values in the sketch
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @param quantile between 0 and 1, e.g. 0.9 for the 90th percentile
+     * @return the estimated value at that quantile, or null if the sketch is empty
+     */
+    public Double quantile(double quantile) {
+        if (quantile < 0 || quantile > 1) {
+            throw new IllegalArgumentException("Quantile must be between 0 and 1");
+        }
+        if (count == 0) {
+            return null;
+        }
+        // 0-based rank of the value, as for the nearest-rank percentile
+        long rank = (long) Math.floor(quantile * (count - 1));
+        long seen = zeroCount;
+        if (rank < seen) {
+            return 0.0;
+        }
+        for (int j = 0; j < counts.length; j++) {
+            seen += counts[j];
+            if (rank < seen) {
+                return value(offset + j);
+            }
+        }
+        return value(offset + counts.length - 1);
+    }
+
+    /**
+     * Count the values into equal-width bins spanning {@code [lower, upper]}; values outside the
+     * span are counted in the first or last bin.
+     *
+     * @return the count of each bin
+     */
+    public long[] histogram(double lower, double upper, int bins) {
+        long[] histogram = new long[bins];
+        double width = (upper - lower) / bins;
+        histogram[bin(0, lower, width, bins)] += zeroCount;
+        for (int j = 0; j < counts.length; j++) {
+            if (counts[j] > 0) {
+                histogram[bin(value(offset + j), lower, width, bins)] += counts[j];
+            }
+        }
+        return histogram;
+    }
+
+    private static int bin(double value, double lower, double width, int bins) {
+        if (!(width > 0)) {
+            return 0;
+        }
+        return (int) Math.max(0, Math.min(bins - 1, Math.floor((value - lower) / width)));
+    }
+
+    private static int index(double value) {
+        return (int) Math.ceil(Math.log(value) / LOG_GAMMA);
+    }
+
+    // Midpoint of the bucket in relative terms, within RELATIVE_ACCURACY of every value in it
+    private static double value(int index) {
+        return 2 * Math.pow(GAMMA, index) / (GAMMA + 1);
+    }
+
+    private void ensureBucket(int index) {
+        if (counts.length == 0) {
+            counts = new long[16];
+            offset = index;
+        } else if (index < offset) {
+            int shift = Math.max(offset - index, counts.length / 2);
+            long[] grown = new long[counts.length + shift];
+            System.arraycopy(counts, 0, grown, shift, counts.length);
+            counts = grown;
+            offset -= shift;
+        } else if (index - offset >= counts.length) {
+            counts = Arrays.copyOf(counts, Math.max(index - offset + 1, counts.length + counts.length / 2));
+        }
+    }
+}
@@ -0,0 +1,539 @@
+package com.example.employeemanagementsystem.audit;
+
+import com.example.employeemanagementsystem.entity.OutboxEvent;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only journal of {@link AuditRecord}s in fixed-size segment files, each memory-mapped in
+ * full. A writer reserves its slot in the active segment with one atomic add and copies the
+ * record into it, so appends take no lock and never wait for the disk. A background thread
+ * forces the written segments to disk every sync interval, one fsync for all records appended
+ * since the last (group commit), and then completes their futures.
+ * <p>
+ * A record is its size, a CRC-32C and the payload. The size is written last, so a reader that
+ * finds a size finds the whole record, and a zero size marks the end of what has been written.
+ * A record that fails its checksum, e.g. one torn by a crash, ends its segment. The journal
+ * never appends to a segment of an earlier run or of another instance sharing the directory: at
+ * its first append it starts one numbered after the newest in the directory, or after that if
+ * another instance takes the number first. Queries rescan the directory, so they also read the
+ * segments other instances started since.
+ * <p>
+ * Readers keep a sparse index of each segment: one entry per {@value #INDEX_INTERVAL} records,
+ * with their offset, their time range and a small filter of their employee IDs. A query skips
+ * whole segments and blocks outside its time range or without the employee. Segments are
+ * deleted whole, once every record in them is past the retention period.
+ */
+public final class AuditJournal implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditJournal.class);
+
+    private static final String SUFFIX = ".audit";
+
+    // Record header: size, including the header and padding to ALIGNMENT, then the CRC-32C of the rest
+    private static final int HEADER_SIZE = 8;
+    private static final int ALIGNMENT = 8;
+    private static final byte[] PADDING = new byte[ALIGNMENT];
+
+    // Payload: timestamp and employee ID (all a scan reads), change type, field count, actor, then the fields
+    private static final int SCAN_SIZE = 16;
+
+    /**
+     * Records per sparse index entry.
+     */
+    static final int INDEX_INTERVAL = 32;
+
+    // Published with release semantics, read with acquire; record offsets are aligned for it
+    private static final VarHandle SIZE = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+
+    // Stored by ordinal: new change types must be added at the end
+    private static final OutboxEvent.ChangeType[] CHANGE_TYPES = OutboxEvent.ChangeType.values();
+
+    private final Path directory;
+    private final int segmentSize;
+    private final ConcurrentNavigableMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+    private final Queue<Pending> pending = new ConcurrentLinkedQueue<>();
+    private final ScheduledExecutorService syncer;
+
+    // The segment this journal appends to; null until the first append
+    private volatile Segment active;
+    private volatile boolean closed;
+
+    // An appended record waiting for the next group commit
+    private record Pending(Segment segment, CompletableFuture<Void> durable) {
+    }
+
+    private AuditJournal(Path directory, int segmentSize) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.syncer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "audit-journal-sync");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Open the journal in a directory, creating it if needed. The first append starts a new segment.
+     *
+     * @param directory      directory of the segment files
+     * @param segmentSize    size of new segments in bytes, which also limits the size of one record
+     * @param syncIntervalMs time between group commits
+     * @return the journal
+     * @throws IOException if the directory cannot be created or read
+     */
+    public static AuditJournal open(Path directory, int segmentSize, long syncIntervalMs) throws IOException {
+        Files.createDirectories(directory);
+        AuditJournal journal = new AuditJournal(directory, segmentSize);
+        journal.rescan();
+        journal.syncer.scheduleWithFixedDelay(journal::sync, syncIntervalMs, syncIntervalMs, TimeUnit.MILLISECONDS);
+        logger.info("Opened the audit journal in {} with {} earlier segments", directory, journal.segments.size());
+        return journal;
+    }
+
+    /**
+     * Append a record. It is visible to queries on return, and durable once the future completes.
+     *
+     * @param record the record
+     * @return completes at the group commit that makes the record durable, or exceptionally if that fails
+     * @throws IllegalArgumentException if the record is larger than a segment
+     * @throws IllegalStateException    if the journal is closed
+     * @throws UncheckedIOException     if a new segment is needed and cannot be created
+     */
+    public CompletableFuture<Void> append(AuditRecord record) {
+        byte[] payload = encode(record);
+        int size = HEADER_SIZE + payload.length;
+        size += (ALIGNMENT - size % ALIGNMENT) % ALIGNMENT;
+        if (size > segmentSize) {
+            throw new IllegalArgumentException("Audit record of " + size + " bytes exceeds the segment size");
+        }
+        while (true) {
+            if (closed) {
+                throw new IllegalStateException("Audit journal is closed");
+            }
+            Segment segment = active;
+            if (segment == null) {
+                roll(null);
+                continue;
+            }
+            long offset = segment.reserved.getAndAdd(size);
+            if (offset + size <= segment.capacity) {
+                segment.write((int) offset, size, payload);
+                CompletableFuture<Void> durable = new CompletableFuture<>();
+                pending.add(new Pending(segment, durable));
+                return durable;
+            }
+            // The segment is full; the first writer to notice starts the next one
+            roll(segment);
+        }
+    }
+
+    /**
+     * Force the records appended so far to disk and complete their futures. Runs every sync interval.
+     */
+    public void sync() {
+        List<Pending> batch = new ArrayList<>();
+        for (Pending next = pending.poll(); next != null; next = pending.poll()) {
+            batch.add(next);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        Set<Segment> written = new LinkedHashSet<>();
+        batch.forEach(next -> written.add(next.segment()));
+        try {
+            for (Segment segment : written) {
+                segment.buffer.force();
+            }
+        } catch (UncheckedIOException e) {
+            logger.error("Could not sync {} audit records to disk", batch.size(), e);
+            batch.forEach(next -> next.durable().completeExceptionally(e));
+            return;
+        }
+        batch.forEach(next -> next.durable().complete(null));
+    }
+
+    /**
+     * Find records, oldest first.
+     *
+     * @param employeeId only records of this employee, or null for all
+     * @param from       only records at or after this time, or null for no lower bound
+     * @param to         only records before this time, or null for no upper bound
+     * @param limit      maximum number of records
+     * @return the matching records in journal order
+     */
+    public List<AuditRecord> query(Long employeeId, Instant from, Instant to, int limit) {
+        long fromMillis = from != null ? from.toEpochMilli() : Long.MIN_VALUE;
+        long toMillis = to != null ? to.toEpochMilli() : Long.MAX_VALUE;
+        List<AuditRecord> result = new ArrayList<>();
+        try {
+            rescan();
+        } catch (IOException e) {
+            logger.warn("Could not rescan the audit journal in {}; querying the segments already known", directory, e);
+        }
+        for (Segment segment : segments.values()) {
+            if (segment.scan(employeeId, fromMillis, toMillis, limit, result)) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Delete the segments whose records are all older than a cutoff. The active segment is kept,
+     * and so is the newest in the directory, which another instance may be appending to.
+     *
+     * @param cutoff the oldest time to keep
+     * @return number of segments deleted
+     */
+    public int deleteSegmentsBefore(Instant cutoff) {
+        try {
+            rescan();
+        } catch (IOException e) {
+            logger.warn("Could not rescan the audit journal in {}", directory, e);
+        }
+        if (segments.isEmpty()) {
+            return 0;
+        }
+        Segment current = active;
+        int deleted = 0;
+        for (Segment segment : segments.headMap(segments.lastKey(), false).values()) {
+            if (segment == current || !segment.endsBefore(cutoff.toEpochMilli())) {
+                continue;
+            }
+            // Queries still scanning it keep their mapping until it is garbage collected
+            segments.remove(segment.number);
+            try {
+                Files.deleteIfExists(segment.path);
+                deleted++;
+            } catch (IOException e) {
+                logger.warn("Could not delete audit journal segment {}", segment.path, e);
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * @return number of segments, including the active one, as of the last rescan
+     */
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Stop appending and sync the records appended so far.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        syncer.shutdown();
+        try {
+            syncer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        sync();
+    }
+
+    // Start appending to a new segment, unless another writer already replaced the full one (null at the first append)
+    private void roll(Segment full) {
+        synchronized (this) {
+            if (active != full || closed) {
+                return;
+            }
+            try {
+                active = createSegment();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not create an audit journal segment in " + directory, e);
+            }
+        }
+        if (full != null) {
+            // Records reserved before the roll are still being written; the next group commit forces them
+            logger.info("Audit journal segment {} is full", full.path);
+        }
+    }
+
+    // Create the segment after the newest in the directory; the first instance to create a number owns it
+    private Segment createSegment() throws IOException {
+        rescan();
+        long number = segments.isEmpty() ? 1 : segments.lastKey() + 1;
+        while (true) {
+            Path path = directory.resolve(String.format("%020d", number) + SUFFIX);
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                Segment segment = new Segment(number, path, channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize), 0);
+                segments.put(number, segment);
+                return segment;
+            } catch (FileAlreadyExistsException e) {
+                number++;
+            }
+        }
+    }
+
+    // Read the segments started since the last rescan, by this or other instances, and forget those deleted
+    private synchronized void rescan() throws IOException {
+        Set<Long> found = new HashSet<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                long number;
+                try {
+                    number = Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+                } catch (NumberFormatException e) {
+                    continue;
+                }
+                found.add(number);
+                if (segments.containsKey(number)) {
+                    continue;
+                }
+                try {
+                    Segment segment = Segment.open(number, file);
+                    // A segment another instance has created but not yet sized is read at a later rescan
+                    if (segment.capacity > 0) {
+                        segments.putIfAbsent(number, segment);
+                    }
+                } catch (NoSuchFileException e) {
+                    found.remove(number);
+                }
+            }
+        }
+        Segment current = active;
+        segments.keySet().removeIf(number -> !found.contains(number) && (current == null || number != current.number));
+    }
+
+    static byte[] encode(AuditRecord record) {
+        List<byte[]> strings = new ArrayList<>();
+        strings.add(utf8(record.actor()));
+        for (AuditRecord.FieldChange change : record.changes()) {
+            strings.add(utf8(change.field()));
+            strings.add(utf8(change.before()));
+            strings.add(utf8(change.after()));
+        }
+        int size = SCAN_SIZE + 1 + Integer.BYTES;
+        for (byte[] string : strings) {
+            size += Integer.BYTES + (string != null ? string.length : 0);
+        }
+        ByteBuffer out = ByteBuffer.allocate(size);
+        out.putLong(record.timestamp().toEpochMilli()).putLong(record.employeeId())
+                .put((byte) record.changeType().ordinal()).putInt(record.changes().size());
+        for (byte[] string : strings) {
+            if (string == null) {
+                out.putInt(-1);
+            } else {
+                out.putInt(string.length).put(string);
+            }
+        }
+        return out.array();
+    }
+
+    private static byte[] utf8(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    private static String string(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static final class Segment {
+
+        final long number;
+        final Path path;
+        final MappedByteBuffer buffer;
+        final int capacity;
+
+        // Next free offset for writers; past the capacity once the segment is full
+        final AtomicLong reserved;
+
+        // Sparse index, extended up to the first record not yet completely written; guarded by this
+        private final List<Block> blocks = new ArrayList<>();
+        private int indexed;
+        private boolean damaged;
+        private long minTimestamp = Long.MAX_VALUE;
+        private long maxTimestamp = Long.MIN_VALUE;
+
+        Segment(long number, Path path, MappedByteBuffer buffer, long reserved) {
+            this.number = number;
+            this.path = path;
+            this.buffer = buffer;
+            this.capacity = buffer.capacity();
+            this.reserved = new AtomicLong(reserved);
+        }
+
+        // A segment of an earlier run, read only
+        static Segment open(long number, Path path) throws IOException {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                long size = Math.min(channel.size(), Integer.MAX_VALUE);
+                return new Segment(number, path, channel.map(FileChannel.MapMode.READ_ONLY, 0, size), size);
+            }
+        }
+
+        void write(int offset, int size, byte[] payload) {
+            buffer.put(offset + HEADER_SIZE, payload);
+            CRC32C crc = new CRC32C();
+            crc.update(payload);
+            crc.update(PADDING, 0, size - HEADER_SIZE - payload.length);
+            buffer.putInt(offset + Integer.BYTES, (int) crc.getValue());
+            SIZE.setRelease(buffer, offset, size);
+        }
+
+        // Index the records completed since the last call
+        private void catchUp() {
+            while (!damaged && indexed + HEADER_SIZE <= capacity) {
+                int size = (int) SIZE.getAcquire(buffer, indexed);
+                if (size == 0) {
+                    // Not written yet, or the unused end of a full segment
+                    return;
+                }
+                if (size < HEADER_SIZE + SCAN_SIZE || size % ALIGNMENT != 0 || size > capacity - indexed
+                        || !checksumMatches(indexed, size)) {
+                    logger.warn("Damaged audit record at offset {} of {}; ignoring the rest of the segment", indexed, path);
+                    damaged = true;
+                    return;
+                }
+                long timestamp = buffer.getLong(indexed + HEADER_SIZE);
+                Block block = blocks.isEmpty() ? null : blocks.get(blocks.size() - 1);
+                if (block == null || block.count == INDEX_INTERVAL) {
+                    block = new Block(indexed);
+                    blocks.add(block);
+                }
+                block.add(timestamp, buffer.getLong(indexed + HEADER_SIZE + 8), indexed + size);
+                minTimestamp = Math.min(minTimestamp, timestamp);
+                maxTimestamp = Math.max(maxTimestamp, timestamp);
+                indexed += size;
+            }
+        }
+
+        private boolean checksumMatches(int offset, int size) {
+            CRC32C crc = new CRC32C();
+            crc.update(buffer.slice(offset + HEADER_SIZE, size - HEADER_SIZE));
+            return (int) crc.getValue() == buffer.getInt(offset + Integer.BYTES);
+        }
+
+        // Adds the matching records to the result; returns true once it holds the limit
+        synchronized boolean scan(Long employeeId, long from, long to, int limit, List<AuditRecord> result) {
+            catchUp();
+            if (maxTimestamp < from || minTimestamp >= to) {
+                return false;
+            }
+            for (Block block : blocks) {
+                if (block.maxTimestamp < from || block.minTimestamp >= to
+                        || employeeId != null && !block.mightContain(employeeId)) {
+                    continue;
+                }
+                for (int offset = block.offset; offset < block.end; offset += buffer.getInt(offset)) {
+                    long timestamp = buffer.getLong(offset + HEADER_SIZE);
+                    if (timestamp < from || timestamp >= to
+                            || employeeId != null && buffer.getLong(offset + HEADER_SIZE + 8) != employeeId) {
+                        continue;
+                    }
+                    result.add(decode(offset));
+                    if (result.size() >= limit) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        synchronized boolean endsBefore(long cutoff) {
+            catchUp();
+            return maxTimestamp < cutoff;
+        }
+
+        private AuditRecord decode(int offset) {
+            ByteBuffer in = buffer.slice(offset + HEADER_SIZE, buffer.getInt(offset) - HEADER_SIZE);
+            Instant timestamp = Instant.ofEpochMilli(in.getLong());
+            long employeeId = in.getLong();
+            OutboxEvent.ChangeType changeType = CHANGE_TYPES[in.get()];
+            int fields = in.getInt();
+            String actor = string(in);
+            List<AuditRecord.FieldChange> changes = new ArrayList<>(fields);
+            for (int i = 0; i < fields; i++) {
+                changes.add(new AuditRecord.FieldChange(string(in), string(in), string(in)));
+            }
+            return new AuditRecord(timestamp, employeeId, changeType, actor, changes);
+        }
+    }
+
+    // Sparse index entry: up to INDEX_INTERVAL consecutive records
+    private static final class Block {
+
+        // Bits of the employee ID filter; with two bits per record, about 5% of blocks match an absent ID
+        private static final int FILTER_BITS = 256;
+
+        final int offset;
+        int end;
+        int count;
+        long minTimestamp = Long.MAX_VALUE;
+        long maxTimestamp = Long.MIN_VALUE;
+        private final long[] filter = new long[FILTER_BITS / Long.SIZE];
+
+        Block(int offset) {
+            this.offset = offset;
+            this.end = offset;
+        }
+
+        void add(long timestamp, long employeeId, int recordEnd) {
+            long hash = employeeId * 0x9E3779B97F4A7C15L;
+            setBit((int) (hash >>> 56));
+            setBit((int) (hash >>> 48) & (FILTER_BITS - 1));
+            minTimestamp = Math.min(minTimestamp, timestamp);
+            maxTimestamp = Math.max(maxTimestamp, timestamp);
+            end = recordEnd;
+            count++;
+        }
+
+        boolean mightContain(long employeeId) {
+            long hash = employeeId * 0x9E3779B97F4A7C15L;
+            return hasBit((int) (hash >>> 56)) && hasBit((int) (hash >>> 48) & (FILTER_BITS - 1));
+        }
+
+        private void setBit(int bit) {
+            filter[bit >>> 6] |= 1L << bit;
+        }
+
+        private boolean hasBit(int bit) {
+            return (filter[bit >>> 6] & 1L << bit) != 0;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.employeemanagementsystem.audit;
+
+import com.example.employeemanagementsystem.entity.OutboxEvent;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * One audited change to an employee, as kept in the {@link AuditJournal}.
+ *
+ * @param timestamp  when the change was made, to the millisecond
+ * @param employeeId the changed employee
+ * @param changeType insert, update or delete
+ * @param actor      username of who made the change, or "system"
+ * @param changes    the changed fields with their values before and after
+ */
+public record AuditRecord(Instant timestamp, long employeeId, OutboxEvent.ChangeType changeType, String actor,
+                          List<FieldChange> changes) {
+
+    /**
+     * A changed field; values are null where the field was unset, and before is null for
+     * partial updates, which do not read the values they replace.
+     *
+     * @param field  attribute name
+     * @param before value before the change
+     * @param after  value after the change
+     */
+    public record FieldChange(String field, String before, String after) {
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.employeemanagementsystem.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Binary content negotiation.
+ * Registers CBOR and Smile message converters built from the same Jackson configuration as JSON,
+ * so {@code Accept: application/cbor} or {@code application/x-jackson-smile} returns the same
+ * data model, including error bodies from the GlobalExceptionHandler.
+ */
+@Configuration
+public class ContentNegotiationConfig {
+
+    // Jackson2ObjectMapperBuilder is a prototype bean carrying Spring Boot's Jackson customizations
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
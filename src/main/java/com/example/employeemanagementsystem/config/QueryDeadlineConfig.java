@@ -0,0 +1,48 @@
+package com.example.employeemanagementsystem.config;
+
+import com.example.employeemanagementsystem.datasource.QueryTimeoutDataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+
+/**
+ * Request deadlines for database work. The {@link com.example.employeemanagementsystem.web.QueryDeadlineInterceptor}
+ * binds each API request's deadline to its thread, and the datasource is wrapped in a
+ * {@link QueryTimeoutDataSource} that turns the deadline into JDBC query timeouts.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.deadline.enabled", havingValue = "true", matchIfMissing = true)
+public class QueryDeadlineConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryDeadlineConfig.class);
+
+    // Runs after replica routing and before the JDBC concurrency governor, which must remain the outermost wrapper
+    @Bean
+    public static BeanPostProcessor queryTimeoutPostProcessor() {
+        return new QueryTimeoutPostProcessor();
+    }
+
+    private static class QueryTimeoutPostProcessor implements BeanPostProcessor, Ordered {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof DataSource dataSource && !(bean instanceof QueryTimeoutDataSource)) {
+                logger.info("Applying request deadlines to the queries of datasource '{}'", beanName);
+                return new QueryTimeoutDataSource(dataSource);
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE;
+        }
+    }
+}
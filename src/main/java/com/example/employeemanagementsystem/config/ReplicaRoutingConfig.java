@@ -0,0 +1,163 @@
+package com.example.employeemanagementsystem.config;
+
+import com.example.employeemanagementsystem.datasource.ReadYourWritesTracker;
+import com.example.employeemanagementsystem.datasource.ReplicaRoutingDataSource;
+import com.example.employeemanagementsystem.datasource.WriteTrackingDataSource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Read/write splitting, enabled by listing replicas in {@code app.datasource.replicas.urls}.
+ * The primary datasource is wrapped in a {@link LazyConnectionDataSourceProxy}, which defers
+ * fetching a physical connection until the first statement; by then a
+ * {@code @Transactional(readOnly = true)} method has marked the connection read-only,
+ * and the proxy takes it from the {@link ReplicaRoutingDataSource} instead of the primary.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replicas.urls")
+public class ReplicaRoutingConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingConfig.class);
+
+    // Runs before the concurrency governor, so the governor limits primary and replica connections together
+    @Bean
+    public static ReplicaRoutingPostProcessor replicaRoutingPostProcessor(Environment environment) {
+        return new ReplicaRoutingPostProcessor(environment);
+    }
+
+    // Publishes replica health and how often reads had to go to the primary
+    @Bean
+    public MeterBinder replicaRoutingMetrics(ReplicaRoutingPostProcessor postProcessor) {
+        return registry -> {
+            ReplicaRoutingDataSource router = postProcessor.getRouter();
+            if (router == null) {
+                return;
+            }
+            Gauge.builder("app.datasource.replicas.healthy", router, ReplicaRoutingDataSource::getHealthyReplicaCount)
+                    .description("Replicas currently accepting read-only connections")
+                    .register(registry);
+            Gauge.builder("app.datasource.replicas.configured", router, ReplicaRoutingDataSource::getReplicaCount)
+                    .description("Configured replicas")
+                    .register(registry);
+            FunctionCounter.builder("app.datasource.replicas.primary.reads", router, ReplicaRoutingDataSource::getPrimaryFallbacks)
+                    .tag("reason", "fallback")
+                    .description("Read-only connections served by the primary")
+                    .register(registry);
+            FunctionCounter.builder("app.datasource.replicas.primary.reads", router, ReplicaRoutingDataSource::getStickyReads)
+                    .tag("reason", "read-your-writes")
+                    .description("Read-only connections served by the primary")
+                    .register(registry);
+        };
+    }
+
+    /**
+     * Wraps Boot's primary datasource in the read/write router and closes the replica pools on shutdown.
+     */
+    public static class ReplicaRoutingPostProcessor implements BeanPostProcessor, Ordered, DisposableBean {
+
+        private final Environment environment;
+        private ReplicaRoutingDataSource router;
+
+        public ReplicaRoutingPostProcessor(Environment environment) {
+            this.environment = environment;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!"dataSource".equals(beanName) || !(bean instanceof DataSource primary) || router != null) {
+                return bean;
+            }
+
+            ReadYourWritesTracker tracker = new ReadYourWritesTracker(
+                    environment.getProperty("app.datasource.routing.sticky-window-ms", Long.class, 2_000L));
+            ReplicaRoutingDataSource.Strategy strategy = ReplicaRoutingDataSource.Strategy.valueOf(
+                    environment.getProperty("app.datasource.routing.strategy", "round-robin")
+                            .toUpperCase(Locale.ROOT).replace('-', '_'));
+            long retryMillis = environment.getProperty("app.datasource.routing.replica-retry-ms", Long.class, 5_000L);
+
+            List<DataSource> replicas = createReplicas();
+            router = new ReplicaRoutingDataSource(primary, replicas, strategy, retryMillis,
+                    tracker, ReplicaRoutingPostProcessor::currentPrincipal);
+            logger.info("Routing read-only transactions to {} replica(s) ({})", replicas.size(), strategy);
+
+            LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(
+                    new WriteTrackingDataSource(primary, tracker, ReplicaRoutingPostProcessor::currentPrincipal));
+            proxy.setReadOnlyDataSource(router);
+            return proxy;
+        }
+
+        // One pool per replica URL, sharing the primary's credentials unless overridden
+        private List<DataSource> createReplicas() {
+            String[] urls = environment.getProperty("app.datasource.replicas.urls", String[].class, new String[0]);
+            String username = environment.getProperty("app.datasource.replicas.username",
+                    environment.getProperty("spring.datasource.username"));
+            String password = environment.getProperty("app.datasource.replicas.password",
+                    environment.getProperty("spring.datasource.password"));
+            String driver = environment.getProperty("app.datasource.replicas.driver-class-name",
+                    environment.getProperty("spring.datasource.driver-class-name"));
+            int poolSize = environment.getProperty("app.datasource.replicas.maximum-pool-size", Integer.class, 10);
+
+            List<DataSource> replicas = new ArrayList<>(urls.length);
+            for (int i = 0; i < urls.length; i++) {
+                HikariDataSource replica = DataSourceBuilder.create()
+                        .type(HikariDataSource.class)
+                        .url(urls[i].trim())
+                        .username(username)
+                        .password(password)
+                        .driverClassName(driver)
+                        .build();
+                replica.setPoolName("replica-" + i);
+                replica.setMaximumPoolSize(poolSize);
+                replica.setReadOnly(true);
+                // Let the pool start even if the replica is down; the router falls back to the primary
+                replica.setInitializationFailTimeout(-1);
+                replicas.add(replica);
+            }
+            return replicas;
+        }
+
+        private static String currentPrincipal() {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            return authentication != null ? authentication.getName() : null;
+        }
+
+        ReplicaRoutingDataSource getRouter() {
+            return router;
+        }
+
+        // Before the query deadline wrapper, so it also covers connections to the replicas
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE - 1;
+        }
+
+        @Override
+        public void destroy() throws Exception {
+            if (router != null) {
+                router.close();
+            }
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.employeemanagementsystem.config;
 
+import com.example.employeemanagementsystem.security.EmployeePrincipal;
 import com.example.employeemanagementsystem.service.CustomUserDetailsService;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -47,11 +48,16 @@ public class SecurityConfig {
                 // Allow employees and managers to view their own profile
                 .requestMatchers(HttpMethod.GET, "/employees/profile").hasAnyRole("EMPLOYEE", "MANAGER")
 
-                // Custom access logic for fetching employee by ID
-                .requestMatchers(HttpMethod.GET, "/employees/{id}").access((authentication, context) -> {
+                // Custom access logic for fetching employee by ID (numeric, so /profile and the like do not match)
+                .requestMatchers(HttpMethod.GET, "/api/employees/{id:\\d+}").access((authentication, context) -> {
                     String username = authentication.get().getName();
                     Long requestedId = Long.parseLong(context.getVariables().get("id"));
 
+                    // Decide in memory; an employee's own ID is loaded once, on their first such check
+                    if (authentication.get().getPrincipal() instanceof EmployeePrincipal principal) {
+                        return new AuthorizationDecision(principal.canAccessEmployee(requestedId));
+                    }
+
                     // Allow access if user is ADMIN or MANAGER
                     if (authentication.get().getAuthorities().stream().anyMatch(roleAuth ->
                         roleAuth.getAuthority().equals("ROLE_ADMIN") || roleAuth.getAuthority().equals("ROLE_MANAGER"))) {
@@ -66,6 +72,7 @@ public class SecurityConfig {
                 // ADMIN: Full access to manage employees and users
                 .requestMatchers(HttpMethod.POST, "/employees/addEmployee").hasRole("ADMIN")
                 .requestMatchers(HttpMethod.PUT, "/employees/**").hasRole("ADMIN")
+                .requestMatchers(HttpMethod.PATCH, "/api/employees/**").hasRole("ADMIN")
                 .requestMatchers(HttpMethod.DELETE, "/employees/**").hasRole("ADMIN")
                 .requestMatchers(HttpMethod.POST, "/auth/signup").hasRole("ADMIN")
 
@@ -74,6 +81,10 @@ public class SecurityConfig {
                 .requestMatchers(HttpMethod.GET, "/employees/**").hasAnyRole("MANAGER", "ADMIN")
                 .requestMatchers(HttpMethod.GET, "/reports/**").hasAnyRole("MANAGER", "ADMIN")
                 .requestMatchers(HttpMethod.POST, "/employees/search").hasAnyRole("ADMIN", "MANAGER")
+                .requestMatchers(HttpMethod.GET, "/api/dashboard").hasAnyRole("MANAGER", "ADMIN")
+
+                // ADMIN: Startup timeline
+                .requestMatchers("/actuator/startup").hasRole("ADMIN")
 
                 // Allow login and signup endpoint access to everyone
                 .requestMatchers(HttpMethod.GET, "/auth/login", "/auth/signup").permitAll()
@@ -0,0 +1,74 @@
+package com.example.employeemanagementsystem.config;
+
+import com.example.employeemanagementsystem.sharding.ShardedEmployeeStore;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Department sharding, enabled by listing shard databases in {@code app.sharding.shard-urls}.
+ * Each URL gets its own connection pool; the order of the URLs decides which shard holds which
+ * department, so shards may only be appended after the shard tables have been rebuilt.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.sharding.shard-urls")
+public class ShardingConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardingConfig.class);
+
+    // Not a DataSource bean, so the shard pools are neither the JPA datasource nor wrapped by the governor
+    @Bean(destroyMethod = "close")
+    public ShardedEmployeeStore shardedEmployeeStore(Environment environment) {
+        String[] urls = environment.getProperty("app.sharding.shard-urls", String[].class, new String[0]);
+        String username = environment.getProperty("app.sharding.username",
+                environment.getProperty("spring.datasource.username"));
+        String password = environment.getProperty("app.sharding.password",
+                environment.getProperty("spring.datasource.password"));
+        String driver = environment.getProperty("app.sharding.driver-class-name",
+                environment.getProperty("spring.datasource.driver-class-name"));
+        int poolSize = environment.getProperty("app.sharding.maximum-pool-size", Integer.class, 10);
+
+        List<DataSource> shards = new ArrayList<>(urls.length);
+        for (int i = 0; i < urls.length; i++) {
+            HikariDataSource shard = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(urls[i].trim())
+                    .username(username)
+                    .password(password)
+                    .driverClassName(driver)
+                    .build();
+            shard.setPoolName("shard-" + i);
+            shard.setMaximumPoolSize(poolSize);
+            shards.add(shard);
+        }
+        logger.info("Sharding employees by department across {} databases", shards.size());
+        return new ShardedEmployeeStore(shards);
+    }
+
+    // Publishes the number of employees per shard, to spot departments that unbalance the shards
+    @Bean
+    public MeterBinder shardingMetrics(ShardedEmployeeStore store) {
+        return registry -> {
+            for (int i = 0; i < store.getShardCount(); i++) {
+                int shardIndex = i;
+                Gauge.builder("app.sharding.employees", store, s -> s.countOnShard(shardIndex))
+                        .tag("shard", Integer.toString(shardIndex))
+                        .description("Employees stored on the shard")
+                        .register(registry);
+            }
+        };
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.employeemanagementsystem.config;
+
+import com.example.employeemanagementsystem.datasource.ConcurrencyLimitingDataSource;
+import com.example.employeemanagementsystem.datasource.QueryDeadline;
+import com.example.employeemanagementsystem.limiter.WeightedFairScheduler.Priority;
+import com.example.employeemanagementsystem.monitoring.VirtualThreadPinningMonitor;
+import com.example.employeemanagementsystem.web.ConcurrencyLimitInterceptor;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Virtual-thread execution mode.
+ * Tomcat request handling and the application task executor switch to virtual threads through
+ * {@code spring.threads.virtual.enabled}. Because request concurrency is then effectively unbounded,
+ * the datasource is wrapped in a governor that admits callers by the priority of their request,
+ * and carrier-thread pinning is reported.
+ */
+@Configuration
+// Class proxies, like Spring Boot's other proxies: @Async services are injected by class, and may implement listener interfaces
+@EnableAsync(proxyTargetClass = true)
+public class VirtualThreadConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadConfig.class);
+
+    // Wraps the application DataSource in the JDBC concurrency governor
+    @Bean
+    @ConditionalOnProperty(name = "app.datasource.governor.enabled", havingValue = "true", matchIfMissing = true)
+    public static BeanPostProcessor dataSourceGovernorPostProcessor(Environment environment) {
+        int maxConcurrent = environment.getProperty("app.datasource.governor.max-concurrent", Integer.class,
+                environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10));
+        long acquireTimeoutMillis = environment.getProperty("app.datasource.governor.acquire-timeout-ms", Long.class, 30_000L);
+        // The same weights as the request schedulers; the priority travels with the request's query deadline
+        Map<Priority, Integer> weights = ConcurrencyLimitInterceptor.weights(environment);
+        long starvationMs = environment.getProperty("app.scheduler.starvation-ms", Long.class, 1000L);
+
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ConcurrencyLimitingDataSource)) {
+                    logger.info("Limiting datasource '{}' to {} concurrent connections", beanName, maxConcurrent);
+                    return new ConcurrencyLimitingDataSource(dataSource, maxConcurrent, acquireTimeoutMillis, weights,
+                            starvationMs, QueryDeadline::currentPriority);
+                }
+                return bean;
+            }
+        };
+    }
+
+    // Publishes governor saturation so it can be compared with the pool's own metrics
+    @Bean
+    public MeterBinder dataSourceGovernorMetrics(DataSource dataSource) {
+        return registry -> {
+            if (dataSource instanceof ConcurrencyLimitingDataSource governor) {
+                Gauge.builder("app.datasource.governor.active", governor, ConcurrencyLimitingDataSource::getActiveConnections)
+                        .description("Connections currently checked out through the governor")
+                        .register(registry);
+                Gauge.builder("app.datasource.governor.waiting", governor, ConcurrencyLimitingDataSource::getWaitingCallers)
+                        .description("Callers parked waiting for a database permit")
+                        .register(registry);
+                Gauge.builder("app.datasource.governor.limit", governor, ConcurrencyLimitingDataSource::getMaxConcurrent)
+                        .description("Maximum concurrent connections allowed by the governor")
+                        .register(registry);
+            }
+        };
+    }
+
+    // Reports virtual threads pinned to their carrier, only useful when virtual threads are enabled
+    @Bean
+    @ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(MeterRegistry meterRegistry, Environment environment) {
+        long thresholdMillis = environment.getProperty("app.virtual-threads.pinning-threshold-ms", Long.class, 20L);
+        return new VirtualThreadPinningMonitor(meterRegistry, Duration.ofMillis(thresholdMillis));
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.employeemanagementsystem.config;
+
+import com.example.employeemanagementsystem.web.ConcurrencyLimitInterceptor;
+import com.example.employeemanagementsystem.web.ConditionalGetInterceptor;
+import com.example.employeemanagementsystem.web.QueryDeadlineInterceptor;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Spring MVC configuration: registers the request interceptors used by the API.
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final ConditionalGetInterceptor conditionalGetInterceptor;
+    private final ConcurrencyLimitInterceptor concurrencyLimitInterceptor;
+    private final QueryDeadlineInterceptor queryDeadlineInterceptor;
+
+    public WebConfig(ConditionalGetInterceptor conditionalGetInterceptor,
+                     ConcurrencyLimitInterceptor concurrencyLimitInterceptor,
+                     QueryDeadlineInterceptor queryDeadlineInterceptor) {
+        this.conditionalGetInterceptor = conditionalGetInterceptor;
+        this.concurrencyLimitInterceptor = concurrencyLimitInterceptor;
+        this.queryDeadlineInterceptor = queryDeadlineInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // Start the deadline first, so time spent waiting for a permit counts against it
+        registry.addInterceptor(queryDeadlineInterceptor)
+                .addPathPatterns("/api/employees/**", "/api/employees", "/api/reports/**", "/api/dashboard")
+                .excludePathPatterns("/api/employees/stream");
+        // Answer unchanged polls with 304 before any query runs
+        registry.addInterceptor(conditionalGetInterceptor).addPathPatterns("/api/**");
+        // Then shed what the database cannot keep up with, per bulkhead; the change stream is long-lived and runs no queries
+        registry.addInterceptor(concurrencyLimitInterceptor)
+                .addPathPatterns("/api/employees/**", "/api/employees", "/api/reports/**", "/api/dashboard")
+                .excludePathPatterns("/api/employees/stream");
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        // Keeps the deadline on streamed responses and cancels their queries when the client goes away
+        configurer.registerCallableInterceptors(queryDeadlineInterceptor);
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.employeemanagementsystem.controller;
+
+import com.example.employeemanagementsystem.dto.DashboardDTO;
+import com.example.employeemanagementsystem.service.DashboardService;
+import com.example.employeemanagementsystem.service.EmployeeService;
+import com.example.employeemanagementsystem.web.Bulkhead;
+import com.example.employeemanagementsystem.web.Bulkhead.Workload;
+import com.example.employeemanagementsystem.web.ConditionalGet;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+/**
+ * Controller serving the reporting dashboard, both as JSON and as a server-rendered page.
+ */
+@Controller
+public class DashboardController {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardController.class);
+
+    private final DashboardService dashboardService;
+    private final EmployeeService employeeService;
+
+    /**
+     * Constructor-based injection for required services.
+     *
+     * @param dashboardService the dashboard service
+     * @param employeeService  the employee service
+     */
+    public DashboardController(DashboardService dashboardService, EmployeeService employeeService) {
+        this.dashboardService = dashboardService;
+        this.employeeService = employeeService;
+    }
+
+    /**
+     * Get every dashboard report in one call.
+     * Only accessible by users with ADMIN or MANAGER roles; managers see their own department.
+     *
+     * @param authentication the authentication object containing user credentials
+     * @return dashboard with one section per report
+     */
+    @GetMapping("/api/dashboard")
+    @ConditionalGet
+    @Bulkhead(Workload.REPORTING)
+    @ResponseBody
+    public ResponseEntity<DashboardDTO> getDashboard(Authentication authentication) {
+        String username = authentication.getName();
+        logger.info("Request to get dashboard from user: {}", username);
+
+        try {
+            String role = resolveReportRole(username);
+            if (role == null) {
+                logger.warn("Access denied for employees trying to fetch dashboard: {}", username);
+                return ResponseEntity.status(403).build();
+            }
+            return ResponseEntity.ok(dashboardService.getDashboard(username, role));
+        } catch (Exception e) {
+            logger.error("Failed to build dashboard for user: {}", username, e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * Render the dashboard page.
+     * Employees without reporting access get the plain welcome page.
+     *
+     * @param authentication the authentication object containing user credentials
+     * @param model          view model
+     * @return the dashboard template
+     */
+    @GetMapping("/dashboard")
+    public String dashboardPage(Authentication authentication, Model model) {
+        String username = authentication.getName();
+        logger.info("Rendering dashboard page for user: {}", username);
+
+        String role = resolveReportRole(username);
+        if (role != null) {
+            model.addAttribute("dashboard", dashboardService.getDashboard(username, role));
+        }
+        return "dashboard";
+    }
+
+    // Maps the user's role to the role name expected by the report services, or null if not allowed
+    private String resolveReportRole(String username) {
+        String role = employeeService.getUserRole(username);
+        if ("ROLE_MANAGER".equals(role)) {
+            return "MANAGER";
+        } else if ("ROLE_ADMIN".equals(role)) {
+            return "ADMIN";
+        }
+        return null;
+    }
+}
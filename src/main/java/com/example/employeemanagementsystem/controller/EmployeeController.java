@@ -1,16 +1,41 @@
 package com.example.employeemanagementsystem.controller;
 
 import com.example.employeemanagementsystem.repository.*;
+import com.example.employeemanagementsystem.dto.EmployeePageDTO;
 import com.example.employeemanagementsystem.dto.EmployeeRequest;
 import com.example.employeemanagementsystem.dto.EmployeeSearchRequestDTO;
+import com.example.employeemanagementsystem.dto.ManagerAssignmentDTO;
+import com.example.employeemanagementsystem.dto.OrgChartEntryDTO;
+import com.example.employeemanagementsystem.dto.SpanOfControlDTO;
 import com.example.employeemanagementsystem.entity.Department;
 import com.example.employeemanagementsystem.entity.Employee;
+import com.example.employeemanagementsystem.exception.AccessDeniedException;
+import com.example.employeemanagementsystem.exception.ChangeLogExpiredException;
+import com.example.employeemanagementsystem.exception.ChangeStreamCapacityException;
 import com.example.employeemanagementsystem.exception.EmployeeNotFoundException;
+import com.example.employeemanagementsystem.exception.InvalidPageRequestException;
+import com.example.employeemanagementsystem.exception.InvalidReportQueryException;
 import com.example.employeemanagementsystem.exception.ManagerAlreadyExistsException;
+import com.example.employeemanagementsystem.exception.QueryDeadlineExceededException;
 import com.example.employeemanagementsystem.exception.ResourceNotFoundException;
 import com.example.employeemanagementsystem.exception.UserAlreadyExistsException;
+import com.example.employeemanagementsystem.service.AuditService;
+import com.example.employeemanagementsystem.service.ChangeStreamService;
+import com.example.employeemanagementsystem.service.DataVersionService;
+import com.example.employeemanagementsystem.service.EmployeeChangeLogService;
 import com.example.employeemanagementsystem.service.EmployeeService;
+import com.example.employeemanagementsystem.service.OrgChartService;
+import com.example.employeemanagementsystem.web.Bulkhead;
+import com.example.employeemanagementsystem.web.Bulkhead.Workload;
+import com.example.employeemanagementsystem.web.ConditionalGet;
+import com.example.employeemanagementsystem.web.ConditionalGet.VersionScope;
+import com.example.employeemanagementsystem.web.ConditionalGetInterceptor;
+import com.example.employeemanagementsystem.web.ContentFormat;
+import com.example.employeemanagementsystem.web.EmployeeFieldSet;
+import com.example.employeemanagementsystem.web.EmployeeJsonWriter;
+import com.example.employeemanagementsystem.web.EmployeePatch;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import jakarta.validation.Valid;
 
 import org.slf4j.Logger;
@@ -18,9 +43,15 @@ import org.slf4j.LoggerFactory;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -37,6 +68,18 @@ public class EmployeeController {
     @Autowired
     private EmployeeService employeeService;
 
+    @Autowired
+    private OrgChartService orgChartService;
+
+    @Autowired
+    private ChangeStreamService changeStreamService;
+
+    @Autowired
+    private EmployeeChangeLogService employeeChangeLogService;
+
+    @Autowired
+    private AuditService auditService;
+
     private final EmployeeRepository employeeRepository;
     private final DepartmentRepository departmentRepository;
 
@@ -47,44 +90,320 @@ public class EmployeeController {
 
     /**
      * Retrieves employees based on the role of the authenticated user.
+     * The array is streamed with the hand-written writer as rows are read, in the same JSON as the
+     * employee entity, so the whole list is never held or serialized reflectively.
+     * The encoding follows the Accept header: JSON by default, or CBOR / Smile.
      * - ADMIN: All employees
      * - MANAGER: Employees under the manager
      *
      * @param authentication contains user information
-     * @return List of employees or error response
+     * @param accept the Accept header used to pick the encoding
+     * @param etag ETag computed by the conditional GET interceptor; streamed bodies bypass the response advice
+     * @return streamed employee array or error response
      */
     @GetMapping
-    public ResponseEntity<?> getEmployees(Authentication authentication) {
+    @ConditionalGet
+    @Bulkhead(Workload.BULK)
+    public ResponseEntity<?> getEmployees(Authentication authentication,
+                                          @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                          @RequestAttribute(value = ConditionalGetInterceptor.ETAG_ATTRIBUTE, required = false) String etag) {
         String username = authentication.getName();
         logger.info("Received request to fetch employees for user: {}", username);
 
         try {
             String role = employeeService.getUserRole(username);
-            List<Employee> employees;
+            if (!"ROLE_ADMIN".equals(role) && !"ROLE_MANAGER".equals(role)) {
+                String message = "Access denied: unauthorized role for user " + username;
+                logger.warn(message);
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", message));
+            }
+
+            ContentFormat format = ContentFormat.negotiate(accept);
+            StreamingResponseBody body = EmployeeJsonWriter.stream(format.getFactory(),
+                    consumer -> employeeService.streamEmployees(username, role, consumer),
+                    EmployeeJsonWriter.DEFAULT_FLUSH_INTERVAL);
+            return ResponseEntity.ok()
+                    .contentType(format.getMediaType())
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                    .headers(headers -> {
+                        if (etag != null) {
+                            headers.setETag(etag);
+                        }
+                    })
+                    .body(body);
+
+        } catch (Exception e) {
+            logger.error("Failed to retrieve employees for user: {}", username, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                                 .body(Map.of("error", "Internal server error while fetching employees"));
+        }
+    }
+
+    /**
+     * Retrieves one page of the employees visible to the user, ordered by ID, e.g. {@code ?page=0&size=50}.
+     * - ADMIN: All employees
+     * - MANAGER: Employees under the manager
+     *
+     * @param page zero-based page number
+     * @param size page size
+     * @param authentication contains user information
+     * @return the page with the total number of employees, or 400 for an invalid page
+     */
+    @GetMapping(params = {"page", "!fields"})
+    @ConditionalGet
+    public ResponseEntity<?> getEmployeesPage(@RequestParam int page, @RequestParam(defaultValue = "50") int size,
+                                              Authentication authentication) {
+        String username = authentication.getName();
+        logger.info("Received request to fetch page {} of employees for user: {}", page, username);
+
+        try {
+            String role = employeeService.getUserRole(username);
+            EmployeePageDTO employees;
 
             switch (role) {
                 case "ROLE_ADMIN":
-                    employees = employeeService.getAllEmployees();
+                    employees = employeeService.getAllEmployees(page, size);
                     break;
                 case "ROLE_MANAGER":
-                    employees = employeeService.getEmployeesForManager(username);
+                    employees = employeeService.getEmployeesForManager(username, page, size);
                     break;
                 default:
                     String message = "Access denied: unauthorized role for user " + username;
                     logger.warn(message);
                     return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", message));
             }
-
-            logger.info("Returning {} employees for user: {}", employees.size(), username);
             return ResponseEntity.ok(employees);
 
+        } catch (InvalidPageRequestException e) {
+            throw e; // handled by global exception handler
         } catch (Exception e) {
-            logger.error("Failed to retrieve employees for user: {}", username, e);
+            logger.error("Failed to retrieve page {} of employees for user: {}", page, username, e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                                  .body(Map.of("error", "Internal server error while fetching employees"));
         }
     }
 
+    /**
+     * Retrieves only the requested attributes of the employees visible to the user,
+     * e.g. {@code ?fields=id,firstName,email}. Only the selected columns are queried
+     * and rows are streamed in the negotiated encoding.
+     * - ADMIN: All employees
+     * - MANAGER: Employees under the manager
+     *
+     * @param fields comma-separated attribute names
+     * @param authentication contains user information
+     * @param accept the Accept header used to pick the encoding
+     * @param etag ETag computed by the conditional GET interceptor; streamed bodies bypass the response advice
+     * @return streamed array of partial employees, or 400 for unknown fields
+     */
+    @GetMapping(params = "fields")
+    @ConditionalGet
+    @Bulkhead(Workload.BULK)
+    public ResponseEntity<StreamingResponseBody> getEmployeeFields(@RequestParam String fields,
+                                                                   Authentication authentication,
+                                                                   @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                                                   @RequestAttribute(value = ConditionalGetInterceptor.ETAG_ATTRIBUTE, required = false) String etag) {
+        return streamEmployeeFields(fields, null, authentication, accept, etag);
+    }
+
+    /**
+     * Searches employees like {@link #searchEmployees} but returns only the requested attributes.
+     *
+     * @param fields comma-separated attribute names
+     * @param searchRequest contains filtering parameters
+     * @param authentication current user
+     * @param accept the Accept header used to pick the encoding
+     * @return streamed array of partial employees, or 400 for unknown fields
+     */
+    @PostMapping(value = "/search", params = "fields")
+    @Bulkhead(Workload.BULK)
+    public ResponseEntity<StreamingResponseBody> searchEmployeeFields(@RequestParam String fields,
+                                                                      @Valid @RequestBody EmployeeSearchRequestDTO searchRequest,
+                                                                      Authentication authentication,
+                                                                      @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return streamEmployeeFields(fields, searchRequest, authentication, accept, null);
+    }
+
+    private ResponseEntity<StreamingResponseBody> streamEmployeeFields(String fields, EmployeeSearchRequestDTO searchRequest,
+                                                                       Authentication authentication, String accept, String etag) {
+        String username = authentication.getName();
+        EmployeeFieldSet fieldSet = EmployeeFieldSet.compile(fields);
+        logger.info("Received request for {} for user: {}", fieldSet, username);
+
+        String role = employeeService.getUserRole(username);
+        if (!"ROLE_ADMIN".equals(role) && !"ROLE_MANAGER".equals(role)) {
+            logger.warn("Access denied: unauthorized role for user {}", username);
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        ContentFormat format = ContentFormat.negotiate(accept);
+        StreamingResponseBody body = EmployeeJsonWriter.stream(format.getFactory(),
+                consumer -> employeeService.streamEmployeeFields(username, role, searchRequest, fieldSet.getAttributes(), consumer),
+                fieldSet::write,
+                EmployeeJsonWriter.DEFAULT_FLUSH_INTERVAL);
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                .headers(headers -> {
+                    if (etag != null) {
+                        headers.setETag(etag);
+                    }
+                })
+                .body(body);
+    }
+
+    /**
+     * Streams employees based on the role of the authenticated user as an array, like
+     * {@link #getEmployees} but without conditional GET support.
+     * Rows are serialized as they are read from the database and flushed in chunks,
+     * so large directories start arriving immediately and are never buffered in full.
+     * The encoding follows the Accept header: JSON by default, or CBOR / Smile.
+     * - ADMIN: All employees
+     * - MANAGER: Employees under the manager
+     *
+     * @param authentication contains user information
+     * @param accept the Accept header used to pick the encoding
+     * @return streamed employee array or error response
+     */
+    @GetMapping("/export")
+    @Bulkhead(Workload.BULK)
+    public ResponseEntity<StreamingResponseBody> exportEmployees(Authentication authentication,
+                                                                 @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        String username = authentication.getName();
+        logger.info("Received request to export employees for user: {}", username);
+
+        String role = employeeService.getUserRole(username);
+        if (!"ROLE_ADMIN".equals(role) && !"ROLE_MANAGER".equals(role)) {
+            logger.warn("Access denied: unauthorized role for user {}", username);
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        ContentFormat format = ContentFormat.negotiate(accept);
+        StreamingResponseBody body = EmployeeJsonWriter.stream(format.getFactory(),
+                consumer -> employeeService.streamEmployees(username, role, consumer),
+                EmployeeJsonWriter.DEFAULT_FLUSH_INTERVAL);
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                .body(body);
+    }
+
+    /**
+     * Opens a Server-Sent Events stream of employee changes, pushed as they are committed instead
+     * of polled. Each {@code changes} event lists the changed employees (merged per employee over a
+     * short window), the reports under /api/reports they affect and the headcount change per
+     * department. A subscriber that falls behind is disconnected and should reload on reconnect.
+     * - ADMIN: All changes
+     * - MANAGER: Changes to employees of the manager's department
+     *
+     * @param authentication contains user information
+     * @return the event stream, or 503 if the stream is at its subscriber limit
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamChanges(Authentication authentication) {
+        String username = authentication.getName();
+        logger.info("Received request to stream employee changes for user: {}", username);
+
+        try {
+            String role = employeeService.getUserRole(username);
+            if ("ROLE_ADMIN".equals(role)) {
+                return ResponseEntity.ok(changeStreamService.subscribe(username, "ADMIN"));
+            } else if ("ROLE_MANAGER".equals(role)) {
+                return ResponseEntity.ok(changeStreamService.subscribe(username, "MANAGER"));
+            }
+            logger.warn("Access denied: unauthorized role for user {}", username);
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+
+        } catch (ChangeStreamCapacityException e) {
+            logger.warn("Change stream refused for user {}: {}", username, e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "30").build();
+        } catch (Exception e) {
+            logger.error("Unexpected error while opening change stream for user: {}", username, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Retrieves the employees changed after a sequence, for replicas that keep a copy of the
+     * directory, e.g. {@code ?since=0&limit=500} for a first full copy. Pass the returned resume
+     * token as {@code since} on the next call; deleted employees are listed by ID.
+     * - ADMIN: All changes
+     *
+     * @param since resume token of the previous call, or 0 for every employee
+     * @param limit maximum number of changes to return
+     * @param authentication contains user information
+     * @return the changes and the resume token, 400 for an invalid limit,
+     *         or 410 if the client last synced before the retention horizon and must resync from 0
+     */
+    @GetMapping("/changes")
+    @Bulkhead(Workload.BULK)
+    public ResponseEntity<?> getEmployeeChanges(@RequestParam(defaultValue = "0") long since,
+                                                @RequestParam(defaultValue = "500") int limit,
+                                                Authentication authentication) {
+        String username = authentication.getName();
+        logger.info("Received request to fetch employee changes since {} for user: {}", since, username);
+
+        try {
+            String role = employeeService.getUserRole(username);
+            if (!"ROLE_ADMIN".equals(role)) {
+                String message = "Access denied: unauthorized role for user " + username;
+                logger.warn(message);
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", message));
+            }
+            return ResponseEntity.ok(employeeChangeLogService.getChanges(since, limit));
+
+        } catch (InvalidPageRequestException | ChangeLogExpiredException e) {
+            throw e; // handled by global exception handler
+        } catch (Exception e) {
+            logger.error("Failed to retrieve employee changes since {} for user: {}", since, username, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                                 .body(Map.of("error", "Internal server error while fetching employee changes"));
+        }
+    }
+
+    /**
+     * Retrieves the audit trail of employee changes, oldest first: who created, updated or
+     * deleted which employee, when, and the changed fields before and after. Narrow it with
+     * {@code employeeId} and the time range {@code [from, to)}, e.g. {@code ?employeeId=42&from=2025-01-01T00:00:00Z}.
+     * - ADMIN: All records
+     *
+     * @param employeeId only records of this employee
+     * @param from       only records at or after this time
+     * @param to         only records before this time
+     * @param limit      maximum number of records to return
+     * @param authentication contains user information
+     * @return the audit records, or 400 for an invalid limit or time range
+     */
+    @GetMapping("/audit")
+    @Bulkhead(Workload.REPORTING)
+    public ResponseEntity<?> getAuditRecords(
+            @RequestParam(required = false) Long employeeId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(defaultValue = "100") int limit,
+            Authentication authentication) {
+        String username = authentication.getName();
+        logger.info("Received request to fetch audit records of employee {} from {} to {} for user: {}",
+                employeeId, from, to, username);
+
+        try {
+            String role = employeeService.getUserRole(username);
+            if (!"ROLE_ADMIN".equals(role)) {
+                String message = "Access denied: unauthorized role for user " + username;
+                logger.warn(message);
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", message));
+            }
+            return ResponseEntity.ok(auditService.getAuditRecords(employeeId, from, to, limit));
+
+        } catch (InvalidPageRequestException e) {
+            throw e; // handled by global exception handler
+        } catch (Exception e) {
+            logger.error("Failed to retrieve audit records for user: {}", username, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                                 .body(Map.of("error", "Internal server error while fetching audit records"));
+        }
+    }
+
     /**
      * Retrieves an employee by ID with role-based access:
      * - ADMIN: Can access any employee
@@ -95,6 +414,7 @@ public class EmployeeController {
      * @return Employee data or error
      */
     @GetMapping("/{id}")
+    @ConditionalGet(VersionScope.EMPLOYEE)
     public ResponseEntity<Employee> getEmployeeById(@PathVariable Long id, Authentication authentication) {
         String username = authentication.getName();
         logger.info("Received request to fetch employee with ID: {} by user: {}", id, username);
@@ -146,6 +466,11 @@ public class EmployeeController {
             employee.setHireDate(employeeRequest.getHireDate());
             employee.setDateOfBirth(employeeRequest.getDateOfBirth());
             employee.setGender(employeeRequest.getGender());
+            if (employeeRequest.getManagerId() != null) {
+                Employee manager = new Employee();
+                manager.setId(employeeRequest.getManagerId());
+                employee.setManager(manager);
+            }
 
             String roleName = employeeRequest.getRole();
             Long departmentId = employeeRequest.getDepartment().getId();
@@ -154,7 +479,7 @@ public class EmployeeController {
             logger.info("Employee created successfully with ID: {}", savedEmployee.getId());
             return new ResponseEntity<>(savedEmployee, HttpStatus.CREATED);
 
-        } catch (UserAlreadyExistsException | ResourceNotFoundException | ManagerAlreadyExistsException e) {
+        } catch (UserAlreadyExistsException | ResourceNotFoundException | ManagerAlreadyExistsException | EmployeeNotFoundException e) {
             logger.warn("Failed to add employee: {}", e.getMessage());
             throw e; // handled by global exception handler
         } catch (Exception e) {
@@ -185,6 +510,44 @@ public class EmployeeController {
         }
     }
 
+    /**
+     * Partially updates an employee (ADMIN only). The body is a JSON merge patch of the fields
+     * to change, written as one UPDATE of just those columns. {@code If-Match} must carry the
+     * ETag last returned for the employee by {@code GET /{id}} or by a previous patch.
+     *
+     * @param id ID of the employee to update
+     * @param body fields to change
+     * @param ifMatch the version the client last saw
+     * @param authentication current user
+     * @return 204 with the new version as ETag, 412 if the employee changed meanwhile,
+     *         428 without If-Match
+     */
+    @PatchMapping(value = "/{id}", consumes = {MediaType.APPLICATION_JSON_VALUE, "application/merge-patch+json"})
+    public ResponseEntity<?> patchEmployee(@PathVariable Long id, @RequestBody JsonNode body,
+                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                           Authentication authentication) {
+        String username = authentication.getName();
+        logger.info("Getting request to patch employee with ID: {}", id);
+
+        if (!"ROLE_ADMIN".equals(employeeService.getUserRole(username))) {
+            logger.warn("Access denied: unauthorized role for user {}", username);
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        if (ifMatch == null) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_REQUIRED)
+                                 .body(Map.of("error", "If-Match with the employee version is required"));
+        }
+        Long expectedVersion = DataVersionService.parseEmployeeVersion(ifMatch, id);
+        if (expectedVersion == null) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                                 .body(Map.of("error", "If-Match must be a single ETag of this employee, as returned by GET"));
+        }
+
+        EmployeePatch patch = EmployeePatch.parse(body);
+        long version = employeeService.patchEmployee(id, expectedVersion, patch.getChanges());
+        return ResponseEntity.noContent().eTag(DataVersionService.employeeEtag(id, version, "", authentication)).build();
+    }
+
     /**
      * Fetches the profile of the currently authenticated employee.
      *
@@ -192,6 +555,7 @@ public class EmployeeController {
      * @return Employee profile or error
      */
     @GetMapping("/profile")
+    @ConditionalGet
     public ResponseEntity<Employee> getEmployeeProfile(Authentication authentication) {
         String username = authentication.getName();
         logger.info("Getting request to Fetching profile for user: {}", username);
@@ -222,13 +586,106 @@ public class EmployeeController {
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * Retrieves everyone under an employee in the reporting hierarchy, nearest levels first.
+     * - ADMIN: Any employee
+     * - MANAGER: The manager or anyone under them
+     *
+     * @param id the subtree root
+     * @param maxDepth levels to include (1 for direct reports); the whole subtree if omitted
+     * @param authentication current user
+     * @return the employees under the root with their depth below it
+     */
+    @GetMapping("/{id}/reports")
+    @ConditionalGet
+    @Bulkhead(Workload.REPORTING)
+    public ResponseEntity<List<OrgChartEntryDTO>> getReports(@PathVariable Long id,
+                                                             @RequestParam(required = false) Integer maxDepth,
+                                                             Authentication authentication) {
+        String username = authentication.getName();
+        logger.info("Received request to fetch reports of employee with ID: {} by user: {}", id, username);
+
+        try {
+            String role = employeeService.getUserRole(username);
+            if ("ROLE_ADMIN".equals(role)) {
+                return ResponseEntity.ok(orgChartService.getReports(id, maxDepth, null, "ADMIN"));
+            } else if ("ROLE_MANAGER".equals(role)) {
+                return ResponseEntity.ok(orgChartService.getReports(id, maxDepth, username, "MANAGER"));
+            }
+            logger.warn("Access denied for user: {}", username);
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+
+        } catch (EmployeeNotFoundException | AccessDeniedException | InvalidReportQueryException e) {
+            throw e; // handled by global exception handler
+        } catch (Exception e) {
+            logger.error("Unexpected error while fetching reports of employee with ID: {}", id, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Retrieves the number of direct and total reports of an employee.
+     * - ADMIN: Any employee
+     * - MANAGER: The manager or anyone under them
+     *
+     * @param id the employee
+     * @param authentication current user
+     * @return the span of control
+     */
+    @GetMapping("/{id}/span-of-control")
+    @ConditionalGet
+    @Bulkhead(Workload.REPORTING)
+    public ResponseEntity<SpanOfControlDTO> getSpanOfControl(@PathVariable Long id, Authentication authentication) {
+        String username = authentication.getName();
+        logger.info("Received request to fetch span of control of employee with ID: {} by user: {}", id, username);
+
+        try {
+            String role = employeeService.getUserRole(username);
+            if ("ROLE_ADMIN".equals(role)) {
+                return ResponseEntity.ok(orgChartService.getSpanOfControl(id, null, "ADMIN"));
+            } else if ("ROLE_MANAGER".equals(role)) {
+                return ResponseEntity.ok(orgChartService.getSpanOfControl(id, username, "MANAGER"));
+            }
+            logger.warn("Access denied for user: {}", username);
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+
+        } catch (EmployeeNotFoundException | AccessDeniedException e) {
+            throw e; // handled by global exception handler
+        } catch (Exception e) {
+            logger.error("Unexpected error while fetching span of control of employee with ID: {}", id, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Moves an employee, together with everyone under them, to a new manager (ADMIN only).
+     *
+     * @param id the employee to move
+     * @param assignment the new manager; a null managerId makes the employee a top-level manager
+     * @param authentication current user
+     * @return 204, 404 if either employee does not exist, 409 if the move would create a cycle
+     */
+    @PutMapping("/{id}/manager")
+    public ResponseEntity<Void> assignManager(@PathVariable Long id, @RequestBody ManagerAssignmentDTO assignment,
+                                              Authentication authentication) {
+        String username = authentication.getName();
+        logger.info("Getting request to move employee with ID: {} under manager {}", id, assignment.getManagerId());
+
+        if (!"ROLE_ADMIN".equals(employeeService.getUserRole(username))) {
+            logger.warn("Access denied: unauthorized role for user {}", username);
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        orgChartService.moveSubtree(id, assignment.getManagerId());
+        return ResponseEntity.noContent().build();
+    }
+
     /**
      * Searches employees based on dynamic filter criteria in the request body.
      * Allows search only for ADMIN and MANAGER roles.
      *
      * @param searchRequest contains filtering parameters
      * @param authentication current user
-     * @return Filtered list of employees
+     * @return Filtered list of employees, or 504 if the search ran past the request's deadline
      */
     @PostMapping("/search")
     public ResponseEntity<List<Employee>> searchEmployees(@Valid @RequestBody EmployeeSearchRequestDTO searchRequest, Authentication authentication) {
@@ -237,6 +694,8 @@ public class EmployeeController {
         try {
             List<Employee> employees = employeeService.searchEmployees(searchRequest, username);
             return ResponseEntity.ok(employees);
+        } catch (QueryDeadlineExceededException e) {
+            throw e; // handled by global exception handler
         } catch (Exception e) {
             logger.error("Error searching employees for user: {}", username, e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
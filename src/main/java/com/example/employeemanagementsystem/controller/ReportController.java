@@ -1,38 +1,77 @@
 package com.example.employeemanagementsystem.controller;
 
+import com.example.employeemanagementsystem.analytics.EmployeeColumnStore.Column;
+import com.example.employeemanagementsystem.analytics.PivotQuery;
 import com.example.employeemanagementsystem.dto.EmployeeReportDTO;
+import com.example.employeemanagementsystem.dto.PivotReportDTO;
+import com.example.employeemanagementsystem.dto.SalaryDistributionDTO;
+import com.example.employeemanagementsystem.dto.SpanOfControlDTO;
+import com.example.employeemanagementsystem.dto.TimeSeriesDTO;
+import com.example.employeemanagementsystem.entity.ReportSnapshot.Dimension;
+import com.example.employeemanagementsystem.exception.InvalidReportQueryException;
+import com.example.employeemanagementsystem.exception.QueryDeadlineExceededException;
 import com.example.employeemanagementsystem.service.ReportService;
+import com.example.employeemanagementsystem.service.ReportSnapshotService;
+import com.example.employeemanagementsystem.service.ReportSnapshotService.Aggregation;
+import com.example.employeemanagementsystem.service.SalaryDistributionService;
 import com.example.employeemanagementsystem.service.EmployeeService;
+import com.example.employeemanagementsystem.service.OrgChartService;
+import com.example.employeemanagementsystem.service.PivotReportService;
+import com.example.employeemanagementsystem.web.Bulkhead;
+import com.example.employeemanagementsystem.web.Bulkhead.Workload;
+import com.example.employeemanagementsystem.web.ConditionalGet;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 
 /**
  * Controller class for handling API requests related to employee reports.
  */
 @RestController
 @RequestMapping("api/reports")
+@Bulkhead(Workload.REPORTING)
 public class ReportController {
 
     private static final Logger logger = LoggerFactory.getLogger(ReportController.class);
 
     private final ReportService reportService;
     private final EmployeeService employeeService;
+    private final ReportSnapshotService reportSnapshotService;
+    private final PivotReportService pivotReportService;
+    private final SalaryDistributionService salaryDistributionService;
+    private final OrgChartService orgChartService;
 
     /**
      * Constructor-based injection for required services.
      *
-     * @param reportService     the report service
-     * @param employeeService   the employee service
+     * @param reportService         the report service
+     * @param employeeService       the employee service
+     * @param reportSnapshotService the report snapshot service
+     * @param pivotReportService    the pivot report service
+     * @param salaryDistributionService the salary distribution service
+     * @param orgChartService       the org chart service
      */
-    public ReportController(ReportService reportService, EmployeeService employeeService) {
+    public ReportController(ReportService reportService, EmployeeService employeeService,
+                            ReportSnapshotService reportSnapshotService, PivotReportService pivotReportService,
+                            SalaryDistributionService salaryDistributionService, OrgChartService orgChartService) {
         this.reportService = reportService;
         this.employeeService = employeeService;
+        this.reportSnapshotService = reportSnapshotService;
+        this.pivotReportService = pivotReportService;
+        this.salaryDistributionService = salaryDistributionService;
+        this.orgChartService = orgChartService;
     }
 
     /**
@@ -41,10 +80,13 @@ public class ReportController {
      * @return total employee count as a ResponseEntity
      */
     @GetMapping("/total-employees")
+    @ConditionalGet
     public ResponseEntity<Long> getTotalEmployees() {
         logger.info("Request to get total number of employees");
         try {
             return ResponseEntity.ok(reportService.getTotalEmployees());
+        } catch (QueryDeadlineExceededException e) {
+            throw e; // handled by global exception handler
         } catch (Exception e) {
             logger.error("Failed to fetch total employee count", e);
             return ResponseEntity.internalServerError().build();
@@ -59,6 +101,7 @@ public class ReportController {
      * @return list of employee report DTOs grouped by department
      */
     @GetMapping("/employees-by-department")
+    @ConditionalGet
     public ResponseEntity<List<EmployeeReportDTO>> getEmployeesByDepartment(Authentication authentication) {
         String username = authentication.getName();
         logger.info("Request to get employees by department from user: {}", username);
@@ -75,6 +118,8 @@ public class ReportController {
             logger.warn("Access denied for employees trying to fetch department report: {}", username);
             return ResponseEntity.status(403).build();
 
+        } catch (QueryDeadlineExceededException e) {
+            throw e; // handled by global exception handler
         } catch (Exception e) {
             logger.error("Failed to fetch employees by department for user: {}", username, e);
             return ResponseEntity.internalServerError().build();
@@ -87,10 +132,13 @@ public class ReportController {
      * @return list of employee report DTOs grouped by job title
      */
     @GetMapping("/employees-by-job-title")
+    @ConditionalGet
     public ResponseEntity<List<EmployeeReportDTO>> getEmployeesByJobTitle() {
         logger.info("Request to get employees by job title");
         try {
             return ResponseEntity.ok(reportService.getEmployeesByJobTitle());
+        } catch (QueryDeadlineExceededException e) {
+            throw e; // handled by global exception handler
         } catch (Exception e) {
             logger.error("Failed to fetch employees by job title", e);
             return ResponseEntity.internalServerError().build();
@@ -103,10 +151,13 @@ public class ReportController {
      * @return list of employee report DTOs grouped by gender
      */
     @GetMapping("/employees-by-gender")
+    @ConditionalGet
     public ResponseEntity<List<EmployeeReportDTO>> getEmployeesByGender() {
         logger.info("Request to get employees by gender");
         try {
             return ResponseEntity.ok(reportService.getEmployeesByGender());
+        } catch (QueryDeadlineExceededException e) {
+            throw e; // handled by global exception handler
         } catch (Exception e) {
             logger.error("Failed to fetch employees by gender", e);
             return ResponseEntity.internalServerError().build();
@@ -121,6 +172,7 @@ public class ReportController {
      * @return list of employee report DTOs representing salary totals
      */
     @GetMapping("/total-salary-by-department")
+    @ConditionalGet
     public ResponseEntity<List<EmployeeReportDTO>> getTotalSalaryByDepartment(Authentication authentication) {
         String username = authentication.getName();
         logger.info("Request to get total salary by department from user: {}", username);
@@ -137,9 +189,244 @@ public class ReportController {
             logger.warn("Access denied for employees trying to fetch salary report: {}", username);
             return ResponseEntity.status(403).build();
 
+        } catch (QueryDeadlineExceededException e) {
+            throw e; // handled by global exception handler
         } catch (Exception e) {
             logger.error("Failed to fetch salary by department for user: {}", username, e);
             return ResponseEntity.internalServerError().build();
         }
     }
+
+    /**
+     * Get the trend of a report over a time range, answered from the periodic report snapshots.
+     * Only accessible by users with ADMIN or MANAGER roles; managers can only query their own department.
+     *
+     * @param dimension      department, job-title, gender or total
+     * @param from           start of the range (ISO-8601 instant, inclusive)
+     * @param to             end of the range (ISO-8601 instant, exclusive); defaults to now
+     * @param step           bucket width, e.g. P1D, PT1H or 7d
+     * @param aggregation    last, avg, min or max of the captures within a bucket
+     * @param authentication the authentication object containing user credentials
+     * @return one time series per group
+     */
+    @GetMapping("/timeseries")
+    public ResponseEntity<List<TimeSeriesDTO>> getTimeSeries(
+            @RequestParam(defaultValue = "department") String dimension,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(defaultValue = "P1D") String step,
+            @RequestParam(defaultValue = "last") String aggregation,
+            Authentication authentication) {
+        String username = authentication.getName();
+        logger.info("Request to get {} time series from user: {}", dimension, username);
+
+        try {
+            Dimension parsedDimension = parseEnum(Dimension.class, "dimension", dimension);
+            Aggregation parsedAggregation = parseEnum(Aggregation.class, "aggregation", aggregation);
+            Duration parsedStep = parseStep(step);
+            Instant end = to != null ? to : Instant.now();
+            String role = employeeService.getUserRole(username);
+
+            if (role.equals("ROLE_MANAGER")) {
+                return ResponseEntity.ok(reportSnapshotService.getTimeSeries(
+                        parsedDimension, from, end, parsedStep, parsedAggregation, username, "MANAGER"));
+            } else if (role.equals("ROLE_ADMIN")) {
+                return ResponseEntity.ok(reportSnapshotService.getTimeSeries(
+                        parsedDimension, from, end, parsedStep, parsedAggregation, null, "ADMIN"));
+            }
+
+            logger.warn("Access denied for employees trying to fetch time series report: {}", username);
+            return ResponseEntity.status(403).build();
+
+        } catch (InvalidReportQueryException e) {
+            throw e; // handled by global exception handler
+        } catch (Exception e) {
+            logger.error("Failed to fetch time series for user: {}", username, e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * Get a pivot (cross-tab) report: employee count and salary statistics for every combination
+     * of up to three dimensions, e.g. department x gender.
+     * Only accessible by users with ADMIN or MANAGER roles; managers only see their own department.
+     *
+     * @param groupBy        comma-separated dimensions: department, jobTitle, gender
+     * @param department     only include these departments
+     * @param jobTitle       only include these job titles
+     * @param gender         only include these genders
+     * @param minSalary      only include salaries of at least this amount
+     * @param maxSalary      only include salaries of at most this amount
+     * @param hiredFrom      only include employees hired on or after this date
+     * @param hiredTo        only include employees hired on or before this date
+     * @param bornFrom       only include employees born on or after this date
+     * @param bornTo         only include employees born on or before this date
+     * @param limit          maximum number of rows, largest groups first
+     * @param authentication the authentication object containing user credentials
+     * @return the pivot report
+     */
+    @GetMapping("/pivot")
+    @ConditionalGet
+    public ResponseEntity<PivotReportDTO> getPivotReport(
+            @RequestParam(defaultValue = "") String groupBy,
+            @RequestParam(required = false) List<String> department,
+            @RequestParam(required = false) List<String> jobTitle,
+            @RequestParam(required = false) List<String> gender,
+            @RequestParam(required = false) Double minSalary,
+            @RequestParam(required = false) Double maxSalary,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hiredFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hiredTo,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate bornFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate bornTo,
+            @RequestParam(defaultValue = "1000") int limit,
+            Authentication authentication) {
+        String username = authentication.getName();
+        logger.info("Request to get pivot report by [{}] from user: {}", groupBy, username);
+
+        try {
+            PivotQuery query = pivotQuery(groupBy, limit)
+                    .salaryBetween(minSalary, maxSalary)
+                    .hiredBetween(hiredFrom, hiredTo)
+                    .bornBetween(bornFrom, bornTo);
+            if (department != null) {
+                query.where(Column.DEPARTMENT, department);
+            }
+            if (jobTitle != null) {
+                query.where(Column.JOB_TITLE, jobTitle);
+            }
+            if (gender != null) {
+                query.where(Column.GENDER, gender);
+            }
+            String role = employeeService.getUserRole(username);
+
+            if (role.equals("ROLE_MANAGER")) {
+                return ResponseEntity.ok(pivotReportService.getPivotReport(query, username, "MANAGER"));
+            } else if (role.equals("ROLE_ADMIN")) {
+                return ResponseEntity.ok(pivotReportService.getPivotReport(query, null, "ADMIN"));
+            }
+
+            logger.warn("Access denied for employees trying to fetch pivot report: {}", username);
+            return ResponseEntity.status(403).build();
+
+        } catch (InvalidReportQueryException e) {
+            throw e; // handled by global exception handler
+        } catch (Exception e) {
+            logger.error("Failed to fetch pivot report for user: {}", username, e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * Get salary percentiles (p50, p90, p99) and a histogram per department, job title or gender,
+     * or company-wide with dimension "total".
+     * Only accessible by users with ADMIN or MANAGER roles; managers only see their own department.
+     *
+     * @param dimension      department, jobTitle, gender or total
+     * @param bins           number of histogram bins
+     * @param authentication the authentication object containing user credentials
+     * @return one salary distribution per group
+     */
+    @GetMapping("/salary-distribution")
+    @ConditionalGet
+    public ResponseEntity<List<SalaryDistributionDTO>> getSalaryDistribution(
+            @RequestParam(defaultValue = "department") String dimension,
+            @RequestParam(defaultValue = "10") int bins,
+            Authentication authentication) {
+        String username = authentication.getName();
+        logger.info("Request to get salary distribution by {} from user: {}", dimension, username);
+
+        try {
+            Column column = parseDistributionDimension(dimension);
+            String role = employeeService.getUserRole(username);
+
+            if (role.equals("ROLE_MANAGER")) {
+                return ResponseEntity.ok(salaryDistributionService.getSalaryDistributions(column, bins, username, "MANAGER"));
+            } else if (role.equals("ROLE_ADMIN")) {
+                return ResponseEntity.ok(salaryDistributionService.getSalaryDistributions(column, bins, null, "ADMIN"));
+            }
+
+            logger.warn("Access denied for employees trying to fetch salary distribution: {}", username);
+            return ResponseEntity.status(403).build();
+
+        } catch (InvalidReportQueryException e) {
+            throw e; // handled by global exception handler
+        } catch (Exception e) {
+            logger.error("Failed to fetch salary distribution for user: {}", username, e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * Get the span of control of every manager in the reporting hierarchy: direct reports and
+     * headcount of their whole subtree, largest subtrees first.
+     * Only accessible by users with the ADMIN role.
+     *
+     * @param authentication the authentication object containing user credentials
+     * @return one entry per employee with at least one report
+     */
+    @GetMapping("/span-of-control")
+    @ConditionalGet
+    public ResponseEntity<List<SpanOfControlDTO>> getSpanOfControlReport(Authentication authentication) {
+        String username = authentication.getName();
+        logger.info("Request to get span of control report from user: {}", username);
+
+        try {
+            String role = employeeService.getUserRole(username);
+
+            if (role.equals("ROLE_ADMIN")) {
+                return ResponseEntity.ok(orgChartService.getSpansOfControl());
+            }
+
+            logger.warn("Access denied for non-admins trying to fetch span of control report: {}", username);
+            return ResponseEntity.status(403).build();
+
+        } catch (Exception e) {
+            logger.error("Failed to fetch span of control report for user: {}", username, e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    // "total" selects the company-wide distribution
+    private static Column parseDistributionDimension(String dimension) {
+        if (dimension.trim().equalsIgnoreCase("total")) {
+            return null;
+        }
+        try {
+            return PivotQuery.dimension(dimension);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidReportQueryException(e.getMessage());
+        }
+    }
+
+    private static PivotQuery pivotQuery(String groupBy, int limit) {
+        try {
+            List<Column> columns = new ArrayList<>();
+            for (String name : groupBy.split(",")) {
+                if (!name.isBlank()) {
+                    columns.add(PivotQuery.dimension(name));
+                }
+            }
+            return new PivotQuery(columns, limit);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidReportQueryException(e.getMessage());
+        }
+    }
+
+    // Accepts the constant name in any case, with '-' for '_' (job-title)
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String parameter, String value) {
+        try {
+            return Enum.valueOf(type, value.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidReportQueryException("Invalid " + parameter + " '" + value + "'");
+        }
+    }
+
+    // ISO-8601 (P1D, PT1H) or simple (1d, 6h, 30m) durations
+    private static Duration parseStep(String step) {
+        try {
+            return DurationStyle.detectAndParse(step);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidReportQueryException("Invalid step '" + step + "'");
+        }
+    }
 }
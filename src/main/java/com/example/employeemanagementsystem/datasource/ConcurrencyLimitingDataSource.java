@@ -0,0 +1,177 @@
+package com.example.employeemanagementsystem.datasource;
+
+import com.example.employeemanagementsystem.limiter.AdaptiveConcurrencyLimiter;
+import com.example.employeemanagementsystem.limiter.WeightedFairScheduler;
+import com.example.employeemanagementsystem.limiter.WeightedFairScheduler.Priority;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * DataSource wrapper that caps how many connections may be checked out at once.
+ * With virtual threads every request gets its own thread, so the number of callers
+ * competing for the pool is no longer bounded by the Tomcat thread pool. The governor
+ * parks excess virtual threads cheaply instead of letting them stampede the pool.
+ * <p>
+ * The requests of every bulkhead share these connections, so this is where their priorities
+ * decide between them: waiting callers are admitted by weighted fair queuing on the priority of
+ * their request (see {@link WeightedFairScheduler}), in arrival order within a priority.
+ */
+public class ConcurrencyLimitingDataSource extends DelegatingDataSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConcurrencyLimitingDataSource.class);
+
+    private final WeightedFairScheduler scheduler;
+    private final int maxConcurrent;
+    private final long acquireTimeoutMillis;
+    private final Supplier<Priority> prioritySupplier;
+
+    /**
+     * A governor that admits every caller at the same priority, first come first served.
+     *
+     * @param targetDataSource     the pooled datasource to protect
+     * @param maxConcurrent        maximum number of connections handed out at the same time
+     * @param acquireTimeoutMillis how long a caller may wait for a permit before failing
+     */
+    public ConcurrencyLimitingDataSource(DataSource targetDataSource, int maxConcurrent, long acquireTimeoutMillis) {
+        this(targetDataSource, maxConcurrent, acquireTimeoutMillis, equalWeights(), acquireTimeoutMillis,
+                () -> Priority.NORMAL);
+    }
+
+    /**
+     * @param targetDataSource     the pooled datasource to protect
+     * @param maxConcurrent        maximum number of connections handed out at the same time
+     * @param acquireTimeoutMillis how long a caller may wait for a permit before failing
+     * @param weights              share of the permits of each priority while callers are waiting
+     * @param starvationMs         a caller waiting longer than this is admitted before any other
+     * @param prioritySupplier     priority of the current caller's request
+     */
+    public ConcurrencyLimitingDataSource(DataSource targetDataSource, int maxConcurrent, long acquireTimeoutMillis,
+                                         Map<Priority, Integer> weights, long starvationMs,
+                                         Supplier<Priority> prioritySupplier) {
+        super(targetDataSource);
+        if (maxConcurrent <= 0) {
+            throw new IllegalArgumentException("maxConcurrent must be positive");
+        }
+        // A fixed limit: no latency ever counts as slow, and the limit cannot grow past the maximum
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(maxConcurrent, maxConcurrent, maxConcurrent,
+                Long.MAX_VALUE, 0.5);
+        this.scheduler = new WeightedFairScheduler(limiter, weights, Integer.MAX_VALUE, starvationMs);
+        this.maxConcurrent = maxConcurrent;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.prioritySupplier = prioritySupplier;
+    }
+
+    private static Map<Priority, Integer> equalWeights() {
+        Map<Priority, Integer> weights = new EnumMap<>(Priority.class);
+        Arrays.stream(Priority.values()).forEach(priority -> weights.put(priority, 1));
+        return weights;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        AdaptiveConcurrencyLimiter.Permit permit = acquirePermit();
+        try {
+            return wrap(obtainTargetDataSource().getConnection(), permit);
+        } catch (SQLException | RuntimeException e) {
+            scheduler.release(permit);
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        AdaptiveConcurrencyLimiter.Permit permit = acquirePermit();
+        try {
+            return wrap(obtainTargetDataSource().getConnection(username, password), permit);
+        } catch (SQLException | RuntimeException e) {
+            scheduler.release(permit);
+            throw e;
+        }
+    }
+
+    /**
+     * @return number of connections currently checked out through this datasource
+     */
+    public int getActiveConnections() {
+        return scheduler.getLimiter().getInFlight();
+    }
+
+    /**
+     * @return number of callers currently waiting for a permit
+     */
+    public int getWaitingCallers() {
+        return Arrays.stream(Priority.values()).mapToInt(scheduler::getQueueDepth).sum();
+    }
+
+    /**
+     * @param priority a priority
+     * @return number of callers of that priority currently waiting for a permit
+     */
+    public int getWaitingCallers(Priority priority) {
+        return scheduler.getQueueDepth(priority);
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    private AdaptiveConcurrencyLimiter.Permit acquirePermit() throws SQLException {
+        Priority priority = prioritySupplier.get();
+        try {
+            AdaptiveConcurrencyLimiter.Permit permit = scheduler.acquire(priority, acquireTimeoutMillis);
+            if (permit == null) {
+                logger.warn("Timed out after {} ms waiting for a database permit at {} priority ({} callers waiting)",
+                        acquireTimeoutMillis, priority, getWaitingCallers());
+                throw new SQLTransientConnectionException(
+                        "Database concurrency limit of " + maxConcurrent + " reached; timed out waiting for a connection");
+            }
+            return permit;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a database permit", e);
+        }
+    }
+
+    // Returns a connection proxy that gives the permit back exactly once when closed
+    private Connection wrap(Connection target, AdaptiveConcurrencyLimiter.Permit permit) {
+        AtomicBoolean released = new AtomicBoolean(false);
+        InvocationHandler handler = (proxy, method, args) -> invoke(target, permit, released, method, args);
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, handler);
+    }
+
+    private Object invoke(Connection target, AdaptiveConcurrencyLimiter.Permit permit, AtomicBoolean released,
+                          Method method, Object[] args) throws Throwable {
+        if ("close".equals(method.getName()) && method.getParameterCount() == 0) {
+            try {
+                target.close();
+            } finally {
+                if (released.compareAndSet(false, true)) {
+                    scheduler.release(permit);
+                }
+            }
+            return null;
+        }
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.example.employeemanagementsystem.datasource;
+
+import com.example.employeemanagementsystem.exception.QueryDeadlineExceededException;
+import com.example.employeemanagementsystem.limiter.WeightedFairScheduler.Priority;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Time budget for the database work of one request. The deadline is bound to the thread doing the
+ * work, where {@link QueryTimeoutDataSource} finds it and gives every statement the remaining time
+ * as its JDBC query timeout, so the database abandons a query the client would no longer wait for.
+ * When the deadline is cancelled, because the client went away or the work was given up, the
+ * statements still open under it are cancelled on the database too.
+ * <p>
+ * Work forked to other threads takes the deadline along with {@link #wrap(Callable)}.
+ * <p>
+ * The deadline also carries the priority of its request, by which {@link ConcurrencyLimitingDataSource}
+ * hands out connections, so it follows the work to the same threads.
+ */
+public final class QueryDeadline {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryDeadline.class);
+
+    private static final ThreadLocal<QueryDeadline> current = new ThreadLocal<>();
+
+    // Closed statements are dropped from the tracked set once it grows beyond this
+    private static final int PRUNE_THRESHOLD = 64;
+
+    private final long timeoutMillis;
+    private final boolean bounded;
+    private final long deadlineNanos;
+    private final QueryDeadline parent;
+    private final Priority priority;
+    private final LongSupplier clock;
+    private final Set<Statement> statements = ConcurrentHashMap.newKeySet();
+    private volatile boolean cancelled;
+
+    /**
+     * @param timeoutMillis time from now until the deadline; 0 for none, leaving only cancellation
+     */
+    public QueryDeadline(long timeoutMillis) {
+        this(timeoutMillis, Priority.NORMAL);
+    }
+
+    /**
+     * @param timeoutMillis time from now until the deadline; 0 for none, leaving only cancellation
+     * @param priority      priority of the request's database work
+     */
+    public QueryDeadline(long timeoutMillis, Priority priority) {
+        this(timeoutMillis, priority, null, System::nanoTime);
+    }
+
+    QueryDeadline(long timeoutMillis, QueryDeadline parent, LongSupplier clock) {
+        this(timeoutMillis, parent != null ? parent.priority : Priority.NORMAL, parent, clock);
+    }
+
+    private QueryDeadline(long timeoutMillis, Priority priority, QueryDeadline parent, LongSupplier clock) {
+        long now = clock.getAsLong();
+        long deadline = now + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        boolean bounded = timeoutMillis > 0;
+        if (parent != null && parent.bounded && (!bounded || parent.deadlineNanos - deadline < 0)) {
+            deadline = parent.deadlineNanos;
+            bounded = true;
+        }
+        this.timeoutMillis = bounded ? Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadline - now)) : 0;
+        this.bounded = bounded;
+        this.deadlineNanos = deadline;
+        this.parent = parent;
+        this.priority = priority;
+        this.clock = clock;
+    }
+
+    /**
+     * @return the deadline bound to the current thread, or null if its queries are not limited
+     */
+    public static QueryDeadline current() {
+        return current.get();
+    }
+
+    /**
+     * Bind a deadline to the current thread, replacing any other.
+     *
+     * @param deadline the deadline, or null to unbind
+     */
+    public static void set(QueryDeadline deadline) {
+        if (deadline != null) {
+            current.set(deadline);
+        } else {
+            current.remove();
+        }
+    }
+
+    public static void clear() {
+        current.remove();
+    }
+
+    /**
+     * @return the priority of the current thread's deadline, or normal if it has none
+     */
+    public static Priority currentPriority() {
+        QueryDeadline deadline = current.get();
+        return deadline != null ? deadline.priority : Priority.NORMAL;
+    }
+
+    /**
+     * @throws QueryDeadlineExceededException if the current thread's deadline has passed or was cancelled
+     */
+    public static void checkCurrent() {
+        QueryDeadline deadline = current.get();
+        if (deadline != null) {
+            deadline.check();
+        }
+    }
+
+    /**
+     * @return the task, running under the current thread's deadline on whichever thread executes it
+     */
+    public static <T> Callable<T> propagate(Callable<T> task) {
+        QueryDeadline deadline = current.get();
+        return deadline != null ? deadline.wrap(task) : task;
+    }
+
+    /**
+     * @param timeoutMillis time from now until the new deadline; 0 for no more than this one's
+     * @return a deadline that ends no later than this one, has its priority and is cancelled along with it
+     */
+    public QueryDeadline child(long timeoutMillis) {
+        return new QueryDeadline(timeoutMillis, this, clock);
+    }
+
+    /**
+     * @return the task, running under this deadline on whichever thread executes it
+     */
+    public <T> Callable<T> wrap(Callable<T> task) {
+        return () -> {
+            QueryDeadline previous = current.get();
+            current.set(this);
+            try {
+                return task.call();
+            } finally {
+                set(previous);
+            }
+        };
+    }
+
+    /**
+     * @return true if the deadline has passed or was cancelled
+     */
+    public boolean isExpired() {
+        return cancelled
+                || bounded && clock.getAsLong() - deadlineNanos >= 0
+                || parent != null && parent.isExpired();
+    }
+
+    /**
+     * @throws QueryDeadlineExceededException if the deadline has passed or was cancelled
+     */
+    public void check() {
+        if (isExpired()) {
+            throw new QueryDeadlineExceededException(isCancelled()
+                    ? "Request was cancelled"
+                    : "Request did not complete within " + timeoutMillis + " ms", timeoutMillis);
+        }
+    }
+
+    /**
+     * Give up the work under this deadline: statements still open are cancelled on the database,
+     * and no further statement may be created.
+     */
+    public void cancel() {
+        cancelled = true;
+        for (Statement statement : statements) {
+            try {
+                if (!statement.isClosed()) {
+                    statement.cancel();
+                }
+            } catch (SQLException e) {
+                logger.debug("Could not cancel a statement", e);
+            }
+        }
+        statements.clear();
+    }
+
+    public boolean isCancelled() {
+        return cancelled || parent != null && parent.isCancelled();
+    }
+
+    /**
+     * @return the time allowed from when the deadline was created, or 0 if it is not bounded
+     */
+    public long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+    // The remaining time in whole seconds as JDBC counts it, rounded up; 0 when not bounded
+    int remainingQueryTimeoutSeconds() {
+        if (!bounded) {
+            return 0;
+        }
+        long remaining = deadlineNanos - clock.getAsLong();
+        return (int) Math.max(1, Math.min(Integer.MAX_VALUE, (remaining + TimeUnit.SECONDS.toNanos(1) - 1)
+                / TimeUnit.SECONDS.toNanos(1)));
+    }
+
+    // Tracks a statement until it closes, here and in every enclosing deadline, so cancelling any of them cancels it
+    void register(Statement statement) {
+        for (QueryDeadline deadline = this; deadline != null; deadline = deadline.parent) {
+            if (deadline.statements.size() >= PRUNE_THRESHOLD) {
+                deadline.statements.removeIf(QueryDeadline::isClosed);
+            }
+            deadline.statements.add(statement);
+        }
+        // Cancelled while the statement was being created
+        if (isCancelled()) {
+            cancel();
+        }
+    }
+
+    private static boolean isClosed(Statement statement) {
+        try {
+            return statement.isClosed();
+        } catch (SQLException e) {
+            return true;
+        }
+    }
+}
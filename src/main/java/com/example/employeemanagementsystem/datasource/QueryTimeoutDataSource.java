@@ -0,0 +1,73 @@
+package com.example.employeemanagementsystem.datasource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.Set;
+
+/**
+ * DataSource wrapper that holds every statement to the {@link QueryDeadline} of the thread
+ * creating it: the statement gets the remaining time as its JDBC query timeout, after which the
+ * driver cancels it on the database, and it is cancelled along with the deadline. Once the
+ * deadline has passed no statement can be created; the caller gets an {@link SQLTimeoutException},
+ * which JPA and Spring translate to a query timeout.
+ * <p>
+ * Statements created without a deadline get no timeout, clearing one left on a statement the
+ * driver reuses from its cache.
+ */
+public class QueryTimeoutDataSource extends DelegatingDataSource {
+
+    private static final Set<String> STATEMENT_FACTORIES = Set.of("createStatement", "prepareStatement", "prepareCall");
+
+    public QueryTimeoutDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private static Connection wrap(Connection target) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> invoke(target, method, args));
+    }
+
+    private static Object invoke(Connection target, Method method, Object[] args) throws Throwable {
+        if (!STATEMENT_FACTORIES.contains(method.getName())) {
+            return invokeTarget(target, method, args);
+        }
+        QueryDeadline deadline = QueryDeadline.current();
+        if (deadline != null && deadline.isExpired()) {
+            throw new SQLTimeoutException(deadline.isCancelled()
+                    ? "Request was cancelled"
+                    : "Request deadline of " + deadline.getTimeoutMillis() + " ms exceeded");
+        }
+        Statement statement = (Statement) invokeTarget(target, method, args);
+        statement.setQueryTimeout(deadline != null ? deadline.remainingQueryTimeoutSeconds() : 0);
+        if (deadline != null) {
+            deadline.register(statement);
+        }
+        return statement;
+    }
+
+    private static Object invokeTarget(Connection target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
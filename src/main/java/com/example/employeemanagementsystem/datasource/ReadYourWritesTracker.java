@@ -0,0 +1,64 @@
+package com.example.employeemanagementsystem.datasource;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Remembers which principals committed a write recently, so their reads can be kept on the
+ * primary until replicas have had time to catch up. Entries expire after the sticky window
+ * and are pruned lazily, so memory stays proportional to the number of recent writers.
+ */
+public class ReadYourWritesTracker {
+
+    private static final int PRUNE_THRESHOLD = 10_000;
+
+    private final long windowNanos;
+    private final LongSupplier clock;
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+
+    /**
+     * @param windowMillis how long after a write the principal's reads stay on the primary
+     */
+    public ReadYourWritesTracker(long windowMillis) {
+        this(windowMillis, System::nanoTime);
+    }
+
+    ReadYourWritesTracker(long windowMillis, LongSupplier clock) {
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        this.clock = clock;
+    }
+
+    /**
+     * Record that the principal has just committed a write.
+     */
+    public void recordWrite(String principal) {
+        if (principal == null || windowNanos <= 0) {
+            return;
+        }
+        long now = clock.getAsLong();
+        lastWrites.put(principal, now);
+        if (lastWrites.size() > PRUNE_THRESHOLD) {
+            lastWrites.values().removeIf(writtenAt -> now - writtenAt >= windowNanos);
+        }
+    }
+
+    /**
+     * @return true if the principal committed a write within the sticky window
+     */
+    public boolean isRecentWriter(String principal) {
+        if (principal == null) {
+            return false;
+        }
+        Long writtenAt = lastWrites.get(principal);
+        if (writtenAt == null) {
+            return false;
+        }
+        if (clock.getAsLong() - writtenAt < windowNanos) {
+            return true;
+        }
+        lastWrites.remove(principal, writtenAt);
+        return false;
+    }
+}
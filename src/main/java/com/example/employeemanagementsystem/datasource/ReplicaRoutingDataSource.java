@@ -0,0 +1,228 @@
+package com.example.employeemanagementsystem.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Hands out read-only connections from a set of replicas.
+ * Replicas are picked round-robin or by fewest connections in use. A replica that fails to
+ * connect is skipped until its retry delay has passed, and when no replica is available the
+ * primary serves the read. Principals that wrote within the sticky window are also sent to the
+ * primary, so they always read their own writes.
+ * Used as the read-only target of a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy},
+ * which routes connections of {@code @Transactional(readOnly = true)} methods here.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    /**
+     * How the next replica is chosen.
+     */
+    public enum Strategy {
+        ROUND_ROBIN,
+        LEAST_LOADED
+    }
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final Strategy strategy;
+    private final long retryNanos;
+    private final ReadYourWritesTracker tracker;
+    private final Supplier<String> principalSupplier;
+
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final AtomicLong primaryFallbacks = new AtomicLong();
+    private final AtomicLong stickyReads = new AtomicLong();
+
+    /**
+     * @param primary           datasource used for sticky reads and when no replica is available
+     * @param replicas          replica datasources, in configuration order
+     * @param strategy          replica selection strategy
+     * @param retryMillis       how long a failed replica is skipped before it is tried again
+     * @param tracker           recent writers that must read from the primary
+     * @param principalSupplier name of the current principal, or null outside a request
+     */
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, Strategy strategy, long retryMillis,
+                                    ReadYourWritesTracker tracker, Supplier<String> principalSupplier) {
+        this.primary = primary;
+        this.replicas = new ArrayList<>();
+        for (int i = 0; i < replicas.size(); i++) {
+            this.replicas.add(new Replica("replica-" + i, replicas.get(i)));
+        }
+        this.strategy = strategy;
+        this.retryNanos = TimeUnit.MILLISECONDS.toNanos(retryMillis);
+        this.tracker = tracker;
+        this.principalSupplier = principalSupplier;
+    }
+
+    // Opens a connection on the chosen datasource, with the configured or the given credentials
+    @FunctionalInterface
+    private interface Opener {
+        Connection open(DataSource dataSource) throws SQLException;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return route(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    private Connection route(Opener opener) throws SQLException {
+        String principal = principalSupplier.get();
+        if (tracker.isRecentWriter(principal)) {
+            stickyReads.incrementAndGet();
+            return opener.open(primary);
+        }
+
+        for (Replica replica : candidates()) {
+            try {
+                return replica.connect(opener);
+            } catch (SQLException e) {
+                replica.markDown();
+                logger.warn("Replica {} unavailable, skipping it for {} ms: {}",
+                        replica.name, TimeUnit.NANOSECONDS.toMillis(retryNanos), e.getMessage());
+            }
+        }
+
+        primaryFallbacks.incrementAndGet();
+        logger.debug("No replica available, reading from the primary");
+        return opener.open(primary);
+    }
+
+    // Healthy replicas in the order they should be tried
+    private List<Replica> candidates() {
+        long now = System.nanoTime();
+        List<Replica> healthy = new ArrayList<>(replicas.size());
+        if (strategy == Strategy.ROUND_ROBIN && !replicas.isEmpty()) {
+            int start = Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+            for (int i = 0; i < replicas.size(); i++) {
+                Replica replica = replicas.get((start + i) % replicas.size());
+                if (replica.isUp(now)) {
+                    healthy.add(replica);
+                }
+            }
+        } else {
+            for (Replica replica : replicas) {
+                if (replica.isUp(now)) {
+                    healthy.add(replica);
+                }
+            }
+            healthy.sort(Comparator.comparingInt(replica -> replica.active.get()));
+        }
+        return healthy;
+    }
+
+    /**
+     * @return number of configured replicas
+     */
+    public int getReplicaCount() {
+        return replicas.size();
+    }
+
+    /**
+     * @return number of replicas not currently skipped after a failure
+     */
+    public int getHealthyReplicaCount() {
+        long now = System.nanoTime();
+        return (int) replicas.stream().filter(replica -> replica.isUp(now)).count();
+    }
+
+    /**
+     * @return read-only connections served by the primary because no replica was available
+     */
+    public long getPrimaryFallbacks() {
+        return primaryFallbacks.get();
+    }
+
+    /**
+     * @return read-only connections served by the primary for read-your-writes stickiness
+     */
+    public long getStickyReads() {
+        return stickyReads.get();
+    }
+
+    /**
+     * Closes replica datasources that are closeable (connection pools).
+     */
+    @Override
+    public void close() throws IOException {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private final class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        private final AtomicInteger active = new AtomicInteger();
+        private volatile long downUntil;
+        private volatile boolean down;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        private boolean isUp(long now) {
+            return !down || now - downUntil >= 0;
+        }
+
+        private void markDown() {
+            downUntil = System.nanoTime() + retryNanos;
+            down = true;
+        }
+
+        // Returns a connection proxy that tracks in-use connections for least-loaded selection
+        private Connection connect(Opener opener) throws SQLException {
+            Connection target = opener.open(dataSource);
+            down = false;
+            active.incrementAndGet();
+            AtomicBoolean closed = new AtomicBoolean(false);
+            InvocationHandler handler = (proxy, method, args) -> {
+                if ("close".equals(method.getName()) && method.getParameterCount() == 0) {
+                    try {
+                        target.close();
+                    } finally {
+                        if (closed.compareAndSet(false, true)) {
+                            active.decrementAndGet();
+                        }
+                    }
+                    return null;
+                }
+                try {
+                    return method.invoke(target, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getTargetException();
+                }
+            };
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, handler);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.employeemanagementsystem.datasource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.function.Supplier;
+
+/**
+ * Wraps the primary datasource and reports read-write transactions to the
+ * {@link ReadYourWritesTracker} once they commit, keyed by the current principal.
+ */
+public class WriteTrackingDataSource extends DelegatingDataSource {
+
+    private final ReadYourWritesTracker tracker;
+    private final Supplier<String> principalSupplier;
+
+    public WriteTrackingDataSource(DataSource primary, ReadYourWritesTracker tracker, Supplier<String> principalSupplier) {
+        super(primary);
+        this.tracker = tracker;
+        this.principalSupplier = principalSupplier;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Connection connection = obtainTargetDataSource().getConnection();
+        trackWrite();
+        return connection;
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        Connection connection = obtainTargetDataSource().getConnection(username, password);
+        trackWrite();
+        return connection;
+    }
+
+    private void trackWrite() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return;
+        }
+        String principal = principalSupplier.get();
+        if (principal != null) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    tracker.recordWrite(principal);
+                }
+            });
+        }
+    }
+}
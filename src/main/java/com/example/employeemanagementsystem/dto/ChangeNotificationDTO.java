@@ -0,0 +1,92 @@
+package com.example.employeemanagementsystem.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Data Transfer Object for one notification on the change stream: the employee changes committed
+ * since the previous notification, limited to the subscriber's scope, and which reports they affect.
+ */
+public class ChangeNotificationDTO {
+
+    /**
+     * Outbox ID of the last change included.
+     */
+    private long lastEventId;
+
+    /**
+     * The changed employees, or null if there were too many to list (see {@link #resync}).
+     */
+    private List<EmployeeChangeDTO> employees;
+
+    /**
+     * True if the employee list was left out and the subscriber should reload instead.
+     */
+    private boolean resync;
+
+    /**
+     * Names of the reports under /api/reports whose results may have changed.
+     */
+    private List<String> reports;
+
+    /**
+     * Change in headcount per department ID; departments with no net change are left out.
+     */
+    private Map<Long, Long> headcountDeltas;
+
+    /**
+     * Default constructor.
+     */
+    public ChangeNotificationDTO() {
+        super();
+    }
+
+    public ChangeNotificationDTO(long lastEventId, List<EmployeeChangeDTO> employees, boolean resync,
+                                 List<String> reports, Map<Long, Long> headcountDeltas) {
+        this.lastEventId = lastEventId;
+        this.employees = employees;
+        this.resync = resync;
+        this.reports = reports;
+        this.headcountDeltas = headcountDeltas;
+    }
+
+    public long getLastEventId() {
+        return lastEventId;
+    }
+
+    public void setLastEventId(long lastEventId) {
+        this.lastEventId = lastEventId;
+    }
+
+    public List<EmployeeChangeDTO> getEmployees() {
+        return employees;
+    }
+
+    public void setEmployees(List<EmployeeChangeDTO> employees) {
+        this.employees = employees;
+    }
+
+    public boolean isResync() {
+        return resync;
+    }
+
+    public void setResync(boolean resync) {
+        this.resync = resync;
+    }
+
+    public List<String> getReports() {
+        return reports;
+    }
+
+    public void setReports(List<String> reports) {
+        this.reports = reports;
+    }
+
+    public Map<Long, Long> getHeadcountDeltas() {
+        return headcountDeltas;
+    }
+
+    public void setHeadcountDeltas(Map<Long, Long> headcountDeltas) {
+        this.headcountDeltas = headcountDeltas;
+    }
+}
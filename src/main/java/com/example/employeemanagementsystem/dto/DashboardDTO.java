@@ -0,0 +1,76 @@
+package com.example.employeemanagementsystem.dto;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for the combined reporting dashboard.
+ * Holds every report section in a fixed order, whether the dashboard is complete,
+ * and how long it took to assemble.
+ */
+public class DashboardDTO {
+
+    /**
+     * Report sections in display order.
+     */
+    private List<DashboardSectionDTO> sections;
+
+    /**
+     * True if every section completed successfully.
+     */
+    private boolean complete;
+
+    /**
+     * Wall-clock time spent assembling the dashboard, in milliseconds.
+     */
+    private long elapsedMillis;
+
+    /**
+     * Default constructor.
+     */
+    public DashboardDTO() {
+        super();
+    }
+
+    /**
+     * Constructor computing completeness from the given sections.
+     *
+     * @param sections      report sections in display order
+     * @param elapsedMillis time spent assembling the dashboard
+     */
+    public DashboardDTO(List<DashboardSectionDTO> sections, long elapsedMillis) {
+        this.sections = sections;
+        this.complete = sections.stream().allMatch(DashboardSectionDTO::isOk);
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    // Getters and Setters
+
+    public List<DashboardSectionDTO> getSections() {
+        return sections;
+    }
+
+    public void setSections(List<DashboardSectionDTO> sections) {
+        this.sections = sections;
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    public void setComplete(boolean complete) {
+        this.complete = complete;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "DashboardDTO [sections=" + sections + ", complete=" + complete + ", elapsedMillis=" + elapsedMillis + "]";
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.employeemanagementsystem.dto;
+
+/**
+ * Data Transfer Object for a single section of the dashboard.
+ * Each section wraps the result of one report query together with a status marker,
+ * so a slow or failing query degrades only its own section.
+ */
+public class DashboardSectionDTO {
+
+    /**
+     * Section completed and {@link #data} holds the report result.
+     */
+    public static final String STATUS_OK = "OK";
+
+    /**
+     * Section did not complete before the dashboard deadline.
+     */
+    public static final String STATUS_TIMEOUT = "TIMEOUT";
+
+    /**
+     * Section query failed with an error.
+     */
+    public static final String STATUS_ERROR = "ERROR";
+
+    /**
+     * The section name (e.g., totalEmployees, employeesByDepartment).
+     */
+    private String name;
+
+    /**
+     * One of OK, TIMEOUT or ERROR.
+     */
+    private String status;
+
+    /**
+     * The report result, or null if the section did not complete.
+     */
+    private Object data;
+
+    /**
+     * Error description when the section did not complete.
+     */
+    private String error;
+
+    /**
+     * Default constructor.
+     */
+    public DashboardSectionDTO() {
+        super();
+    }
+
+    /**
+     * Constructor for a fully populated section.
+     *
+     * @param name   the section name
+     * @param status the section status
+     * @param data   the report result
+     * @param error  the error description
+     */
+    public DashboardSectionDTO(String name, String status, Object data, String error) {
+        this.name = name;
+        this.status = status;
+        this.data = data;
+        this.error = error;
+    }
+
+    /**
+     * Creates a completed section.
+     */
+    public static DashboardSectionDTO ok(String name, Object data) {
+        return new DashboardSectionDTO(name, STATUS_OK, data, null);
+    }
+
+    /**
+     * Creates a section that missed the deadline.
+     */
+    public static DashboardSectionDTO timeout(String name, long deadlineMillis) {
+        return new DashboardSectionDTO(name, STATUS_TIMEOUT, null, "Timed out after " + deadlineMillis + " ms");
+    }
+
+    /**
+     * Creates a section whose query failed.
+     */
+    public static DashboardSectionDTO error(String name, String error) {
+        return new DashboardSectionDTO(name, STATUS_ERROR, null, error);
+    }
+
+    // Getters and Setters
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Object getData() {
+        return data;
+    }
+
+    public void setData(Object data) {
+        this.data = data;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    /**
+     * @return true if the section completed successfully
+     */
+    public boolean isOk() {
+        return STATUS_OK.equals(status);
+    }
+
+    @Override
+    public String toString() {
+        return "DashboardSectionDTO [name=" + name + ", status=" + status + ", error=" + error + "]";
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.employeemanagementsystem.dto;
+
+import java.util.Date;
+
+/**
+ * Data Transfer Object for the analytic attributes of one employee,
+ * selected directly by the queries that fill the in-memory column store.
+ */
+public class EmployeeAnalyticsRowDTO {
+
+    private Long id;
+    private String departmentName;
+    private String jobTitle;
+    private String gender;
+    private Double salary;
+    private Date hireDate;
+    private Date dateOfBirth;
+
+    /**
+     * Default constructor.
+     */
+    public EmployeeAnalyticsRowDTO() {
+        super();
+    }
+
+    public EmployeeAnalyticsRowDTO(Long id, String departmentName, String jobTitle, String gender, Double salary,
+                                   Date hireDate, Date dateOfBirth) {
+        this.id = id;
+        this.departmentName = departmentName;
+        this.jobTitle = jobTitle;
+        this.gender = gender;
+        this.salary = salary;
+        this.hireDate = hireDate;
+        this.dateOfBirth = dateOfBirth;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getDepartmentName() {
+        return departmentName;
+    }
+
+    public String getJobTitle() {
+        return jobTitle;
+    }
+
+    public String getGender() {
+        return gender;
+    }
+
+    public Double getSalary() {
+        return salary;
+    }
+
+    public Date getHireDate() {
+        return hireDate;
+    }
+
+    public Date getDateOfBirth() {
+        return dateOfBirth;
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.employeemanagementsystem.dto;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for a change to one employee in a change notification.
+ * Several changes to the same employee within one notification are merged into one.
+ */
+public class EmployeeChangeDTO {
+
+    /**
+     * ID of the changed employee.
+     */
+    private Long id;
+
+    /**
+     * CREATED, UPDATED or DELETED.
+     */
+    private String change;
+
+    /**
+     * Names of the changed attributes; empty for created and deleted employees.
+     */
+    private List<String> fields;
+
+    /**
+     * Version of the employee after the change, or null if unknown.
+     */
+    private Long version;
+
+    /**
+     * Default constructor.
+     */
+    public EmployeeChangeDTO() {
+        super();
+    }
+
+    public EmployeeChangeDTO(Long id, String change, List<String> fields, Long version) {
+        this.id = id;
+        this.change = change;
+        this.fields = fields;
+        this.version = version;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getChange() {
+        return change;
+    }
+
+    public void setChange(String change) {
+        this.change = change;
+    }
+
+    public List<String> getFields() {
+        return fields;
+    }
+
+    public void setFields(List<String> fields) {
+        this.fields = fields;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
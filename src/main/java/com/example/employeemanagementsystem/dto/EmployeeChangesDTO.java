@@ -0,0 +1,78 @@
+package com.example.employeemanagementsystem.dto;
+
+import com.example.employeemanagementsystem.entity.Employee;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for one page of the employee change log: the employees changed after the
+ * client's sequence, in their current state, and the IDs of those deleted since.
+ */
+public class EmployeeChangesDTO {
+
+    /**
+     * Employees added or updated since the requested sequence, ordered by the sequence of their last change.
+     */
+    private List<Employee> employees;
+
+    /**
+     * IDs of employees deleted since the requested sequence.
+     */
+    private List<Long> deletedIds;
+
+    /**
+     * Resume token: the sequence to pass as {@code since} on the next request.
+     */
+    private long resumeToken;
+
+    /**
+     * True if more changes are available after the resume token.
+     */
+    private boolean hasMore;
+
+    /**
+     * Default constructor.
+     */
+    public EmployeeChangesDTO() {
+        super();
+    }
+
+    public EmployeeChangesDTO(List<Employee> employees, List<Long> deletedIds, long resumeToken, boolean hasMore) {
+        this.employees = employees;
+        this.deletedIds = deletedIds;
+        this.resumeToken = resumeToken;
+        this.hasMore = hasMore;
+    }
+
+    public List<Employee> getEmployees() {
+        return employees;
+    }
+
+    public void setEmployees(List<Employee> employees) {
+        this.employees = employees;
+    }
+
+    public List<Long> getDeletedIds() {
+        return deletedIds;
+    }
+
+    public void setDeletedIds(List<Long> deletedIds) {
+        this.deletedIds = deletedIds;
+    }
+
+    public long getResumeToken() {
+        return resumeToken;
+    }
+
+    public void setResumeToken(long resumeToken) {
+        this.resumeToken = resumeToken;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
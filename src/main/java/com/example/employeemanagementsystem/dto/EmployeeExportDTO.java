@@ -0,0 +1,153 @@
+package com.example.employeemanagementsystem.dto;
+
+import java.util.Date;
+
+/**
+ * Data Transfer Object for bulk employee exports.
+ * A flat projection of the serialized Employee fields, selected directly by the export
+ * queries so rows can be streamed without loading entities or their associations.
+ */
+public class EmployeeExportDTO {
+
+    private Long id;
+    private String firstName;
+    private String lastName;
+    private String email;
+    private String phoneNumber;
+    private String jobTitle;
+    private Double salary;
+    private String gender;
+    private Date hireDate;
+    private Date dateOfBirth;
+    private Long version;
+
+    /**
+     * Default constructor.
+     */
+    public EmployeeExportDTO() {
+        super();
+    }
+
+    /**
+     * Constructor for rows without a version.
+     */
+    public EmployeeExportDTO(Long id, String firstName, String lastName, String email, String phoneNumber,
+                             String jobTitle, Double salary, String gender, Date hireDate, Date dateOfBirth) {
+        this(id, firstName, lastName, email, phoneNumber, jobTitle, salary, gender, hireDate, dateOfBirth, null);
+    }
+
+    /**
+     * Constructor used by the JPQL export projections.
+     */
+    public EmployeeExportDTO(Long id, String firstName, String lastName, String email, String phoneNumber,
+                             String jobTitle, Double salary, String gender, Date hireDate, Date dateOfBirth,
+                             Long version) {
+        this.id = id;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.email = email;
+        this.phoneNumber = phoneNumber;
+        this.jobTitle = jobTitle;
+        this.salary = salary;
+        this.gender = gender;
+        this.hireDate = hireDate;
+        this.dateOfBirth = dateOfBirth;
+        this.version = version;
+    }
+
+    // Getters and Setters
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public void setFirstName(String firstName) {
+        this.firstName = firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public void setLastName(String lastName) {
+        this.lastName = lastName;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public String getPhoneNumber() {
+        return phoneNumber;
+    }
+
+    public void setPhoneNumber(String phoneNumber) {
+        this.phoneNumber = phoneNumber;
+    }
+
+    public String getJobTitle() {
+        return jobTitle;
+    }
+
+    public void setJobTitle(String jobTitle) {
+        this.jobTitle = jobTitle;
+    }
+
+    public Double getSalary() {
+        return salary;
+    }
+
+    public void setSalary(Double salary) {
+        this.salary = salary;
+    }
+
+    public String getGender() {
+        return gender;
+    }
+
+    public void setGender(String gender) {
+        this.gender = gender;
+    }
+
+    public Date getHireDate() {
+        return hireDate;
+    }
+
+    public void setHireDate(Date hireDate) {
+        this.hireDate = hireDate;
+    }
+
+    public Date getDateOfBirth() {
+        return dateOfBirth;
+    }
+
+    public void setDateOfBirth(Date dateOfBirth) {
+        this.dateOfBirth = dateOfBirth;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    @Override
+    public String toString() {
+        return "EmployeeExportDTO [id=" + id + ", firstName=" + firstName + ", lastName=" + lastName +
+                ", email=" + email + ", jobTitle=" + jobTitle + "]";
+    }
+}
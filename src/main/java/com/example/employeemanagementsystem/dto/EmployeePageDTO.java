@@ -0,0 +1,77 @@
+package com.example.employeemanagementsystem.dto;
+
+import com.example.employeemanagementsystem.entity.Employee;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for one page of employees, ordered by ID.
+ */
+public class EmployeePageDTO {
+
+    /**
+     * The employees of the page, at most the page size.
+     */
+    private List<Employee> content;
+
+    /**
+     * Zero-based page number.
+     */
+    private int page;
+
+    /**
+     * Requested page size.
+     */
+    private int size;
+
+    /**
+     * Number of employees across all pages.
+     */
+    private long totalElements;
+
+    /**
+     * Default constructor.
+     */
+    public EmployeePageDTO() {
+        super();
+    }
+
+    public EmployeePageDTO(List<Employee> content, int page, int size, long totalElements) {
+        this.content = content;
+        this.page = page;
+        this.size = size;
+        this.totalElements = totalElements;
+    }
+
+    public List<Employee> getContent() {
+        return content;
+    }
+
+    public void setContent(List<Employee> content) {
+        this.content = content;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public void setPage(int page) {
+        this.page = page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public long getTotalElements() {
+        return totalElements;
+    }
+
+    public void setTotalElements(long totalElements) {
+        this.totalElements = totalElements;
+    }
+}
@@ -82,6 +82,11 @@ public class EmployeeRequest {
     @Valid
     private Department department;
 
+    /**
+     * ID of the employee the new employee reports to (optional).
+     */
+    private Long managerId;
+
     // Getters and Setters
 
     public String getFirstName() {
@@ -160,4 +165,11 @@ public class EmployeeRequest {
     public void setDepartment(Department department) {
         this.department = department;
     }
+
+    public Long getManagerId() {
+        return managerId;
+    }
+    public void setManagerId(Long managerId) {
+        this.managerId = managerId;
+    }
 }
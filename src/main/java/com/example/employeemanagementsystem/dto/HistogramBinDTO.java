@@ -0,0 +1,59 @@
+package com.example.employeemanagementsystem.dto;
+
+/**
+ * Data Transfer Object for one bin of a salary histogram.
+ */
+public class HistogramBinDTO {
+
+    /**
+     * Lower bound of the bin (inclusive).
+     */
+    private double lowerBound;
+
+    /**
+     * Upper bound of the bin (exclusive, inclusive for the last bin).
+     */
+    private double upperBound;
+
+    /**
+     * Number of salaries in the bin.
+     */
+    private long count;
+
+    /**
+     * Default constructor.
+     */
+    public HistogramBinDTO() {
+        super();
+    }
+
+    public HistogramBinDTO(double lowerBound, double upperBound, long count) {
+        this.lowerBound = lowerBound;
+        this.upperBound = upperBound;
+        this.count = count;
+    }
+
+    public double getLowerBound() {
+        return lowerBound;
+    }
+
+    public void setLowerBound(double lowerBound) {
+        this.lowerBound = lowerBound;
+    }
+
+    public double getUpperBound() {
+        return upperBound;
+    }
+
+    public void setUpperBound(double upperBound) {
+        this.upperBound = upperBound;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.employeemanagementsystem.dto;
+
+/**
+ * Data Transfer Object for moving an employee (and everyone under them) to a new manager.
+ */
+public class ManagerAssignmentDTO {
+
+    /**
+     * ID of the new manager; null makes the employee a top-level manager.
+     */
+    private Long managerId;
+
+    /**
+     * Default constructor.
+     */
+    public ManagerAssignmentDTO() {
+        super();
+    }
+
+    public ManagerAssignmentDTO(Long managerId) {
+        this.managerId = managerId;
+    }
+
+    public Long getManagerId() {
+        return managerId;
+    }
+
+    public void setManagerId(Long managerId) {
+        this.managerId = managerId;
+    }
+}
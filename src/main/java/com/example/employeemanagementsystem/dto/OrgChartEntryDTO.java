@@ -0,0 +1,86 @@
+package com.example.employeemanagementsystem.dto;
+
+/**
+ * Data Transfer Object for one employee in a reporting subtree.
+ */
+public class OrgChartEntryDTO {
+
+    private Long id;
+    private String firstName;
+    private String lastName;
+    private String jobTitle;
+
+    /**
+     * The employee's direct manager.
+     */
+    private Long managerId;
+
+    /**
+     * Reporting levels below the subtree root (1 for direct reports).
+     */
+    private int depth;
+
+    /**
+     * Default constructor.
+     */
+    public OrgChartEntryDTO() {
+        super();
+    }
+
+    public OrgChartEntryDTO(Long id, String firstName, String lastName, String jobTitle, Long managerId, int depth) {
+        this.id = id;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.jobTitle = jobTitle;
+        this.managerId = managerId;
+        this.depth = depth;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public void setFirstName(String firstName) {
+        this.firstName = firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public void setLastName(String lastName) {
+        this.lastName = lastName;
+    }
+
+    public String getJobTitle() {
+        return jobTitle;
+    }
+
+    public void setJobTitle(String jobTitle) {
+        this.jobTitle = jobTitle;
+    }
+
+    public Long getManagerId() {
+        return managerId;
+    }
+
+    public void setManagerId(Long managerId) {
+        this.managerId = managerId;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public void setDepth(int depth) {
+        this.depth = depth;
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.employeemanagementsystem.dto;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for a pivot report: one row per non-empty combination of the
+ * group-by dimensions, largest groups first, capped at the requested limit.
+ */
+public class PivotReportDTO {
+
+    /**
+     * The group-by dimensions, in the order used for each row's group.
+     */
+    private List<String> groupBy;
+
+    /**
+     * The rows, at most the requested limit.
+     */
+    private List<PivotRowDTO> rows;
+
+    /**
+     * Number of non-empty groups before the limit was applied.
+     */
+    private int totalGroups;
+
+    /**
+     * True if rows were dropped by the limit.
+     */
+    private boolean truncated;
+
+    /**
+     * Default constructor.
+     */
+    public PivotReportDTO() {
+        super();
+    }
+
+    public PivotReportDTO(List<String> groupBy, List<PivotRowDTO> rows, int totalGroups) {
+        this.groupBy = groupBy;
+        this.rows = rows;
+        this.totalGroups = totalGroups;
+        this.truncated = rows.size() < totalGroups;
+    }
+
+    public List<String> getGroupBy() {
+        return groupBy;
+    }
+
+    public void setGroupBy(List<String> groupBy) {
+        this.groupBy = groupBy;
+    }
+
+    public List<PivotRowDTO> getRows() {
+        return rows;
+    }
+
+    public void setRows(List<PivotRowDTO> rows) {
+        this.rows = rows;
+    }
+
+    public int getTotalGroups() {
+        return totalGroups;
+    }
+
+    public void setTotalGroups(int totalGroups) {
+        this.totalGroups = totalGroups;
+    }
+
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    public void setTruncated(boolean truncated) {
+        this.truncated = truncated;
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.employeemanagementsystem.dto;
+
+import java.util.Map;
+
+/**
+ * Data Transfer Object for one row of a pivot report: the values of the group-by
+ * dimensions and the salary statistics of the employees in that group.
+ */
+public class PivotRowDTO {
+
+    /**
+     * Group-by dimension names mapped to this row's values, in group-by order.
+     */
+    private Map<String, String> group;
+
+    /**
+     * The number of employees in this group.
+     */
+    private Long count;
+
+    /**
+     * Salary statistics over the employees with a salary; null if none has one.
+     */
+    private Double totalSalary;
+    private Double averageSalary;
+    private Double minSalary;
+    private Double maxSalary;
+
+    /**
+     * Population standard deviation of the salaries.
+     */
+    private Double salaryStandardDeviation;
+
+    /**
+     * Default constructor.
+     */
+    public PivotRowDTO() {
+        super();
+    }
+
+    public PivotRowDTO(Map<String, String> group, Long count, Double totalSalary, Double averageSalary,
+                       Double minSalary, Double maxSalary, Double salaryStandardDeviation) {
+        this.group = group;
+        this.count = count;
+        this.totalSalary = totalSalary;
+        this.averageSalary = averageSalary;
+        this.minSalary = minSalary;
+        this.maxSalary = maxSalary;
+        this.salaryStandardDeviation = salaryStandardDeviation;
+    }
+
+    public Map<String, String> getGroup() {
+        return group;
+    }
+
+    public void setGroup(Map<String, String> group) {
+        this.group = group;
+    }
+
+    public Long getCount() {
+        return count;
+    }
+
+    public void setCount(Long count) {
+        this.count = count;
+    }
+
+    public Double getTotalSalary() {
+        return totalSalary;
+    }
+
+    public void setTotalSalary(Double totalSalary) {
+        this.totalSalary = totalSalary;
+    }
+
+    public Double getAverageSalary() {
+        return averageSalary;
+    }
+
+    public void setAverageSalary(Double averageSalary) {
+        this.averageSalary = averageSalary;
+    }
+
+    public Double getMinSalary() {
+        return minSalary;
+    }
+
+    public void setMinSalary(Double minSalary) {
+        this.minSalary = minSalary;
+    }
+
+    public Double getMaxSalary() {
+        return maxSalary;
+    }
+
+    public void setMaxSalary(Double maxSalary) {
+        this.maxSalary = maxSalary;
+    }
+
+    public Double getSalaryStandardDeviation() {
+        return salaryStandardDeviation;
+    }
+
+    public void setSalaryStandardDeviation(Double salaryStandardDeviation) {
+        this.salaryStandardDeviation = salaryStandardDeviation;
+    }
+}
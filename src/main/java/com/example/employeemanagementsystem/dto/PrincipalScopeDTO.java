@@ -0,0 +1,92 @@
+package com.example.employeemanagementsystem.dto;
+
+/**
+ * Data Transfer Object for one row of the login lookup: the user's credentials and one of their roles,
+ * together with the records the login is tied to, the user's own employee record and one department
+ * they manage, either of which may be absent.
+ */
+public class PrincipalScopeDTO {
+
+    /**
+     * Username of the login.
+     */
+    private String username;
+
+    /**
+     * Encrypted password of the login.
+     */
+    private String password;
+
+    /**
+     * Name of one of the user's roles, or null if they have none.
+     */
+    private String roleName;
+
+    /**
+     * ID of the user's own employee record, or null if the user has none.
+     */
+    private Long employeeId;
+
+    /**
+     * ID of a department managed by the user, or null if they manage none.
+     */
+    private Long managedDepartmentId;
+
+    /**
+     * Default constructor.
+     */
+    public PrincipalScopeDTO() {
+        super();
+    }
+
+    /**
+     * Constructor used by the JPQL projection.
+     */
+    public PrincipalScopeDTO(String username, String password, String roleName, Long employeeId, Long managedDepartmentId) {
+        this.username = username;
+        this.password = password;
+        this.roleName = roleName;
+        this.employeeId = employeeId;
+        this.managedDepartmentId = managedDepartmentId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    public String getRoleName() {
+        return roleName;
+    }
+
+    public void setRoleName(String roleName) {
+        this.roleName = roleName;
+    }
+
+    public Long getEmployeeId() {
+        return employeeId;
+    }
+
+    public void setEmployeeId(Long employeeId) {
+        this.employeeId = employeeId;
+    }
+
+    public Long getManagedDepartmentId() {
+        return managedDepartmentId;
+    }
+
+    public void setManagedDepartmentId(Long managedDepartmentId) {
+        this.managedDepartmentId = managedDepartmentId;
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.employeemanagementsystem.dto;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for the salary distribution of one group (a department, a job title,
+ * or the whole company): percentiles and a histogram. Values are estimates within 1%.
+ */
+public class SalaryDistributionDTO {
+
+    /**
+     * Group name, e.g. the department name.
+     */
+    private String label;
+
+    /**
+     * Number of employees in the group with a salary.
+     */
+    private long count;
+
+    /**
+     * Median salary.
+     */
+    private Double p50;
+
+    /**
+     * 90th percentile salary.
+     */
+    private Double p90;
+
+    /**
+     * 99th percentile salary.
+     */
+    private Double p99;
+
+    /**
+     * Equal-width bins from the lowest to the highest salary.
+     */
+    private List<HistogramBinDTO> histogram;
+
+    /**
+     * Default constructor.
+     */
+    public SalaryDistributionDTO() {
+        super();
+    }
+
+    public SalaryDistributionDTO(String label, long count, Double p50, Double p90, Double p99, List<HistogramBinDTO> histogram) {
+        this.label = label;
+        this.count = count;
+        this.p50 = p50;
+        this.p90 = p90;
+        this.p99 = p99;
+        this.histogram = histogram;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public void setLabel(String label) {
+        this.label = label;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    public Double getP50() {
+        return p50;
+    }
+
+    public void setP50(Double p50) {
+        this.p50 = p50;
+    }
+
+    public Double getP90() {
+        return p90;
+    }
+
+    public void setP90(Double p90) {
+        this.p90 = p90;
+    }
+
+    public Double getP99() {
+        return p99;
+    }
+
+    public void setP99(Double p99) {
+        this.p99 = p99;
+    }
+
+    public List<HistogramBinDTO> getHistogram() {
+        return histogram;
+    }
+
+    public void setHistogram(List<HistogramBinDTO> histogram) {
+        this.histogram = histogram;
+    }
+}
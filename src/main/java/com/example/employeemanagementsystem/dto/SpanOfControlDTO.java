@@ -0,0 +1,77 @@
+package com.example.employeemanagementsystem.dto;
+
+/**
+ * Data Transfer Object for the span of control of one manager:
+ * how many employees report to them directly and in total.
+ */
+public class SpanOfControlDTO {
+
+    private Long employeeId;
+    private String firstName;
+    private String lastName;
+
+    /**
+     * Employees reporting directly to the manager.
+     */
+    private long directReports;
+
+    /**
+     * Headcount of the manager's whole subtree, excluding the manager.
+     */
+    private long totalReports;
+
+    /**
+     * Default constructor.
+     */
+    public SpanOfControlDTO() {
+        super();
+    }
+
+    public SpanOfControlDTO(Long employeeId, String firstName, String lastName, Long directReports, Long totalReports) {
+        this.employeeId = employeeId;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.directReports = directReports != null ? directReports : 0;
+        this.totalReports = totalReports != null ? totalReports : 0;
+    }
+
+    public Long getEmployeeId() {
+        return employeeId;
+    }
+
+    public void setEmployeeId(Long employeeId) {
+        this.employeeId = employeeId;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public void setFirstName(String firstName) {
+        this.firstName = firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public void setLastName(String lastName) {
+        this.lastName = lastName;
+    }
+
+    public long getDirectReports() {
+        return directReports;
+    }
+
+    public void setDirectReports(long directReports) {
+        this.directReports = directReports;
+    }
+
+    public long getTotalReports() {
+        return totalReports;
+    }
+
+    public void setTotalReports(long totalReports) {
+        this.totalReports = totalReports;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.employeemanagementsystem.dto;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for the time series of one group (e.g., one department),
+ * with one point per bucket in which the group existed.
+ */
+public class TimeSeriesDTO {
+
+    /**
+     * The group label (e.g., department name, job title or gender).
+     */
+    private String label;
+
+    /**
+     * Points in time order.
+     */
+    private List<TimeSeriesPointDTO> points;
+
+    /**
+     * Default constructor.
+     */
+    public TimeSeriesDTO() {
+        super();
+    }
+
+    public TimeSeriesDTO(String label, List<TimeSeriesPointDTO> points) {
+        this.label = label;
+        this.points = points;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public void setLabel(String label) {
+        this.label = label;
+    }
+
+    public List<TimeSeriesPointDTO> getPoints() {
+        return points;
+    }
+
+    public void setPoints(List<TimeSeriesPointDTO> points) {
+        this.points = points;
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.employeemanagementsystem.dto;
+
+import java.time.Instant;
+
+/**
+ * Data Transfer Object for one downsampled point of a report time series.
+ */
+public class TimeSeriesPointDTO {
+
+    /**
+     * Start of the bucket this point summarizes.
+     */
+    private Instant timestamp;
+
+    /**
+     * Headcount of the group in the bucket.
+     */
+    private Double count;
+
+    /**
+     * Salary total of the group in the bucket, if reported for the dimension.
+     */
+    private Double totalSalary;
+
+    /**
+     * Average salary of the group in the bucket (total salary over headcount).
+     */
+    private Double averageSalary;
+
+    /**
+     * Default constructor.
+     */
+    public TimeSeriesPointDTO() {
+        super();
+    }
+
+    public TimeSeriesPointDTO(Instant timestamp, Double count, Double totalSalary) {
+        this.timestamp = timestamp;
+        this.count = count;
+        this.totalSalary = totalSalary;
+        this.averageSalary = totalSalary != null && count != null && count > 0 ? totalSalary / count : null;
+    }
+
+    public Instant getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(Instant timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public Double getCount() {
+        return count;
+    }
+
+    public void setCount(Double count) {
+        this.count = count;
+    }
+
+    public Double getTotalSalary() {
+        return totalSalary;
+    }
+
+    public void setTotalSalary(Double totalSalary) {
+        this.totalSalary = totalSalary;
+    }
+
+    public Double getAverageSalary() {
+        return averageSalary;
+    }
+
+    public void setAverageSalary(Double averageSalary) {
+        this.averageSalary = averageSalary;
+    }
+}
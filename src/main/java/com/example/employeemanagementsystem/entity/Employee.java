@@ -5,6 +5,8 @@ import java.util.Date;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.hibernate.annotations.ColumnDefault;
 
 /**
  * Entity representing an Employee in the Employee Management System.
@@ -74,6 +76,15 @@ public class Employee {
     @JsonIgnore
     private Department department;
 
+    /**
+     * The employee this employee reports to; null at the top of a reporting line.
+     * Changed through OrgChartService, which keeps the employee_hierarchy closure table in step.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "manager_id")
+    @JsonIgnore
+    private Employee manager;
+
     /**
      * Date when the employee was hired.
      */
@@ -86,6 +97,16 @@ public class Employee {
     @Temporal(TemporalType.DATE)
     private Date dateOfBirth;
 
+    /**
+     * Optimistic lock version, incremented on every update.
+     * Clients send it back in If-Match to make partial updates conditional.
+     */
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+
     /**
      * Default constructor.
      */
@@ -217,6 +238,20 @@ public class Employee {
         this.department = department;
     }
 
+    public Employee getManager() {
+        return manager;
+    }
+    public void setManager(Employee manager) {
+        this.manager = manager;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @Override
     public String toString() {
         return "Employee [id=" + id +
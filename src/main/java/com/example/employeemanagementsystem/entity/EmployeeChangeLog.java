@@ -0,0 +1,83 @@
+package com.example.employeemanagementsystem.entity;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * Entity representing the latest change to one employee in the change log: the sequence number
+ * it was given and whether the employee was deleted (a tombstone). The log is compacted, so an
+ * employee changed many times has a single row carrying the sequence of the last change.
+ */
+@Entity
+@Table(name = "employee_change_log",
+       indexes = @Index(name = "idx_employee_change_log_sequence", columnList = "sequence", unique = true))
+public class EmployeeChangeLog {
+
+    /**
+     * Primary key: ID of the changed employee.
+     */
+    @Id
+    @Column(name = "employee_id")
+    private Long employeeId;
+
+    /**
+     * Sequence number of the latest change, increasing in commit order.
+     */
+    @Column(nullable = false)
+    private long sequence;
+
+    /**
+     * True if the latest change deleted the employee.
+     */
+    @Column(nullable = false)
+    private boolean deleted;
+
+    /**
+     * When the latest change was logged.
+     */
+    @Column(name = "changed_at", nullable = false)
+    private Instant changedAt;
+
+    /**
+     * Default constructor.
+     */
+    public EmployeeChangeLog() {
+        super();
+    }
+
+    public EmployeeChangeLog(Long employeeId, long sequence, boolean deleted, Instant changedAt) {
+        this.employeeId = employeeId;
+        this.sequence = sequence;
+        this.deleted = deleted;
+        this.changedAt = changedAt;
+    }
+
+    public Long getEmployeeId() {
+        return employeeId;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+
+    public boolean isDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(boolean deleted) {
+        this.deleted = deleted;
+    }
+
+    public Instant getChangedAt() {
+        return changedAt;
+    }
+
+    public void setChangedAt(Instant changedAt) {
+        this.changedAt = changedAt;
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.employeemanagementsystem.entity;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Entity representing one row of the reporting-line closure table: the ancestor is the descendant
+ * itself (depth 0) or one of the managers above them (depth = number of levels between them).
+ * Every employee has one row per level above them plus their own, so "everyone under X",
+ * depth-limited subtrees and subtree headcounts are single range scans on the ancestor.
+ * Maintained by OrgChartService together with {@link Employee#getManager()}.
+ */
+@Entity
+@IdClass(EmployeeHierarchy.Key.class)
+@Table(name = "employee_hierarchy",
+       indexes = {
+           @Index(name = "idx_employee_hierarchy_ancestor_depth", columnList = "ancestor_id, depth"),
+           @Index(name = "idx_employee_hierarchy_descendant", columnList = "descendant_id, ancestor_id")
+       })
+public class EmployeeHierarchy {
+
+    /**
+     * The manager (or the employee themselves at depth 0).
+     */
+    @Id
+    @Column(name = "ancestor_id")
+    private Long ancestorId;
+
+    /**
+     * The employee somewhere under the ancestor.
+     */
+    @Id
+    @Column(name = "descendant_id")
+    private Long descendantId;
+
+    /**
+     * Number of reporting levels from the ancestor down to the descendant.
+     */
+    @Column(nullable = false)
+    private int depth;
+
+    /**
+     * Default constructor.
+     */
+    public EmployeeHierarchy() {
+        super();
+    }
+
+    public EmployeeHierarchy(Long ancestorId, Long descendantId, int depth) {
+        this.ancestorId = ancestorId;
+        this.descendantId = descendantId;
+        this.depth = depth;
+    }
+
+    public Long getAncestorId() {
+        return ancestorId;
+    }
+
+    public Long getDescendantId() {
+        return descendantId;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Composite primary key (ancestor, descendant).
+     */
+    public static class Key implements Serializable {
+
+        private Long ancestorId;
+        private Long descendantId;
+
+        public Key() {
+        }
+
+        public Key(Long ancestorId, Long descendantId) {
+            this.ancestorId = ancestorId;
+            this.descendantId = descendantId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key key)) {
+                return false;
+            }
+            return Objects.equals(ancestorId, key.ancestorId) && Objects.equals(descendantId, key.descendantId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(ancestorId, descendantId);
+        }
+    }
+}
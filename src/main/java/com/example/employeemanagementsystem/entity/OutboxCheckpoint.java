@@ -0,0 +1,91 @@
+package com.example.employeemanagementsystem.entity;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * Entity representing how far one change event listener has got through the outbox: every event
+ * up to and including {@code lastEventId} has been delivered to it. After a restart, delivery
+ * resumes after this position. The employee change log also keeps its retention horizon here.
+ * <p>
+ * Instances sharing the database take turns delivering to a listener: the one holding the lease
+ * ({@code owner} until {@code leaseUntil}) delivers, and moves the checkpoint only if it still
+ * holds the lease and the checkpoint is where it last left it.
+ */
+@Entity
+@Table(name = "outbox_checkpoint")
+public class OutboxCheckpoint {
+
+    /**
+     * Primary key: name of the listener.
+     */
+    @Id
+    @Column(name = "listener_name", length = 100)
+    private String listenerName;
+
+    /**
+     * ID of the last event delivered to the listener.
+     */
+    @Column(name = "last_event_id", nullable = false)
+    private long lastEventId;
+
+    /**
+     * Instance currently delivering to the listener, or null if none.
+     */
+    @Column(name = "owner", length = 100)
+    private String owner;
+
+    /**
+     * When the owner's lease expires, after which another instance may take over.
+     */
+    @Column(name = "lease_until")
+    private Instant leaseUntil;
+
+    /**
+     * When the checkpoint last moved.
+     */
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    /**
+     * Default constructor.
+     */
+    public OutboxCheckpoint() {
+        super();
+    }
+
+    public OutboxCheckpoint(String listenerName, long lastEventId, Instant updatedAt) {
+        this.listenerName = listenerName;
+        this.lastEventId = lastEventId;
+        this.updatedAt = updatedAt;
+    }
+
+    public String getListenerName() {
+        return listenerName;
+    }
+
+    public long getLastEventId() {
+        return lastEventId;
+    }
+
+    public void setLastEventId(long lastEventId) {
+        this.lastEventId = lastEventId;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public Instant getLeaseUntil() {
+        return leaseUntil;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
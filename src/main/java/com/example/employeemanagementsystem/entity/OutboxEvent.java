@@ -0,0 +1,151 @@
+package com.example.employeemanagementsystem.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.Instant;
+
+/**
+ * Entity representing one change event in the transactional outbox. Each write appends its event
+ * in the same transaction as the change itself, so an event exists if and only if the change was
+ * committed. The ID orders events; the change event dispatcher delivers them from there.
+ */
+@Entity
+@Immutable
+@Table(name = "outbox_event")
+public class OutboxEvent {
+
+    /**
+     * The kind of change.
+     */
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    /**
+     * Primary key: position of the event in the outbox.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Name of the changed entity type (e.g., "Employee").
+     */
+    @Column(name = "entity_type", length = 50, nullable = false, updatable = false)
+    private String entityType;
+
+    /**
+     * ID of the changed entity.
+     */
+    @Column(name = "entity_id", nullable = false, updatable = false)
+    private Long entityId;
+
+    /**
+     * The kind of change.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "change_type", length = 16, nullable = false, updatable = false)
+    private ChangeType changeType;
+
+    /**
+     * Comma-separated names of the changed attributes; null for inserts and deletes.
+     */
+    @Column(name = "changed_fields", length = 500, updatable = false)
+    private String changedFields;
+
+    /**
+     * Comma-separated IDs of the departments the entity belonged to before and after the change;
+     * null if the writer did not know them.
+     */
+    @Column(name = "department_ids", length = 100, updatable = false)
+    private String departmentIds;
+
+    /**
+     * Changed attributes with their values before and after, as a JSON array; null if not recorded.
+     */
+    @Lob
+    @Column(name = "field_changes", updatable = false)
+    private String fieldChanges;
+
+    /**
+     * Username of who made the change, or "system"; null for events appended before it was recorded.
+     */
+    @Column(name = "actor", length = 100, updatable = false)
+    private String actor;
+
+    /**
+     * Version of the entity after the change, or null if unknown.
+     */
+    @Column(name = "entity_version", updatable = false)
+    private Long entityVersion;
+
+    /**
+     * When the event was appended.
+     */
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    /**
+     * Default constructor.
+     */
+    public OutboxEvent() {
+        super();
+    }
+
+    public OutboxEvent(String entityType, Long entityId, ChangeType changeType, String changedFields,
+                       String fieldChanges, String actor, String departmentIds, Long entityVersion,
+                       Instant createdAt) {
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.changeType = changeType;
+        this.changedFields = changedFields;
+        this.fieldChanges = fieldChanges;
+        this.actor = actor;
+        this.departmentIds = departmentIds;
+        this.entityVersion = entityVersion;
+        this.createdAt = createdAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getEntityType() {
+        return entityType;
+    }
+
+    public Long getEntityId() {
+        return entityId;
+    }
+
+    public ChangeType getChangeType() {
+        return changeType;
+    }
+
+    public String getChangedFields() {
+        return changedFields;
+    }
+
+    public String getFieldChanges() {
+        return fieldChanges;
+    }
+
+    public String getActor() {
+        return actor;
+    }
+
+    public String getDepartmentIds() {
+        return departmentIds;
+    }
+
+    public Long getEntityVersion() {
+        return entityVersion;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.employeemanagementsystem.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.Instant;
+
+/**
+ * Entity representing one row of a periodic report snapshot: the headcount and salary total
+ * of one group (a department, job title or gender) at the time the snapshot was taken.
+ * Snapshots are append-only; each capture writes a full set of rows sharing the same timestamp.
+ */
+@Entity
+@Immutable
+@Table(name = "report_snapshot",
+       indexes = @Index(name = "idx_report_snapshot_dimension_time", columnList = "dimension, captured_at"))
+public class ReportSnapshot {
+
+    /**
+     * The grouping a snapshot row belongs to.
+     */
+    public enum Dimension {
+        TOTAL,
+        DEPARTMENT,
+        JOB_TITLE,
+        GENDER
+    }
+
+    /**
+     * Primary key: Unique identifier for each snapshot row.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * When the snapshot was taken (shared by all rows of one capture).
+     */
+    @Column(name = "captured_at", nullable = false, updatable = false)
+    private Instant capturedAt;
+
+    /**
+     * The grouping of this row.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16, nullable = false, updatable = false)
+    private Dimension dimension;
+
+    /**
+     * The group label (e.g., department name, job title or gender); null for unset values.
+     */
+    @Column(length = 100, updatable = false)
+    private String label;
+
+    /**
+     * Number of employees in the group.
+     */
+    @Column(nullable = false, updatable = false)
+    private long employeeCount;
+
+    /**
+     * Total salary of the group, or null when not reported for the dimension.
+     */
+    @Column(updatable = false)
+    private Double totalSalary;
+
+    /**
+     * Default constructor.
+     */
+    public ReportSnapshot() {
+        super();
+    }
+
+    public ReportSnapshot(Instant capturedAt, Dimension dimension, String label, long employeeCount, Double totalSalary) {
+        this.capturedAt = capturedAt;
+        this.dimension = dimension;
+        this.label = label;
+        this.employeeCount = employeeCount;
+        this.totalSalary = totalSalary;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Instant getCapturedAt() {
+        return capturedAt;
+    }
+
+    public Dimension getDimension() {
+        return dimension;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public long getEmployeeCount() {
+        return employeeCount;
+    }
+
+    public Double getTotalSalary() {
+        return totalSalary;
+    }
+
+    @Override
+    public String toString() {
+        return "ReportSnapshot [capturedAt=" + capturedAt + ", dimension=" + dimension + ", label=" + label +
+               ", employeeCount=" + employeeCount + ", totalSalary=" + totalSalary + "]";
+    }
+}
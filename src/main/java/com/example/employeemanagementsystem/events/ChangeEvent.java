@@ -0,0 +1,85 @@
+package com.example.employeemanagementsystem.events;
+
+import com.example.employeemanagementsystem.audit.AuditRecord;
+import com.example.employeemanagementsystem.entity.OutboxEvent;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A committed change to an entity, as delivered to {@link ChangeEventListener}s.
+ *
+ * @param id            position in the outbox; events are delivered in ascending order
+ * @param entityType    name of the changed entity type (e.g., "Employee")
+ * @param entityId      ID of the changed entity
+ * @param changeType    insert, update or delete
+ * @param changedFields names of the changed attributes; empty for inserts and deletes
+ * @param departmentIds departments the entity belonged to before and after the change; empty if not recorded
+ * @param version       version of the entity after the change, or null if unknown
+ * @param occurredAt    when the change was made
+ * @param actor         username of who made the change, or "system"; null if not recorded
+ * @param fieldChanges  the changed attributes with their values before and after; empty if not recorded
+ */
+public record ChangeEvent(long id, String entityType, Long entityId, OutboxEvent.ChangeType changeType,
+                          List<String> changedFields, List<Long> departmentIds, Long version, Instant occurredAt,
+                          String actor, List<AuditRecord.FieldChange> fieldChanges) {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static final TypeReference<List<AuditRecord.FieldChange>> FIELD_CHANGES = new TypeReference<>() {
+    };
+
+    /**
+     * A change event without an actor or field values.
+     */
+    public ChangeEvent(long id, String entityType, Long entityId, OutboxEvent.ChangeType changeType,
+                       List<String> changedFields, List<Long> departmentIds, Long version, Instant occurredAt) {
+        this(id, entityType, entityId, changeType, changedFields, departmentIds, version, occurredAt, null, List.of());
+    }
+
+    /**
+     * @param event the stored outbox event
+     * @return the change event it records
+     */
+    public static ChangeEvent of(OutboxEvent event) {
+        List<Long> departmentIds = split(event.getDepartmentIds()).stream().map(Long::valueOf).toList();
+        return new ChangeEvent(event.getId(), event.getEntityType(), event.getEntityId(), event.getChangeType(),
+                split(event.getChangedFields()), departmentIds, event.getEntityVersion(), event.getCreatedAt(),
+                event.getActor(), readFieldChanges(event.getFieldChanges()));
+    }
+
+    /**
+     * @param fieldChanges changed attributes with their values before and after
+     * @return them as stored in the outbox, or null if there are none
+     */
+    public static String writeFieldChanges(List<AuditRecord.FieldChange> fieldChanges) {
+        if (fieldChanges == null || fieldChanges.isEmpty()) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(fieldChanges);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static List<AuditRecord.FieldChange> readFieldChanges(String json) {
+        if (json == null || json.isEmpty()) {
+            return List.of();
+        }
+        try {
+            return List.copyOf(objectMapper.readValue(json, FIELD_CHANGES));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static List<String> split(String values) {
+        return values == null || values.isEmpty() ? List.of() : List.of(values.split(","));
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.employeemanagementsystem.events;
+
+import java.util.List;
+
+/**
+ * Receives committed change events from the outbox. Register an implementation as a Spring bean.
+ * <p>
+ * Delivery is at least once: a batch that fails, or that was being delivered when the process
+ * stopped, is delivered again, so handling must be idempotent (e.g., keyed on the event ID or the
+ * entity version). Events reach each listener in outbox order, on the dispatcher thread, after the
+ * listener's previous batch has returned; the exception is an event whose transaction committed
+ * late, after events with higher IDs had been delivered, which arrives on its own afterwards.
+ * <p>
+ * A listener that updates shared state (a table, the shards) is delivered to by one instance at
+ * a time, from its checkpoint. A listener that keeps state per instance (a cache, open
+ * connections) declares itself {@link #isInstanceScoped() instance-scoped}, so that every instance
+ * receives every event.
+ */
+public interface ChangeEventListener {
+
+    /**
+     * @return a stable, unique name; the listener's delivery position is stored under it
+     */
+    String getName();
+
+    /**
+     * @return true if the listener only updates state held by this instance. Every instance then
+     * delivers every event to it, starting at startup with the recent events and keeping its
+     * position in memory only; false (the default) for a listener with a shared checkpoint
+     */
+    default boolean isInstanceScoped() {
+        return false;
+    }
+
+    /**
+     * Handle a batch of events. Throwing causes the whole batch to be redelivered later.
+     *
+     * @param events the events, in outbox order
+     * @throws Exception if the batch could not be handled
+     */
+    void onEvents(List<ChangeEvent> events) throws Exception;
+}
@@ -0,0 +1,10 @@
+package com.example.employeemanagementsystem.exception;
+
+/**
+ * Thrown when a client asks for changes since a sequence older than the change log retains.
+ */
+public class ChangeLogExpiredException extends RuntimeException {
+    public ChangeLogExpiredException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.employeemanagementsystem.exception;
+
+/**
+ * Thrown when the change stream already has as many subscribers as it accepts.
+ */
+public class ChangeStreamCapacityException extends RuntimeException {
+    public ChangeStreamCapacityException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.employeemanagementsystem.exception;
+
+/**
+ * Thrown when a conditional update targets an employee version that is no longer current.
+ */
+public class EmployeeVersionConflictException extends RuntimeException {
+    public EmployeeVersionConflictException(String message) {
+        super(message);
+    }
+}
@@ -2,6 +2,7 @@ package com.example.employeemanagementsystem.exception;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -71,6 +72,56 @@ public class GlobalExceptionHandler {
         return buildResponse(HttpStatus.FORBIDDEN, "Access Denied");
     }
 
+    @ExceptionHandler(InvalidFieldSetException.class)
+    public ResponseEntity<Object> handleInvalidFieldSet(InvalidFieldSetException ex) {
+        logger.warn("Invalid fieldset: {}", ex.getMessage());
+        return buildResponse(HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+
+    @ExceptionHandler(InvalidReportQueryException.class)
+    public ResponseEntity<Object> handleInvalidReportQuery(InvalidReportQueryException ex) {
+        logger.warn("Invalid report query: {}", ex.getMessage());
+        return buildResponse(HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+
+    @ExceptionHandler(InvalidPageRequestException.class)
+    public ResponseEntity<Object> handleInvalidPageRequest(InvalidPageRequestException ex) {
+        logger.warn("Invalid page request: {}", ex.getMessage());
+        return buildResponse(HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+
+    @ExceptionHandler(ChangeLogExpiredException.class)
+    public ResponseEntity<Object> handleChangeLogExpired(ChangeLogExpiredException ex) {
+        logger.warn("Change log expired: {}", ex.getMessage());
+        return buildResponse(HttpStatus.GONE, ex.getMessage());
+    }
+
+    @ExceptionHandler(ConcurrencyLimitExceededException.class)
+    public ResponseEntity<Object> handleConcurrencyLimitExceeded(ConcurrencyLimitExceededException ex) {
+        logger.warn("Request shed: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(getBody(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage(), null));
+    }
+
+    @ExceptionHandler(QueryDeadlineExceededException.class)
+    public ResponseEntity<Object> handleQueryDeadlineExceeded(QueryDeadlineExceededException ex) {
+        logger.warn("Request ran out of time: {}", ex.getMessage());
+        return buildResponse(HttpStatus.GATEWAY_TIMEOUT, ex.getMessage());
+    }
+
+    @ExceptionHandler(InvalidReportingLineException.class)
+    public ResponseEntity<Object> handleInvalidReportingLine(InvalidReportingLineException ex) {
+        logger.warn("Invalid reporting line: {}", ex.getMessage());
+        return buildResponse(HttpStatus.CONFLICT, ex.getMessage());
+    }
+
+    @ExceptionHandler(EmployeeVersionConflictException.class)
+    public ResponseEntity<Object> handleEmployeeVersionConflict(EmployeeVersionConflictException ex) {
+        logger.warn("Version conflict: {}", ex.getMessage());
+        return buildResponse(HttpStatus.PRECONDITION_FAILED, ex.getMessage());
+    }
+
     @ExceptionHandler(ResourceNotFoundException.class)
     public ResponseEntity<Object> handleResourceNotFound(ResourceNotFoundException ex) {
         logger.error("Resource not found: {}", ex.getMessage());
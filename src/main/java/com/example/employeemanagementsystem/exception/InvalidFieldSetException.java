@@ -0,0 +1,11 @@
+package com.example.employeemanagementsystem.exception;
+
+/**
+ * Thrown when a {@code fields=} parameter or a partial update names attributes outside the allowed set,
+ * or gives one of them a value of the wrong type.
+ */
+public class InvalidFieldSetException extends RuntimeException {
+    public InvalidFieldSetException(String message) {
+        super(message);
+    }
+}
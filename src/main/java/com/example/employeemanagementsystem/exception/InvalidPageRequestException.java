@@ -0,0 +1,10 @@
+package com.example.employeemanagementsystem.exception;
+
+/**
+ * Thrown when a page number or page size is out of range.
+ */
+public class InvalidPageRequestException extends RuntimeException {
+    public InvalidPageRequestException(String message) {
+        super(message);
+    }
+}
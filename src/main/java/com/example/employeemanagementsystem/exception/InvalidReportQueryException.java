@@ -0,0 +1,10 @@
+package com.example.employeemanagementsystem.exception;
+
+/**
+ * Thrown when report query parameters are invalid (unknown dimension, empty range, too many buckets, ...).
+ */
+public class InvalidReportQueryException extends RuntimeException {
+    public InvalidReportQueryException(String message) {
+        super(message);
+    }
+}
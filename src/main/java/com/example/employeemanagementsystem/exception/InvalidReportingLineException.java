@@ -0,0 +1,10 @@
+package com.example.employeemanagementsystem.exception;
+
+/**
+ * Thrown when a manager assignment would make an employee report to themselves or to someone under them.
+ */
+public class InvalidReportingLineException extends RuntimeException {
+    public InvalidReportingLineException(String message) {
+        super(message);
+    }
+}
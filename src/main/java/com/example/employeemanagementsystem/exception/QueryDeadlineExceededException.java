@@ -0,0 +1,21 @@
+package com.example.employeemanagementsystem.exception;
+
+/**
+ * Thrown when a request's database work is abandoned because it ran past its deadline or was cancelled.
+ */
+public class QueryDeadlineExceededException extends RuntimeException {
+
+    private final long timeoutMillis;
+
+    public QueryDeadlineExceededException(String message, long timeoutMillis) {
+        super(message);
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * @return the time the request was allowed, or 0 if it had no deadline
+     */
+    public long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+}
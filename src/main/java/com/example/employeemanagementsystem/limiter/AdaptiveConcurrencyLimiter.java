@@ -0,0 +1,131 @@
+package com.example.employeemanagementsystem.limiter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Concurrency limit that adapts to observed latency (additive increase, multiplicative decrease).
+ * A request is admitted only while fewer than {@link #getLimit()} are in flight; whether one that
+ * is not admitted waits or is rejected is up to the caller. Each request that completes within the
+ * latency threshold while the limit is in use raises the limit by 1/limit, about one per round of
+ * requests; one that exceeds it cuts the limit by the backoff ratio.
+ * <p>
+ * The limit is cut at most once per round: requests admitted before the last cut were slowed
+ * by the load that caused it and say nothing about the new limit.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    /**
+     * Permission to run one request, returned by {@link #tryAcquire()} and handed back to
+     * {@link #release(Permit)} when the request completes.
+     *
+     * @param startNanos when the request was admitted
+     * @param inFlight   requests in flight including this one, when it was admitted
+     */
+    public record Permit(long startNanos, int inFlight) {
+    }
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+    private final LongSupplier clock;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong backoffs = new AtomicLong();
+    private volatile double limit;
+    // Guarded by this
+    private long lastBackoffNanos;
+
+    /**
+     * @param initialLimit       limit before any latency is observed
+     * @param minLimit           the limit is never cut below this
+     * @param maxLimit           the limit never grows beyond this
+     * @param latencyThresholdMs requests slower than this cut the limit
+     * @param backoffRatio       factor applied to the limit on a slow request, between 0 and 1
+     */
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, long latencyThresholdMs,
+                                      double backoffRatio) {
+        this(initialLimit, minLimit, maxLimit, latencyThresholdMs, backoffRatio, System::nanoTime);
+    }
+
+    AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, long latencyThresholdMs,
+                               double backoffRatio, LongSupplier clock) {
+        if (minLimit <= 0 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 0 < min <= initial <= max");
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("backoffRatio must be between 0 and 1");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(latencyThresholdMs);
+        this.backoffRatio = backoffRatio;
+        this.clock = clock;
+        this.limit = initialLimit;
+        this.lastBackoffNanos = clock.getAsLong();
+    }
+
+    /**
+     * Admit a request if the limit allows.
+     *
+     * @return the permit to release when the request completes, or null if the limit is reached
+     */
+    public Permit tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= getLimit()) {
+                return null;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return new Permit(clock.getAsLong(), current + 1);
+            }
+        }
+    }
+
+    /**
+     * Complete an admitted request and adjust the limit to its latency.
+     *
+     * @param permit the permit returned by {@link #tryAcquire()}
+     */
+    public void release(Permit permit) {
+        long now = clock.getAsLong();
+        inFlight.decrementAndGet();
+        long latency = now - permit.startNanos();
+        synchronized (this) {
+            if (latency > latencyThresholdNanos) {
+                if (permit.startNanos() >= lastBackoffNanos) {
+                    limit = Math.max(minLimit, limit * backoffRatio);
+                    lastBackoffNanos = now;
+                    backoffs.incrementAndGet();
+                }
+            } else if (permit.inFlight() * 2 >= limit) {
+                // Only grow a limit that is being used; an idle service proves nothing about a higher one
+                limit = Math.min(maxLimit, limit + 1 / limit);
+            }
+        }
+    }
+
+    /**
+     * @return the current number of requests that may run at once
+     */
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * @return the number of admitted requests that have not completed
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * @return the number of times the limit was cut since startup
+     */
+    public long getBackoffs() {
+        return backoffs.get();
+    }
+}
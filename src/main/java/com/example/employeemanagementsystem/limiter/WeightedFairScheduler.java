@@ -0,0 +1,241 @@
+package com.example.employeemanagementsystem.limiter;
+
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Admits requests to an {@link AdaptiveConcurrencyLimiter} in priority order. While the limit has
+ * room requests run at once; once it is reached they wait in one queue per priority, and each
+ * permit that frees up goes to the next waiter by weighted fair queuing: every waiter gets a
+ * virtual finish time of {@code max(virtual time, previous finish of its priority) + 1 / weight},
+ * and the smallest finish is served first. Higher priorities thus jump ahead, while lower ones
+ * still get their weight's share of the permits.
+ * <p>
+ * As a further guard against starvation, a waiter that has waited longer than the starvation
+ * threshold is served before any other. A request is rejected if its queue is full or it is not
+ * admitted within its maximum wait.
+ */
+public class WeightedFairScheduler {
+
+    /**
+     * Priority of a request, highest first.
+     */
+    public enum Priority {
+        HIGH,
+        NORMAL,
+        LOW
+    }
+
+    private static final class Waiter {
+
+        private final Priority priority;
+        private final double finish;
+        private final long enqueuedNanos;
+        private final Condition admitted;
+        private AdaptiveConcurrencyLimiter.Permit permit;
+
+        private Waiter(Priority priority, double finish, long enqueuedNanos, Condition admitted) {
+            this.priority = priority;
+            this.finish = finish;
+            this.enqueuedNanos = enqueuedNanos;
+            this.admitted = admitted;
+        }
+    }
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final Map<Priority, Integer> weights;
+    private final int maxQueueDepth;
+    private final long starvationNanos;
+    private final LongSupplier clock;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // Guarded by lock
+    private final Map<Priority, ArrayDeque<Waiter>> queues = new EnumMap<>(Priority.class);
+    private final Map<Priority, Double> lastFinish = new EnumMap<>(Priority.class);
+    private double virtualTime;
+    private final AtomicLong rejected = new AtomicLong();
+
+    /**
+     * @param limiter         the limit requests are admitted to
+     * @param weights         share of the permits of each priority while requests are waiting; all positive
+     * @param maxQueueDepth   maximum number of waiting requests per priority
+     * @param starvationMs    a request waiting longer than this is admitted before any other
+     */
+    public WeightedFairScheduler(AdaptiveConcurrencyLimiter limiter, Map<Priority, Integer> weights,
+                                 int maxQueueDepth, long starvationMs) {
+        this(limiter, weights, maxQueueDepth, starvationMs, System::nanoTime);
+    }
+
+    WeightedFairScheduler(AdaptiveConcurrencyLimiter limiter, Map<Priority, Integer> weights,
+                          int maxQueueDepth, long starvationMs, LongSupplier clock) {
+        for (Priority priority : Priority.values()) {
+            if (weights.getOrDefault(priority, 0) <= 0) {
+                throw new IllegalArgumentException("Weight of " + priority + " must be positive");
+            }
+            queues.put(priority, new ArrayDeque<>());
+            lastFinish.put(priority, 0.0);
+        }
+        this.limiter = limiter;
+        this.weights = new EnumMap<>(weights);
+        this.maxQueueDepth = maxQueueDepth;
+        this.starvationNanos = TimeUnit.MILLISECONDS.toNanos(starvationMs);
+        this.clock = clock;
+    }
+
+    /**
+     * Admit a request, waiting for a permit if the limit is reached.
+     *
+     * @param priority  the request's priority
+     * @param maxWaitMs how long the request may wait; 0 rejects it at once if the limit is reached
+     * @return the permit to {@link #release} when the request completes, or null if the request is rejected
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public AdaptiveConcurrencyLimiter.Permit acquire(Priority priority, long maxWaitMs) throws InterruptedException {
+        lock.lock();
+        try {
+            // Requests already waiting go first
+            if (isIdle()) {
+                AdaptiveConcurrencyLimiter.Permit permit = limiter.tryAcquire();
+                if (permit != null) {
+                    return permit;
+                }
+            }
+            ArrayDeque<Waiter> queue = queues.get(priority);
+            if (maxWaitMs <= 0 || queue.size() >= maxQueueDepth) {
+                rejected.incrementAndGet();
+                return null;
+            }
+            double finish = Math.max(virtualTime, lastFinish.get(priority)) + 1.0 / weights.get(priority);
+            Waiter waiter = new Waiter(priority, finish, clock.getAsLong(), lock.newCondition());
+            lastFinish.put(priority, finish);
+            queue.addLast(waiter);
+
+            long remaining = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+            try {
+                while (waiter.permit == null && remaining > 0) {
+                    remaining = waiter.admitted.awaitNanos(remaining);
+                }
+            } catch (InterruptedException e) {
+                abandon(waiter);
+                throw e;
+            }
+            if (waiter.permit == null) {
+                queue.remove(waiter);
+                rejected.incrementAndGet();
+            }
+            return waiter.permit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Admit work at once if the limit has room and nothing is waiting, without queuing and
+     * without counting a rejection. For work that can run under a permit already held instead.
+     *
+     * @return the permit to {@link #release}, or null if there is none to spare
+     */
+    public AdaptiveConcurrencyLimiter.Permit tryAcquire() {
+        lock.lock();
+        try {
+            return isIdle() ? limiter.tryAcquire() : null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Complete an admitted request and pass its permit on to the next waiter.
+     *
+     * @param permit the permit returned by {@link #acquire}
+     */
+    public void release(AdaptiveConcurrencyLimiter.Permit permit) {
+        limiter.release(permit);
+        lock.lock();
+        try {
+            admitWaiters();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Hands out permits to waiters while the limit has room; lock held
+    private void admitWaiters() {
+        Waiter next;
+        while ((next = next()) != null) {
+            AdaptiveConcurrencyLimiter.Permit permit = limiter.tryAcquire();
+            if (permit == null) {
+                return;
+            }
+            queues.get(next.priority).remove(next);
+            virtualTime = Math.max(virtualTime, next.finish);
+            next.permit = permit;
+            next.admitted.signal();
+        }
+    }
+
+    // The starving waiter that has waited longest, else the waiter with the smallest finish; lock held
+    private Waiter next() {
+        long now = clock.getAsLong();
+        Waiter oldest = null;
+        Waiter fairest = null;
+        for (ArrayDeque<Waiter> queue : queues.values()) {
+            Waiter head = queue.peekFirst();
+            if (head == null) {
+                continue;
+            }
+            if (oldest == null || head.enqueuedNanos < oldest.enqueuedNanos) {
+                oldest = head;
+            }
+            if (fairest == null || head.finish < fairest.finish) {
+                fairest = head;
+            }
+        }
+        return oldest != null && now - oldest.enqueuedNanos > starvationNanos ? oldest : fairest;
+    }
+
+    // An interrupted waiter leaves the queue, handing back a permit granted in the meantime; lock held
+    private void abandon(Waiter waiter) {
+        if (waiter.permit != null) {
+            limiter.release(waiter.permit);
+            waiter.permit = null;
+            admitWaiters();
+        } else {
+            queues.get(waiter.priority).remove(waiter);
+        }
+    }
+
+    private boolean isIdle() {
+        return queues.values().stream().allMatch(ArrayDeque::isEmpty);
+    }
+
+    /**
+     * @param priority a priority
+     * @return the number of requests of that priority waiting for a permit
+     */
+    public int getQueueDepth(Priority priority) {
+        lock.lock();
+        try {
+            return queues.get(priority).size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the number of requests rejected since startup, because their queue was full or they waited too long
+     */
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    public AdaptiveConcurrencyLimiter getLimiter() {
+        return limiter;
+    }
+}
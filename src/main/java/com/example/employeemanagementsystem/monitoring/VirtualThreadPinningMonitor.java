@@ -0,0 +1,124 @@
+package com.example.employeemanagementsystem.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Listens for JFR {@code jdk.VirtualThreadPinned} events and reports virtual threads that
+ * blocked while pinned to their carrier thread, typically inside a {@code synchronized} block.
+ * Each event is classified by the code path holding the monitor (JDBC, logging or other),
+ * counted in the {@code jvm.threads.virtual.pinned} meter and logged with the offending frame.
+ */
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    // Package prefixes used to attribute a pinning event to a code path
+    private static final List<String> JDBC_PACKAGES = List.of("com.mysql.", "com.zaxxer.hikari.", "java.sql.", "org.hibernate.");
+    private static final List<String> LOGGING_PACKAGES = List.of("ch.qos.logback.", "org.slf4j.", "org.apache.logging.");
+
+    private final Duration threshold;
+    private final Counter jdbcPinned;
+    private final Counter loggingPinned;
+    private final Counter otherPinned;
+
+    private volatile RecordingStream stream;
+
+    /**
+     * @param meterRegistry registry where pinning counters are published
+     * @param threshold     minimum pinned duration worth reporting
+     */
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry, Duration threshold) {
+        this.threshold = threshold;
+        this.jdbcPinned = pinnedCounter(meterRegistry, "jdbc");
+        this.loggingPinned = pinnedCounter(meterRegistry, "logging");
+        this.otherPinned = pinnedCounter(meterRegistry, "other");
+    }
+
+    @Override
+    public void start() {
+        RecordingStream recording = new RecordingStream();
+        recording.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recording.onEvent(PINNED_EVENT, this::onPinned);
+        recording.startAsync();
+        stream = recording;
+        logger.info("Virtual thread pinning monitor started with threshold {} ms", threshold.toMillis());
+    }
+
+    @Override
+    public void stop() {
+        RecordingStream recording = stream;
+        stream = null;
+        if (recording != null) {
+            recording.close();
+            logger.info("Virtual thread pinning monitor stopped");
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return stream != null;
+    }
+
+    private void onPinned(RecordedEvent event) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        List<RecordedFrame> frames = stackTrace != null ? stackTrace.getFrames() : List.of();
+        String path = classify(frames.stream()
+                .filter(RecordedFrame::isJavaFrame)
+                .map(frame -> frame.getMethod().getType().getName())
+                .toList());
+
+        switch (path) {
+            case "jdbc" -> jdbcPinned.increment();
+            case "logging" -> loggingPinned.increment();
+            default -> otherPinned.increment();
+        }
+
+        String topFrame = frames.isEmpty() ? "unknown" : describe(frames.get(0));
+        logger.warn("Virtual thread pinned for {} ms on {} path at {}",
+                event.getDuration().toMillis(), path, topFrame);
+    }
+
+    /**
+     * Attributes a pinned stack to a code path based on the class names it contains.
+     *
+     * @param classNames class names from the pinned stack, innermost first
+     * @return "jdbc", "logging" or "other"
+     */
+    static String classify(List<String> classNames) {
+        for (String className : classNames) {
+            if (JDBC_PACKAGES.stream().anyMatch(className::startsWith)) {
+                return "jdbc";
+            }
+            if (LOGGING_PACKAGES.stream().anyMatch(className::startsWith)) {
+                return "logging";
+            }
+        }
+        return "other";
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + ":" + frame.getLineNumber();
+    }
+
+    private static Counter pinnedCounter(MeterRegistry registry, String path) {
+        return Counter.builder("jvm.threads.virtual.pinned")
+                .description("Virtual threads that blocked while pinned to a carrier thread")
+                .tag("path", path)
+                .register(registry);
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.employeemanagementsystem.repository;
+
+import com.example.employeemanagementsystem.entity.EmployeeChangeLog;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface EmployeeChangeLogRepository extends JpaRepository<EmployeeChangeLog, Long> {
+
+    // The next changes after a client's sequence, in sequence order (served from the sequence index)
+    List<EmployeeChangeLog> findBySequenceGreaterThanOrderBySequenceAsc(long sequence, Limit limit);
+
+    // The last sequence number handed out, to continue from after a restart
+    @Query("SELECT MAX(c.sequence) FROM EmployeeChangeLog c")
+    Long findMaxSequence();
+
+    // The newest tombstone logged before the given time, the new horizon when tombstones are purged
+    @Query("SELECT MAX(c.sequence) FROM EmployeeChangeLog c WHERE c.deleted = true AND c.changedAt < :before")
+    Long findMaxTombstoneSequence(@Param("before") Instant before);
+
+    // Purge tombstones up to the horizon; clients that have not synced since must resync
+    @Modifying
+    @Query("DELETE FROM EmployeeChangeLog c WHERE c.deleted = true AND c.sequence <= :horizon")
+    int deleteTombstones(@Param("horizon") long horizon);
+}
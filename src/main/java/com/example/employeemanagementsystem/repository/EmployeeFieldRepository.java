@@ -0,0 +1,78 @@
+package com.example.employeemanagementsystem.repository;
+
+import com.example.employeemanagementsystem.entity.Employee;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Column-level queries on Employee: projections that select only the requested columns,
+ * and conditional updates that write only the changed ones. Rows come back as tuples in
+ * the order of the requested attributes, so nothing else is read or hydrated into entities.
+ */
+@Repository
+public class EmployeeFieldRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Stream the given attributes of every employee matching the specification,
+     * fetched from the database in batches. Must be called within a transaction
+     * and the stream must be closed by the caller.
+     */
+    public Stream<Tuple> streamFields(List<String> attributes, Specification<Employee> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Employee> root = query.from(Employee.class);
+
+        List<Selection<?>> selections = attributes.stream()
+                .<Selection<?>>map(root::get)
+                .toList();
+        query.multiselect(selections);
+
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, 500)
+                .getResultStream();
+    }
+
+    /**
+     * Set the given columns of one employee in a single statement, only if the employee is still
+     * at the expected version, and increment the version. Bypasses the persistence context,
+     * so the employee is neither loaded nor dirty-checked.
+     *
+     * @return the number of rows updated: 0 if the employee is missing or at another version
+     */
+    public int updateFields(Long id, long expectedVersion, Map<String, Object> changes) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Employee> update = cb.createCriteriaUpdate(Employee.class);
+        Root<Employee> root = update.from(Employee.class);
+
+        changes.forEach(update::set);
+        Path<Long> version = root.get("version");
+        update.set(version, cb.sum(version, 1L));
+        update.where(cb.equal(root.get("id"), id), cb.equal(version, expectedVersion));
+
+        return entityManager.createQuery(update).executeUpdate();
+    }
+}
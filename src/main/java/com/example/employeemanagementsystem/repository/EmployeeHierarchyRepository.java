@@ -0,0 +1,89 @@
+package com.example.employeemanagementsystem.repository;
+
+import com.example.employeemanagementsystem.dto.OrgChartEntryDTO;
+import com.example.employeemanagementsystem.dto.SpanOfControlDTO;
+import com.example.employeemanagementsystem.entity.EmployeeHierarchy;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface EmployeeHierarchyRepository extends JpaRepository<EmployeeHierarchy, EmployeeHierarchy.Key> {
+
+    // The employee and everyone under them
+    @Query("SELECT h.descendantId FROM EmployeeHierarchy h WHERE h.ancestorId = :id")
+    List<Long> findSubtreeIds(@Param("id") Long id);
+
+    // Everyone above the employee, excluding the employee
+    @Query("SELECT h.ancestorId FROM EmployeeHierarchy h WHERE h.descendantId = :id AND h.depth > 0")
+    List<Long> findAncestorIds(@Param("id") Long id);
+
+    // Employees under the root down to maxDepth levels, nearest levels first
+    @Query("SELECT new com.example.employeemanagementsystem.dto.OrgChartEntryDTO(e.id, e.firstName, e.lastName, e.jobTitle, e.manager.id, h.depth) " +
+           "FROM EmployeeHierarchy h JOIN Employee e ON e.id = h.descendantId " +
+           "WHERE h.ancestorId = :id AND h.depth BETWEEN 1 AND :maxDepth ORDER BY h.depth, e.id")
+    List<OrgChartEntryDTO> findSubtree(@Param("id") Long id, @Param("maxDepth") int maxDepth);
+
+    // Direct and total reports of one employee
+    @Query("SELECT new com.example.employeemanagementsystem.dto.SpanOfControlDTO(e.id, e.firstName, e.lastName, " +
+           "SUM(CASE WHEN h.depth = 1 THEN 1 ELSE 0 END), SUM(CASE WHEN h.depth > 0 THEN 1 ELSE 0 END)) " +
+           "FROM EmployeeHierarchy h JOIN Employee e ON e.id = h.ancestorId WHERE h.ancestorId = :id " +
+           "GROUP BY e.id, e.firstName, e.lastName")
+    SpanOfControlDTO findSpanOfControl(@Param("id") Long id);
+
+    // Direct and total reports of every employee with at least one report, largest subtrees first
+    @Query("SELECT new com.example.employeemanagementsystem.dto.SpanOfControlDTO(e.id, e.firstName, e.lastName, " +
+           "SUM(CASE WHEN h.depth = 1 THEN 1 ELSE 0 END), COUNT(h)) " +
+           "FROM EmployeeHierarchy h JOIN Employee e ON e.id = h.ancestorId WHERE h.depth > 0 " +
+           "GROUP BY e.id, e.firstName, e.lastName ORDER BY COUNT(h) DESC, e.id")
+    List<SpanOfControlDTO> findSpansOfControl();
+
+    // Everyone under the employee with the given username
+    @Query("SELECT h.descendantId FROM EmployeeHierarchy h JOIN Employee m ON m.id = h.ancestorId " +
+           "WHERE m.user.username = :managerUsername AND h.depth > 0")
+    List<Long> findReportingLineIds(@Param("managerUsername") String managerUsername);
+
+    // Whether the employee is the manager themselves or anywhere under them
+    @Query("SELECT COUNT(h) > 0 FROM EmployeeHierarchy h JOIN Employee m ON m.id = h.ancestorId " +
+           "WHERE m.user.username = :managerUsername AND h.descendantId = :id")
+    boolean isInReportingLine(@Param("managerUsername") String managerUsername, @Param("id") Long id);
+
+    // The closure row of a new employee to themselves
+    @Modifying
+    @Query("INSERT INTO EmployeeHierarchy (ancestorId, descendantId, depth) VALUES (:id, :id, 0)")
+    int insertSelfPath(@Param("id") Long id);
+
+    // Give employees without a closure row their own (depth 0), e.g. rows created before the hierarchy existed
+    @Modifying
+    @Query("INSERT INTO EmployeeHierarchy (ancestorId, descendantId, depth) SELECT e.id, e.id, 0 FROM Employee e " +
+           "WHERE NOT EXISTS (SELECT 1 FROM EmployeeHierarchy h WHERE h.ancestorId = e.id AND h.descendantId = e.id)")
+    int insertMissingSelfPaths();
+
+    // Detach a subtree from everyone above it
+    @Modifying
+    @Query("DELETE FROM EmployeeHierarchy h WHERE h.ancestorId IN :ancestors AND h.descendantId IN :subtree")
+    int deletePaths(@Param("ancestors") Collection<Long> ancestors, @Param("subtree") Collection<Long> subtree);
+
+    // Attach the subtree of root under the parent: every ancestor of the parent (and the parent) gains every node of the subtree
+    @Modifying
+    @Query("INSERT INTO EmployeeHierarchy (ancestorId, descendantId, depth) " +
+           "SELECT a.ancestorId, d.descendantId, a.depth + d.depth + 1 FROM EmployeeHierarchy a, EmployeeHierarchy d " +
+           "WHERE a.descendantId = :parentId AND d.ancestorId = :rootId")
+    int insertSubtreePaths(@Param("rootId") Long rootId, @Param("parentId") Long parentId);
+
+    // Paths that ran through a removed employee get one level shorter
+    @Modifying
+    @Query("UPDATE EmployeeHierarchy h SET h.depth = h.depth - 1 WHERE h.ancestorId IN :ancestors AND h.descendantId IN :descendants")
+    int shortenPaths(@Param("ancestors") Collection<Long> ancestors, @Param("descendants") Collection<Long> descendants);
+
+    // Remove every path from or to the employee
+    @Modifying
+    @Query("DELETE FROM EmployeeHierarchy h WHERE h.ancestorId = :id OR h.descendantId = :id")
+    int deleteAllPaths(@Param("id") Long id);
+}
@@ -4,19 +4,33 @@ import com.example.employeemanagementsystem.dto.*;
 import com.example.employeemanagementsystem.entity.Department;
 import com.example.employeemanagementsystem.entity.Employee;
 import com.example.employeemanagementsystem.entity.User;
+import com.example.employeemanagementsystem.snapshot.DirectoryEntry;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface EmployeeRepository extends JpaRepository<Employee, Long>, JpaSpecificationExecutor<Employee> {
 
+    // Everyone under the employee with the username :managerUsername, from the employee_hierarchy closure table
+    String REPORTING_LINE = "(SELECT h.descendantId FROM EmployeeHierarchy h JOIN Employee m ON m.id = h.ancestorId " +
+                            "WHERE m.user.username = :managerUsername AND h.depth > 0)";
+
     // Find employees by department name
     List<Employee> findByDepartment_Name(String departmentName);
 
@@ -57,8 +71,8 @@ public interface EmployeeRepository extends JpaRepository<Employee, Long>, JpaSp
     @Query("SELECT new com.example.employeemanagementsystem.dto.EmployeeReportDTO(e.department.name, COUNT(e), AVG(e.salary), SUM(e.salary)) FROM Employee e GROUP BY e.department.name")
     List<EmployeeReportDTO> getTotalSalaryByDepartment();
 
-    // Get all employees for a specific manager by manager's username
-    @Query("SELECT e FROM Employee e JOIN FETCH e.department WHERE e.department.manager.username = :managerUsername")
+    // Get all employees for a specific manager by manager's username: their department and their reporting line
+    @Query("SELECT e FROM Employee e JOIN FETCH e.department d LEFT JOIN d.manager dm WHERE dm.username = :managerUsername OR e.id IN " + REPORTING_LINE)
     List<Employee> findEmployeesByManager(@Param("managerUsername") String managerUsername);
 
     // Get all employees with department details
@@ -69,7 +83,62 @@ public interface EmployeeRepository extends JpaRepository<Employee, Long>, JpaSp
     @Query("SELECT e FROM Employee e JOIN FETCH e.department WHERE e.id = :employeeId")
     Optional<Employee> findEmployeeWithDepartment(@Param("employeeId") Long employeeId);
 
-    // Manager: Get employee by ID within the manager's department
-    @Query("SELECT e FROM Employee e JOIN FETCH e.department WHERE e.id = :id AND e.department.manager.username = :managerUsername")
+    // Manager: Get employee by ID within the manager's department or reporting line
+    @Query("SELECT e FROM Employee e JOIN FETCH e.department d LEFT JOIN d.manager dm WHERE e.id = :id AND (dm.username = :managerUsername OR e.id IN " + REPORTING_LINE + ")")
     Optional<Employee> findEmployeeByIdForManager(@Param("id") Long id, @Param("managerUsername") String managerUsername);
+
+    // Admin: Stream all employees as flat export rows, fetched from the database in batches
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.example.employeemanagementsystem.dto.EmployeeExportDTO(e.id, e.firstName, e.lastName, e.email, e.phoneNumber, e.jobTitle, e.salary, e.gender, e.hireDate, e.dateOfBirth, e.version) FROM Employee e JOIN e.department d")
+    Stream<EmployeeExportDTO> streamAllEmployees();
+
+    // Manager: Stream employees of the manager's department and reporting line as flat export rows
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.example.employeemanagementsystem.dto.EmployeeExportDTO(e.id, e.firstName, e.lastName, e.email, e.phoneNumber, e.jobTitle, e.salary, e.gender, e.hireDate, e.dateOfBirth, e.version) FROM Employee e LEFT JOIN e.department d LEFT JOIN d.manager dm WHERE dm.username = :managerUsername OR e.id IN " + REPORTING_LINE)
+    Stream<EmployeeExportDTO> streamEmployeesByManager(@Param("managerUsername") String managerUsername);
+
+    // Hierarchy: IDs of the employees reporting directly to a manager
+    @Query("SELECT e.id FROM Employee e WHERE e.manager.id = :managerId")
+    List<Long> findDirectReportIds(@Param("managerId") Long managerId);
+
+    // Hierarchy: Set the manager of an employee
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Employee e SET e.manager = :manager, e.version = e.version + 1 WHERE e.id = :id")
+    int updateManager(@Param("id") Long id, @Param("manager") Employee manager);
+
+    // Hierarchy: Move the direct reports of a manager to another manager (or to the top)
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Employee e SET e.manager = :manager, e.version = e.version + 1 WHERE e.manager.id = :managerId")
+    int reassignDirectReports(@Param("managerId") Long managerId, @Param("manager") Employee manager);
+
+    // Analytics: Stream the analytic attributes of all employees, to fill the in-memory column store
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.example.employeemanagementsystem.dto.EmployeeAnalyticsRowDTO(e.id, d.name, e.jobTitle, e.gender, e.salary, e.hireDate, e.dateOfBirth) FROM Employee e LEFT JOIN e.department d")
+    Stream<EmployeeAnalyticsRowDTO> streamAnalyticsRows();
+
+    // Analytics: Analytic attributes of the given employees (missing ids have been deleted)
+    @Query("SELECT new com.example.employeemanagementsystem.dto.EmployeeAnalyticsRowDTO(e.id, d.name, e.jobTitle, e.gender, e.salary, e.hireDate, e.dateOfBirth) FROM Employee e LEFT JOIN e.department d WHERE e.id IN :ids")
+    List<EmployeeAnalyticsRowDTO> findAnalyticsRows(@Param("ids") Collection<Long> ids);
+
+    // Snapshot: Stream the hot fields of all employees, to write the directory snapshot
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.example.employeemanagementsystem.snapshot.DirectoryEntry(e.id, e.firstName, e.lastName, e.email, d.name, e.jobTitle, e.gender, e.salary, e.hireDate, e.dateOfBirth) FROM Employee e LEFT JOIN e.department d")
+    Stream<DirectoryEntry> streamDirectoryEntries();
+
+    // Admin: One page of the employees with a department, ordered by the pageable's sort
+    @Query(value = "SELECT e FROM Employee e JOIN FETCH e.department",
+           countQuery = "SELECT COUNT(e) FROM Employee e WHERE e.department IS NOT NULL")
+    Page<Employee> findAllEmployeesWithDepartment(Pageable pageable);
+
+    // Change stream: [employee ID, department ID] of the given employees that have a department
+    @Query("SELECT e.id, e.department.id FROM Employee e WHERE e.id IN :ids AND e.department IS NOT NULL")
+    List<Object[]> findDepartmentIdsByIds(@Param("ids") Collection<Long> ids);
+
+    // Sharding: IDs of all employees, to copy them to the shards in batches
+    @Query("SELECT e.id FROM Employee e ORDER BY e.id")
+    List<Long> findAllIds();
+
+    // Sharding: The given employees with their department (missing ids have been deleted)
+    @Query("SELECT e FROM Employee e LEFT JOIN FETCH e.department WHERE e.id IN :ids")
+    List<Employee> findWithDepartmentByIds(@Param("ids") Collection<Long> ids);
 }
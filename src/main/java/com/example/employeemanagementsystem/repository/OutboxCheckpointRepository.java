@@ -0,0 +1,34 @@
+package com.example.employeemanagementsystem.repository;
+
+import com.example.employeemanagementsystem.entity.OutboxCheckpoint;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+
+@Repository
+public interface OutboxCheckpointRepository extends JpaRepository<OutboxCheckpoint, String> {
+
+    // Take or renew the lease on a listener, unless another instance holds an unexpired one
+    @Modifying
+    @Query("UPDATE OutboxCheckpoint c SET c.owner = :owner, c.leaseUntil = :leaseUntil "
+            + "WHERE c.listenerName = :listenerName AND (c.owner = :owner OR c.owner IS NULL OR c.leaseUntil < :now)")
+    int claim(@Param("listenerName") String listenerName, @Param("owner") String owner,
+              @Param("leaseUntil") Instant leaseUntil, @Param("now") Instant now);
+
+    // Give up every lease an instance holds, e.g. when it shuts down
+    @Modifying
+    @Query("UPDATE OutboxCheckpoint c SET c.owner = NULL, c.leaseUntil = NULL WHERE c.owner = :owner")
+    int release(@Param("owner") String owner);
+
+    // Compare-and-set: move the checkpoint only if the caller still holds the lease and it has not moved since
+    @Modifying
+    @Query("UPDATE OutboxCheckpoint c SET c.lastEventId = :position, c.updatedAt = :now "
+            + "WHERE c.listenerName = :listenerName AND c.owner = :owner AND c.lastEventId = :expected")
+    int advance(@Param("listenerName") String listenerName, @Param("owner") String owner,
+                @Param("expected") long expected, @Param("position") long position, @Param("now") Instant now);
+}
@@ -0,0 +1,34 @@
+package com.example.employeemanagementsystem.repository;
+
+import com.example.employeemanagementsystem.entity.OutboxEvent;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // The next events after a listener's checkpoint, in outbox order
+    List<OutboxEvent> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    // Where an instance-scoped listener starts: the oldest event that may still be followed by a late commit
+    Optional<OutboxEvent> findFirstByCreatedAtGreaterThanEqualOrderByIdAsc(Instant createdAt);
+
+    Optional<OutboxEvent> findFirstByOrderByIdDesc();
+
+    // Events after a listener's checkpoint, for the delivery lag
+    long countByIdGreaterThan(Long afterId);
+
+    // Purge events every listener has received, once they are older than the retention period
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.id <= :deliveredUpTo AND e.createdAt < :before")
+    int deleteDelivered(@Param("deliveredUpTo") long deliveredUpTo, @Param("before") Instant before);
+}
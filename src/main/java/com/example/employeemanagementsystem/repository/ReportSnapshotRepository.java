@@ -0,0 +1,29 @@
+package com.example.employeemanagementsystem.repository;
+
+import com.example.employeemanagementsystem.entity.ReportSnapshot;
+import com.example.employeemanagementsystem.entity.ReportSnapshot.Dimension;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface ReportSnapshotRepository extends JpaRepository<ReportSnapshot, Long> {
+
+    // Time of the latest capture at or before the given time, to seed a range with the value in effect at its start
+    @Query("SELECT MAX(s.capturedAt) FROM ReportSnapshot s WHERE s.dimension = :dimension AND s.capturedAt <= :time")
+    Instant findLastCaptureAtOrBefore(@Param("dimension") Dimension dimension, @Param("time") Instant time);
+
+    // All rows of a dimension captured in a time range, oldest first
+    @Query("SELECT s FROM ReportSnapshot s WHERE s.dimension = :dimension AND s.capturedAt >= :from AND s.capturedAt < :to ORDER BY s.capturedAt")
+    List<ReportSnapshot> findRange(@Param("dimension") Dimension dimension, @Param("from") Instant from, @Param("to") Instant to);
+
+    // Rows of a single group captured in a time range, oldest first
+    @Query("SELECT s FROM ReportSnapshot s WHERE s.dimension = :dimension AND s.label = :label AND s.capturedAt >= :from AND s.capturedAt < :to ORDER BY s.capturedAt")
+    List<ReportSnapshot> findRangeForLabel(@Param("dimension") Dimension dimension, @Param("label") String label,
+                                           @Param("from") Instant from, @Param("to") Instant to);
+}
@@ -1,11 +1,13 @@
 package com.example.employeemanagementsystem.repository;
 
+import com.example.employeemanagementsystem.dto.PrincipalScopeDTO;
 import com.example.employeemanagementsystem.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -17,4 +19,8 @@ public interface UserRepository extends JpaRepository<User, Long> {
     // Find the role name associated with the given username
     @Query("SELECT r.name FROM Role r JOIN r.users u WHERE u.username = :username")
     String findRoleByUsername(@Param("username") String username);
+
+    // Load the user with their roles, own employee ID and managed department IDs in one query (one row per combination); empty if there is no such user
+    @Query("SELECT new com.example.employeemanagementsystem.dto.PrincipalScopeDTO(u.username, u.password, r.name, e.id, d.id) FROM User u LEFT JOIN u.roles r LEFT JOIN Employee e ON e.user = u LEFT JOIN Department d ON d.manager = u WHERE u.username = :username")
+    List<PrincipalScopeDTO> findPrincipalScopesByUsername(@Param("username") String username);
 }
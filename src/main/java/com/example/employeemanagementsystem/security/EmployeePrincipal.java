@@ -0,0 +1,60 @@
+package com.example.employeemanagementsystem.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Authenticated user that also carries the caller's own employee ID and managed department IDs.
+ * They are read by the same query as the user at authentication and serialized with the principal,
+ * so a principal restored from a session keeps them; the record-level check compares IDs in memory
+ * instead of querying the user and employee tables again.
+ */
+public final class EmployeePrincipal extends User {
+
+    private static final long serialVersionUID = 1L;
+
+    private final boolean adminOrManager;
+    private final Long employeeId;
+    private final List<Long> managedDepartmentIds;
+
+    /**
+     * @param employeeId           ID of the user's own employee record, or null if they have none
+     * @param managedDepartmentIds IDs of the departments managed by the user
+     */
+    public EmployeePrincipal(String username, String password, Collection<? extends GrantedAuthority> authorities,
+                             Long employeeId, List<Long> managedDepartmentIds) {
+        super(username, password, authorities);
+        this.employeeId = employeeId;
+        this.managedDepartmentIds = List.copyOf(managedDepartmentIds);
+        this.adminOrManager = authorities.stream()
+                .map(GrantedAuthority::getAuthority)
+                .anyMatch(authority -> authority.equals("ROLE_ADMIN") || authority.equals("ROLE_MANAGER"));
+    }
+
+    /**
+     * @return ID of the user's own employee record, or null if the user has none
+     */
+    public Long getEmployeeId() {
+        return employeeId;
+    }
+
+    /**
+     * @return IDs of the departments managed by the user; empty if they manage none
+     */
+    public List<Long> getManagedDepartmentIds() {
+        return managedDepartmentIds;
+    }
+
+    /**
+     * Same rule as {@code CustomUserDetailsService.isAuthorizedEmployee}:
+     * admins and managers may access any employee, everyone else only their own record.
+     */
+    public boolean canAccessEmployee(Long requestedId) {
+        return adminOrManager || (employeeId != null && employeeId.equals(requestedId));
+    }
+
+    // equals and hashCode are inherited: principals compare by username
+}
@@ -0,0 +1,176 @@
+package com.example.employeemanagementsystem.service;
+
+import com.example.employeemanagementsystem.audit.AuditJournal;
+import com.example.employeemanagementsystem.audit.AuditRecord;
+import com.example.employeemanagementsystem.events.ChangeEvent;
+import com.example.employeemanagementsystem.events.ChangeEventListener;
+import com.example.employeemanagementsystem.exception.InvalidPageRequestException;
+import com.example.employeemanagementsystem.snapshot.DirectoryEntry;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Audits every employee create, update and delete in the {@link AuditJournal}: who made the
+ * change, the changed fields before and after, and when. Writers record these in the outbox event
+ * of the change, in its transaction; this service journals them as a {@link ChangeEventListener},
+ * so rolled-back changes leave no record, the database transaction never waits for the journal,
+ * and a change is only checkpointed once its record is on disk. A batch journaled just before a
+ * crash, but not yet checkpointed, is journaled again on restart.
+ * <p>
+ * The listener is shared: of several instances, one at a time journals every change. Its journal
+ * directory should therefore be on storage they share, so the records do not depend on which
+ * instance held the lease. The directory has no default, and must be an absolute path, so that
+ * the journal never ends up wherever the process happened to be started.
+ */
+@Service
+public class AuditService implements ChangeEventListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditService.class);
+
+    private final AuditJournal journal;
+    private final Duration retention;
+
+    @Autowired
+    public AuditService(@Value("${app.audit.directory}") String directory,
+                        @Value("${app.audit.segment-size-mb:64}") int segmentSizeMb,
+                        @Value("${app.audit.sync-interval-ms:200}") long syncIntervalMs,
+                        @Value("${app.audit.retention-days:365}") long retentionDays) throws IOException {
+        this(AuditJournal.open(journalDirectory(directory), segmentSizeMb << 20, syncIntervalMs), Duration.ofDays(retentionDays));
+    }
+
+    AuditService(AuditJournal journal, Duration retention) {
+        this.journal = journal;
+        this.retention = retention;
+    }
+
+    private static Path journalDirectory(String directory) {
+        Path path = Path.of(directory);
+        if (!path.isAbsolute()) {
+            throw new IllegalArgumentException("app.audit.directory must be an absolute path: " + directory);
+        }
+        return path;
+    }
+
+    /**
+     * The attributes whose values differ, in the order first seen, as recorded in the outbox event of a change.
+     *
+     * @param before attribute values before the change; empty for inserts
+     * @param after  attribute values after the change; empty for deletes
+     * @return the changed attributes with their values before and after
+     */
+    public static List<AuditRecord.FieldChange> changes(Map<String, ?> before, Map<String, ?> after) {
+        Set<String> fields = new LinkedHashSet<>(before.keySet());
+        fields.addAll(after.keySet());
+        List<AuditRecord.FieldChange> changes = new ArrayList<>();
+        for (String field : fields) {
+            String previous = format(before.get(field));
+            String current = format(after.get(field));
+            if (!Objects.equals(previous, current)) {
+                changes.add(new AuditRecord.FieldChange(field, previous, current));
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * The attributes as set by a partial update, whose previous values were not read.
+     *
+     * @param after attribute values after the change
+     * @return the attributes with only their values after
+     */
+    public static List<AuditRecord.FieldChange> assignments(Map<String, ?> after) {
+        List<AuditRecord.FieldChange> changes = new ArrayList<>();
+        after.forEach((field, value) -> changes.add(new AuditRecord.FieldChange(field, null, format(value))));
+        return changes;
+    }
+
+    @Override
+    public String getName() {
+        return "audit-journal";
+    }
+
+    /**
+     * Journal the employee changes and wait until the records are on disk, so the checkpoint only
+     * passes durable records. Events appended before the outbox recorded the actor were journaled
+     * when they committed, and are skipped.
+     */
+    @Override
+    public void onEvents(List<ChangeEvent> events) {
+        List<CompletableFuture<Void>> durable = new ArrayList<>();
+        for (ChangeEvent event : events) {
+            if (OutboxService.EMPLOYEE.equals(event.entityType()) && event.actor() != null) {
+                durable.add(journal.append(new AuditRecord(event.occurredAt().truncatedTo(ChronoUnit.MILLIS),
+                        event.entityId(), event.changeType(), event.actor(), event.fieldChanges())));
+            }
+        }
+        if (!durable.isEmpty()) {
+            // Sync now rather than at the next interval; the dispatcher waits for it
+            journal.sync();
+            CompletableFuture.allOf(durable.toArray(CompletableFuture[]::new)).join();
+        }
+    }
+
+    /**
+     * Find audit records, oldest first.
+     *
+     * @param employeeId only records of this employee, or null for all
+     * @param from       only records at or after this time, or null
+     * @param to         only records before this time, or null
+     * @param limit      maximum number of records, at most {@link EmployeeService#MAX_PAGE_SIZE}
+     * @return the matching records
+     * @throws InvalidPageRequestException if the limit or the time range is invalid
+     */
+    public List<AuditRecord> getAuditRecords(Long employeeId, Instant from, Instant to, int limit) {
+        if (limit < 1 || limit > EmployeeService.MAX_PAGE_SIZE) {
+            throw new InvalidPageRequestException("Limit must be between 1 and " + EmployeeService.MAX_PAGE_SIZE);
+        }
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new InvalidPageRequestException("'from' must be before 'to'");
+        }
+        return journal.query(employeeId, from, to, limit);
+    }
+
+    /**
+     * Delete the journal segments past the retention period.
+     */
+    @Scheduled(fixedDelayString = "${app.audit.purge-interval-ms:3600000}",
+               initialDelayString = "${app.audit.purge-interval-ms:3600000}")
+    public void purge() {
+        int deleted = journal.deleteSegmentsBefore(Instant.now().minus(retention));
+        if (deleted > 0) {
+            logger.info("Deleted {} audit journal segments older than {} days", deleted, retention.toDays());
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        journal.close();
+    }
+
+
+    private static String format(Object value) {
+        if (value instanceof java.util.Date date) {
+            return DirectoryEntry.toLocalDate(date).toString();
+        }
+        return value != null ? value.toString() : null;
+    }
+}
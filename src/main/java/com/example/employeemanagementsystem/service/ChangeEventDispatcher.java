@@ -0,0 +1,500 @@
+package com.example.employeemanagementsystem.service;
+
+import com.example.employeemanagementsystem.entity.OutboxCheckpoint;
+import com.example.employeemanagementsystem.entity.OutboxEvent;
+import com.example.employeemanagementsystem.events.ChangeEvent;
+import com.example.employeemanagementsystem.events.ChangeEventListener;
+import com.example.employeemanagementsystem.repository.OutboxCheckpointRepository;
+import com.example.employeemanagementsystem.repository.OutboxEventRepository;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+
+/**
+ * Delivers committed outbox events to the registered {@link ChangeEventListener}s on a dedicated
+ * thread. It is woken by local commits and polls for those of other instances. Each listener has
+ * its own checkpoint in the outbox_checkpoint table, moved forward after every batch it accepts,
+ * so delivery is in order and at least once: a failed batch is retried after a delay, and after a
+ * restart each listener resumes from its checkpoint. Of several instances sharing the database,
+ * the one holding a listener's lease delivers to it; the checkpoint is re-read before and
+ * compared-and-set after every batch, so an instance that lost the lease stops instead of moving
+ * it back. Instance-scoped listeners are delivered to by every instance, from memory.
+ * <p>
+ * Event IDs are assigned on insert but become visible on commit, so a lower ID can appear after
+ * a higher one has been read. Delivery therefore stops at a gap in the IDs until the gap is
+ * filled, or until the event after it is older than the gap timeout. The missing IDs are then
+ * looked up again on every pass until the gap recheck period ends, and delivered late if their
+ * transaction commits after all; the checkpoint stays below the oldest of them meanwhile.
+ */
+@Service
+public class ChangeEventDispatcher implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeEventDispatcher.class);
+
+    private final ObjectProvider<ChangeEventListener> listenerProvider;
+    private final OutboxEventRepository eventRepository;
+    private final OutboxCheckpointRepository checkpointRepository;
+    private final TransactionTemplate transaction;
+    private final int batchSize;
+    private final Duration retryDelay;
+    private final Duration gapTimeout;
+    private final Duration gapRecheck;
+    private final Duration lease;
+    private final Duration retention;
+
+    // Owner name of this instance's leases
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "outbox-dispatcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean signalled = new AtomicBoolean();
+    private final AtomicBoolean retryScheduled = new AtomicBoolean();
+    private final Map<String, Progress> progress = new ConcurrentHashMap<>();
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private volatile List<ChangeEventListener> listeners;
+
+    // Where one listener has got to on this instance; only touched by dispatch()
+    private static final class Progress {
+        // ID of the last event delivered, counting IDs skipped at a gap; -1 if not known yet
+        volatile long position = -1;
+        // Checkpoint as last read or written by this instance
+        long stored = -1;
+        // IDs skipped at a gap, with when to stop looking for them
+        final NavigableMap<Long, Instant> gaps = new TreeMap<>();
+        // Set after a failure; the listener is skipped until then
+        Instant retryAt;
+        // ID after which delivery to an instance-scoped listener began on this instance; -1 until it began
+        volatile long start = -1;
+
+        void reset(long checkpoint) {
+            position = checkpoint;
+            stored = checkpoint;
+            gaps.clear();
+        }
+
+        // Everything up to here has been delivered, late commits included
+        long lowWater() {
+            return gaps.isEmpty() ? position : Math.min(position, gaps.firstKey() - 1);
+        }
+    }
+
+    public ChangeEventDispatcher(ObjectProvider<ChangeEventListener> listenerProvider,
+                                 OutboxEventRepository eventRepository,
+                                 OutboxCheckpointRepository checkpointRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${app.outbox.batch-size:100}") int batchSize,
+                                 @Value("${app.outbox.retry-delay-ms:5000}") long retryDelayMs,
+                                 @Value("${app.outbox.gap-timeout-ms:5000}") long gapTimeoutMs,
+                                 @Value("${app.outbox.gap-recheck-ms:600000}") long gapRecheckMs,
+                                 @Value("${app.outbox.lease-ms:30000}") long leaseMs,
+                                 @Value("${app.outbox.retention-hours:24}") long retentionHours) {
+        this.listenerProvider = listenerProvider;
+        this.eventRepository = eventRepository;
+        this.checkpointRepository = checkpointRepository;
+        // Events are read from the primary: they were just committed there and may not have reached a replica
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.retryDelay = Duration.ofMillis(retryDelayMs);
+        this.gapTimeout = Duration.ofMillis(gapTimeoutMs);
+        this.gapRecheck = Duration.ofMillis(gapRecheckMs);
+        this.lease = Duration.ofMillis(leaseMs);
+        this.retention = Duration.ofHours(retentionHours);
+    }
+
+    /**
+     * Where delivery to an instance-scoped listener began on this instance: it is delivered
+     * every event after this ID, and none before.
+     *
+     * @param listenerName name of an instance-scoped listener
+     * @return the ID of the last event not delivered to it, or -1 until delivery has begun
+     */
+    public long getStartPosition(String listenerName) {
+        Progress listenerProgress = progress.get(listenerName);
+        return listenerProgress != null ? listenerProgress.start : -1;
+    }
+
+    /**
+     * Deliver whatever the listeners missed while the application was down.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void replay() {
+        logger.info("Starting outbox delivery to {} listeners", listeners().size());
+        signal();
+    }
+
+    /**
+     * Pick up events committed by other instances, late commits filling a gap, and listeners
+     * whose lease another instance gave up. Local commits signal the dispatcher directly.
+     */
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval-ms:1000}",
+            initialDelayString = "${app.outbox.poll-interval-ms:1000}")
+    public void poll() {
+        signal();
+    }
+
+    /**
+     * Wake the dispatcher thread. Signals that arrive while a pass is queued are coalesced into it.
+     */
+    public void signal() {
+        if (signalled.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::run);
+            } catch (RejectedExecutionException e) {
+                // Shutting down; undelivered events are replayed on the next start
+                signalled.set(false);
+            }
+        }
+    }
+
+    private void run() {
+        signalled.set(false);
+        try {
+            dispatch();
+        } catch (RuntimeException e) {
+            failures.incrementAndGet();
+            logger.error("Outbox delivery failed", e);
+            retryAfter(retryDelay);
+        }
+    }
+
+    /**
+     * Deliver every pending event to every listener. A listener that fails, or that is held back
+     * at a gap, is retried later without holding up the others.
+     */
+    synchronized void dispatch() {
+        Duration retry = null;
+        for (ChangeEventListener listener : listeners()) {
+            Progress listenerProgress = progress(listener);
+            Instant now = Instant.now();
+            Duration wait;
+            if (listenerProgress.retryAt != null && now.isBefore(listenerProgress.retryAt)) {
+                wait = Duration.between(now, listenerProgress.retryAt);
+            } else {
+                try {
+                    wait = deliver(listener, listenerProgress);
+                    listenerProgress.retryAt = null;
+                } catch (Exception e) {
+                    failures.incrementAndGet();
+                    logger.warn("Change event listener {} failed after event {}; retrying in {} ms",
+                            listener.getName(), listenerProgress.position, retryDelay.toMillis(), e);
+                    listenerProgress.retryAt = now.plus(retryDelay);
+                    wait = retryDelay;
+                }
+            }
+            if (wait != null && (retry == null || wait.compareTo(retry) < 0)) {
+                retry = wait;
+            }
+        }
+        if (retry != null) {
+            retryAfter(retry);
+        }
+    }
+
+    // Returns how long to wait before retrying a gap, or null once the listener has caught up
+    // (or another instance holds its lease)
+    private Duration deliver(ChangeEventListener listener, Progress listenerProgress) throws Exception {
+        if (!resume(listener, listenerProgress)) {
+            return null;
+        }
+        List<ChangeEvent> late = lateEvents(listener.getName(), listenerProgress, Instant.now());
+        if (!late.isEmpty()) {
+            listener.onEvents(late);
+            late.forEach(event -> listenerProgress.gaps.remove(event.id()));
+            delivered.addAndGet(late.size());
+            logger.info("Delivered {} late-committed outbox events to listener {}", late.size(), listener.getName());
+        }
+        while (true) {
+            if (!checkpoint(listener, listenerProgress)) {
+                return null;
+            }
+            long after = listenerProgress.position;
+            List<OutboxEvent> batch = transaction.execute(status ->
+                    eventRepository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(batchSize)));
+            if (Objects.requireNonNull(batch).isEmpty()) {
+                return null;
+            }
+            Instant now = Instant.now();
+            List<Long> skipped = new ArrayList<>();
+            List<ChangeEvent> events = deliverable(batch, after, now, gapTimeout, skipped::add);
+            if (!events.isEmpty()) {
+                listener.onEvents(events);
+                Instant giveUpAt = now.plus(gapRecheck);
+                skipped.forEach(id -> listenerProgress.gaps.put(id, giveUpAt));
+                listenerProgress.position = events.get(events.size() - 1).id();
+                delivered.addAndGet(events.size());
+            }
+            if (events.size() < batch.size()) {
+                checkpoint(listener, listenerProgress);
+                Instant expires = batch.get(events.size()).getCreatedAt().plus(gapTimeout);
+                logger.debug("Listener {} waiting for outbox event {}", listener.getName(), listenerProgress.position + 1);
+                return Duration.between(now, expires);
+            }
+            if (batch.size() < batchSize) {
+                checkpoint(listener, listenerProgress);
+                return null;
+            }
+            if (!resume(listener, listenerProgress)) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * The leading events of a batch that can be delivered: those with consecutive IDs after the
+     * position, continuing past a gap only once the event after it is older than the gap timeout.
+     * A listener without a checkpoint starts at the oldest event, whatever its ID.
+     *
+     * @param batch      events after the position, in ID order
+     * @param position   ID of the last event delivered, or 0 if none
+     * @param now        the current time
+     * @param gapTimeout how long a gap may stay open before delivery continues past it
+     * @param skipped    receives the missing IDs delivery continued past, to be looked up again later
+     * @return the deliverable events
+     */
+    static List<ChangeEvent> deliverable(List<OutboxEvent> batch, long position, Instant now, Duration gapTimeout,
+                                         LongConsumer skipped) {
+        if (batch.isEmpty()) {
+            return List.of();
+        }
+        List<ChangeEvent> events = new ArrayList<>(batch.size());
+        long expected = position == 0 ? batch.get(0).getId() : position + 1;
+        for (OutboxEvent event : batch) {
+            if (event.getId() != expected) {
+                if (event.getCreatedAt().plus(gapTimeout).isAfter(now)) {
+                    break;
+                }
+                LongStream.range(expected, event.getId()).forEach(skipped);
+            }
+            events.add(ChangeEvent.of(event));
+            expected = event.getId() + 1;
+        }
+        return events;
+    }
+
+    // Events skipped at a gap whose transaction has committed since, in ID order; IDs past the recheck period are dropped
+    private List<ChangeEvent> lateEvents(String listenerName, Progress listenerProgress, Instant now) {
+        Iterator<Map.Entry<Long, Instant>> gaps = listenerProgress.gaps.entrySet().iterator();
+        while (gaps.hasNext()) {
+            Map.Entry<Long, Instant> gap = gaps.next();
+            if (gap.getValue().isBefore(now)) {
+                logger.debug("Outbox event {} never committed; listener {} stops waiting for it", gap.getKey(), listenerName);
+                gaps.remove();
+            }
+        }
+        if (listenerProgress.gaps.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = listenerProgress.gaps.keySet().stream().limit(batchSize).toList();
+        List<OutboxEvent> found = Objects.requireNonNull(transaction.execute(status -> eventRepository.findAllById(ids)));
+        return found.stream().sorted(Comparator.comparing(OutboxEvent::getId)).map(ChangeEvent::of).toList();
+    }
+
+    // Take or renew a shared listener's lease and pick up its checkpoint; false if another instance holds the lease.
+    // An instance-scoped listener starts with the events recent enough to still be followed by a late commit
+    private boolean resume(ChangeEventListener listener, Progress listenerProgress) {
+        if (listener.isInstanceScoped()) {
+            if (listenerProgress.position < 0) {
+                listenerProgress.reset(startPosition());
+                listenerProgress.start = listenerProgress.position;
+            }
+            return true;
+        }
+        Long stored = claim(listener.getName());
+        if (stored == null) {
+            listenerProgress.reset(-1);
+            return false;
+        }
+        if (stored != listenerProgress.stored) {
+            // First batch on this instance, or another instance delivered meanwhile
+            listenerProgress.reset(stored);
+        }
+        return true;
+    }
+
+    private Long claim(String listenerName) {
+        try {
+            return transaction.execute(status -> {
+                Instant now = Instant.now();
+                if (!checkpointRepository.existsById(listenerName)) {
+                    checkpointRepository.saveAndFlush(new OutboxCheckpoint(listenerName, 0L, now));
+                }
+                if (checkpointRepository.claim(listenerName, instanceId, now.plus(lease), now) == 0) {
+                    return null;
+                }
+                return checkpointRepository.findById(listenerName).map(OutboxCheckpoint::getLastEventId).orElse(null);
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Another instance created the checkpoint first; it holds the lease
+            return null;
+        }
+    }
+
+    // Store a shared listener's low-water mark; false if another instance took over
+    private boolean checkpoint(ChangeEventListener listener, Progress listenerProgress) {
+        long lowWater = listenerProgress.lowWater();
+        if (listener.isInstanceScoped() || lowWater == listenerProgress.stored) {
+            return true;
+        }
+        long expected = listenerProgress.stored;
+        Integer moved = transaction.execute(status ->
+                checkpointRepository.advance(listener.getName(), instanceId, expected, lowWater, Instant.now()));
+        if (moved == null || moved == 0) {
+            logger.info("Listener {} was taken over by another instance after event {}", listener.getName(), expected);
+            listenerProgress.reset(-1);
+            return false;
+        }
+        listenerProgress.stored = lowWater;
+        return true;
+    }
+
+    private long startPosition() {
+        Instant since = Instant.now().minus(gapRecheck);
+        return Objects.requireNonNull(transaction.execute(status ->
+                eventRepository.findFirstByCreatedAtGreaterThanEqualOrderByIdAsc(since)
+                        .map(event -> event.getId() - 1)
+                        .orElseGet(() -> eventRepository.findFirstByOrderByIdDesc().map(OutboxEvent::getId).orElse(0L))));
+    }
+
+    private void retryAfter(Duration delay) {
+        if (retryScheduled.compareAndSet(false, true)) {
+            try {
+                executor.schedule(() -> {
+                    retryScheduled.set(false);
+                    signal();
+                }, Math.max(delay.toMillis(), 1), TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                retryScheduled.set(false);
+            }
+        }
+    }
+
+    private Progress progress(ChangeEventListener listener) {
+        return progress.computeIfAbsent(listener.getName(), name -> new Progress());
+    }
+
+    // Lowest position of the listeners: shared ones at their stored checkpoint, whichever instance
+    // delivers to them, and instance-scoped ones (if included) at their position on this instance
+    private long slowestPosition(boolean includeInstanceScoped) {
+        List<String> shared = listeners().stream().filter(listener -> !listener.isInstanceScoped())
+                .map(ChangeEventListener::getName).toList();
+        Map<String, Long> stored = new HashMap<>();
+        Objects.requireNonNull(transaction.execute(status -> checkpointRepository.findAllById(shared)))
+                .forEach(checkpoint -> stored.put(checkpoint.getListenerName(), checkpoint.getLastEventId()));
+        return listeners().stream()
+                .filter(listener -> includeInstanceScoped || !listener.isInstanceScoped())
+                .mapToLong(listener -> listener.isInstanceScoped()
+                        ? Math.max(progress(listener).position, 0)
+                        : stored.getOrDefault(listener.getName(), 0L))
+                .min().orElse(Long.MAX_VALUE);
+    }
+
+    // Resolved on first use, so listeners may depend on services that write to the outbox
+    private List<ChangeEventListener> listeners() {
+        List<ChangeEventListener> resolved = listeners;
+        if (resolved == null) {
+            resolved = listenerProvider.orderedStream().toList();
+            Set<String> names = new HashSet<>();
+            for (ChangeEventListener listener : resolved) {
+                if (!names.add(listener.getName())) {
+                    throw new IllegalStateException("Duplicate change event listener name: " + listener.getName());
+                }
+            }
+            listeners = resolved;
+        }
+        return resolved;
+    }
+
+    /**
+     * Delete events that every listener has received and that are older than the retention period.
+     * Instance-scoped listeners only need events recent enough to be within the retention period.
+     */
+    @Scheduled(fixedDelayString = "${app.outbox.purge-interval-ms:3600000}",
+            initialDelayString = "${app.outbox.purge-interval-ms:3600000}")
+    public void purge() {
+        long deliveredUpTo = slowestPosition(false);
+        Instant before = Instant.now().minus(retention);
+        Integer deleted = transaction.execute(status -> eventRepository.deleteDelivered(deliveredUpTo, before));
+        if (deleted != null && deleted > 0) {
+            logger.info("Purged {} delivered outbox events", deleted);
+        }
+    }
+
+    /**
+     * @return the number of events the slowest listener has yet to receive
+     */
+    public long getLag() {
+        long slowest = slowestPosition(true);
+        Long lag = transaction.execute(status -> eventRepository.countByIdGreaterThan(slowest));
+        return lag != null ? lag : 0;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("app.outbox.events.delivered", delivered, AtomicLong::get)
+                .description("Change events delivered to outbox listeners")
+                .register(registry);
+        FunctionCounter.builder("app.outbox.delivery.failures", failures, AtomicLong::get)
+                .description("Failed outbox delivery attempts")
+                .register(registry);
+        Gauge.builder("app.outbox.lag", this, ChangeEventDispatcher::getLag)
+                .description("Outbox events the slowest listener has yet to receive")
+                .register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+        // Hand the listeners over now rather than when the leases expire
+        try {
+            transaction.executeWithoutResult(status -> checkpointRepository.release(instanceId));
+        } catch (RuntimeException e) {
+            logger.warn("Could not release the outbox listener leases", e);
+        }
+    }
+}
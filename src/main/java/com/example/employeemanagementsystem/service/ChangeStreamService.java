@@ -0,0 +1,506 @@
+package com.example.employeemanagementsystem.service;
+
+import com.example.employeemanagementsystem.dto.ChangeNotificationDTO;
+import com.example.employeemanagementsystem.dto.EmployeeChangeDTO;
+import com.example.employeemanagementsystem.entity.Department;
+import com.example.employeemanagementsystem.entity.OutboxEvent;
+import com.example.employeemanagementsystem.events.ChangeEvent;
+import com.example.employeemanagementsystem.events.ChangeEventListener;
+import com.example.employeemanagementsystem.exception.AccessDeniedException;
+import com.example.employeemanagementsystem.exception.ChangeStreamCapacityException;
+import com.example.employeemanagementsystem.repository.DepartmentRepository;
+import com.example.employeemanagementsystem.repository.EmployeeRepository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Pushes employee change notifications to Server-Sent Events subscribers. Committed changes
+ * arrive from the outbox as a {@link ChangeEventListener}; changes within the coalescing window
+ * are merged per employee and sent as one {@code changes} event per scope, listing the changed
+ * employees and the reports they affect. Admins see every change, managers only changes to
+ * employees of their own department.
+ * <p>
+ * An idle subscriber holds only its async request. Each has a bounded buffer of pending events,
+ * written by one of a fixed pool of sender threads only while the buffer is non-empty. A subscriber
+ * whose buffer is full, or whose write has been blocked longer than the write timeout, is too slow
+ * to keep up and is disconnected (an EventSource reconnects and reloads), so a stalled client holds
+ * a sender thread for at most the write timeout.
+ */
+@Service
+public class ChangeStreamService implements ChangeEventListener, MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeStreamService.class);
+
+    static final String EVENT_NAME = "changes";
+
+    private static final String ROLE_ADMIN = "ADMIN";
+    private static final String ROLE_MANAGER = "MANAGER";
+
+    private static final String ALL_REPORTS_TRIGGER = "*";
+
+    // Reports under /api/reports affected by a change to each attribute ("*": an employee was added or removed)
+    private static final Map<String, List<String>> REPORTS_BY_FIELD = Map.of(
+            ALL_REPORTS_TRIGGER, List.of("total-employees", "employees-by-department", "employees-by-job-title",
+                    "employees-by-gender", "total-salary-by-department", "salary-distribution", "pivot", "span-of-control"),
+            "department", List.of("employees-by-department", "total-salary-by-department", "salary-distribution", "pivot"),
+            "jobTitle", List.of("employees-by-job-title", "salary-distribution", "pivot"),
+            "gender", List.of("employees-by-gender", "salary-distribution", "pivot"),
+            "salary", List.of("total-salary-by-department", "salary-distribution", "pivot"),
+            "hireDate", List.of("pivot"),
+            "dateOfBirth", List.of("pivot"),
+            "manager", List.of("span-of-control"));
+
+    // Admin-only reports, left out of manager notifications
+    private static final Set<String> ADMIN_REPORTS = Set.of("span-of-control");
+
+    /**
+     * Which changes a subscriber may see: all of them, or those of one department.
+     *
+     * @param all          true for every change (admins)
+     * @param departmentId the department (managers), or null if the manager has none
+     */
+    record Scope(boolean all, Long departmentId) {
+
+        static final Scope ALL = new Scope(true, null);
+
+        static Scope department(Long departmentId) {
+            return new Scope(false, departmentId);
+        }
+
+        boolean includes(ChangeEvent event) {
+            return all || (departmentId != null && event.departmentIds().contains(departmentId));
+        }
+    }
+
+    private final EmployeeRepository employeeRepository;
+    private final DepartmentRepository departmentRepository;
+    private final TransactionTemplate transaction;
+    private final ObjectMapper objectMapper;
+    private final long coalesceMs;
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final long timeoutMs;
+    private final int maxChangesPerEvent;
+    private final long writeTimeoutMs;
+
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "change-stream");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Platform threads: emitter writes are synchronized, and a write blocked on a slow client would pin a virtual thread
+    private final ExecutorService senders;
+    private final List<ChangeEvent> pending = new ArrayList<>();
+    private boolean flushScheduled;
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong evicted = new AtomicLong();
+
+    public ChangeStreamService(EmployeeRepository employeeRepository, DepartmentRepository departmentRepository,
+                               PlatformTransactionManager transactionManager,
+                               ObjectMapper objectMapper,
+                               @Value("${app.stream.coalesce-ms:250}") long coalesceMs,
+                               @Value("${app.stream.buffer-size:16}") int bufferSize,
+                               @Value("${app.stream.max-subscribers:10000}") int maxSubscribers,
+                               @Value("${app.stream.timeout-ms:1800000}") long timeoutMs,
+                               @Value("${app.stream.heartbeat-ms:30000}") long heartbeatMs,
+                               @Value("${app.stream.max-changes-per-event:500}") int maxChangesPerEvent,
+                               @Value("${app.stream.sender-threads:16}") int senderThreads,
+                               @Value("${app.stream.write-timeout-ms:10000}") long writeTimeoutMs) {
+        this.employeeRepository = employeeRepository;
+        this.departmentRepository = departmentRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.coalesceMs = coalesceMs;
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.timeoutMs = timeoutMs;
+        this.maxChangesPerEvent = maxChangesPerEvent;
+        this.writeTimeoutMs = writeTimeoutMs;
+        this.senders = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "change-stream-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Keeps idle connections open through proxies, and finds the ones that were dropped
+        scheduler.scheduleAtFixedRate(this::heartbeat, heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+        long checkMs = Math.max(writeTimeoutMs / 2, 1);
+        scheduler.scheduleAtFixedRate(this::closeStalled, checkMs, checkMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Open a change stream for a user.
+     *
+     * @param username username of the subscriber
+     * @param role     role of the user (Admin or Manager)
+     * @return the emitter to return from the controller
+     * @throws AccessDeniedException         if the role may not subscribe
+     * @throws ChangeStreamCapacityException if the stream already has the maximum number of subscribers
+     */
+    public SseEmitter subscribe(String username, String role) {
+        if (ROLE_ADMIN.equals(role)) {
+            return subscribe(Scope.ALL);
+        } else if (ROLE_MANAGER.equals(role)) {
+            Department department = departmentRepository.findByManagerUsername(username);
+            return subscribe(Scope.department(department != null ? department.getId() : null));
+        }
+        throw new AccessDeniedException("Only admins and managers can subscribe to employee changes");
+    }
+
+    SseEmitter subscribe(Scope scope) {
+        if (subscriptions.size() >= maxSubscribers) {
+            throw new ChangeStreamCapacityException("The change stream is at its limit of " + maxSubscribers + " subscribers");
+        }
+        Subscription subscription = new Subscription(new SseEmitter(timeoutMs), scope);
+        subscription.emitter.onCompletion(subscription::close);
+        subscription.emitter.onTimeout(subscription::close);
+        subscription.emitter.onError(e -> subscription.close());
+        subscriptions.add(subscription);
+        // Flushes the response headers, so the client sees the stream open right away
+        subscription.offer(SseEmitter.event().comment("connected").build());
+        return subscription.emitter;
+    }
+
+    @Override
+    public String getName() {
+        return "change-stream";
+    }
+
+    // Subscribers are connected to this instance, so it needs every instance's changes
+    @Override
+    public boolean isInstanceScoped() {
+        return true;
+    }
+
+    /**
+     * Queue committed changes for the next notification. Changes committed while nobody is
+     * subscribed (including those replayed at startup) are dropped.
+     */
+    @Override
+    public void onEvents(List<ChangeEvent> events) {
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+        List<ChangeEvent> changes = withDepartments(events.stream()
+                .filter(event -> OutboxService.EMPLOYEE.equals(event.entityType()))
+                .toList());
+        synchronized (pending) {
+            pending.addAll(changes);
+            if (!flushScheduled && !pending.isEmpty()) {
+                flushScheduled = true;
+                scheduler.schedule(this::flush, coalesceMs, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    // Patches do not read the employee, so their events carry no department; look them up
+    private List<ChangeEvent> withDepartments(List<ChangeEvent> events) {
+        Set<Long> unresolved = events.stream()
+                .filter(event -> event.departmentIds().isEmpty() && event.changeType() != OutboxEvent.ChangeType.DELETED)
+                .map(ChangeEvent::entityId)
+                .collect(Collectors.toSet());
+        if (unresolved.isEmpty()) {
+            return events;
+        }
+        Map<Long, Long> departments = new HashMap<>();
+        Objects.requireNonNull(transaction.execute(status -> employeeRepository.findDepartmentIdsByIds(unresolved)))
+                .forEach(row -> departments.put((Long) row[0], (Long) row[1]));
+        return events.stream()
+                .map(event -> event.departmentIds().isEmpty() && departments.containsKey(event.entityId())
+                        ? new ChangeEvent(event.id(), event.entityType(), event.entityId(), event.changeType(),
+                                event.changedFields(), List.of(departments.get(event.entityId())), event.version(),
+                                event.occurredAt())
+                        : event)
+                .toList();
+    }
+
+    private void flush() {
+        List<ChangeEvent> events;
+        synchronized (pending) {
+            events = new ArrayList<>(pending);
+            pending.clear();
+            flushScheduled = false;
+        }
+        try {
+            Map<Scope, List<Subscription>> byScope = subscriptions.stream()
+                    .collect(Collectors.groupingBy(subscription -> subscription.scope));
+            byScope.forEach((scope, subscribers) -> {
+                List<ChangeEvent> visible = events.stream().filter(scope::includes).toList();
+                if (visible.isEmpty()) {
+                    return;
+                }
+                ChangeNotificationDTO notification = notification(visible, scope, maxChangesPerEvent);
+                Set<ResponseBodyEmitter.DataWithMediaType> event = SseEmitter.event()
+                        .id(Long.toString(notification.getLastEventId()))
+                        .name(EVENT_NAME)
+                        .data(toJson(notification), MediaType.APPLICATION_JSON)
+                        .build();
+                subscribers.forEach(subscription -> subscription.offer(event));
+            });
+        } catch (RuntimeException e) {
+            logger.error("Failed to publish {} changes to the change stream", events.size(), e);
+        }
+    }
+
+    /**
+     * Merge the changes visible to one scope into a notification: one entry per employee, the
+     * reports whose results may have changed and the net headcount change per department.
+     *
+     * @param events             the changes, in commit order
+     * @param scope              the subscribers' scope
+     * @param maxChanges         most employee entries to list before asking for a resync instead
+     * @return the notification
+     */
+    static ChangeNotificationDTO notification(List<ChangeEvent> events, Scope scope, int maxChanges) {
+        Map<Long, EmployeeChangeDTO> changes = new LinkedHashMap<>();
+        Set<String> reports = new TreeSet<>();
+        Map<Long, Long> headcount = new TreeMap<>();
+        for (ChangeEvent event : events) {
+            merge(changes, event);
+            List<Long> departments = event.departmentIds();
+            switch (event.changeType()) {
+                case CREATED -> {
+                    reports.addAll(REPORTS_BY_FIELD.get(ALL_REPORTS_TRIGGER));
+                    departments.stream().findFirst().ifPresent(d -> headcount.merge(d, 1L, Long::sum));
+                }
+                case DELETED -> {
+                    reports.addAll(REPORTS_BY_FIELD.get(ALL_REPORTS_TRIGGER));
+                    departments.stream().findFirst().ifPresent(d -> headcount.merge(d, -1L, Long::sum));
+                }
+                case UPDATED -> {
+                    event.changedFields().forEach(field -> reports.addAll(REPORTS_BY_FIELD.getOrDefault(field, List.of())));
+                    if (event.changedFields().contains("department") && !departments.isEmpty()) {
+                        // Before and after; a single department is one the employee joined
+                        if (departments.size() > 1) {
+                            headcount.merge(departments.get(0), -1L, Long::sum);
+                        }
+                        headcount.merge(departments.get(departments.size() - 1), 1L, Long::sum);
+                    }
+                }
+            }
+        }
+        headcount.values().removeIf(delta -> delta == 0);
+        if (!scope.all()) {
+            reports.removeAll(ADMIN_REPORTS);
+            headcount.keySet().removeIf(departmentId -> !departmentId.equals(scope.departmentId()));
+        }
+        boolean resync = changes.size() > maxChanges;
+        return new ChangeNotificationDTO(events.get(events.size() - 1).id(),
+                resync ? null : new ArrayList<>(changes.values()), resync, new ArrayList<>(reports), headcount);
+    }
+
+    // Later changes to the same employee fold into the first entry; an employee added and removed in one window drops out
+    private static void merge(Map<Long, EmployeeChangeDTO> changes, ChangeEvent event) {
+        EmployeeChangeDTO previous = changes.get(event.entityId());
+        String type = event.changeType().name();
+        if (previous == null) {
+            changes.put(event.entityId(), new EmployeeChangeDTO(event.entityId(), type,
+                    new ArrayList<>(event.changedFields()), event.version()));
+            return;
+        }
+        previous.setVersion(event.version());
+        if (event.changeType() == OutboxEvent.ChangeType.DELETED) {
+            if (OutboxEvent.ChangeType.CREATED.name().equals(previous.getChange())) {
+                changes.remove(event.entityId());
+            } else {
+                previous.setChange(type);
+                previous.setFields(new ArrayList<>());
+            }
+        } else if (OutboxEvent.ChangeType.UPDATED.name().equals(previous.getChange())) {
+            Set<String> fields = new LinkedHashSet<>(previous.getFields());
+            fields.addAll(event.changedFields());
+            previous.setFields(new ArrayList<>(fields));
+        }
+    }
+
+    private String toJson(ChangeNotificationDTO notification) {
+        try {
+            return objectMapper.writeValueAsString(notification);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize change notification", e);
+        }
+    }
+
+    private void heartbeat() {
+        if (!subscriptions.isEmpty()) {
+            Set<ResponseBodyEmitter.DataWithMediaType> ping = SseEmitter.event().comment("ping").build();
+            subscriptions.forEach(subscription -> subscription.offer(ping));
+        }
+    }
+
+    // A write still blocked after the timeout will not catch up; give its sender thread back to the pool
+    private void closeStalled() {
+        long now = System.nanoTime();
+        for (Subscription subscription : subscriptions) {
+            if (subscription.isStalled(now)) {
+                evicted.incrementAndGet();
+                logger.info("Closing a change stream whose write has been blocked for over {} ms", writeTimeoutMs);
+                subscription.close();
+                subscription.interruptWrite();
+            }
+        }
+    }
+
+    /**
+     * @return the number of open change streams
+     */
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("app.stream.subscribers", subscriptions, Set::size)
+                .description("Open change streams")
+                .register(registry);
+        FunctionCounter.builder("app.stream.events.sent", sent, AtomicLong::get)
+                .description("Events written to change streams")
+                .register(registry);
+        FunctionCounter.builder("app.stream.evictions", evicted, AtomicLong::get)
+                .description("Change streams closed because the subscriber fell behind")
+                .register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        List.copyOf(subscriptions).forEach(Subscription::close);
+        senders.shutdown();
+    }
+
+    private final class Subscription {
+
+        private final SseEmitter emitter;
+        private final Scope scope;
+        private final BlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> buffer = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        // The sender thread while a write is in progress, and when the write started
+        private Thread writer;
+        private long writeStarted;
+
+        private Subscription(SseEmitter emitter, Scope scope) {
+            this.emitter = emitter;
+            this.scope = scope;
+        }
+
+        private void offer(Set<ResponseBodyEmitter.DataWithMediaType> event) {
+            if (closed.get()) {
+                return;
+            }
+            if (!buffer.offer(event)) {
+                evicted.incrementAndGet();
+                logger.info("Closing a change stream that fell {} events behind", bufferSize);
+                close();
+                return;
+            }
+            if (draining.compareAndSet(false, true)) {
+                execute(this::drain);
+            }
+        }
+
+        // Runs on a sender thread only while there is something to write
+        private void drain() {
+            while (true) {
+                Set<ResponseBodyEmitter.DataWithMediaType> event = buffer.poll();
+                if (event == null) {
+                    draining.set(false);
+                    // An event offered after the poll but before the flag was cleared
+                    if (buffer.isEmpty() || !draining.compareAndSet(false, true)) {
+                        return;
+                    }
+                    continue;
+                }
+                startWrite();
+                try {
+                    emitter.send(event);
+                    sent.incrementAndGet();
+                } catch (IOException | IllegalStateException e) {
+                    logger.debug("Change stream closed by the client: {}", e.getMessage());
+                    close();
+                    return;
+                } finally {
+                    endWrite();
+                }
+            }
+        }
+
+        private synchronized void startWrite() {
+            writer = Thread.currentThread();
+            writeStarted = System.nanoTime();
+        }
+
+        private synchronized void endWrite() {
+            writer = null;
+            // An interrupt that arrived as the write completed is not meant for the thread's next task
+            Thread.interrupted();
+        }
+
+        private synchronized boolean isStalled(long now) {
+            return writer != null && now - writeStarted > TimeUnit.MILLISECONDS.toNanos(writeTimeoutMs);
+        }
+
+        // Unblocks a write waiting on the connection, which then fails
+        private synchronized void interruptWrite() {
+            if (writer != null) {
+                writer.interrupt();
+            }
+        }
+
+        private void close() {
+            if (closed.compareAndSet(false, true)) {
+                subscriptions.remove(this);
+                buffer.clear();
+                // Completing waits for a send in progress, which may be stuck on a slow client
+                execute(emitter::complete);
+            }
+        }
+
+        private void execute(Runnable task) {
+            try {
+                senders.execute(task);
+            } catch (RejectedExecutionException e) {
+                // Shutting down
+                emitter.complete();
+            }
+        }
+    }
+}
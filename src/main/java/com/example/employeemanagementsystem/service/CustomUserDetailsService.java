@@ -1,18 +1,23 @@
 package com.example.employeemanagementsystem.service;
 
+import com.example.employeemanagementsystem.dto.PrincipalScopeDTO;
 import com.example.employeemanagementsystem.entity.Employee;
 import com.example.employeemanagementsystem.entity.User;
 import com.example.employeemanagementsystem.repository.EmployeeRepository;
 import com.example.employeemanagementsystem.repository.UserRepository;
+import com.example.employeemanagementsystem.security.EmployeePrincipal;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -73,24 +78,28 @@ public class CustomUserDetailsService implements UserDetailsService {
 
     /**
      * Loads user details used by Spring Security for authentication.
+     * The returned principal also carries the user's own employee ID and managed department IDs,
+     * read by the same query as the user and their roles.
      */
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         logger.info("Loading user by username: {}", username);
 
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> {
-                    logger.warn("User not found with username: {}", username);
-                    return new UsernameNotFoundException("User not found with username: " + username);
-                });
+        List<PrincipalScopeDTO> rows = userRepository.findPrincipalScopesByUsername(username);
+        if (rows.isEmpty()) {
+            logger.warn("User not found with username: {}", username);
+            throw new UsernameNotFoundException("User not found with username: " + username);
+        }
 
-        return org.springframework.security.core.userdetails.User.builder()
-                .username(user.getUsername())
-                .password(user.getPassword())
-                .authorities(user.getRoles().stream()
-                        .map(role -> role.getName().toUpperCase())
-                        .collect(Collectors.toList())
-                        .toArray(new String[0]))
-                .build();
+        PrincipalScopeDTO user = rows.get(0);
+        return new EmployeePrincipal(user.getUsername(), user.getPassword(),
+                AuthorityUtils.createAuthorityList(rows.stream()
+                        .map(PrincipalScopeDTO::getRoleName)
+                        .filter(Objects::nonNull)
+                        .map(String::toUpperCase)
+                        .distinct()
+                        .collect(Collectors.toList())),
+                rows.stream().map(PrincipalScopeDTO::getEmployeeId).filter(Objects::nonNull).findFirst().orElse(null),
+                rows.stream().map(PrincipalScopeDTO::getManagedDepartmentId).filter(Objects::nonNull).distinct().toList());
     }
 }
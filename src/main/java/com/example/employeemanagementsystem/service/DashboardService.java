@@ -0,0 +1,155 @@
+package com.example.employeemanagementsystem.service;
+
+import com.example.employeemanagementsystem.datasource.QueryDeadline;
+import com.example.employeemanagementsystem.dto.DashboardDTO;
+import com.example.employeemanagementsystem.dto.DashboardSectionDTO;
+import com.example.employeemanagementsystem.exception.QueryDeadlineExceededException;
+import com.example.employeemanagementsystem.web.Bulkhead.Workload;
+import com.example.employeemanagementsystem.web.ConcurrencyLimitInterceptor;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Service
+public class DashboardService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardService.class);
+
+    // Constant to represent Manager role
+    private static final String ROLE_MANAGER = "MANAGER";
+
+    private final ReportService reportService;
+    private final ConcurrencyLimitInterceptor bulkheads;
+    private final long deadlineMillis;
+
+    // One virtual thread per report query
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    // Constructor injection of ReportService, the bulkheads the queries are counted against and the shared dashboard deadline
+    public DashboardService(ReportService reportService, ConcurrencyLimitInterceptor bulkheads,
+                            @Value("${app.dashboard.deadline-ms:2000}") long deadlineMillis) {
+        this.reportService = reportService;
+        this.bulkheads = bulkheads;
+        this.deadlineMillis = deadlineMillis;
+    }
+
+    /**
+     * Build the dashboard by running every report query concurrently.
+     * All queries share one deadline, so the dashboard takes as long as the slowest query
+     * rather than the sum of all of them. Sections that miss the deadline or fail are returned
+     * with a TIMEOUT or ERROR marker and their queries are cancelled.
+     * <p>
+     * Each forked query holds a connection of its own, so it takes an extra permit of the reporting
+     * bulkhead; queries that get none run on the calling thread, one at a time, on the request's
+     * own connection. Under load the dashboard then runs sequentially instead of taking more
+     * connections than the bulkhead allows.
+     *
+     * @param managerUsername Username of the manager (if applicable)
+     * @param role Role of the user (Admin or Manager)
+     * @return dashboard with one section per report
+     */
+    public DashboardDTO getDashboard(String managerUsername, String role) {
+        logger.info("Building dashboard for role: {}", role);
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(deadlineMillis);
+        String scopedUser = ROLE_MANAGER.equals(role) ? managerUsername : null;
+
+        Map<String, Callable<Object>> queries = new LinkedHashMap<>();
+        queries.put("totalEmployees", reportService::getTotalEmployees);
+        queries.put("employeesByDepartment", () -> reportService.getEmployeesByDepartment(scopedUser, role));
+        queries.put("employeesByJobTitle", reportService::getEmployeesByJobTitle);
+        queries.put("employeesByGender", reportService::getEmployeesByGender);
+        queries.put("totalSalaryByDepartment", () -> reportService.getTotalSalaryByDepartment(scopedUser, role));
+
+        // The queries end with the dashboard, or earlier if the request's own deadline is shorter
+        QueryDeadline requestDeadline = QueryDeadline.current();
+        QueryDeadline queryDeadline = requestDeadline != null
+                ? requestDeadline.child(deadlineMillis) : new QueryDeadline(deadlineMillis);
+
+        // Fork every query that gets a permit before joining any of them
+        Map<String, Future<Object>> forks = new LinkedHashMap<>();
+        List<FutureTask<Object>> inline = new ArrayList<>();
+        queries.forEach((name, query) -> {
+            Callable<Object> task = queryDeadline.wrap(query);
+            Runnable release = bulkheads.tryAcquireExtra(Workload.REPORTING);
+            if (release == null) {
+                FutureTask<Object> future = new FutureTask<>(task);
+                inline.add(future);
+                forks.put(name, future);
+            } else {
+                // Done also when cancelled before it ran, so the permit is never lost
+                FutureTask<Object> future = new FutureTask<>(task) {
+                    @Override
+                    protected void done() {
+                        release.run();
+                    }
+                };
+                executor.execute(future);
+                forks.put(name, future);
+            }
+        });
+
+        List<DashboardSectionDTO> sections = new ArrayList<>();
+        try {
+            // A query left over once the deadline has passed is not started, and times out
+            for (FutureTask<Object> future : inline) {
+                if (System.nanoTime() < deadline) {
+                    future.run();
+                }
+            }
+            for (Map.Entry<String, Future<Object>> fork : forks.entrySet()) {
+                sections.add(join(fork.getKey(), fork.getValue(), deadline));
+            }
+        } finally {
+            // Never leave a query running past the dashboard's lifetime; interrupting its thread alone does not stop it
+            queryDeadline.cancel();
+            forks.values().forEach(future -> future.cancel(true));
+        }
+
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        DashboardDTO dashboard = new DashboardDTO(sections, elapsedMillis);
+        logger.info("Dashboard built in {} ms (complete: {})", elapsedMillis, dashboard.isComplete());
+        return dashboard;
+    }
+
+    private DashboardSectionDTO join(String name, Future<Object> future, long deadline) {
+        try {
+            long remaining = Math.max(0, deadline - System.nanoTime());
+            return DashboardSectionDTO.ok(name, future.get(remaining, TimeUnit.NANOSECONDS));
+        } catch (TimeoutException e) {
+            logger.warn("Dashboard section '{}' timed out after {} ms", name, deadlineMillis);
+            return DashboardSectionDTO.timeout(name, deadlineMillis);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof QueryDeadlineExceededException) {
+                logger.warn("Dashboard section '{}' ran out of time: {}", name, e.getCause().getMessage());
+                return DashboardSectionDTO.timeout(name, deadlineMillis);
+            }
+            logger.error("Dashboard section '{}' failed", name, e.getCause());
+            return DashboardSectionDTO.error(name, e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return DashboardSectionDTO.error(name, "Interrupted");
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,228 @@
+package com.example.employeemanagementsystem.service;
+
+import com.example.employeemanagementsystem.entity.OutboxEvent;
+import com.example.employeemanagementsystem.events.ChangeEvent;
+import com.example.employeemanagementsystem.events.ChangeEventListener;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.Principal;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps data versions for the employee directory: a monotonically increasing global version,
+ * plus the last committed {@code version} column of each employee.
+ * Versions are recorded by the write methods and used to build strong ETags,
+ * so an unchanged poll can be answered with a 304 from a single in-memory comparison.
+ * Employee ETags carry the column version itself, so the same tag serves as {@code If-Match}
+ * for a partial update. Writes on this instance are recorded as they commit; those made on other
+ * instances arrive as change events.
+ */
+@Service
+public class DataVersionService implements ChangeEventListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(DataVersionService.class);
+
+    // Distinguishes ETags issued by this process from those issued before a restart
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    // Bytes of the principal digest kept in an ETag
+    private static final int PRINCIPAL_TAG_BYTES = 12;
+
+    // Principal tags by username and authorities, so a poll does not hash; bounded like the fieldset cache
+    private static final int MAX_CACHED_PRINCIPALS = 4096;
+    private static final Map<String, String> PRINCIPAL_TAGS = new ConcurrentHashMap<>();
+
+    // Recorded for a deleted employee; larger than any version, so a late read cannot replace it
+    private static final long DELETED = Long.MAX_VALUE;
+
+    private final AtomicLong globalVersion = new AtomicLong();
+    private final Map<Long, Long> employeeVersions = new ConcurrentHashMap<>();
+
+    /**
+     * Record a change to an employee.
+     * Inside a transaction the versions are recorded only after commit, so a poll can never tag
+     * pre-commit data with the new version.
+     *
+     * @param employeeId the changed employee
+     * @param version    the employee's version after the change, or null if it was deleted
+     */
+    public void recordEmployeeChange(Long employeeId, Long version) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bump(employeeId, version);
+                }
+            });
+        } else {
+            bump(employeeId, version);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "data-versions";
+    }
+
+    // Each instance keeps its own versions
+    @Override
+    public boolean isInstanceScoped() {
+        return true;
+    }
+
+    /**
+     * Record committed employee changes. Changes made on this instance were already recorded at
+     * commit; bumping the global version for them again only costs one more cache miss.
+     */
+    @Override
+    public void onEvents(List<ChangeEvent> events) {
+        for (ChangeEvent event : events) {
+            if (!OutboxService.EMPLOYEE.equals(event.entityType())) {
+                continue;
+            }
+            if (event.changeType() == OutboxEvent.ChangeType.DELETED) {
+                bump(event.entityId(), null);
+            } else if (event.version() != null) {
+                bump(event.entityId(), event.version());
+            } else {
+                // Version not recorded; only the global version can move
+                bump(null, null);
+            }
+        }
+    }
+
+    /**
+     * Record the version of an employee as read by a query. Versions only move forward, so a read
+     * from a lagging replica never replaces a newer version.
+     *
+     * @param employeeId employee ID
+     * @param version    the version read
+     */
+    public void recordEmployeeVersion(Long employeeId, long version) {
+        employeeVersions.merge(employeeId, version, Math::max);
+    }
+
+    /**
+     * @return the global version, bumped on every write
+     */
+    public long getGlobalVersion() {
+        return globalVersion.get();
+    }
+
+    /**
+     * @param employeeId employee ID
+     * @return the last known version of the employee, or null if not known or deleted
+     */
+    public Long getEmployeeVersion(Long employeeId) {
+        Long version = employeeVersions.get(employeeId);
+        return version == null || version == DELETED ? null : version;
+    }
+
+    /**
+     * Build a strong ETag for a version, scoped to the caller because responses differ per user and role.
+     *
+     * @param scope     short name of the version scope (e.g., "g", "e42")
+     * @param version   the current version of that scope
+     * @param principal the caller
+     * @return a quoted strong ETag
+     */
+    public String etag(String scope, long version, Principal principal) {
+        return "\"" + epoch + "-" + scope + "-" + version + "-" + principalTag(principal) + "\"";
+    }
+
+    /**
+     * Build the strong ETag of one employee at a version. The tag needs no epoch: the version is
+     * the employee's {@code version} column, which survives restarts.
+     *
+     * @param employeeId the employee
+     * @param version    the employee's version
+     * @param suffix     representation suffix (wire format and fieldset), empty for plain JSON
+     * @param principal  the caller
+     * @return a quoted strong ETag
+     * @see #parseEmployeeVersion(String, Long)
+     */
+    public static String employeeEtag(Long employeeId, long version, String suffix, Principal principal) {
+        return "\"e" + employeeId + suffix + "-" + version + "-" + principalTag(principal) + "\"";
+    }
+
+    /**
+     * Extract the version from an employee ETag, as sent back in {@code If-Match}.
+     *
+     * @param etag       header value holding a single strong ETag
+     * @param employeeId the employee the tag must belong to
+     * @return the version, or null if the value is not exactly one ETag of that employee
+     */
+    public static Long parseEmployeeVersion(String etag, Long employeeId) {
+        String tag = etag.trim();
+        if (tag.length() < 3 || tag.charAt(0) != '"' || tag.charAt(tag.length() - 1) != '"') {
+            return null;
+        }
+        // Scope and suffix, version, principal tag (base64url, which may itself contain '-')
+        String[] parts = tag.substring(1, tag.length() - 1).split("-", 3);
+        String scope = "e" + employeeId;
+        if (parts.length != 3 || !parts[0].startsWith(scope)
+                || (parts[0].length() > scope.length() && parts[0].charAt(scope.length()) != '.')
+                || !parts[2].matches("[A-Za-z0-9_-]+")) {
+            return null;
+        }
+        try {
+            return Long.valueOf(parts[1]);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // SHA-256 of the username and granted authorities: two callers share a tag, and thus a cached
+    // response, only if they are the same user with the same roles. Computed once per user and roles
+    static String principalTag(Principal principal) {
+        StringBuilder key = new StringBuilder(principal.getName());
+        if (principal instanceof Authentication authentication) {
+            authentication.getAuthorities().stream()
+                    .map(GrantedAuthority::getAuthority)
+                    .sorted()
+                    .forEach(authority -> key.append('\0').append(authority));
+        }
+        String cacheKey = key.toString();
+        String cached = PRINCIPAL_TAGS.get(cacheKey);
+        if (cached != null) {
+            return cached;
+        }
+        String tag = digest(cacheKey);
+        if (PRINCIPAL_TAGS.size() < MAX_CACHED_PRINCIPALS) {
+            PRINCIPAL_TAGS.putIfAbsent(cacheKey, tag);
+        }
+        return tag;
+    }
+
+    private static String digest(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, PRINCIPAL_TAG_BYTES));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private void bump(Long employeeId, Long version) {
+        long global = globalVersion.incrementAndGet();
+        if (employeeId != null) {
+            recordEmployeeVersion(employeeId, version != null ? version : DELETED);
+        }
+        logger.debug("Data version bumped to {} for employee {} at version {}", global, employeeId, version);
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.employeemanagementsystem.service;
+
+import com.example.employeemanagementsystem.dto.EmployeeChangesDTO;
+import com.example.employeemanagementsystem.entity.Employee;
+import com.example.employeemanagementsystem.exception.ChangeLogExpiredException;
+import com.example.employeemanagementsystem.repository.EmployeeChangeLogRepository;
+import com.example.employeemanagementsystem.repository.EmployeeRepository;
+import com.example.employeemanagementsystem.snapshot.DirectoryEntry;
+import com.example.employeemanagementsystem.snapshot.DirectorySnapshot;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.stream.Stream;
+
+/**
+ * Writes the {@link DirectorySnapshot} of the employee directory periodically, and restores
+ * in-memory caches from it at startup: the cache is filled from the mapped file, then brought up
+ * to date with the employees changed since the snapshot's change log sequence. A restarted
+ * instance thus reads only the recent changes from the database instead of every employee.
+ * <p>
+ * A restored cache keeps following the change log from there ({@link #catchUp}). The outbox
+ * replays only recent events to a starting instance, and the change log is written behind the
+ * outbox; a change older than the replay that is logged only after the restore reaches the
+ * cache through the log.
+ * <p>
+ * The sequence and the employees are read in one transaction, so the snapshot holds every change
+ * up to the sequence; changes committed while it is written are logged after it and caught up.
+ */
+@Service
+public class DirectorySnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DirectorySnapshotService.class);
+
+    private final EmployeeRepository employeeRepository;
+    private final EmployeeChangeLogRepository changeLogRepository;
+    private final EmployeeChangeLogService changeLogService;
+    private final TransactionTemplate readTransaction;
+    private final Path path;
+    private final boolean enabled;
+
+    public DirectorySnapshotService(EmployeeRepository employeeRepository,
+                                    EmployeeChangeLogRepository changeLogRepository,
+                                    EmployeeChangeLogService changeLogService,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${app.snapshot.path:data/employee-directory.snap}") String path,
+                                    @Value("${app.snapshot.enabled:true}") boolean enabled) {
+        this.employeeRepository = employeeRepository;
+        this.changeLogRepository = changeLogRepository;
+        this.changeLogService = changeLogService;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.path = Path.of(path);
+        this.enabled = enabled;
+    }
+
+    /**
+     * Scheduled write; a failure is logged and retried at the next interval, leaving the previous snapshot.
+     */
+    @Scheduled(fixedDelayString = "${app.snapshot.interval-ms:900000}",
+               initialDelayString = "${app.snapshot.initial-delay-ms:120000}")
+    public void scheduledWrite() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            writeSnapshot();
+        } catch (UncheckedIOException e) {
+            logger.warn("Could not write the directory snapshot to {}", path, e.getCause());
+        }
+    }
+
+    /**
+     * Write a snapshot of every employee, replacing the previous one.
+     *
+     * @return the change log sequence of the snapshot
+     * @throws UncheckedIOException if the file cannot be written
+     */
+    public long writeSnapshot() {
+        long start = System.currentTimeMillis();
+        long sequence = Objects.requireNonNull(readTransaction.execute(status -> {
+            long last = Objects.requireNonNullElse(changeLogRepository.findMaxSequence(), 0L);
+            try (Stream<DirectoryEntry> entries = employeeRepository.streamDirectoryEntries()) {
+                DirectorySnapshot.write(path, last, entries.iterator());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return last;
+        }));
+        logger.info("Wrote the directory snapshot at sequence {} to {} in {} ms",
+                sequence, path, System.currentTimeMillis() - start);
+        return sequence;
+    }
+
+    /**
+     * Fill a cache from the latest snapshot and the changes since. If this returns -1, the
+     * cache may hold part of the snapshot and must be cleared and loaded from the database.
+     *
+     * @param upsert receives every employee of the snapshot, then each one changed since
+     * @param remove receives the IDs of the employees deleted since the snapshot
+     * @return the change log sequence the cache is up to date with, to {@link #catchUp} from;
+     *         -1 if there is no readable snapshot, or the change log no longer reaches back to it
+     */
+    public long restore(Consumer<DirectoryEntry> upsert, LongConsumer remove) {
+        if (!enabled || !Files.exists(path)) {
+            return -1;
+        }
+        long start = System.currentTimeMillis();
+        DirectorySnapshot snapshot;
+        try {
+            snapshot = DirectorySnapshot.open(path);
+        } catch (IOException e) {
+            logger.warn("Ignoring the directory snapshot at {}: {}", path, e.getMessage());
+            return -1;
+        }
+        snapshot.forEach(upsert);
+        long loaded = System.currentTimeMillis();
+
+        long sequence;
+        try {
+            sequence = catchUp(snapshot.getSequence(), upsert, remove);
+        } catch (ChangeLogExpiredException e) {
+            logger.info("Directory snapshot at sequence {} is older than the change log; loading from the database",
+                    snapshot.getSequence());
+            return -1;
+        }
+        logger.info("Restored {} employees from the directory snapshot of {} in {} ms, then caught up to sequence {} in {} ms",
+                snapshot.size(), snapshot.getCreatedAt(), loaded - start, sequence, System.currentTimeMillis() - loaded);
+        return sequence;
+    }
+
+    /**
+     * Bring a restored cache up to date with the changes logged after a sequence.
+     *
+     * @param since  the sequence the cache is up to date with
+     * @param upsert receives each employee changed since
+     * @param remove receives the IDs of the employees deleted since
+     * @return the sequence the cache is now up to date with
+     * @throws ChangeLogExpiredException if the change log no longer reaches back to the sequence
+     */
+    public long catchUp(long since, Consumer<DirectoryEntry> upsert, LongConsumer remove) {
+        int changes = 0;
+        EmployeeChangesDTO page;
+        do {
+            page = changeLogService.getChanges(since, EmployeeService.MAX_PAGE_SIZE);
+            page.getEmployees().forEach(employee -> upsert.accept(entry(employee)));
+            page.getDeletedIds().forEach(remove::accept);
+            changes += page.getEmployees().size() + page.getDeletedIds().size();
+            since = page.getResumeToken();
+        } while (page.isHasMore());
+        if (changes > 0) {
+            logger.debug("Caught up on {} changes to sequence {}", changes, since);
+        }
+        return since;
+    }
+
+    /**
+     * @return ID of the last outbox event whose change the change log holds
+     */
+    public long getLoggedPosition() {
+        return changeLogService.getLoggedPosition();
+    }
+
+    private static DirectoryEntry entry(Employee employee) {
+        return new DirectoryEntry(employee.getId(), employee.getFirstName(), employee.getLastName(), employee.getEmail(),
+                employee.getDepartment() != null ? employee.getDepartment().getName() : null, employee.getJobTitle(),
+                employee.getGender(), employee.getSalary(), employee.getHireDate(), employee.getDateOfBirth());
+    }
+}
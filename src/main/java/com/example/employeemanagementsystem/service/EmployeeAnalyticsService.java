@@ -0,0 +1,276 @@
+package com.example.employeemanagementsystem.service;
+
+import com.example.employeemanagementsystem.analytics.ColumnFilter;
+import com.example.employeemanagementsystem.analytics.EmployeeColumnStore;
+import com.example.employeemanagementsystem.analytics.GroupAggregate;
+import com.example.employeemanagementsystem.analytics.SalarySketch;
+import com.example.employeemanagementsystem.dto.EmployeeAnalyticsRowDTO;
+import com.example.employeemanagementsystem.events.ChangeEvent;
+import com.example.employeemanagementsystem.events.ChangeEventListener;
+import com.example.employeemanagementsystem.exception.ChangeLogExpiredException;
+import com.example.employeemanagementsystem.repository.EmployeeRepository;
+import com.example.employeemanagementsystem.snapshot.DirectoryEntry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the in-memory {@link EmployeeColumnStore} in step with the employee table and answers
+ * ad-hoc aggregations from it. The store is filled once (at startup, or on the first query),
+ * then refreshed incrementally: changed employees are marked dirty, and the next query reloads
+ * just those rows before aggregating. EmployeeService writes mark them after commit, so the
+ * writing instance sees its own changes at once; changes made on other instances arrive as
+ * change events. The store is filled from the directory snapshot when there is one, and from the
+ * employee table otherwise. A store restored from the snapshot also follows the change log from the
+ * snapshot's sequence before each query, for the changes older than the events replayed at startup.
+ * The log is written behind the outbox, so it is followed until it holds every change before the
+ * first replayed event; the change events alone keep the store current from then on.
+ */
+@Service
+// Ahead of DataVersionService among the change event listeners, so a change is dirty here before it bumps the data version
+@Order(0)
+public class EmployeeAnalyticsService implements ChangeEventListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmployeeAnalyticsService.class);
+
+    // Dirty employees reloaded per query
+    private static final int REFRESH_BATCH_SIZE = 500;
+
+    private final EmployeeRepository employeeRepository;
+    private final DirectorySnapshotService directorySnapshotService;
+    private final ChangeEventDispatcher changeEventDispatcher;
+    private final TransactionTemplate loadTransaction;
+    private final TransactionTemplate refreshTransaction;
+    private final boolean preload;
+
+    private final EmployeeColumnStore store = new EmployeeColumnStore();
+    private final Set<Long> dirtyEmployeeIds = ConcurrentHashMap.newKeySet();
+    private final Object refreshLock = new Object();
+    private volatile boolean loaded;
+    // Change log sequence a store restored from the snapshot has caught up to; -1 when loaded from the table,
+    // or once the log holds every change before the replayed events
+    private volatile long changeLogSequence = -1;
+
+    public EmployeeAnalyticsService(EmployeeRepository employeeRepository, DirectorySnapshotService directorySnapshotService,
+                                    ChangeEventDispatcher changeEventDispatcher,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${app.analytics.preload:true}") boolean preload) {
+        this.employeeRepository = employeeRepository;
+        this.directorySnapshotService = directorySnapshotService;
+        this.changeEventDispatcher = changeEventDispatcher;
+        this.loadTransaction = new TransactionTemplate(transactionManager);
+        this.loadTransaction.setReadOnly(true);
+        // Changed rows are read back from the primary: they were just committed there and may not have reached a replica
+        this.refreshTransaction = new TransactionTemplate(transactionManager);
+        this.preload = preload;
+    }
+
+    /**
+     * Fill the column store in the background once the application is up.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        if (preload) {
+            refresh();
+        }
+    }
+
+    /**
+     * Record a change to an employee (insert, update or delete). Inside a transaction the
+     * employee is marked dirty only after commit. Call before bumping the data version, so
+     * anyone who sees the new version also finds the employee dirty.
+     *
+     * @param employeeId the changed employee
+     */
+    public void recordEmployeeChange(Long employeeId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dirtyEmployeeIds.add(employeeId);
+                }
+            });
+        } else {
+            dirtyEmployeeIds.add(employeeId);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "employee-analytics";
+    }
+
+    // Each instance has its own column store
+    @Override
+    public boolean isInstanceScoped() {
+        return true;
+    }
+
+    /**
+     * Mark the employees changed by committed events dirty, including those changed on other instances.
+     */
+    @Override
+    public void onEvents(List<ChangeEvent> events) {
+        events.stream()
+                .filter(event -> OutboxService.EMPLOYEE.equals(event.entityType()))
+                .forEach(event -> dirtyEmployeeIds.add(event.entityId()));
+    }
+
+    /**
+     * Aggregate the employees matching the filter, grouped by the given columns.
+     *
+     * @param filter  row filter
+     * @param groupBy group-by columns (empty for a single overall group)
+     * @return one aggregate per non-empty group
+     */
+    public List<GroupAggregate> aggregate(ColumnFilter filter, List<EmployeeColumnStore.Column> groupBy) {
+        refresh();
+        long start = System.nanoTime();
+        List<GroupAggregate> result = store.aggregate(filter, groupBy);
+        logger.debug("Aggregated {} rows into {} groups by {} in {} us",
+                store.size(), result.size(), groupBy, (System.nanoTime() - start) / 1000);
+        return result;
+    }
+
+    /**
+     * Get the salary sketches of every value of a column, e.g. one per department.
+     *
+     * @param column the column
+     * @return a copy of the sketch per value with at least one salary
+     */
+    public Map<String, SalarySketch> salarySketches(EmployeeColumnStore.Column column) {
+        refresh();
+        return store.salarySketches(column);
+    }
+
+    /**
+     * @return number of employees in the column store
+     */
+    public int getRowCount() {
+        return store.size();
+    }
+
+    /**
+     * Load the store if needed and apply pending changes.
+     */
+    void refresh() {
+        if (loaded && dirtyEmployeeIds.isEmpty() && changeLogSequence < 0) {
+            return;
+        }
+        synchronized (refreshLock) {
+            if (!loaded) {
+                load();
+            }
+            if (changeLogSequence >= 0) {
+                followChangeLog();
+            }
+            while (!dirtyEmployeeIds.isEmpty()) {
+                List<Long> batch = new ArrayList<>(REFRESH_BATCH_SIZE);
+                Iterator<Long> iterator = dirtyEmployeeIds.iterator();
+                while (iterator.hasNext() && batch.size() < REFRESH_BATCH_SIZE) {
+                    batch.add(iterator.next());
+                    iterator.remove();
+                }
+                try {
+                    applyChanges(batch);
+                } catch (RuntimeException e) {
+                    // Retry with the next query rather than serve stale rows forever
+                    dirtyEmployeeIds.addAll(batch);
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private void load() {
+        long start = System.currentTimeMillis();
+        store.clear();
+        changeLogSequence = directorySnapshotService.restore(this::upsert, store::remove);
+        if (changeLogSequence >= 0) {
+            loaded = true;
+            logger.info("Restored {} employees into the analytics column store in {} ms", store.size(), System.currentTimeMillis() - start);
+            return;
+        }
+        store.clear();
+        loadTransaction.executeWithoutResult(status -> {
+            try (Stream<EmployeeAnalyticsRowDTO> rows = employeeRepository.streamAnalyticsRows()) {
+                rows.forEach(this::upsert);
+            }
+        });
+        loaded = true;
+        logger.info("Loaded {} employees into the analytics column store in {} ms", store.size(), System.currentTimeMillis() - start);
+    }
+
+    private void followChangeLog() {
+        long replayStart = changeEventDispatcher.getStartPosition(getName());
+        // Read before catching up, so the catch-up reads every change logged up to it
+        boolean complete = replayStart >= 0 && directorySnapshotService.getLoggedPosition() >= replayStart;
+        try {
+            changeLogSequence = directorySnapshotService.catchUp(changeLogSequence, this::upsert, store::remove);
+        } catch (ChangeLogExpiredException e) {
+            logger.info("The change log no longer reaches back to sequence {}; reloading the analytics column store",
+                    changeLogSequence);
+            load();
+            return;
+        }
+        if (complete) {
+            logger.info("The change log holds every change before the replayed events; no longer following it from sequence {}",
+                    changeLogSequence);
+            changeLogSequence = -1;
+        }
+    }
+
+    private void applyChanges(List<Long> employeeIds) {
+        List<EmployeeAnalyticsRowDTO> rows = refreshTransaction.execute(status -> employeeRepository.findAnalyticsRows(employeeIds));
+        Set<Long> deleted = new HashSet<>(employeeIds);
+        for (EmployeeAnalyticsRowDTO row : rows) {
+            upsert(row);
+            deleted.remove(row.getId());
+        }
+        deleted.forEach(store::remove);
+        logger.debug("Refreshed {} employees in the analytics column store ({} deleted)", employeeIds.size(), deleted.size());
+    }
+
+    private void upsert(EmployeeAnalyticsRowDTO row) {
+        store.upsert(row.getId(), row.getDepartmentName(), row.getJobTitle(), row.getGender(), row.getSalary(),
+                toLocalDate(row.getHireDate()), toLocalDate(row.getDateOfBirth()));
+    }
+
+    private void upsert(DirectoryEntry entry) {
+        store.upsert(entry.id(), entry.department(), entry.jobTitle(), entry.gender(), entry.salary(),
+                entry.hireDate(), entry.dateOfBirth());
+    }
+
+    private static LocalDate toLocalDate(java.util.Date date) {
+        if (date == null) {
+            return null;
+        }
+        if (date instanceof Date sqlDate) {
+            return sqlDate.toLocalDate();
+        }
+        return LocalDate.ofInstant(date.toInstant(), ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,250 @@
+package com.example.employeemanagementsystem.service;
+
+import com.example.employeemanagementsystem.dto.EmployeeChangesDTO;
+import com.example.employeemanagementsystem.entity.Employee;
+import com.example.employeemanagementsystem.entity.EmployeeChangeLog;
+import com.example.employeemanagementsystem.entity.OutboxCheckpoint;
+import com.example.employeemanagementsystem.entity.OutboxEvent;
+import com.example.employeemanagementsystem.events.ChangeEvent;
+import com.example.employeemanagementsystem.events.ChangeEventListener;
+import com.example.employeemanagementsystem.exception.ChangeLogExpiredException;
+import com.example.employeemanagementsystem.exception.InvalidPageRequestException;
+import com.example.employeemanagementsystem.repository.EmployeeChangeLogRepository;
+import com.example.employeemanagementsystem.repository.EmployeeRepository;
+import com.example.employeemanagementsystem.repository.OutboxCheckpointRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the employee change log behind {@code GET /api/employees/changes}, so replicas can copy
+ * just the employees changed since their last sync instead of the whole directory. Committed
+ * changes arrive from the outbox as a {@link ChangeEventListener} and are numbered in delivery
+ * order, which is commit order: a client that has read up to a sequence can never later find a
+ * lower one. The log holds one row per employee, carrying the sequence of its last change;
+ * deletions leave a tombstone. One instance at a time writes the log, and every batch is numbered
+ * on from the highest sequence stored, so an instance taking over continues the numbering; should
+ * two ever overlap, the unique sequence index rejects one batch and it is redelivered.
+ * <p>
+ * Tombstones are purged after the retention period. The highest purged sequence is kept as the
+ * horizon, and a client that last synced before it is told to resync from scratch.
+ */
+@Service
+public class EmployeeChangeLogService implements ChangeEventListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmployeeChangeLogService.class);
+
+    private static final String NAME = "employee-change-log";
+
+    // Stored as an outbox checkpoint: every tombstone up to this sequence has been purged
+    private static final String HORIZON = NAME + ".horizon";
+
+    // Employees logged per transaction when the log is first filled
+    private static final int SEED_BATCH_SIZE = 500;
+
+    private final EmployeeChangeLogRepository changeLogRepository;
+    private final EmployeeRepository employeeRepository;
+    private final OutboxCheckpointRepository checkpointRepository;
+    private final TransactionTemplate transaction;
+    private final Duration retention;
+
+    // Set once the log has been seeded, by this or another instance; guarded by this
+    private boolean initialized;
+
+    public EmployeeChangeLogService(EmployeeChangeLogRepository changeLogRepository,
+                                    EmployeeRepository employeeRepository,
+                                    OutboxCheckpointRepository checkpointRepository,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${app.changes.tombstone-retention-days:30}") long retentionDays) {
+        this.changeLogRepository = changeLogRepository;
+        this.employeeRepository = employeeRepository;
+        this.checkpointRepository = checkpointRepository;
+        // The log is written and also read in read-write transactions, which stay on the primary (read-only ones
+        // are routed to a replica): a replica may lag behind the sequence a client already has
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.retention = Duration.ofDays(retentionDays);
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    /**
+     * Fill the log with the existing employees on the first start, before any change is logged.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void initialize() {
+        if (initialized) {
+            return;
+        }
+        if (Boolean.TRUE.equals(transaction.execute(status -> checkpointRepository.existsById(HORIZON)))) {
+            initialized = true;
+            return;
+        }
+        // A restarted or concurrent seed logs some employees twice, which only moves them to a later sequence
+        List<Long> ids = Objects.requireNonNull(transaction.execute(status -> employeeRepository.findAllIds()));
+        try {
+            for (int from = 0; from < ids.size(); from += SEED_BATCH_SIZE) {
+                Map<Long, Boolean> batch = new LinkedHashMap<>();
+                ids.subList(from, Math.min(from + SEED_BATCH_SIZE, ids.size())).forEach(id -> batch.put(id, false));
+                log(batch);
+            }
+        } catch (DataIntegrityViolationException e) {
+            // Another instance is seeding at the same time; the next delivered batch tries again
+            logger.info("Employee change log is being seeded by another instance");
+            return;
+        }
+        transaction.executeWithoutResult(status -> {
+            if (!checkpointRepository.existsById(HORIZON)) {
+                checkpointRepository.save(new OutboxCheckpoint(HORIZON, 0L, Instant.now()));
+            }
+        });
+        initialized = true;
+        logger.info("Seeded the employee change log with {} employees", ids.size());
+    }
+
+    @Override
+    public synchronized void onEvents(List<ChangeEvent> events) {
+        initialize();
+        // Only the last change to each employee is logged, in the order of those last changes
+        Map<Long, Boolean> changes = new LinkedHashMap<>();
+        for (ChangeEvent event : events) {
+            if (OutboxService.EMPLOYEE.equals(event.entityType())) {
+                changes.remove(event.entityId());
+                changes.put(event.entityId(), event.changeType() == OutboxEvent.ChangeType.DELETED);
+            }
+        }
+        if (!changes.isEmpty()) {
+            log(changes);
+        }
+    }
+
+    // Logs the changes (employee ID to deleted) in one transaction, numbered after the highest sequence stored
+    private void log(Map<Long, Boolean> changes) {
+        transaction.executeWithoutResult(status -> {
+            long next = Math.max(Objects.requireNonNullElse(changeLogRepository.findMaxSequence(), 0L),
+                    checkpointRepository.findById(HORIZON).map(OutboxCheckpoint::getLastEventId).orElse(0L)) + 1;
+            Map<Long, EmployeeChangeLog> existing = changeLogRepository.findAllById(changes.keySet()).stream()
+                    .collect(Collectors.toMap(EmployeeChangeLog::getEmployeeId, Function.identity()));
+            Instant now = Instant.now();
+            long sequence = next;
+            List<EmployeeChangeLog> rows = new ArrayList<>(changes.size());
+            for (Map.Entry<Long, Boolean> change : changes.entrySet()) {
+                EmployeeChangeLog row = existing.get(change.getKey());
+                if (row == null) {
+                    row = new EmployeeChangeLog(change.getKey(), sequence, change.getValue(), now);
+                } else {
+                    row.setSequence(sequence);
+                    row.setDeleted(change.getValue());
+                    row.setChangedAt(now);
+                }
+                rows.add(row);
+                sequence++;
+            }
+            // Flushed before commit so a clash on the unique sequence index surfaces here and the batch is redelivered
+            changeLogRepository.saveAllAndFlush(rows);
+        });
+    }
+
+    /**
+     * Get the employees changed after a sequence, oldest change first. Start with {@code since = 0}
+     * for a full copy, then pass the returned resume token until {@code hasMore} is false.
+     *
+     * @param since the resume token of the previous call, or 0 for every employee
+     * @param limit maximum number of changes, at most {@link EmployeeService#MAX_PAGE_SIZE}
+     * @return the changed employees, the IDs of the deleted ones and the resume token
+     * @throws InvalidPageRequestException if since or limit is out of range
+     * @throws ChangeLogExpiredException   if deletions after since have been purged; the client must resync
+     */
+    public EmployeeChangesDTO getChanges(long since, int limit) {
+        if (since < 0) {
+            throw new InvalidPageRequestException("Sequence must not be negative");
+        }
+        if (limit < 1 || limit > EmployeeService.MAX_PAGE_SIZE) {
+            throw new InvalidPageRequestException("Limit must be between 1 and " + EmployeeService.MAX_PAGE_SIZE);
+        }
+        return transaction.execute(status -> {
+            List<EmployeeChangeLog> rows = changeLogRepository.findBySequenceGreaterThanOrderBySequenceAsc(
+                    since, Limit.of(limit + 1));
+            // Checked after reading, so tombstones purged while reading are caught too
+            long horizon = checkpointRepository.findById(HORIZON).map(OutboxCheckpoint::getLastEventId).orElse(0L);
+            if (since > 0 && since < horizon) {
+                throw new ChangeLogExpiredException("Changes since " + since
+                        + " are no longer available; resync from sequence 0");
+            }
+            boolean hasMore = rows.size() > limit;
+            List<EmployeeChangeLog> page = hasMore ? rows.subList(0, limit) : rows;
+
+            List<Long> changedIds = page.stream().filter(row -> !row.isDeleted())
+                    .map(EmployeeChangeLog::getEmployeeId).toList();
+            Map<Long, Employee> employees = changedIds.isEmpty() ? Map.of()
+                    : employeeRepository.findWithDepartmentByIds(changedIds).stream()
+                            .collect(Collectors.toMap(Employee::getId, Function.identity()));
+            List<Employee> changed = new ArrayList<>(employees.size());
+            List<Long> deletedIds = new ArrayList<>();
+            for (EmployeeChangeLog row : page) {
+                Employee employee = employees.get(row.getEmployeeId());
+                if (employee != null) {
+                    changed.add(employee);
+                } else {
+                    // Deleted after the change was logged; its tombstone will follow
+                    deletedIds.add(row.getEmployeeId());
+                }
+            }
+            long resumeToken = page.isEmpty() ? since : page.get(page.size() - 1).getSequence();
+            return new EmployeeChangesDTO(changed, deletedIds, resumeToken, hasMore);
+        });
+    }
+
+    /**
+     * @return ID of the last outbox event whose change is in the log, whichever instance logged it
+     */
+    public long getLoggedPosition() {
+        return Objects.requireNonNull(transaction.execute(status ->
+                checkpointRepository.findById(NAME).map(OutboxCheckpoint::getLastEventId).orElse(0L)));
+    }
+
+    /**
+     * Purge tombstones older than the retention period and move the horizon past them.
+     */
+    @Scheduled(fixedDelayString = "${app.changes.purge-interval-ms:3600000}",
+            initialDelayString = "${app.changes.purge-interval-ms:3600000}")
+    public synchronized void purge() {
+        Instant before = Instant.now().minus(retention);
+        Integer deleted = transaction.execute(status -> {
+            Long horizon = changeLogRepository.findMaxTombstoneSequence(before);
+            if (horizon == null) {
+                return 0;
+            }
+            OutboxCheckpoint checkpoint = checkpointRepository.findById(HORIZON)
+                    .orElseGet(() -> new OutboxCheckpoint(HORIZON, 0L, null));
+            checkpoint.setLastEventId(Math.max(checkpoint.getLastEventId(), horizon));
+            checkpoint.setUpdatedAt(Instant.now());
+            checkpointRepository.save(checkpoint);
+            return changeLogRepository.deleteTombstones(horizon);
+        });
+        if (deleted != null && deleted > 0) {
+            logger.info("Purged {} employee tombstones from the change log", deleted);
+        }
+    }
+}
@@ -1,39 +1,64 @@
 package com.example.employeemanagementsystem.service;
 
+import com.example.employeemanagementsystem.datasource.QueryDeadline;
+import com.example.employeemanagementsystem.dto.EmployeeExportDTO;
+import com.example.employeemanagementsystem.dto.EmployeePageDTO;
 import com.example.employeemanagementsystem.dto.EmployeeSearchRequestDTO;
 import com.example.employeemanagementsystem.entity.Department;
 import com.example.employeemanagementsystem.entity.Employee;
+import com.example.employeemanagementsystem.entity.OutboxEvent;
 import com.example.employeemanagementsystem.entity.Role;
 import com.example.employeemanagementsystem.entity.User;
 import com.example.employeemanagementsystem.exception.EmployeeNotFoundException;
+import com.example.employeemanagementsystem.exception.EmployeeVersionConflictException;
+import com.example.employeemanagementsystem.exception.InvalidPageRequestException;
 import com.example.employeemanagementsystem.exception.ManagerAlreadyExistsException;
+import com.example.employeemanagementsystem.exception.QueryDeadlineExceededException;
 import com.example.employeemanagementsystem.exception.ResourceNotFoundException;
 import com.example.employeemanagementsystem.exception.RoleNotFoundException;
 import com.example.employeemanagementsystem.exception.UserAlreadyExistsException;
 import com.example.employeemanagementsystem.repository.DepartmentRepository;
+import com.example.employeemanagementsystem.repository.EmployeeFieldRepository;
 import com.example.employeemanagementsystem.repository.EmployeeRepository;
 import com.example.employeemanagementsystem.repository.RoleRepository;
 import com.example.employeemanagementsystem.repository.UserRepository;
 import com.example.employeemanagementsystem.specification.EmployeeSpecification;
 
-import jakarta.transaction.Transactional;
+import jakarta.persistence.Tuple;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class EmployeeService {
 
     private static final Logger logger = LoggerFactory.getLogger(EmployeeService.class);
 
+    /**
+     * Upper bound on the page size of paged employee lists.
+     */
+    public static final int MAX_PAGE_SIZE = 1000;
+
     @Autowired
     private EmployeeRepository employeeRepository;
 
@@ -49,6 +74,24 @@ public class EmployeeService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private DataVersionService dataVersionService;
+
+    @Autowired
+    private EmployeeFieldRepository employeeFieldRepository;
+
+    @Autowired
+    private EmployeeAnalyticsService employeeAnalyticsService;
+
+    @Autowired
+    private OrgChartService orgChartService;
+
+    @Autowired
+    private ShardedEmployeeService shardedEmployeeService;
+
+    @Autowired
+    private OutboxService outboxService;
+
     /**
      * Adds a new employee along with user credentials, role, and department assignment.
      * Also assigns the manager to a department if the role is 'ROLE_MANAGER'.
@@ -88,6 +131,16 @@ public class EmployeeService {
                 });
         employee.setDepartment(department);
 
+        // Resolve the employee's own manager in the reporting hierarchy, if given
+        if (employee.getManager() != null) {
+            Long managerId = employee.getManager().getId();
+            employee.setManager(employeeRepository.findById(managerId)
+                    .orElseThrow(() -> {
+                        logger.error("Manager not found with ID: {}", managerId);
+                        return new EmployeeNotFoundException("Manager not found with ID: " + managerId);
+                    }));
+        }
+
         // If manager role, ensure no other manager is assigned to the department
         if ("ROLE_MANAGER".equals(roleName)) {
             if (department.hasManager()) {
@@ -100,6 +153,11 @@ public class EmployeeService {
         // Save and return the employee
         Employee savedEmployee = employeeRepository.save(employee);
         logger.info("Saved employee with ID: {}", savedEmployee.getId());
+        orgChartService.addEmployee(savedEmployee);
+        outboxService.recordEmployeeChange(savedEmployee.getId(), OutboxEvent.ChangeType.CREATED, null,
+                AuditService.changes(Map.of(), outboxState(savedEmployee)), savedEmployee.getVersion(), departmentId);
+        employeeAnalyticsService.recordEmployeeChange(savedEmployee.getId());
+        dataVersionService.recordEmployeeChange(savedEmployee.getId(), savedEmployee.getVersion());
 
         return savedEmployee;
     }
@@ -107,24 +165,142 @@ public class EmployeeService {
     /**
      * Retrieves all employees along with their departments.
      */
+    @Transactional(readOnly = true)
     public List<Employee> getAllEmployees() {
         logger.info("Fetching all employees");
-        List<Employee> employees = employeeRepository.findAllEmployeesWithDepartment();
+        List<Employee> employees = shardedEmployeeService.isEnabled()
+                ? shardedEmployeeService.getAllEmployees()
+                : employeeRepository.findAllEmployeesWithDepartment();
         logger.info("Retrieved {} employees", employees.size());
         return employees;
     }
 
+    /**
+     * Retrieves one page of all employees with a department, ordered by ID.
+     *
+     * @param page zero-based page number
+     * @param size page size, at most {@link #MAX_PAGE_SIZE}
+     * @throws InvalidPageRequestException if the page or size is out of range
+     */
+    @Transactional(readOnly = true)
+    public EmployeePageDTO getAllEmployees(int page, int size) {
+        checkPage(page, size);
+        logger.info("Fetching page {} of all employees (size {})", page, size);
+        if (shardedEmployeeService.isEnabled()) {
+            return shardedEmployeeService.getAllEmployees(page, size);
+        }
+        Page<Employee> result = employeeRepository.findAllEmployeesWithDepartment(PageRequest.of(page, size, Sort.by("id")));
+        return new EmployeePageDTO(result.getContent(), page, size, result.getTotalElements());
+    }
+
+    /**
+     * Retrieves one page of the employees of a manager, ordered by ID.
+     *
+     * @param managerUsername username of the manager
+     * @param page            zero-based page number
+     * @param size            page size, at most {@link #MAX_PAGE_SIZE}
+     * @throws InvalidPageRequestException if the page or size is out of range
+     */
+    @Transactional(readOnly = true)
+    public EmployeePageDTO getEmployeesForManager(String managerUsername, int page, int size) {
+        checkPage(page, size);
+        List<Employee> employees = getEmployeesForManager(managerUsername).stream()
+                .sorted(Comparator.comparing(Employee::getId))
+                .toList();
+        int from = (int) Math.min((long) page * size, employees.size());
+        return new EmployeePageDTO(employees.subList(from, Math.min(from + size, employees.size())), page, size, employees.size());
+    }
+
+    private static void checkPage(int page, int size) {
+        if (page < 0) {
+            throw new InvalidPageRequestException("Page must not be negative");
+        }
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new InvalidPageRequestException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+    }
+
+    /**
+     * Streams employees visible to the user as flat export rows, pushing each row to the consumer
+     * as it is read from the database instead of materializing the whole list. With sharding enabled
+     * the rows come from the shards, like {@link #getAllEmployees()}, and are pushed from their merged list.
+     * ADMIN sees all employees, MANAGER only their own department.
+     */
+    @Transactional(readOnly = true)
+    public void streamEmployees(String username, String role, Consumer<EmployeeExportDTO> consumer) {
+        logger.info("Streaming employees for user: {}", username);
+
+        Stream<EmployeeExportDTO> rows;
+        if ("ROLE_ADMIN".equals(role)) {
+            rows = shardedEmployeeService.isEnabled()
+                    ? shardedEmployeeService.getAllEmployees().stream().map(EmployeeService::exportRow)
+                    : employeeRepository.streamAllEmployees();
+        } else if ("ROLE_MANAGER".equals(role)) {
+            rows = shardedEmployeeService.isEnabled()
+                    ? shardedEmployeeService.getEmployeesForManager(username).stream().map(EmployeeService::exportRow)
+                    : employeeRepository.streamEmployeesByManager(username);
+        } else {
+            logger.error("Access denied for user: {}", username);
+            throw new AccessDeniedException("Access Denied");
+        }
+
+        try (rows) {
+            rows.forEach(consumer);
+        }
+    }
+
+    /**
+     * Streams only the requested employee attributes, one row per employee in attribute order,
+     * optionally narrowed by search filters. Applies the same role rules as {@link #searchEmployees}:
+     * ADMIN sees all employees, MANAGER only their own department.
+     */
+    @Transactional(readOnly = true)
+    public void streamEmployeeFields(String username, String role, EmployeeSearchRequestDTO searchRequest,
+                                     List<String> attributes, Consumer<Object[]> consumer) {
+        logger.info("Streaming fields {} for user: {}", attributes, username);
+
+        // Check if specified department exists
+        if (searchRequest != null && searchRequest.getDepartmentId() != null
+                && !departmentRepository.existsById(searchRequest.getDepartmentId())) {
+            logger.warn("No department found with ID: {}", searchRequest.getDepartmentId());
+            return;
+        }
+
+        Specification<Employee> spec;
+        if ("ROLE_ADMIN".equals(role)) {
+            spec = searchRequest != null
+                    ? EmployeeSpecification.filterByCriteria(searchRequest)
+                    : EmployeeSpecification.hasDepartment();
+        } else if ("ROLE_MANAGER".equals(role)) {
+            spec = searchRequest != null
+                    ? EmployeeSpecification.filterByCriteriaAndDepartment(searchRequest, departmentRepository.findByManagerUsername(username))
+                    : EmployeeSpecification.managedBy(username);
+        } else {
+            logger.error("Access denied for user: {}", username);
+            throw new AccessDeniedException("Access Denied");
+        }
+
+        try (Stream<Tuple> rows = employeeFieldRepository.streamFields(attributes, spec)) {
+            rows.forEach(row -> consumer.accept(row.toArray()));
+        }
+    }
+
     /**
      * Retrieves employees who report to a specific manager.
      */
+    @Transactional(readOnly = true)
     public List<Employee> getEmployeesForManager(String managerUsername) {
         logger.info("Fetching employees for manager: {}", managerUsername);
+        if (shardedEmployeeService.isEnabled()) {
+            return shardedEmployeeService.getEmployeesForManager(managerUsername);
+        }
         return employeeRepository.findEmployeesByManager(managerUsername);
     }
 
     /**
      * Fetches a specific employee by ID (with department info), or throws exception if not found.
      */
+    @Transactional(readOnly = true)
     public Optional<Employee> getEmployeeById(Long id) {
         logger.info("Fetching employee by ID: {}", id);
         return Optional.ofNullable(employeeRepository.findEmployeeWithDepartment(id)
@@ -138,6 +314,7 @@ public class EmployeeService {
     /**
      * Fetches employee by ID for a specific manager (validates manager's ownership).
      */
+    @Transactional(readOnly = true)
     public Optional<Employee> getEmployeeByIdForManager(Long id, String username) {
         logger.info("Fetching employee by ID: {} for manager {}:", id, username);
         return Optional.ofNullable(employeeRepository.findEmployeeByIdForManager(id, username)
@@ -151,10 +328,13 @@ public class EmployeeService {
     /**
      * Updates the details of an existing employee.
      */
+    @Transactional
     public Employee updateEmployee(Long id, Employee employeeDetails) {
         // Retrieve employee
         Employee employee = employeeRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Employee not found with id: " + id));
+        Long previousDepartmentId = employee.getDepartment() != null ? employee.getDepartment().getId() : null;
+        Map<String, Object> previousState = outboxState(employee);
 
         // Update employee fields
         employee.setFirstName(employeeDetails.getFirstName());
@@ -174,7 +354,57 @@ public class EmployeeService {
         }
 
         // Save and return updated employee
-        return employeeRepository.save(employee);
+        Employee savedEmployee = employeeRepository.save(employee);
+        Map<String, Object> currentState = outboxState(employee);
+        List<String> changedFields = currentState.entrySet().stream()
+                .filter(field -> !Objects.equals(field.getValue(), previousState.get(field.getKey())))
+                .map(Map.Entry::getKey)
+                .toList();
+        // The version is incremented at flush, and only if something changed
+        Long version = employee.getVersion();
+        if (version != null && !changedFields.isEmpty()) {
+            version++;
+        }
+        Long departmentId = employee.getDepartment() != null ? employee.getDepartment().getId() : null;
+        outboxService.recordEmployeeChange(id, OutboxEvent.ChangeType.UPDATED, changedFields,
+                AuditService.changes(previousState, currentState), version, previousDepartmentId, departmentId);
+        employeeAnalyticsService.recordEmployeeChange(id);
+        dataVersionService.recordEmployeeChange(id, version);
+        return savedEmployee;
+    }
+
+    /**
+     * Applies a partial update as a single UPDATE of only the changed columns, guarded by the
+     * employee's version instead of a lock.
+     *
+     * @param id              employee to update
+     * @param expectedVersion version the client last saw (from If-Match)
+     * @param changes         column values by attribute name
+     * @return the new version
+     * @throws EmployeeNotFoundException        if the employee does not exist
+     * @throws EmployeeVersionConflictException if the employee changed since the expected version
+     */
+    @Transactional
+    public long patchEmployee(Long id, long expectedVersion, Map<String, Object> changes) {
+        logger.info("Patching employee with ID: {} at version {}: {}", id, expectedVersion, changes.keySet());
+
+        int updated = employeeFieldRepository.updateFields(id, expectedVersion, changes);
+        if (updated == 0) {
+            if (!employeeRepository.existsById(id)) {
+                logger.error("Employee not found with ID: {}", id);
+                throw new EmployeeNotFoundException("Employee not found with ID: " + id);
+            }
+            logger.warn("Version conflict patching employee with ID: {}", id);
+            throw new EmployeeVersionConflictException("Employee with ID " + id + " is no longer at version " + expectedVersion);
+        }
+
+        // Neither the replaced values nor the department are read, to keep the patch to one statement:
+        // the audit record has only the new values, and the change stream looks the department up
+        outboxService.recordEmployeeChange(id, OutboxEvent.ChangeType.UPDATED, changes.keySet(),
+                AuditService.assignments(changes), expectedVersion + 1);
+        employeeAnalyticsService.recordEmployeeChange(id);
+        dataVersionService.recordEmployeeChange(id, expectedVersion + 1);
+        return expectedVersion + 1;
     }
 
     /**
@@ -192,6 +422,8 @@ public class EmployeeService {
         });
 
         User user = employee.getUser();
+        Long departmentId = employee.getDepartment() != null ? employee.getDepartment().getId() : null;
+        Map<String, Object> previousState = outboxState(employee);
 
         // If the employee is a manager, remove manager from the department
         Department department = departmentRepository.findByManager(user);
@@ -201,9 +433,16 @@ public class EmployeeService {
             logger.info("Removed manager from department: {}", department.getName());
         }
 
+        // Take the employee out of the reporting hierarchy; their reports move up a level
+        orgChartService.removeEmployee(employee);
+
         // Delete employee and their user account
         employeeRepository.deleteById(id);
         userRepository.deleteById(user.getId());
+        outboxService.recordEmployeeChange(id, OutboxEvent.ChangeType.DELETED, null,
+                AuditService.changes(previousState, Map.of()), employee.getVersion(), departmentId);
+        employeeAnalyticsService.recordEmployeeChange(id);
+        dataVersionService.recordEmployeeChange(id, null);
 
         logger.info("Deleted employee and associated user account");
     }
@@ -211,6 +450,7 @@ public class EmployeeService {
     /**
      * Searches employees by department name.
      */
+    @Transactional(readOnly = true)
     public List<Employee> searchByDepartment(String departmentName) {
         logger.info("Searching employees by department: {}", departmentName);
         return employeeRepository.findByDepartment_Name(departmentName);
@@ -219,6 +459,7 @@ public class EmployeeService {
     /**
      * Searches employees by job title.
      */
+    @Transactional(readOnly = true)
     public List<Employee> searchByJobTitle(String jobTitle) {
         logger.info("Searching employees by job title: {}", jobTitle);
         return employeeRepository.findByJobTitle(jobTitle);
@@ -226,7 +467,10 @@ public class EmployeeService {
 
     /**
      * Searches employees using filters (job title, salary, department, etc.) with role-based access.
+     *
+     * @throws QueryDeadlineExceededException if the request ran out of time before the search completed
      */
+    @Transactional(readOnly = true)
     public List<Employee> searchEmployees(EmployeeSearchRequestDTO searchRequest, String username) {
         logger.info("Searching employees by: {} for user: {}", searchRequest, username);
 
@@ -242,16 +486,28 @@ public class EmployeeService {
         }
 
         // Apply filtering logic based on role
-        if ("ROLE_ADMIN".equals(role)) {
-            logger.info("Admin role detected - returning all matching employees");
-            return employeeRepository.findAll(EmployeeSpecification.filterByCriteria(searchRequest));
-        } else if ("ROLE_MANAGER".equals(role)) {
-            Department managerDepartment = departmentRepository.findByManagerUsername(username);
-            logger.info("Manager role detected - returning employees from department: {}", managerDepartment.getName());
-            return employeeRepository.findAll(EmployeeSpecification.filterByCriteriaAndDepartment(searchRequest, managerDepartment));
-        } else {
-            logger.error("Access denied for user: {}", username);
-            throw new AccessDeniedException("Access Denied");
+        try {
+            if ("ROLE_ADMIN".equals(role)) {
+                logger.info("Admin role detected - returning all matching employees");
+                if (shardedEmployeeService.isEnabled()) {
+                    return shardedEmployeeService.searchEmployees(searchRequest, null);
+                }
+                return employeeRepository.findAll(EmployeeSpecification.filterByCriteria(searchRequest));
+            } else if ("ROLE_MANAGER".equals(role)) {
+                Department managerDepartment = departmentRepository.findByManagerUsername(username);
+                logger.info("Manager role detected - returning employees from department: {}", managerDepartment.getName());
+                if (shardedEmployeeService.isEnabled()) {
+                    return shardedEmployeeService.searchEmployees(searchRequest, managerDepartment);
+                }
+                return employeeRepository.findAll(EmployeeSpecification.filterByCriteriaAndDepartment(searchRequest, managerDepartment));
+            } else {
+                logger.error("Access denied for user: {}", username);
+                throw new AccessDeniedException("Access Denied");
+            }
+        } catch (DataAccessException e) {
+            // The search query was cancelled because the request ran out of time
+            QueryDeadline.checkCurrent();
+            throw e;
         }
     }
 
@@ -263,4 +519,25 @@ public class EmployeeService {
         logger.info("Fetched role for user {}: {}", username, role);
         return role;
     }
+
+    private static EmployeeExportDTO exportRow(Employee employee) {
+        return new EmployeeExportDTO(employee.getId(), employee.getFirstName(), employee.getLastName(),
+                employee.getEmail(), employee.getPhoneNumber(), employee.getJobTitle(), employee.getSalary(),
+                employee.getGender(), employee.getHireDate(), employee.getDateOfBirth(), employee.getVersion());
+    }
+
+    // Attributes set by updateEmployee, compared before and after to name the changed fields in the outbox event and the audit journal
+    private static Map<String, Object> outboxState(Employee employee) {
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("firstName", employee.getFirstName());
+        state.put("lastName", employee.getLastName());
+        state.put("email", employee.getEmail());
+        state.put("phoneNumber", employee.getPhoneNumber());
+        state.put("jobTitle", employee.getJobTitle());
+        state.put("salary", employee.getSalary());
+        state.put("hireDate", employee.getHireDate());
+        state.put("dateOfBirth", employee.getDateOfBirth());
+        state.put("department", employee.getDepartment() != null ? employee.getDepartment().getId() : null);
+        return state;
+    }
 }
@@ -0,0 +1,223 @@
+package com.example.employeemanagementsystem.service;
+
+import com.example.employeemanagementsystem.audit.AuditRecord;
+import com.example.employeemanagementsystem.dto.OrgChartEntryDTO;
+import com.example.employeemanagementsystem.dto.SpanOfControlDTO;
+import com.example.employeemanagementsystem.entity.Employee;
+import com.example.employeemanagementsystem.entity.EmployeeHierarchy;
+import com.example.employeemanagementsystem.entity.OutboxEvent;
+import com.example.employeemanagementsystem.exception.AccessDeniedException;
+import com.example.employeemanagementsystem.exception.EmployeeNotFoundException;
+import com.example.employeemanagementsystem.exception.InvalidReportQueryException;
+import com.example.employeemanagementsystem.exception.InvalidReportingLineException;
+import com.example.employeemanagementsystem.repository.EmployeeHierarchyRepository;
+import com.example.employeemanagementsystem.repository.EmployeeRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Manager-to-report hierarchy on top of {@link Employee#getManager()}, with every reporting path
+ * kept in the employee_hierarchy closure table. Subtree reads are single indexed queries on the
+ * closure table; moving a subtree rewrites its paths with one set-based DELETE and one
+ * INSERT ... SELECT, whatever its size.
+ */
+@Service
+public class OrgChartService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrgChartService.class);
+
+    private static final String ROLE_MANAGER = "MANAGER";
+
+    // Attribute named in the outbox events of reporting line changes
+    private static final String MANAGER_FIELD = "manager";
+
+    private final EmployeeRepository employeeRepository;
+    private final EmployeeHierarchyRepository hierarchyRepository;
+    private final DataVersionService dataVersionService;
+    private final OutboxService outboxService;
+
+    public OrgChartService(EmployeeRepository employeeRepository, EmployeeHierarchyRepository hierarchyRepository,
+                           DataVersionService dataVersionService, OutboxService outboxService) {
+        this.employeeRepository = employeeRepository;
+        this.hierarchyRepository = hierarchyRepository;
+        this.dataVersionService = dataVersionService;
+        this.outboxService = outboxService;
+    }
+
+    /**
+     * Give employees that predate the hierarchy their closure row, so each is the root of their own subtree.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void initialize() {
+        int inserted = hierarchyRepository.insertMissingSelfPaths();
+        if (inserted > 0) {
+            logger.info("Added {} employees to the reporting hierarchy", inserted);
+        }
+    }
+
+    /**
+     * Add a newly saved employee to the hierarchy, under their manager if they have one.
+     *
+     * @param employee the saved employee
+     */
+    @Transactional
+    public void addEmployee(Employee employee) {
+        hierarchyRepository.insertSelfPath(employee.getId());
+        if (employee.getManager() != null) {
+            hierarchyRepository.insertSubtreePaths(employee.getId(), employee.getManager().getId());
+        }
+    }
+
+    /**
+     * Remove an employee from the hierarchy before they are deleted. Their direct reports move up
+     * to the employee's own manager, and every path through the employee loses one level.
+     *
+     * @param employee the employee about to be deleted
+     */
+    @Transactional
+    public void removeEmployee(Employee employee) {
+        Long id = employee.getId();
+        List<Long> directReports = employeeRepository.findDirectReportIds(id);
+        if (!directReports.isEmpty()) {
+            List<Long> ancestors = hierarchyRepository.findAncestorIds(id);
+            List<Long> descendants = hierarchyRepository.findSubtreeIds(id).stream().filter(d -> !d.equals(id)).toList();
+            if (!ancestors.isEmpty()) {
+                hierarchyRepository.shortenPaths(ancestors, descendants);
+            }
+            Long newManagerId = employee.getManager() != null ? employee.getManager().getId() : null;
+            employeeRepository.reassignDirectReports(id, employee.getManager());
+            employeeRepository.findAllById(directReports).forEach(report -> {
+                outboxService.recordEmployeeChange(report.getId(), OutboxEvent.ChangeType.UPDATED,
+                        List.of(MANAGER_FIELD), managerChange(id, newManagerId), report.getVersion(),
+                        report.getDepartment() != null ? report.getDepartment().getId() : null);
+                dataVersionService.recordEmployeeChange(report.getId(), report.getVersion());
+            });
+        }
+        hierarchyRepository.deleteAllPaths(id);
+    }
+
+    /**
+     * Move an employee, together with everyone under them, to a new manager.
+     *
+     * @param employeeId   the root of the subtree to move
+     * @param newManagerId the new manager, or null to make the employee a top-level manager
+     * @throws EmployeeNotFoundException     if either employee does not exist
+     * @throws InvalidReportingLineException if the new manager is the employee or under them
+     */
+    @Transactional
+    public void moveSubtree(Long employeeId, Long newManagerId) {
+        Employee employee = employeeRepository.findById(employeeId)
+                .orElseThrow(() -> new EmployeeNotFoundException("Employee not found with ID: " + employeeId));
+        Long previousManagerId = employee.getManager() != null ? employee.getManager().getId() : null;
+        Employee newManager = null;
+        if (newManagerId != null) {
+            newManager = employeeRepository.findById(newManagerId)
+                    .orElseThrow(() -> new EmployeeNotFoundException("Employee not found with ID: " + newManagerId));
+            ensureInHierarchy(newManagerId);
+        }
+        ensureInHierarchy(employeeId);
+
+        List<Long> subtree = hierarchyRepository.findSubtreeIds(employeeId);
+        if (newManagerId != null && subtree.contains(newManagerId)) {
+            throw new InvalidReportingLineException("Employee " + employeeId + " cannot report to " + newManagerId
+                    + ", who is in their own reporting line");
+        }
+        logger.info("Moving employee {} and {} reports under manager {}", employeeId, subtree.size() - 1, newManagerId);
+
+        List<Long> ancestors = hierarchyRepository.findAncestorIds(employeeId);
+        if (!ancestors.isEmpty()) {
+            hierarchyRepository.deletePaths(ancestors, subtree);
+        }
+        if (newManagerId != null) {
+            hierarchyRepository.insertSubtreePaths(employeeId, newManagerId);
+        }
+        employeeRepository.updateManager(employeeId, newManager);
+        Employee moved = employeeRepository.findById(employeeId).orElseThrow();
+        outboxService.recordEmployeeChange(employeeId, OutboxEvent.ChangeType.UPDATED, List.of(MANAGER_FIELD),
+                managerChange(previousManagerId, newManagerId), moved.getVersion(),
+                moved.getDepartment() != null ? moved.getDepartment().getId() : null);
+        dataVersionService.recordEmployeeChange(employeeId, moved.getVersion());
+    }
+
+    /**
+     * Get everyone under an employee, down to a number of levels.
+     * A manager can only query employees in their own reporting line.
+     *
+     * @param employeeId      the subtree root
+     * @param maxDepth        levels to include (1 for direct reports), or null for the whole subtree
+     * @param managerUsername username of the manager (if applicable)
+     * @param role            role of the user (Admin or Manager)
+     * @return the subtree, nearest levels first
+     * @throws AccessDeniedException       if a manager asks for someone outside their reporting line
+     * @throws InvalidReportQueryException if maxDepth is not positive
+     */
+    @Transactional(readOnly = true)
+    public List<OrgChartEntryDTO> getReports(Long employeeId, Integer maxDepth, String managerUsername, String role) {
+        checkAccess(employeeId, managerUsername, role);
+        if (maxDepth != null && maxDepth < 1) {
+            throw new InvalidReportQueryException("'maxDepth' must be positive");
+        }
+        return hierarchyRepository.findSubtree(employeeId, maxDepth != null ? maxDepth : Integer.MAX_VALUE);
+    }
+
+    /**
+     * Get the number of direct and total reports of an employee.
+     * A manager can only query employees in their own reporting line.
+     *
+     * @param employeeId      the employee
+     * @param managerUsername username of the manager (if applicable)
+     * @param role            role of the user (Admin or Manager)
+     * @return the span of control
+     */
+    @Transactional(readOnly = true)
+    public SpanOfControlDTO getSpanOfControl(Long employeeId, String managerUsername, String role) {
+        checkAccess(employeeId, managerUsername, role);
+        SpanOfControlDTO span = hierarchyRepository.findSpanOfControl(employeeId);
+        if (span == null) {
+            Employee employee = employeeRepository.findById(employeeId)
+                    .orElseThrow(() -> new EmployeeNotFoundException("Employee not found with ID: " + employeeId));
+            span = new SpanOfControlDTO(employee.getId(), employee.getFirstName(), employee.getLastName(), 0L, 0L);
+        }
+        return span;
+    }
+
+    /**
+     * Get the span of control of every employee with reports, largest subtrees first.
+     */
+    @Transactional(readOnly = true)
+    public List<SpanOfControlDTO> getSpansOfControl() {
+        return hierarchyRepository.findSpansOfControl();
+    }
+
+    // A change of manager, by ID, as audited from the outbox event
+    private static List<AuditRecord.FieldChange> managerChange(Long previousManagerId, Long managerId) {
+        return List.of(new AuditRecord.FieldChange(MANAGER_FIELD, Objects.toString(previousManagerId, null),
+                Objects.toString(managerId, null)));
+    }
+
+    // Employees written since startup by anything but addEmployee have no closure row yet
+    private void ensureInHierarchy(Long employeeId) {
+        if (!hierarchyRepository.existsById(new EmployeeHierarchy.Key(employeeId, employeeId))) {
+            hierarchyRepository.insertSelfPath(employeeId);
+        }
+    }
+
+    private void checkAccess(Long employeeId, String managerUsername, String role) {
+        if (ROLE_MANAGER.equals(role)) {
+            if (!hierarchyRepository.isInReportingLine(managerUsername, employeeId)) {
+                throw new AccessDeniedException("Employee " + employeeId + " is not in the reporting line of " + managerUsername);
+            }
+        } else if (!employeeRepository.existsById(employeeId)) {
+            throw new EmployeeNotFoundException("Employee not found with ID: " + employeeId);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.employeemanagementsystem.service;
+
+import com.example.employeemanagementsystem.audit.AuditRecord;
+import com.example.employeemanagementsystem.entity.OutboxEvent;
+import com.example.employeemanagementsystem.events.ChangeEvent;
+import com.example.employeemanagementsystem.repository.OutboxEventRepository;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Appends change events to the transactional outbox. An event is written by the same transaction
+ * as the change it describes, so it commits or rolls back with it; after commit the
+ * {@link ChangeEventDispatcher} is woken to deliver it. Each event records who made the change,
+ * taken from the current security context.
+ */
+@Service
+public class OutboxService {
+
+    /**
+     * Entity type of employee change events.
+     */
+    public static final String EMPLOYEE = "Employee";
+
+    /**
+     * Actor of changes made outside a request, e.g. by scheduled jobs.
+     */
+    public static final String SYSTEM_ACTOR = "system";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ChangeEventDispatcher dispatcher;
+
+    public OutboxService(OutboxEventRepository outboxEventRepository, ChangeEventDispatcher dispatcher) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.dispatcher = dispatcher;
+    }
+
+    /**
+     * Append a change event in the current transaction.
+     *
+     * @param entityType    name of the changed entity type
+     * @param entityId      ID of the changed entity
+     * @param changeType    insert, update or delete
+     * @param changedFields names of the changed attributes, or null/empty for inserts and deletes
+     * @param fieldChanges  changed attributes with their values before and after, or null/empty if not recorded
+     * @param departmentIds departments the entity belonged to before and after the change, or null/empty if unknown
+     * @param version       version of the entity after the change, or null if unknown
+     * @throws org.springframework.transaction.IllegalTransactionStateException if no transaction is active
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(String entityType, Long entityId, OutboxEvent.ChangeType changeType,
+                       Collection<String> changedFields, List<AuditRecord.FieldChange> fieldChanges,
+                       Collection<Long> departmentIds, Long version) {
+        outboxEventRepository.save(new OutboxEvent(entityType, entityId, changeType, join(changedFields),
+                ChangeEvent.writeFieldChanges(fieldChanges), actor(), join(departmentIds), version, Instant.now()));
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                dispatcher.signal();
+            }
+        });
+    }
+
+    /**
+     * Append an employee change event in the current transaction.
+     *
+     * @param departmentIds departments of the employee before and after the change (nulls are ignored)
+     * @see #append(String, Long, OutboxEvent.ChangeType, Collection, List, Collection, Long)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordEmployeeChange(Long employeeId, OutboxEvent.ChangeType changeType,
+                                     Collection<String> changedFields, List<AuditRecord.FieldChange> fieldChanges,
+                                     Long version, Long... departmentIds) {
+        append(EMPLOYEE, employeeId, changeType, changedFields, fieldChanges,
+                Arrays.stream(departmentIds).filter(Objects::nonNull).distinct().toList(), version);
+    }
+
+    private static String actor() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : SYSTEM_ACTOR;
+    }
+
+    private static String join(Collection<?> values) {
+        return values == null || values.isEmpty()
+                ? null
+                : values.stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
+}
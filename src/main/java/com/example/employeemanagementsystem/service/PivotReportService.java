@@ -0,0 +1,134 @@
+package com.example.employeemanagementsystem.service;
+
+import com.example.employeemanagementsystem.analytics.EmployeeColumnStore.Column;
+import com.example.employeemanagementsystem.analytics.GroupAggregate;
+import com.example.employeemanagementsystem.analytics.PivotQuery;
+import com.example.employeemanagementsystem.dto.PivotReportDTO;
+import com.example.employeemanagementsystem.dto.PivotRowDTO;
+import com.example.employeemanagementsystem.entity.Department;
+import com.example.employeemanagementsystem.exception.InvalidReportQueryException;
+import com.example.employeemanagementsystem.repository.DepartmentRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pivot (cross-tab) reports over up to three employee dimensions with salary statistics.
+ * Each report is a single aggregation pass over the in-memory column store. Results are cached
+ * by normalized query shape and reused until the directory's data version changes.
+ */
+@Service
+public class PivotReportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PivotReportService.class);
+
+    /**
+     * Upper bound on the row limit of one report.
+     */
+    public static final int MAX_ROWS = 10_000;
+
+    // Cached reports, least recently used evicted first
+    private static final int CACHE_SIZE = 256;
+
+    private static final String ROLE_MANAGER = "MANAGER";
+
+    private final EmployeeAnalyticsService employeeAnalyticsService;
+    private final DepartmentRepository departmentRepository;
+    private final DataVersionService dataVersionService;
+
+    private record CachedReport(long version, PivotReportDTO report) {
+    }
+
+    private final Map<PivotQuery.Shape, CachedReport> cache = new LinkedHashMap<>(CACHE_SIZE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<PivotQuery.Shape, CachedReport> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    public PivotReportService(EmployeeAnalyticsService employeeAnalyticsService, DepartmentRepository departmentRepository,
+                              DataVersionService dataVersionService) {
+        this.employeeAnalyticsService = employeeAnalyticsService;
+        this.departmentRepository = departmentRepository;
+        this.dataVersionService = dataVersionService;
+    }
+
+    /**
+     * Generate a pivot report. If the user is a manager, only their department is included.
+     *
+     * @param query           group-by dimensions, filters and row limit
+     * @param managerUsername username of the manager (if applicable)
+     * @param role            role of the user (Admin or Manager)
+     * @return the report, largest groups first
+     * @throws InvalidReportQueryException if the limit is too large or the dimensions have too many combinations
+     */
+    public PivotReportDTO getPivotReport(PivotQuery query, String managerUsername, String role) {
+        if (query.getLimit() > MAX_ROWS) {
+            throw new InvalidReportQueryException("Limit must be at most " + MAX_ROWS);
+        }
+        if (ROLE_MANAGER.equals(role)) {
+            Department department = departmentRepository.findByManagerUsername(managerUsername);
+            if (department == null) {
+                return new PivotReportDTO(dimensionNames(query), List.of(), 0);
+            }
+            query.where(Column.DEPARTMENT, List.of(department.getName()));
+        }
+
+        // Read the version first: a write racing with the aggregation only makes the entry stale sooner
+        long version = dataVersionService.getGlobalVersion();
+        PivotQuery.Shape shape = query.shape();
+        synchronized (cache) {
+            CachedReport cached = cache.get(shape);
+            if (cached != null && cached.version() == version) {
+                logger.debug("Pivot report cache hit: {}", shape);
+                return cached.report();
+            }
+        }
+
+        logger.info("Generating pivot report: {}", shape);
+        List<GroupAggregate> groups;
+        try {
+            groups = new ArrayList<>(employeeAnalyticsService.aggregate(query.toFilter(), query.getGroupBy()));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidReportQueryException(e.getMessage());
+        }
+        groups.sort(Comparator.comparingLong(GroupAggregate::count).reversed());
+
+        List<String> names = dimensionNames(query);
+        List<PivotRowDTO> rows = new ArrayList<>(Math.min(groups.size(), query.getLimit()));
+        for (GroupAggregate group : groups.subList(0, Math.min(groups.size(), query.getLimit()))) {
+            rows.add(toRow(names, group));
+        }
+        PivotReportDTO report = new PivotReportDTO(names, rows, groups.size());
+
+        synchronized (cache) {
+            cache.put(shape, new CachedReport(version, report));
+        }
+        return report;
+    }
+
+    private static List<String> dimensionNames(PivotQuery query) {
+        return query.getGroupBy().stream().map(PivotQuery::dimensionName).toList();
+    }
+
+    private static PivotRowDTO toRow(List<String> names, GroupAggregate group) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (int k = 0; k < names.size(); k++) {
+            values.put(names.get(k), group.key().get(k));
+        }
+        boolean hasSalary = group.salaryCount() > 0;
+        return new PivotRowDTO(values, group.count(),
+                hasSalary ? group.salarySum() : null,
+                group.salaryAverage(),
+                hasSalary ? group.salaryMin() : null,
+                hasSalary ? group.salaryMax() : null,
+                group.salaryStandardDeviation());
+    }
+}
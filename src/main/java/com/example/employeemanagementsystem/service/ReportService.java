@@ -1,16 +1,20 @@
 package com.example.employeemanagementsystem.service;
 
+import com.example.employeemanagementsystem.datasource.QueryDeadline;
 import com.example.employeemanagementsystem.dto.EmployeeReportDTO;
 import com.example.employeemanagementsystem.exception.ReportGenerationException;
 import com.example.employeemanagementsystem.repository.EmployeeRepository;
+import com.example.employeemanagementsystem.sharding.ShardedEmployeeStore.GroupBy;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
 @Service
+@Transactional(readOnly = true)
 public class ReportService {
 
     // Logger for tracking method calls and debugging
@@ -18,12 +22,16 @@ public class ReportService {
 
     private final EmployeeRepository employeeRepository;
 
+    // Serves the reports from the department shards when sharding is configured
+    private final ShardedEmployeeService shardedEmployeeService;
+
     // Constant to represent Manager role
     private static final String ROLE_MANAGER = "MANAGER";
 
     // Constructor injection of EmployeeRepository
-    public ReportService(EmployeeRepository employeeRepository) {
+    public ReportService(EmployeeRepository employeeRepository, ShardedEmployeeService shardedEmployeeService) {
         this.employeeRepository = employeeRepository;
+        this.shardedEmployeeService = shardedEmployeeService;
     }
 
     /**
@@ -34,8 +42,13 @@ public class ReportService {
     public Long getTotalEmployees() {
         try {
             logger.info("Fetching total number of employees");
+            if (shardedEmployeeService.isEnabled()) {
+                return shardedEmployeeService.getTotalEmployees();
+            }
             return employeeRepository.getTotalEmployees();
         } catch (Exception e) {
+            // A query the request ran out of time for is reported as a timeout, not a failed report
+            QueryDeadline.checkCurrent();
             logger.error("Error while fetching total employee count", e);
             throw new ReportGenerationException("Unable to fetch total employee count");
         }
@@ -52,11 +65,15 @@ public class ReportService {
     public List<EmployeeReportDTO> getEmployeesByDepartment(String managerUsername, String role) {
         try {
             logger.info("Generating department report for role: {}", role);
+            if (shardedEmployeeService.isEnabled()) {
+                return shardedEmployeeService.getEmployeeReport(GroupBy.DEPARTMENT, ROLE_MANAGER.equals(role) ? managerUsername : null);
+            }
             if (ROLE_MANAGER.equals(role)) {
                 return employeeRepository.getEmployeesByDepartmentForManager(managerUsername);
             }
             return employeeRepository.getEmployeesByDepartment();
         } catch (Exception e) {
+            QueryDeadline.checkCurrent();
             logger.error("Error generating department report for role: {}", role, e);
             throw new ReportGenerationException("Failed to generate department report");
         }
@@ -70,8 +87,12 @@ public class ReportService {
     public List<EmployeeReportDTO> getEmployeesByJobTitle() {
         try {
             logger.info("Generating report: employees by job title");
+            if (shardedEmployeeService.isEnabled()) {
+                return shardedEmployeeService.getEmployeeReport(GroupBy.JOB_TITLE, null);
+            }
             return employeeRepository.getEmployeesByJobTitle();
         } catch (Exception e) {
+            QueryDeadline.checkCurrent();
             logger.error("Error generating job title report", e);
             throw new ReportGenerationException("Failed to generate job title report");
         }
@@ -85,8 +106,15 @@ public class ReportService {
     public List<EmployeeReportDTO> getEmployeesByGender() {
         try {
             logger.info("Generating report: employees by gender");
+            if (shardedEmployeeService.isEnabled()) {
+                List<EmployeeReportDTO> report = shardedEmployeeService.getEmployeeReport(GroupBy.GENDER, null);
+                // Same as the COALESCE in the JPA query
+                report.stream().filter(row -> row.getAverageSalary() == null).forEach(row -> row.setAverageSalary(0.0));
+                return report;
+            }
             return employeeRepository.getEmployeesByGender();
         } catch (Exception e) {
+            QueryDeadline.checkCurrent();
             logger.error("Error generating gender report", e);
             throw new ReportGenerationException("Failed to generate gender report");
         }
@@ -103,11 +131,15 @@ public class ReportService {
     public List<EmployeeReportDTO> getTotalSalaryByDepartment(String managerUsername, String role) {
         try {
             logger.info("Generating salary report by department for role: {}", role);
+            if (shardedEmployeeService.isEnabled()) {
+                return shardedEmployeeService.getEmployeeReport(GroupBy.DEPARTMENT, ROLE_MANAGER.equals(role) ? managerUsername : null);
+            }
             if (ROLE_MANAGER.equals(role)) {
                 return employeeRepository.getTotalSalaryByDepartmentForManager(managerUsername);
             }
             return employeeRepository.getTotalSalaryByDepartment();
         } catch (Exception e) {
+            QueryDeadline.checkCurrent();
             logger.error("Error generating salary report for role: {}", role, e);
             throw new ReportGenerationException("Failed to generate salary report");
         }
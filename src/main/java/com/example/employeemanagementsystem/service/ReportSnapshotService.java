@@ -0,0 +1,293 @@
+package com.example.employeemanagementsystem.service;
+
+import com.example.employeemanagementsystem.dto.EmployeeReportDTO;
+import com.example.employeemanagementsystem.dto.TimeSeriesDTO;
+import com.example.employeemanagementsystem.dto.TimeSeriesPointDTO;
+import com.example.employeemanagementsystem.entity.Department;
+import com.example.employeemanagementsystem.entity.ReportSnapshot;
+import com.example.employeemanagementsystem.entity.ReportSnapshot.Dimension;
+import com.example.employeemanagementsystem.exception.InvalidReportQueryException;
+import com.example.employeemanagementsystem.repository.DepartmentRepository;
+import com.example.employeemanagementsystem.repository.EmployeeRepository;
+import com.example.employeemanagementsystem.repository.ReportSnapshotRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Periodically snapshots the report aggregates (per department, job title and gender, plus the total)
+ * into the append-only report_snapshot table, and answers time-series queries from those snapshots,
+ * so trend reports never rescan the employee table.
+ * A capture is skipped when the directory has not changed since the previous one; a series carries
+ * the last captured value forward until the next capture.
+ */
+@Service
+public class ReportSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportSnapshotService.class);
+
+    /**
+     * Upper bound on the number of buckets in one series.
+     */
+    public static final int MAX_BUCKETS = 1000;
+
+    // Label of the single TOTAL group
+    static final String TOTAL_LABEL = "total";
+
+    private static final String ROLE_MANAGER = "MANAGER";
+
+    /**
+     * How the captures that fall into one bucket are combined into a point.
+     */
+    public enum Aggregation {
+        LAST,
+        AVG,
+        MIN,
+        MAX
+    }
+
+    private final ReportSnapshotRepository snapshotRepository;
+    private final EmployeeRepository employeeRepository;
+    private final DepartmentRepository departmentRepository;
+    private final DataVersionService dataVersionService;
+
+    // Global data version at the last capture; -1 forces a capture after startup
+    private final AtomicLong capturedVersion = new AtomicLong(-1);
+
+    public ReportSnapshotService(ReportSnapshotRepository snapshotRepository, EmployeeRepository employeeRepository,
+                                 DepartmentRepository departmentRepository, DataVersionService dataVersionService) {
+        this.snapshotRepository = snapshotRepository;
+        this.employeeRepository = employeeRepository;
+        this.departmentRepository = departmentRepository;
+        this.dataVersionService = dataVersionService;
+    }
+
+    /**
+     * Scheduled capture; a failure is logged by the scheduler and retried at the next interval.
+     */
+    @Scheduled(fixedRateString = "${app.reports.snapshot.interval-ms:3600000}",
+               initialDelayString = "${app.reports.snapshot.initial-delay-ms:60000}")
+    @Transactional
+    public void scheduledCapture() {
+        captureSnapshot();
+    }
+
+    /**
+     * Capture the current report aggregates as one snapshot, unless nothing has changed since the last capture.
+     *
+     * @return number of rows written (0 if the capture was skipped)
+     */
+    @Transactional
+    public int captureSnapshot() {
+        // Read the version first: a write racing with the aggregation only causes one extra capture later
+        long version = dataVersionService.getGlobalVersion();
+        if (capturedVersion.get() == version) {
+            logger.debug("Skipping report snapshot, data unchanged at version {}", version);
+            return 0;
+        }
+
+        Instant capturedAt = Instant.now();
+        List<ReportSnapshot> rows = new ArrayList<>();
+        addRows(rows, capturedAt, Dimension.DEPARTMENT, employeeRepository.getEmployeesByDepartment());
+        addRows(rows, capturedAt, Dimension.JOB_TITLE, employeeRepository.getEmployeesByJobTitle());
+        List<EmployeeReportDTO> byGender = employeeRepository.getEmployeesByGender();
+        addRows(rows, capturedAt, Dimension.GENDER, byGender);
+
+        // Every employee is in exactly one gender group, so those rows add up to the total
+        long total = 0;
+        Double totalSalary = null;
+        for (EmployeeReportDTO group : byGender) {
+            total += group.getCount();
+            if (group.getTotalSalary() != null) {
+                totalSalary = (totalSalary == null ? 0 : totalSalary) + group.getTotalSalary();
+            }
+        }
+        rows.add(new ReportSnapshot(capturedAt, Dimension.TOTAL, TOTAL_LABEL, total, totalSalary));
+
+        snapshotRepository.saveAll(rows);
+        capturedVersion.set(version);
+        logger.info("Captured report snapshot of {} rows at {}", rows.size(), capturedAt);
+        return rows.size();
+    }
+
+    private static void addRows(List<ReportSnapshot> rows, Instant capturedAt, Dimension dimension, List<EmployeeReportDTO> groups) {
+        for (EmployeeReportDTO group : groups) {
+            rows.add(new ReportSnapshot(capturedAt, dimension, group.getLabel(), group.getCount(), group.getTotalSalary()));
+        }
+    }
+
+    /**
+     * Get the time series of a dimension over a range, one point per step-sized bucket.
+     * A manager only sees the series of their own department.
+     *
+     * @param dimension       the grouping
+     * @param from            start of the range (inclusive)
+     * @param to              end of the range (exclusive)
+     * @param step            bucket width
+     * @param aggregation     how captures within a bucket are combined
+     * @param managerUsername username of the manager (if applicable)
+     * @param role            role of the user (Admin or Manager)
+     * @return one series per group, ordered by label
+     * @throws InvalidReportQueryException if the range or step is invalid or spans too many buckets
+     */
+    @Transactional(readOnly = true)
+    public List<TimeSeriesDTO> getTimeSeries(Dimension dimension, Instant from, Instant to, Duration step,
+                                             Aggregation aggregation, String managerUsername, String role) {
+        if (!from.isBefore(to)) {
+            throw new InvalidReportQueryException("'from' must be before 'to'");
+        }
+        if (step.isNegative() || step.isZero()) {
+            throw new InvalidReportQueryException("'step' must be positive");
+        }
+        long buckets = divideCeiling(Duration.between(from, to), step);
+        if (buckets > MAX_BUCKETS) {
+            throw new InvalidReportQueryException("Range spans " + buckets + " buckets; at most " + MAX_BUCKETS + " are allowed");
+        }
+
+        String label = null;
+        if (ROLE_MANAGER.equals(role)) {
+            if (dimension != Dimension.DEPARTMENT) {
+                throw new InvalidReportQueryException("Managers can only query the department dimension");
+            }
+            Department department = departmentRepository.findByManagerUsername(managerUsername);
+            if (department == null) {
+                return List.of();
+            }
+            label = department.getName();
+        }
+
+        // Start at the capture in effect at 'from', so the first bucket has a value to carry forward
+        Instant seed = snapshotRepository.findLastCaptureAtOrBefore(dimension, from);
+        Instant start = seed != null ? seed : from;
+        List<ReportSnapshot> rows = label == null
+                ? snapshotRepository.findRange(dimension, start, to)
+                : snapshotRepository.findRangeForLabel(dimension, label, start, to);
+
+        logger.info("Building {} time series from {} snapshot rows in {} buckets", dimension, rows.size(), buckets);
+        return downsample(rows, from, step, (int) buckets, aggregation);
+    }
+
+    private static long divideCeiling(Duration range, Duration step) {
+        long whole = range.dividedBy(step);
+        return range.minus(step.multipliedBy(whole)).isZero() ? whole : whole + 1;
+    }
+
+    /**
+     * Downsample snapshot rows (ordered by capture time) into buckets starting at {@code from}.
+     * Each capture replaces the set of groups; a bucket without captures repeats the groups of the
+     * latest earlier capture. Groups absent from a bucket get no point in it.
+     */
+    static List<TimeSeriesDTO> downsample(List<ReportSnapshot> rows, Instant from, Duration step, int buckets,
+                                          Aggregation aggregation) {
+        Map<String, List<TimeSeriesPointDTO>> series = new TreeMap<>(Comparator.nullsFirst(Comparator.naturalOrder()));
+        Map<String, ReportSnapshot> current = new HashMap<>();
+        int next = 0;
+
+        // Captures before the range only establish the carried-forward state
+        while (next < rows.size() && rows.get(next).getCapturedAt().isBefore(from)) {
+            next = readCapture(rows, next, current);
+        }
+
+        for (int i = 0; i < buckets; i++) {
+            Instant bucketStart = from.plus(step.multipliedBy(i));
+            Instant bucketEnd = bucketStart.plus(step);
+            Map<String, Accumulator> accumulators = new LinkedHashMap<>();
+
+            boolean captured = false;
+            while (next < rows.size() && rows.get(next).getCapturedAt().isBefore(bucketEnd)) {
+                next = readCapture(rows, next, current);
+                accumulate(accumulators, current);
+                captured = true;
+            }
+            if (!captured) {
+                accumulate(accumulators, current);
+            }
+
+            accumulators.forEach((label, accumulator) -> series
+                    .computeIfAbsent(label, key -> new ArrayList<>())
+                    .add(accumulator.toPoint(bucketStart, aggregation)));
+        }
+
+        List<TimeSeriesDTO> result = new ArrayList<>(series.size());
+        series.forEach((label, points) -> result.add(new TimeSeriesDTO(label, points)));
+        return result;
+    }
+
+    // Replace the current state with the capture starting at index, returning the index after it
+    private static int readCapture(List<ReportSnapshot> rows, int index, Map<String, ReportSnapshot> current) {
+        Instant capturedAt = rows.get(index).getCapturedAt();
+        current.clear();
+        while (index < rows.size() && rows.get(index).getCapturedAt().equals(capturedAt)) {
+            ReportSnapshot row = rows.get(index++);
+            current.put(row.getLabel(), row);
+        }
+        return index;
+    }
+
+    private static void accumulate(Map<String, Accumulator> accumulators, Map<String, ReportSnapshot> current) {
+        current.forEach((label, row) -> accumulators.computeIfAbsent(label, key -> new Accumulator()).add(row));
+    }
+
+    /**
+     * Running last/sum/min/max of the headcount and salary total of one group within one bucket.
+     */
+    private static final class Accumulator {
+
+        private final Metric count = new Metric();
+        private final Metric salary = new Metric();
+
+        void add(ReportSnapshot row) {
+            count.add(row.getEmployeeCount());
+            if (row.getTotalSalary() != null) {
+                salary.add(row.getTotalSalary());
+            }
+        }
+
+        TimeSeriesPointDTO toPoint(Instant timestamp, Aggregation aggregation) {
+            return new TimeSeriesPointDTO(timestamp, count.get(aggregation), salary.get(aggregation));
+        }
+    }
+
+    private static final class Metric {
+
+        private int samples;
+        private double last;
+        private double sum;
+        private double min = Double.POSITIVE_INFINITY;
+        private double max = Double.NEGATIVE_INFINITY;
+
+        void add(double value) {
+            samples++;
+            last = value;
+            sum += value;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+
+        Double get(Aggregation aggregation) {
+            if (samples == 0) {
+                return null;
+            }
+            return switch (aggregation) {
+                case LAST -> last;
+                case AVG -> sum / samples;
+                case MIN -> min;
+                case MAX -> max;
+            };
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.employeemanagementsystem.service;
+
+import com.example.employeemanagementsystem.analytics.EmployeeColumnStore.Column;
+import com.example.employeemanagementsystem.analytics.SalarySketch;
+import com.example.employeemanagementsystem.dto.HistogramBinDTO;
+import com.example.employeemanagementsystem.dto.SalaryDistributionDTO;
+import com.example.employeemanagementsystem.entity.Department;
+import com.example.employeemanagementsystem.exception.InvalidReportQueryException;
+import com.example.employeemanagementsystem.repository.DepartmentRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Salary percentile and histogram reports per department, job title or gender, and company-wide.
+ * They are read from the salary sketches the analytics column store keeps per group, which are
+ * built when the store loads and updated with every employee change; the company-wide
+ * distribution is the merge of the department sketches.
+ */
+@Service
+public class SalaryDistributionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SalaryDistributionService.class);
+
+    /**
+     * Upper bound on the number of histogram bins.
+     */
+    public static final int MAX_BINS = 100;
+
+    // Label of the company-wide distribution
+    static final String TOTAL_LABEL = "total";
+
+    private static final String ROLE_MANAGER = "MANAGER";
+
+    private final EmployeeAnalyticsService employeeAnalyticsService;
+    private final DepartmentRepository departmentRepository;
+
+    public SalaryDistributionService(EmployeeAnalyticsService employeeAnalyticsService, DepartmentRepository departmentRepository) {
+        this.employeeAnalyticsService = employeeAnalyticsService;
+        this.departmentRepository = departmentRepository;
+    }
+
+    /**
+     * Get the salary distribution of every group of a dimension, or of the whole company.
+     * A manager only sees the distribution of their own department.
+     *
+     * @param dimension       the grouping, or null for a single company-wide distribution
+     * @param bins            number of histogram bins
+     * @param managerUsername username of the manager (if applicable)
+     * @param role            role of the user (Admin or Manager)
+     * @return one distribution per group with at least one salary, ordered by label
+     * @throws InvalidReportQueryException if the bin count is invalid or a manager asks for another dimension
+     */
+    public List<SalaryDistributionDTO> getSalaryDistributions(Column dimension, int bins, String managerUsername, String role) {
+        if (bins < 1 || bins > MAX_BINS) {
+            throw new InvalidReportQueryException("Bins must be between 1 and " + MAX_BINS);
+        }
+
+        if (ROLE_MANAGER.equals(role)) {
+            if (dimension != Column.DEPARTMENT) {
+                throw new InvalidReportQueryException("Managers can only query the department dimension");
+            }
+            Department department = departmentRepository.findByManagerUsername(managerUsername);
+            if (department == null) {
+                return List.of();
+            }
+            SalarySketch sketch = employeeAnalyticsService.salarySketches(Column.DEPARTMENT).get(department.getName());
+            return sketch == null ? List.of() : List.of(toDistribution(department.getName(), sketch, bins));
+        }
+
+        if (dimension == null) {
+            // Every employee is in exactly one department group (null included), so they merge into the total
+            SalarySketch total = new SalarySketch();
+            employeeAnalyticsService.salarySketches(Column.DEPARTMENT).values().forEach(total::merge);
+            logger.info("Building company-wide salary distribution over {} salaries", total.getCount());
+            return total.getCount() == 0 ? List.of() : List.of(toDistribution(TOTAL_LABEL, total, bins));
+        }
+
+        Map<String, SalarySketch> sketches = employeeAnalyticsService.salarySketches(dimension);
+        logger.info("Building {} salary distributions by {}", sketches.size(), dimension);
+        List<SalaryDistributionDTO> result = new ArrayList<>(sketches.size());
+        sketches.forEach((label, sketch) -> result.add(toDistribution(label, sketch, bins)));
+        result.sort(Comparator.comparing(SalaryDistributionDTO::getLabel, Comparator.nullsFirst(Comparator.naturalOrder())));
+        return result;
+    }
+
+    private static SalaryDistributionDTO toDistribution(String label, SalarySketch sketch, int bins) {
+        double lowest = sketch.quantile(0);
+        double highest = sketch.quantile(1);
+        if (highest <= lowest) {
+            bins = 1;
+        }
+        long[] counts = sketch.histogram(lowest, highest, bins);
+        double width = (highest - lowest) / bins;
+        List<HistogramBinDTO> histogram = new ArrayList<>(bins);
+        for (int b = 0; b < bins; b++) {
+            double upper = b == bins - 1 ? highest : lowest + width * (b + 1);
+            histogram.add(new HistogramBinDTO(lowest + width * b, upper, counts[b]));
+        }
+        return new SalaryDistributionDTO(label, sketch.getCount(),
+                sketch.quantile(0.5), sketch.quantile(0.9), sketch.quantile(0.99), histogram);
+    }
+}
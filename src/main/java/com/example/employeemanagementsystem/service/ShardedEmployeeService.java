@@ -0,0 +1,272 @@
+package com.example.employeemanagementsystem.service;
+
+import com.example.employeemanagementsystem.dto.EmployeePageDTO;
+import com.example.employeemanagementsystem.dto.EmployeeReportDTO;
+import com.example.employeemanagementsystem.dto.EmployeeSearchRequestDTO;
+import com.example.employeemanagementsystem.entity.Department;
+import com.example.employeemanagementsystem.entity.Employee;
+import com.example.employeemanagementsystem.events.ChangeEvent;
+import com.example.employeemanagementsystem.events.ChangeEventListener;
+import com.example.employeemanagementsystem.repository.DepartmentRepository;
+import com.example.employeemanagementsystem.repository.EmployeeHierarchyRepository;
+import com.example.employeemanagementsystem.repository.EmployeeRepository;
+import com.example.employeemanagementsystem.sharding.ShardFilter;
+import com.example.employeemanagementsystem.sharding.ShardedEmployeeStore;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Serves employee lists, searches and reports from the department shards when sharding is
+ * configured ({@code app.sharding.shard-urls}); otherwise {@link #isEnabled()} is false and
+ * callers keep using the primary database. The primary stays the system of record: the shards
+ * are filled from it once, by the first instance to claim the load, and then kept in step as a
+ * {@link ChangeEventListener}: one instance at a time copies the employees named in committed
+ * change events from the primary to the shards, so a write shows in sharded reads shortly after
+ * its commit, whichever instance made it. Queries scoped to one department go to its shard;
+ * admin-wide ones are scattered to every shard and merged.
+ */
+@Service
+public class ShardedEmployeeService implements ChangeEventListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardedEmployeeService.class);
+
+    // Employees copied to the shards per batch
+    private static final int COPY_BATCH_SIZE = 500;
+
+    // An initial copy whose claim is not renewed for this long is taken over by another instance
+    private static final Duration LOAD_CLAIM_TIMEOUT = Duration.ofMinutes(5);
+
+    private final ShardedEmployeeStore store;
+    private final EmployeeRepository employeeRepository;
+    private final EmployeeHierarchyRepository hierarchyRepository;
+    private final DepartmentRepository departmentRepository;
+    private final TransactionTemplate transaction;
+    private final boolean preload;
+
+    private final Object loadLock = new Object();
+    private volatile boolean loaded;
+
+    public ShardedEmployeeService(ObjectProvider<ShardedEmployeeStore> store, EmployeeRepository employeeRepository,
+                                  EmployeeHierarchyRepository hierarchyRepository, DepartmentRepository departmentRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${app.sharding.preload:true}") boolean preload) {
+        this.store = store.getIfAvailable();
+        this.employeeRepository = employeeRepository;
+        this.hierarchyRepository = hierarchyRepository;
+        this.departmentRepository = departmentRepository;
+        // Rows are copied from the primary, both changed ones, which were just committed there and may not have
+        // reached a replica, and the full copy, which a lagging replica could use to overwrite rows refreshed since.
+        // Always a new read-write transaction, so a read-only transaction of the caller cannot route it to a replica
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transaction.setReadOnly(false);
+        this.preload = preload;
+    }
+
+    /**
+     * @return true if employee reads should be served from the shards
+     */
+    public boolean isEnabled() {
+        return store != null;
+    }
+
+    /**
+     * Copy every employee to the shards in the background once the application is up
+     * (otherwise on the first sharded read).
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        if (isEnabled() && preload) {
+            ensureLoaded();
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "employee-shards";
+    }
+
+    /**
+     * Copy the employees changed by committed events from the primary to the shards; deleted ones
+     * are removed. Does nothing when sharding is disabled.
+     */
+    @Override
+    public void onEvents(List<ChangeEvent> events) {
+        if (!isEnabled()) {
+            return;
+        }
+        ensureLoaded();
+        List<Long> employeeIds = events.stream()
+                .filter(event -> OutboxService.EMPLOYEE.equals(event.entityType()))
+                .map(ChangeEvent::entityId)
+                .distinct()
+                .toList();
+        for (int from = 0; from < employeeIds.size(); from += COPY_BATCH_SIZE) {
+            applyChanges(employeeIds.subList(from, Math.min(from + COPY_BATCH_SIZE, employeeIds.size())));
+        }
+    }
+
+    /**
+     * Get every employee assigned to a department, from all shards.
+     */
+    public List<Employee> getAllEmployees() {
+        ensureLoaded();
+        return store.findAll(ShardFilter.withDepartment());
+    }
+
+    /**
+     * Get one page of the employees assigned to a department, merged from all shards.
+     *
+     * @param page zero-based page number
+     * @param size page size
+     */
+    public EmployeePageDTO getAllEmployees(int page, int size) {
+        ensureLoaded();
+        ShardedEmployeeStore.Page result = store.find(ShardFilter.withDepartment(), (long) page * size, size);
+        return new EmployeePageDTO(result.rows(), page, size, result.total());
+    }
+
+    /**
+     * Get the employees of a manager's department, from that department's shard, plus anyone in
+     * their reporting line who works in another department.
+     *
+     * @param managerUsername username of the manager
+     * @return the employees, ordered by ID
+     */
+    public List<Employee> getEmployeesForManager(String managerUsername) {
+        ensureLoaded();
+        Department department = departmentRepository.findByManagerUsername(managerUsername);
+        List<Employee> employees = new ArrayList<>(department != null
+                ? store.findAll(ShardFilter.department(department.getId()))
+                : List.of());
+
+        Set<Long> outsideDepartment = new HashSet<>(hierarchyRepository.findReportingLineIds(managerUsername));
+        employees.forEach(employee -> outsideDepartment.remove(employee.getId()));
+        if (!outsideDepartment.isEmpty()) {
+            employees.addAll(store.findByIds(outsideDepartment));
+            employees.sort(Comparator.comparing(Employee::getId));
+        }
+        return employees;
+    }
+
+    /**
+     * Search employees, optionally within one department (a manager's). A department in the
+     * criteria or the scope sends the search to a single shard.
+     *
+     * @param searchRequest search criteria
+     * @param department    department the search is restricted to, or null for all
+     * @return the matches, ordered by ID
+     */
+    public List<Employee> searchEmployees(EmployeeSearchRequestDTO searchRequest, Department department) {
+        ensureLoaded();
+        ShardFilter filter = ShardFilter.of(searchRequest);
+        if (department != null) {
+            if (filter.departmentId() != null && !filter.departmentId().equals(department.getId())) {
+                return List.of();
+            }
+            filter = filter.inDepartment(department.getId());
+        }
+        return store.findAll(filter);
+    }
+
+    /**
+     * Count employees and salaries per group, either company-wide or for a manager's department.
+     *
+     * @param groupBy         the grouping
+     * @param managerUsername restrict to the department this user manages, or null for all
+     * @return one report row per group, ordered by label
+     */
+    public List<EmployeeReportDTO> getEmployeeReport(ShardedEmployeeStore.GroupBy groupBy, String managerUsername) {
+        ensureLoaded();
+        if (managerUsername == null) {
+            return store.aggregate(groupBy, ShardFilter.all());
+        }
+        Department department = departmentRepository.findByManagerUsername(managerUsername);
+        return department == null ? List.of() : store.aggregate(groupBy, ShardFilter.department(department.getId()));
+    }
+
+    /**
+     * @return number of employees across all shards
+     */
+    public long getTotalEmployees() {
+        ensureLoaded();
+        return store.count(ShardFilter.all());
+    }
+
+    /**
+     * Load the shards if this instance has not seen them loaded yet.
+     */
+    void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (loadLock) {
+            if (!loaded) {
+                load();
+            }
+        }
+    }
+
+    // The shards are shared by every instance and served from while they run, so they are never
+    // emptied: the first instance to claim the load copies every employee and records it, and
+    // later starts only apply changes. While another instance holds the claim, this one serves
+    // what has been copied so far and checks the claim again on the next read.
+    // Deleting the employee_shard_load row forces a full copy on the next start.
+    private void load() {
+        store.createSchema();
+        ShardedEmployeeStore.LoadClaim claim = store.claimLoad(LOAD_CLAIM_TIMEOUT);
+        if (claim == ShardedEmployeeStore.LoadClaim.BUSY) {
+            logger.debug("Employee shards are being loaded by another instance");
+            return;
+        }
+        if (claim == ShardedEmployeeStore.LoadClaim.CLAIMED) {
+            copyAll();
+        }
+        loaded = true;
+    }
+
+    // Upserts are idempotent, so a copy interrupted and taken over leaves no duplicates; rows of
+    // employees no longer on the primary are removed afterwards instead of clearing the tables first
+    private void copyAll() {
+        long start = System.currentTimeMillis();
+        List<Long> ids = Objects.requireNonNull(transaction.execute(status -> employeeRepository.findAllIds()));
+        for (int from = 0; from < ids.size(); from += COPY_BATCH_SIZE) {
+            applyChanges(ids.subList(from, Math.min(from + COPY_BATCH_SIZE, ids.size())));
+            store.renewLoadClaim();
+        }
+        Set<Long> stale = new HashSet<>(store.findAllIds());
+        ids.forEach(stale::remove);
+        store.delete(stale);
+        store.markLoaded();
+        logger.info("Copied {} employees to {} shards in {} ms ({} stale removed)", ids.size(), store.getShardCount(),
+                System.currentTimeMillis() - start, stale.size());
+    }
+
+    private void applyChanges(List<Long> employeeIds) {
+        List<Employee> employees = transaction.execute(status -> employeeRepository.findWithDepartmentByIds(employeeIds));
+        Set<Long> deleted = new HashSet<>(employeeIds);
+        Objects.requireNonNull(employees).forEach(employee -> deleted.remove(employee.getId()));
+        store.upsert(employees);
+        store.delete(deleted);
+        logger.debug("Copied {} employees to the shards ({} deleted)", employees.size(), deleted.size());
+    }
+}
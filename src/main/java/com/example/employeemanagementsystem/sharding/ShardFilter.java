@@ -0,0 +1,60 @@
+package com.example.employeemanagementsystem.sharding;
+
+import com.example.employeemanagementsystem.dto.EmployeeSearchRequestDTO;
+
+/**
+ * Row filter of a sharded employee query, with the same semantics as the JPA search
+ * specification: case-insensitive partial match on the first name, exact match on the rest.
+ * A filter with a department ID is answered by that department's shard alone.
+ *
+ * @param departmentId       only employees of this department, or null for any
+ * @param requireDepartment  only employees assigned to a department
+ * @param name               part of the first name, or null
+ * @param jobTitle           job title, or null
+ * @param gender             gender, or null
+ */
+public record ShardFilter(Long departmentId, boolean requireDepartment, String name, String jobTitle, String gender) {
+
+    /**
+     * @return a filter matching every employee
+     */
+    public static ShardFilter all() {
+        return new ShardFilter(null, false, null, null, null);
+    }
+
+    /**
+     * @return a filter matching every employee assigned to a department
+     */
+    public static ShardFilter withDepartment() {
+        return new ShardFilter(null, true, null, null, null);
+    }
+
+    /**
+     * @param departmentId the department
+     * @return a filter matching the employees of one department
+     */
+    public static ShardFilter department(Long departmentId) {
+        return new ShardFilter(departmentId, true, null, null, null);
+    }
+
+    /**
+     * @param searchRequest search criteria; blank values are ignored
+     * @return a filter matching the search criteria
+     */
+    public static ShardFilter of(EmployeeSearchRequestDTO searchRequest) {
+        return new ShardFilter(searchRequest.getDepartmentId(), false, blankToNull(searchRequest.getName()),
+                blankToNull(searchRequest.getJobTitle()), blankToNull(searchRequest.getGender()));
+    }
+
+    /**
+     * @param departmentId the department
+     * @return this filter narrowed to one department
+     */
+    public ShardFilter inDepartment(Long departmentId) {
+        return new ShardFilter(departmentId, true, name, jobTitle, gender);
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+}
@@ -0,0 +1,500 @@
+package com.example.employeemanagementsystem.sharding;
+
+import com.example.employeemanagementsystem.datasource.QueryDeadline;
+import com.example.employeemanagementsystem.datasource.QueryTimeoutDataSource;
+import com.example.employeemanagementsystem.dto.EmployeeReportDTO;
+import com.example.employeemanagementsystem.entity.Department;
+import com.example.employeemanagementsystem.entity.Employee;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * Employee rows partitioned by department across several databases, each holding an
+ * {@code employee_shard} table. A department lives on exactly one shard (its ID modulo the shard
+ * count; employees without a department on the first), so department-scoped queries touch one
+ * database. Any other query is sent to every shard in parallel on virtual threads and the partial
+ * results are merged: pages by a k-way merge on the employee ID after each shard returned its
+ * first {@code offset + limit} rows, aggregates by adding counts and salary sums per group.
+ * Writes are not atomic across shards: while an employee moves to another department's shard,
+ * a concurrent query may briefly miss them.
+ * The first shard also holds the {@code employee_shard_load} row through which instances sharing
+ * the shards agree on which of them copies the employees initially.
+ */
+public class ShardedEmployeeStore implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardedEmployeeStore.class);
+
+    /**
+     * Grouping of an aggregate query.
+     */
+    public enum GroupBy {
+        DEPARTMENT("department_name"),
+        JOB_TITLE("job_title"),
+        GENDER("gender");
+
+        private final String column;
+
+        GroupBy(String column) {
+            this.column = column;
+        }
+    }
+
+    /**
+     * Outcome of {@link #claimLoad(Duration)}.
+     */
+    public enum LoadClaim {
+        /**
+         * The shards were loaded before; only changes need applying.
+         */
+        LOADED,
+        /**
+         * The caller must copy the employees, then call {@link #markLoaded()}.
+         */
+        CLAIMED,
+        /**
+         * Another instance is copying the employees.
+         */
+        BUSY
+    }
+
+    /**
+     * One page of a sharded query.
+     *
+     * @param rows  the employees of the page, ordered by ID
+     * @param total number of matching employees across all shards
+     */
+    public record Page(List<Employee> rows, long total) {
+    }
+
+    private static final String COLUMNS = "id, first_name, last_name, email, phone_number, job_title, gender, salary, "
+            + "hire_date, date_of_birth, version, department_id, department_name";
+
+    private static final String CREATE_TABLE = "CREATE TABLE IF NOT EXISTS employee_shard ("
+            + "id BIGINT PRIMARY KEY, first_name VARCHAR(255), last_name VARCHAR(255), email VARCHAR(255), "
+            + "phone_number VARCHAR(255), job_title VARCHAR(255), gender VARCHAR(255), salary DOUBLE, "
+            + "hire_date DATE, date_of_birth DATE, version BIGINT, department_id BIGINT, department_name VARCHAR(255), "
+            + "INDEX idx_employee_shard_department (department_id, id))";
+
+    private static final String CREATE_LOAD_TABLE = "CREATE TABLE IF NOT EXISTS employee_shard_load ("
+            + "id INT PRIMARY KEY, claimed_at TIMESTAMP NOT NULL, loaded_at TIMESTAMP)";
+
+    private record LoadState(Timestamp claimedAt, Timestamp loadedAt) {
+    }
+
+    private static final RowMapper<Employee> EMPLOYEE_MAPPER = (rs, rowNum) -> {
+        Employee employee = new Employee();
+        employee.setId(rs.getLong("id"));
+        employee.setFirstName(rs.getString("first_name"));
+        employee.setLastName(rs.getString("last_name"));
+        employee.setEmail(rs.getString("email"));
+        employee.setPhoneNumber(rs.getString("phone_number"));
+        employee.setJobTitle(rs.getString("job_title"));
+        employee.setGender(rs.getString("gender"));
+        employee.setSalary(rs.getObject("salary", Double.class));
+        employee.setHireDate(rs.getDate("hire_date"));
+        employee.setDateOfBirth(rs.getDate("date_of_birth"));
+        employee.setVersion(rs.getObject("version", Long.class));
+        Long departmentId = rs.getObject("department_id", Long.class);
+        if (departmentId != null) {
+            Department department = new Department();
+            department.setId(departmentId);
+            department.setName(rs.getString("department_name"));
+            employee.setDepartment(department);
+        }
+        return employee;
+    };
+
+    private final List<DataSource> dataSources;
+    private final List<NamedParameterJdbcTemplate> shards;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * @param dataSources one datasource per shard; the order defines the department placement and must not change
+     */
+    public ShardedEmployeeStore(List<DataSource> dataSources) {
+        if (dataSources.isEmpty()) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        this.dataSources = List.copyOf(dataSources);
+        // Shard queries are held to the request's deadline like those on the primary
+        this.shards = dataSources.stream()
+                .map(dataSource -> new NamedParameterJdbcTemplate(new QueryTimeoutDataSource(dataSource)))
+                .toList();
+    }
+
+    public int getShardCount() {
+        return shards.size();
+    }
+
+    /**
+     * @param departmentId department ID, or null
+     * @return index of the shard holding the department's employees
+     */
+    public int shardOf(Long departmentId) {
+        return departmentId == null ? 0 : (int) Math.floorMod(departmentId, (long) shards.size());
+    }
+
+    /**
+     * Create the employee table on every shard, and the load table on the first, if they do not exist yet.
+     */
+    public void createSchema() {
+        scatter(allShards(), shardIndex -> {
+            shards.get(shardIndex).getJdbcTemplate().execute(CREATE_TABLE);
+            return null;
+        });
+        coordinator().execute(CREATE_LOAD_TABLE);
+    }
+
+    /**
+     * Decide whether the caller copies the employees to the shards. Only one instance holds the
+     * claim at a time; a claim not renewed within {@code staleAfter} is taken to belong to an
+     * instance that stopped mid-copy and may be taken over.
+     *
+     * @param staleAfter age after which an unfinished claim may be taken over
+     * @return whether the shards are loaded, claimed by the caller, or being loaded by another instance
+     */
+    public LoadClaim claimLoad(Duration staleAfter) {
+        JdbcTemplate coordinator = coordinator();
+        List<LoadState> states = coordinator.query("SELECT claimed_at, loaded_at FROM employee_shard_load WHERE id = 1",
+                (rs, rowNum) -> new LoadState(rs.getTimestamp("claimed_at"), rs.getTimestamp("loaded_at")));
+        Timestamp now = Timestamp.from(Instant.now());
+        if (states.isEmpty()) {
+            try {
+                coordinator.update("INSERT INTO employee_shard_load (id, claimed_at) VALUES (1, ?)", now);
+                return LoadClaim.CLAIMED;
+            } catch (DuplicateKeyException e) {
+                return LoadClaim.BUSY;
+            }
+        }
+        LoadState state = states.get(0);
+        if (state.loadedAt() != null) {
+            return LoadClaim.LOADED;
+        }
+        if (state.claimedAt().toInstant().isAfter(now.toInstant().minus(staleAfter))) {
+            return LoadClaim.BUSY;
+        }
+        // Compare-and-set, so of several instances finding the same stale claim only one takes it over
+        int updated = coordinator.update("UPDATE employee_shard_load SET claimed_at = ? "
+                + "WHERE id = 1 AND claimed_at = ? AND loaded_at IS NULL", now, state.claimedAt());
+        return updated == 1 ? LoadClaim.CLAIMED : LoadClaim.BUSY;
+    }
+
+    /**
+     * Keep a load claim from going stale while the copy is in progress.
+     */
+    public void renewLoadClaim() {
+        coordinator().update("UPDATE employee_shard_load SET claimed_at = ? WHERE id = 1 AND loaded_at IS NULL",
+                Timestamp.from(Instant.now()));
+    }
+
+    /**
+     * Record that the employees have been copied, so later starts skip the copy.
+     */
+    public void markLoaded() {
+        coordinator().update("UPDATE employee_shard_load SET loaded_at = ? WHERE id = 1", Timestamp.from(Instant.now()));
+    }
+
+    /**
+     * @return IDs of the employees on every shard
+     */
+    public List<Long> findAllIds() {
+        return scatter(allShards(), shardIndex -> shards.get(shardIndex).getJdbcTemplate()
+                .queryForList("SELECT id FROM employee_shard", Long.class))
+                .stream().flatMap(List::stream).toList();
+    }
+
+    /**
+     * Insert or replace employees, each on the shard of their department. The department must be
+     * loaded (at least its ID and name).
+     *
+     * @param employees the employees to write
+     */
+    public void upsert(Collection<Employee> employees) {
+        if (employees.isEmpty()) {
+            return;
+        }
+        // An employee whose department changed may still be on another shard
+        delete(employees.stream().map(Employee::getId).toList());
+
+        Map<Integer, List<SqlParameterSource>> byShard = new HashMap<>();
+        for (Employee employee : employees) {
+            Department department = employee.getDepartment();
+            Long departmentId = department != null ? department.getId() : null;
+            byShard.computeIfAbsent(shardOf(departmentId), s -> new ArrayList<>()).add(new MapSqlParameterSource()
+                    .addValue("id", employee.getId())
+                    .addValue("firstName", employee.getFirstName())
+                    .addValue("lastName", employee.getLastName())
+                    .addValue("email", employee.getEmail())
+                    .addValue("phoneNumber", employee.getPhoneNumber())
+                    .addValue("jobTitle", employee.getJobTitle())
+                    .addValue("gender", employee.getGender())
+                    .addValue("salary", employee.getSalary())
+                    .addValue("hireDate", toSqlDate(employee.getHireDate()))
+                    .addValue("dateOfBirth", toSqlDate(employee.getDateOfBirth()))
+                    .addValue("version", employee.getVersion())
+                    .addValue("departmentId", departmentId)
+                    .addValue("departmentName", department != null ? department.getName() : null));
+        }
+        scatter(List.copyOf(byShard.keySet()), shardIndex -> shards.get(shardIndex).batchUpdate(
+                "INSERT INTO employee_shard (" + COLUMNS + ") VALUES (:id, :firstName, :lastName, :email, :phoneNumber, "
+                        + ":jobTitle, :gender, :salary, :hireDate, :dateOfBirth, :version, :departmentId, :departmentName)",
+                byShard.get(shardIndex).toArray(SqlParameterSource[]::new)));
+    }
+
+    /**
+     * Remove employees from whichever shard holds them.
+     *
+     * @param employeeIds the employees to remove
+     */
+    public void delete(Collection<Long> employeeIds) {
+        if (employeeIds.isEmpty()) {
+            return;
+        }
+        scatter(allShards(), shardIndex -> shards.get(shardIndex).update(
+                "DELETE FROM employee_shard WHERE id IN (:ids)", Map.of("ids", employeeIds)));
+    }
+
+    /**
+     * Get one page of the employees matching a filter, ordered by ID.
+     *
+     * @param filter the row filter
+     * @param offset number of matching employees to skip
+     * @param limit  maximum number of employees returned
+     * @return the page and the total number of matches
+     */
+    public Page find(ShardFilter filter, long offset, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String where = where(filter, params);
+        // Each shard must return enough rows to fill the page on its own
+        long perShard = offset + limit;
+        String select = "SELECT " + COLUMNS + " FROM employee_shard" + where + " ORDER BY id"
+                + (perShard < Integer.MAX_VALUE ? " LIMIT " + perShard : "");
+        String count = "SELECT COUNT(*) FROM employee_shard" + where;
+
+        List<Page> partials = scatter(shardsFor(filter), shardIndex -> {
+            NamedParameterJdbcTemplate shard = shards.get(shardIndex);
+            return new Page(shard.query(select, params, EMPLOYEE_MAPPER), shard.queryForObject(count, params, Long.class));
+        });
+        return new Page(mergeById(partials, offset, limit), partials.stream().mapToLong(Page::total).sum());
+    }
+
+    /**
+     * Get every employee matching a filter, ordered by ID.
+     */
+    public List<Employee> findAll(ShardFilter filter) {
+        return find(filter, 0, Integer.MAX_VALUE).rows();
+    }
+
+    /**
+     * Look up employees by ID on every shard.
+     *
+     * @param employeeIds the employees
+     * @return the employees found, ordered by ID
+     */
+    public List<Employee> findByIds(Collection<Long> employeeIds) {
+        if (employeeIds.isEmpty()) {
+            return List.of();
+        }
+        List<Page> partials = scatter(allShards(), shardIndex -> new Page(shards.get(shardIndex).query(
+                "SELECT " + COLUMNS + " FROM employee_shard WHERE id IN (:ids) ORDER BY id",
+                Map.of("ids", employeeIds), EMPLOYEE_MAPPER), 0));
+        return mergeById(partials, 0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Count the employees matching a filter.
+     */
+    public long count(ShardFilter filter) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String sql = "SELECT COUNT(*) FROM employee_shard" + where(filter, params);
+        return scatter(shardsFor(filter), shardIndex -> shards.get(shardIndex).queryForObject(sql, params, Long.class))
+                .stream().mapToLong(Long::longValue).sum();
+    }
+
+    /**
+     * Count employees and add up salaries per group. Groups are combined across shards by adding
+     * their counts and sums; the average is the combined sum over the combined number of salaries.
+     * Grouping by department skips employees without one.
+     *
+     * @param groupBy the grouping
+     * @param filter  the row filter
+     * @return one report row per group, ordered by label
+     */
+    public List<EmployeeReportDTO> aggregate(GroupBy groupBy, ShardFilter filter) {
+        if (groupBy == GroupBy.DEPARTMENT && !filter.requireDepartment()) {
+            filter = new ShardFilter(filter.departmentId(), true, filter.name(), filter.jobTitle(), filter.gender());
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String sql = "SELECT " + groupBy.column + " AS label, COUNT(*) AS employees, COUNT(salary) AS salaries, "
+                + "SUM(salary) AS salary_sum FROM employee_shard" + where(filter, params) + " GROUP BY " + groupBy.column;
+
+        List<List<GroupTotals>> partials = scatter(shardsFor(filter), shardIndex -> shards.get(shardIndex).query(sql, params,
+                (rs, rowNum) -> new GroupTotals(rs.getString("label"), rs.getLong("employees"), rs.getLong("salaries"),
+                        rs.getDouble("salary_sum"))));
+
+        Map<String, GroupTotals> combined = new LinkedHashMap<>();
+        partials.forEach(groups -> groups.forEach(group -> combined.merge(group.label(), group, GroupTotals::plus)));
+        return combined.values().stream()
+                .sorted(Comparator.comparing(GroupTotals::label, Comparator.nullsFirst(Comparator.naturalOrder())))
+                .map(GroupTotals::toReport)
+                .toList();
+    }
+
+    /**
+     * @param shardIndex index of the shard
+     * @return number of employees on the shard
+     */
+    public long countOnShard(int shardIndex) {
+        Long count = shards.get(shardIndex).getJdbcTemplate().queryForObject("SELECT COUNT(*) FROM employee_shard", Long.class);
+        return count != null ? count : 0L;
+    }
+
+    // Also closes the shard pools
+    @Override
+    public void close() throws IOException {
+        executor.shutdownNow();
+        for (DataSource dataSource : dataSources) {
+            if (dataSource instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private record GroupTotals(String label, long employees, long salaries, double salarySum) {
+
+        GroupTotals plus(GroupTotals other) {
+            return new GroupTotals(label, employees + other.employees, salaries + other.salaries, salarySum + other.salarySum);
+        }
+
+        EmployeeReportDTO toReport() {
+            return salaries == 0
+                    ? new EmployeeReportDTO(label, employees, null, null)
+                    : new EmployeeReportDTO(label, employees, salarySum / salaries, salarySum);
+        }
+    }
+
+    private static String where(ShardFilter filter, MapSqlParameterSource params) {
+        List<String> conditions = new ArrayList<>();
+        if (filter.departmentId() != null) {
+            conditions.add("department_id = :departmentId");
+            params.addValue("departmentId", filter.departmentId());
+        } else if (filter.requireDepartment()) {
+            conditions.add("department_id IS NOT NULL");
+        }
+        if (filter.name() != null) {
+            conditions.add("LOWER(first_name) LIKE :name");
+            params.addValue("name", "%" + filter.name().toLowerCase() + "%");
+        }
+        if (filter.jobTitle() != null) {
+            conditions.add("job_title = :jobTitle");
+            params.addValue("jobTitle", filter.jobTitle());
+        }
+        if (filter.gender() != null) {
+            conditions.add("gender = :gender");
+            params.addValue("gender", filter.gender());
+        }
+        return conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+    }
+
+    // Merge the ID-ordered rows of every shard, skipping offset rows and keeping at most limit
+    private static List<Employee> mergeById(List<Page> partials, long offset, int limit) {
+        PriorityQueue<int[]> heads = new PriorityQueue<>(Comparator.comparing(
+                (int[] head) -> partials.get(head[0]).rows().get(head[1]).getId()));
+        for (int s = 0; s < partials.size(); s++) {
+            if (!partials.get(s).rows().isEmpty()) {
+                heads.add(new int[]{s, 0});
+            }
+        }
+        List<Employee> merged = new ArrayList<>();
+        long skipped = 0;
+        while (!heads.isEmpty() && merged.size() < limit) {
+            int[] head = heads.poll();
+            List<Employee> rows = partials.get(head[0]).rows();
+            if (skipped < offset) {
+                skipped++;
+            } else {
+                merged.add(rows.get(head[1]));
+            }
+            if (++head[1] < rows.size()) {
+                heads.add(head);
+            }
+        }
+        return merged;
+    }
+
+    private JdbcTemplate coordinator() {
+        return shards.get(0).getJdbcTemplate();
+    }
+
+    private List<Integer> allShards() {
+        return IntStream.range(0, shards.size()).boxed().toList();
+    }
+
+    private List<Integer> shardsFor(ShardFilter filter) {
+        return filter.departmentId() != null ? List.of(shardOf(filter.departmentId())) : allShards();
+    }
+
+    private <T> List<T> scatter(List<Integer> shardIndexes, Function<Integer, T> query) {
+        if (shardIndexes.size() == 1) {
+            return Collections.singletonList(query.apply(shardIndexes.get(0)));
+        }
+        List<Future<T>> futures = shardIndexes.stream()
+                .map(s -> executor.submit(QueryDeadline.propagate(() -> query.apply(s))))
+                .toList();
+        List<T> results = new ArrayList<>(futures.size());
+        try {
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(f -> f.cancel(true));
+            throw new IllegalStateException("Interrupted while querying the employee shards", e);
+        } catch (ExecutionException e) {
+            futures.forEach(f -> f.cancel(true));
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Employee shard query failed", e.getCause());
+        }
+        logger.debug("Queried {} employee shards", shardIndexes.size());
+        return results;
+    }
+
+    private static Date toSqlDate(java.util.Date date) {
+        if (date == null || date instanceof Date) {
+            return (Date) date;
+        }
+        return new Date(date.getTime());
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.employeemanagementsystem.snapshot;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+/**
+ * The hot fields of one employee, as kept in a {@link DirectorySnapshot}.
+ *
+ * @param id          employee ID
+ * @param firstName   first name
+ * @param lastName    last name
+ * @param email       email address
+ * @param department  department name, null if the employee has none
+ * @param jobTitle    job title
+ * @param gender      gender
+ * @param salary      salary, null if unset
+ * @param hireDate    hire date
+ * @param dateOfBirth date of birth
+ */
+public record DirectoryEntry(long id, String firstName, String lastName, String email, String department,
+                             String jobTitle, String gender, Double salary, LocalDate hireDate, LocalDate dateOfBirth) {
+
+    // Selected directly by EmployeeRepository.streamDirectoryEntries
+    public DirectoryEntry(Long id, String firstName, String lastName, String email, String department,
+                          String jobTitle, String gender, Double salary, java.util.Date hireDate,
+                          java.util.Date dateOfBirth) {
+        this((long) id, firstName, lastName, email, department, jobTitle, gender, salary,
+                toLocalDate(hireDate), toLocalDate(dateOfBirth));
+    }
+
+    public static LocalDate toLocalDate(java.util.Date date) {
+        if (date == null) {
+            return null;
+        }
+        if (date instanceof Date sqlDate) {
+            return sqlDate.toLocalDate();
+        }
+        return LocalDate.ofInstant(date.toInstant(), ZoneId.systemDefault());
+    }
+}
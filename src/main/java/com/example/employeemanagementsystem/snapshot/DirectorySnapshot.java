@@ -0,0 +1,263 @@
+package com.example.employeemanagementsystem.snapshot;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Read-only, memory-mapped binary copy of the employee directory's hot fields, taken at a
+ * change log sequence: every change up to the sequence is in the snapshot, so a cache loaded
+ * from it is brought up to date with the changes after it.
+ * <p>
+ * The file is a fixed header, a dictionary of the department, job title and gender values,
+ * one fixed-width record per employee and a heap of length-prefixed UTF-8 strings the records
+ * and the dictionary point into. Records are read in place, so opening a snapshot costs one
+ * checksum pass over the file and loading it no database work at all. A CRC-32C over the
+ * header and payload rejects torn or damaged files; the writer replaces the file atomically,
+ * so readers never see a partial one.
+ */
+public final class DirectorySnapshot {
+
+    private static final int MAGIC = 0x454D5044; // "EMPD"
+
+    /**
+     * Format version; snapshots of any other version are not read.
+     */
+    public static final int VERSION = 1;
+
+    // Header: magic, version, sequence, created at, row count, dictionary size, heap size, checksum, reserved
+    private static final int HEADER_SIZE = 64;
+    private static final int CHECKSUM_OFFSET = 36;
+
+    // Record: id, salary (NaN for null), hire date and date of birth (epoch days), department, job title
+    // and gender (dictionary codes), first name, last name and email (heap offsets); -1 or NO_DATE for null
+    private static final int ROW_SIZE = 48;
+    private static final int NO_DATE = Integer.MIN_VALUE;
+    private static final int NONE = -1;
+
+    private final MappedByteBuffer buffer;
+    private final long sequence;
+    private final Instant createdAt;
+    private final int size;
+    private final String[] dictionary;
+    private final int rowsOffset;
+    private final int heapOffset;
+
+    private DirectorySnapshot(MappedByteBuffer buffer, long sequence, Instant createdAt, int size,
+                              String[] dictionary, int rowsOffset, int heapOffset) {
+        this.buffer = buffer;
+        this.sequence = sequence;
+        this.createdAt = createdAt;
+        this.size = size;
+        this.dictionary = dictionary;
+        this.rowsOffset = rowsOffset;
+        this.heapOffset = heapOffset;
+    }
+
+    /**
+     * Write a snapshot, replacing the file atomically once it is complete and synced to disk.
+     *
+     * @param path     the snapshot file
+     * @param sequence change log sequence up to which the entries include every change
+     * @param entries  the employees
+     * @throws IOException if the file cannot be written; the previous snapshot is then left as it was
+     */
+    public static void write(Path path, long sequence, Iterator<DirectoryEntry> entries) throws IOException {
+        ByteArrayOutputStream rowBytes = new ByteArrayOutputStream();
+        DataOutputStream rows = new DataOutputStream(rowBytes);
+        Heap heap = new Heap();
+        Map<String, Integer> codes = new HashMap<>();
+        List<Integer> dictionary = new ArrayList<>();
+        int count = 0;
+        while (entries.hasNext()) {
+            DirectoryEntry entry = entries.next();
+            rows.writeLong(entry.id());
+            rows.writeDouble(entry.salary() != null ? entry.salary() : Double.NaN);
+            rows.writeInt(entry.hireDate() != null ? (int) entry.hireDate().toEpochDay() : NO_DATE);
+            rows.writeInt(entry.dateOfBirth() != null ? (int) entry.dateOfBirth().toEpochDay() : NO_DATE);
+            for (String value : new String[]{entry.department(), entry.jobTitle(), entry.gender()}) {
+                rows.writeInt(value == null ? NONE : codes.computeIfAbsent(value, v -> {
+                    dictionary.add(heap.add(v));
+                    return dictionary.size() - 1;
+                }));
+            }
+            rows.writeInt(heap.add(entry.firstName()));
+            rows.writeInt(heap.add(entry.lastName()));
+            rows.writeInt(heap.add(entry.email()));
+            count++;
+        }
+
+        ByteBuffer payload = ByteBuffer.allocate(dictionary.size() * Integer.BYTES + rowBytes.size() + heap.bytes.size());
+        dictionary.forEach(payload::putInt);
+        payload.put(rowBytes.toByteArray());
+        payload.put(heap.bytes.toByteArray());
+        payload.flip();
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).putLong(sequence).putLong(System.currentTimeMillis())
+                .putInt(count).putInt(dictionary.size()).putInt(heap.bytes.size());
+        header.putInt(CHECKSUM_OFFSET, checksum(header, payload));
+        header.rewind();
+
+        Path directory = path.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                while (header.hasRemaining() || payload.hasRemaining()) {
+                    channel.write(new ByteBuffer[]{header, payload});
+                }
+                channel.force(true);
+            }
+            Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Map a snapshot file and verify it. The mapping is released when the snapshot is garbage collected.
+     *
+     * @param path the snapshot file
+     * @return the snapshot
+     * @throws IOException if the file cannot be read, is of another version, or fails its checksum
+     */
+    public static DirectorySnapshot open(Path path) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length < HEADER_SIZE || length > Integer.MAX_VALUE) {
+                throw new IOException("Not a directory snapshot: " + path);
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+        }
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a directory snapshot: " + path);
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported directory snapshot version " + buffer.getInt(4) + ": " + path);
+        }
+        int size = buffer.getInt(24);
+        int dictionarySize = buffer.getInt(28);
+        int heapSize = buffer.getInt(32);
+        long expected = HEADER_SIZE + (long) dictionarySize * Integer.BYTES + (long) size * ROW_SIZE + heapSize;
+        if (size < 0 || dictionarySize < 0 || heapSize < 0 || expected != buffer.capacity()) {
+            throw new IOException("Truncated directory snapshot: " + path);
+        }
+        if (checksum(buffer.slice(0, HEADER_SIZE), buffer.slice(HEADER_SIZE, buffer.capacity() - HEADER_SIZE))
+                != buffer.getInt(CHECKSUM_OFFSET)) {
+            throw new IOException("Directory snapshot checksum mismatch: " + path);
+        }
+
+        int rowsOffset = HEADER_SIZE + dictionarySize * Integer.BYTES;
+        int heapOffset = rowsOffset + size * ROW_SIZE;
+        DirectorySnapshot snapshot = new DirectorySnapshot(buffer, buffer.getLong(8),
+                Instant.ofEpochMilli(buffer.getLong(16)), size, new String[dictionarySize], rowsOffset, heapOffset);
+        for (int code = 0; code < dictionarySize; code++) {
+            snapshot.dictionary[code] = snapshot.string(buffer.getInt(HEADER_SIZE + code * Integer.BYTES));
+        }
+        return snapshot;
+    }
+
+    // Covers the header up to the checksum field, then the payload
+    private static int checksum(ByteBuffer header, ByteBuffer payload) {
+        CRC32C crc = new CRC32C();
+        crc.update(header.slice(0, CHECKSUM_OFFSET));
+        crc.update(payload.duplicate());
+        return (int) crc.getValue();
+    }
+
+    /**
+     * @return the change log sequence up to which the snapshot includes every change
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * @return number of employees
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param index record index, from 0 to {@link #size()} - 1
+     * @return the employee at the index
+     */
+    public DirectoryEntry get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        int row = rowsOffset + index * ROW_SIZE;
+        double salary = buffer.getDouble(row + 8);
+        return new DirectoryEntry(buffer.getLong(row), string(buffer.getInt(row + 36)),
+                string(buffer.getInt(row + 40)), string(buffer.getInt(row + 44)), value(buffer.getInt(row + 24)),
+                value(buffer.getInt(row + 28)), value(buffer.getInt(row + 32)),
+                Double.isNaN(salary) ? null : salary, date(buffer.getInt(row + 16)), date(buffer.getInt(row + 20)));
+    }
+
+    /**
+     * Pass every employee to the action, in the order they were written.
+     */
+    public void forEach(Consumer<DirectoryEntry> action) {
+        for (int i = 0; i < size; i++) {
+            action.accept(get(i));
+        }
+    }
+
+    private String value(int code) {
+        return code == NONE ? null : dictionary[code];
+    }
+
+    private String string(int offset) {
+        if (offset == NONE) {
+            return null;
+        }
+        byte[] bytes = new byte[buffer.getInt(heapOffset + offset)];
+        buffer.get(heapOffset + offset + Integer.BYTES, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static LocalDate date(int epochDay) {
+        return epochDay == NO_DATE ? null : LocalDate.ofEpochDay(epochDay);
+    }
+
+    // Length-prefixed UTF-8 strings, addressed by their offset
+    private static final class Heap {
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        int add(String value) {
+            if (value == null) {
+                return NONE;
+            }
+            int offset = bytes.size();
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            bytes.writeBytes(ByteBuffer.allocate(Integer.BYTES).putInt(utf8.length).array());
+            bytes.writeBytes(utf8);
+            return offset;
+        }
+    }
+}
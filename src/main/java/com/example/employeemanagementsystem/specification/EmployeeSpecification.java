@@ -43,4 +43,14 @@ public class EmployeeSpecification {
             return spec.toPredicate(root, query, criteriaBuilder);
         };
     }
+
+    // For Admin without filters: every employee assigned to a department
+    public static Specification<Employee> hasDepartment() {
+        return (root, query, cb) -> cb.isNotNull(root.get("department"));
+    }
+
+    // For Manager without filters: employees of the department managed by the given user
+    public static Specification<Employee> managedBy(String managerUsername) {
+        return (root, query, cb) -> cb.equal(root.get("department").get("manager").get("username"), managerUsername);
+    }
 }
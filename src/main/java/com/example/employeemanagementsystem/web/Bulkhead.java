@@ -0,0 +1,33 @@
+package com.example.employeemanagementsystem.web;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Assigns an endpoint, or every endpoint of a controller, to a workload with its own concurrency
+ * limit, so that a storm of slow requests of one workload cannot take the permits, and with them
+ * the database connections, of another. Endpoints without it are {@link Workload#INTERACTIVE}.
+ * A method annotation overrides the controller's.
+ */
+@Documented
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Bulkhead {
+
+    /**
+     * The workload the endpoint belongs to.
+     */
+    Workload value();
+
+    enum Workload {
+        /** Single-employee reads and writes a user is waiting for. */
+        INTERACTIVE,
+        /** Aggregate reports and analytics. */
+        REPORTING,
+        /** Whole-directory reads: exports, field streams and replica syncs. */
+        BULK
+    }
+}
@@ -0,0 +1,231 @@
+package com.example.employeemanagementsystem.web;
+
+import com.example.employeemanagementsystem.exception.ConcurrencyLimitExceededException;
+import com.example.employeemanagementsystem.limiter.AdaptiveConcurrencyLimiter;
+import com.example.employeemanagementsystem.limiter.WeightedFairScheduler;
+import com.example.employeemanagementsystem.limiter.WeightedFairScheduler.Priority;
+import com.example.employeemanagementsystem.web.Bulkhead.Workload;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Sheds API requests beyond an adaptive concurrency limit with 503 and Retry-After, so a burst
+ * fails fast instead of queuing every request thread on the database until it times out. The
+ * limit follows the observed request latency (see {@link AdaptiveConcurrencyLimiter}).
+ * <p>
+ * Each {@link Bulkhead} workload has its own limiter, configured under
+ * {@code app.limiter.<workload>.*} with {@code app.limiter.*} as defaults. Slow reports then cut
+ * only the reporting limit, and the maximum limits bound how many database connections each
+ * workload can hold (a request keeps its connection until it completes).
+ * <p>
+ * When a limit is reached, requests wait up to {@code app.scheduler.max-wait-ms} for a permit,
+ * admitted by priority with weighted fair queuing (see {@link WeightedFairScheduler}). Admins and
+ * managers get high priority, reporting endpoints normal and bulk endpoints low; clients may lower
+ * their own priority with {@code X-Client-Class: batch}, but never raise it. Each bulkhead queues
+ * its own requests; between bulkheads, the priority decides at the JDBC governor, whose
+ * connections they all share (see {@link com.example.employeemanagementsystem.datasource.ConcurrencyLimitingDataSource}).
+ * <p>
+ * A request holds its permit until it completes; for streamed responses that is when the async
+ * dispatch at the end of the stream completes. A request that fans its work out to other threads,
+ * each with its own connection, takes an extra permit per thread ({@link #tryAcquireExtra}).
+ */
+@Component
+public class ConcurrencyLimitInterceptor implements AsyncHandlerInterceptor, MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConcurrencyLimitInterceptor.class);
+
+    /**
+     * Request header with which automated clients mark themselves as batch traffic.
+     */
+    public static final String CLIENT_CLASS_HEADER = "X-Client-Class";
+
+    private static final String BATCH_CLIENT_CLASS = "batch";
+
+    // Share of the permits each priority gets while requests wait, unless configured
+    private static final Map<Priority, Integer> DEFAULT_WEIGHTS =
+            Map.of(Priority.HIGH, 8, Priority.NORMAL, 4, Priority.LOW, 1);
+
+    private static final String PERMIT_ATTRIBUTE = ConcurrencyLimitInterceptor.class.getName() + ".permit";
+
+    // A permit together with the scheduler it was taken from
+    private record Admission(WeightedFairScheduler scheduler, AdaptiveConcurrencyLimiter.Permit permit) {
+    }
+
+    private final Map<Workload, WeightedFairScheduler> schedulers = new EnumMap<>(Workload.class);
+    private final boolean enabled;
+    private final long retryAfterSeconds;
+    private final long maxWaitMs;
+
+    public ConcurrencyLimitInterceptor(Environment environment) {
+        Map<Priority, Integer> weights = weights(environment);
+        int maxQueueDepth = environment.getProperty("app.scheduler.max-queue-depth", Integer.class, 100);
+        long starvationMs = environment.getProperty("app.scheduler.starvation-ms", Long.class, 1000L);
+        for (Workload workload : Workload.values()) {
+            schedulers.put(workload, new WeightedFairScheduler(createLimiter(environment, workload), weights,
+                    maxQueueDepth, starvationMs));
+        }
+        this.enabled = environment.getProperty("app.limiter.enabled", Boolean.class, true);
+        this.retryAfterSeconds = environment.getProperty("app.limiter.retry-after-seconds", Long.class, 1L);
+        this.maxWaitMs = environment.getProperty("app.scheduler.max-wait-ms", Long.class, 2000L);
+    }
+
+    /**
+     * @return the share of the permits of each priority, from {@code app.scheduler.weight.<priority>}
+     */
+    public static Map<Priority, Integer> weights(Environment environment) {
+        Map<Priority, Integer> weights = new EnumMap<>(Priority.class);
+        for (Priority priority : Priority.values()) {
+            weights.put(priority, environment.getProperty(
+                    "app.scheduler.weight." + priority.name().toLowerCase(Locale.ROOT), Integer.class,
+                    DEFAULT_WEIGHTS.get(priority)));
+        }
+        return weights;
+    }
+
+    private static AdaptiveConcurrencyLimiter createLimiter(Environment environment, Workload workload) {
+        int maxLimit = property(environment, workload, "max-limit", Integer.class, 200);
+        int minLimit = Math.min(property(environment, workload, "min-limit", Integer.class, 4), maxLimit);
+        int initialLimit = Math.max(minLimit, Math.min(maxLimit,
+                property(environment, workload, "initial-limit", Integer.class, 20)));
+        long latencyThresholdMs = property(environment, workload, "latency-threshold-ms", Long.class, 1000L);
+        double backoffRatio = property(environment, workload, "backoff-ratio", Double.class, 0.9);
+        logger.info("Limiting {} requests to {} at once ({} to {})", workload, initialLimit, minLimit, maxLimit);
+        return new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, latencyThresholdMs, backoffRatio);
+    }
+
+    // app.limiter.<workload>.<name>, else app.limiter.<name>, else the default
+    private static <T> T property(Environment environment, Workload workload, String name, Class<T> type, T defaultValue) {
+        String prefix = "app.limiter." + workload.name().toLowerCase(Locale.ROOT) + ".";
+        return environment.getProperty(prefix + name, type,
+                environment.getProperty("app.limiter." + name, type, defaultValue));
+    }
+
+    /**
+     * @return the workload of a handler: its method's {@link Bulkhead}, else its controller's, else interactive
+     */
+    static Workload workload(HandlerMethod handlerMethod) {
+        Bulkhead bulkhead = handlerMethod.getMethodAnnotation(Bulkhead.class);
+        if (bulkhead == null) {
+            bulkhead = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getBeanType(), Bulkhead.class);
+        }
+        return bulkhead != null ? bulkhead.value() : Workload.INTERACTIVE;
+    }
+
+    /**
+     * @return the priority of a request: from the user's role, lowered for reporting and bulk
+     *         endpoints and for clients that declare themselves batch traffic
+     */
+    static Priority priority(HttpServletRequest request, Workload workload) {
+        if (workload == Workload.BULK || BATCH_CLIENT_CLASS.equalsIgnoreCase(request.getHeader(CLIENT_CLASS_HEADER))) {
+            return Priority.LOW;
+        }
+        if (workload == Workload.REPORTING) {
+            return Priority.NORMAL;
+        }
+        return request.isUserInRole("ADMIN") || request.isUserInRole("MANAGER") ? Priority.HIGH : Priority.NORMAL;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws InterruptedException {
+        // The async dispatch that ends a streamed response still holds the permit of the original request
+        if (!enabled || request.getDispatcherType() != DispatcherType.REQUEST
+                || !(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        Workload workload = workload(handlerMethod);
+        Priority priority = priority(request, workload);
+        WeightedFairScheduler scheduler = schedulers.get(workload);
+        AdaptiveConcurrencyLimiter.Permit permit = scheduler.acquire(priority, maxWaitMs);
+        if (permit == null) {
+            logger.debug("Shedding {} {}: {} {} requests in flight, {} {} waiting", request.getMethod(),
+                    request.getRequestURI(), scheduler.getLimiter().getInFlight(), workload,
+                    scheduler.getQueueDepth(priority), priority);
+            throw new ConcurrencyLimitExceededException("Server is busy; retry after " + retryAfterSeconds + " s",
+                    retryAfterSeconds);
+        }
+        request.setAttribute(PERMIT_ATTRIBUTE, new Admission(scheduler, permit));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(PERMIT_ATTRIBUTE) instanceof Admission admission) {
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+            admission.scheduler().release(admission.permit());
+        }
+    }
+
+    /**
+     * Take an extra permit of a workload for work a request runs on another thread, which holds a
+     * database connection of its own. Never waits, and never goes ahead of waiting requests.
+     *
+     * @param workload the workload of the request
+     * @return the action that hands the permit back, or null if the workload has none to spare;
+     *         with limiting disabled, an action that does nothing
+     */
+    public Runnable tryAcquireExtra(Workload workload) {
+        if (!enabled) {
+            return () -> { };
+        }
+        WeightedFairScheduler scheduler = schedulers.get(workload);
+        AdaptiveConcurrencyLimiter.Permit permit = scheduler.tryAcquire();
+        return permit != null ? () -> scheduler.release(permit) : null;
+    }
+
+    WeightedFairScheduler getScheduler(Workload workload) {
+        return schedulers.get(workload);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        schedulers.forEach((workload, scheduler) -> {
+            AdaptiveConcurrencyLimiter limiter = scheduler.getLimiter();
+            Tags tags = Tags.of("bulkhead", workload.name().toLowerCase(Locale.ROOT));
+            Gauge.builder("app.limiter.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                    .description("API requests currently allowed to run at once")
+                    .tags(tags)
+                    .register(registry);
+            Gauge.builder("app.limiter.inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                    .description("API requests currently running under the limit")
+                    .tags(tags)
+                    .register(registry);
+            Gauge.builder("app.limiter.saturation", limiter, l -> (double) l.getInFlight() / l.getLimit())
+                    .description("Share of the limit in use; at 1 further requests are shed")
+                    .tags(tags)
+                    .register(registry);
+            FunctionCounter.builder("app.limiter.rejected", scheduler, WeightedFairScheduler::getRejected)
+                    .description("API requests shed with 503 because the limit was reached and they could not wait")
+                    .tags(tags)
+                    .register(registry);
+            for (Priority priority : Priority.values()) {
+                Gauge.builder("app.scheduler.queue.depth", scheduler, s -> s.getQueueDepth(priority))
+                        .description("API requests waiting for a permit")
+                        .tags(tags.and("priority", priority.name().toLowerCase(Locale.ROOT)))
+                        .register(registry);
+            }
+            FunctionCounter.builder("app.limiter.backoffs", limiter, AdaptiveConcurrencyLimiter::getBackoffs)
+                    .description("Times the limit was cut after a slow request")
+                    .tags(tags)
+                    .register(registry);
+        });
+    }
+}
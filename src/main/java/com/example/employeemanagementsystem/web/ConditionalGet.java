@@ -0,0 +1,35 @@
+package com.example.employeemanagementsystem.web;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a GET endpoint whose response is fully determined by a data version.
+ * The endpoint gets a strong ETag and {@code If-None-Match} requests are answered with
+ * 304 Not Modified before the handler, and therefore any query, runs.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ConditionalGet {
+
+    /**
+     * The data version the response depends on.
+     */
+    VersionScope value() default VersionScope.GLOBAL;
+
+    /**
+     * Path variable holding the entity ID for entity-scoped versions.
+     */
+    String idVariable() default "id";
+
+    enum VersionScope {
+        /** Any employee write may change the response. */
+        GLOBAL,
+        /** Only writes to the employee named by {@link #idVariable()} change the response. */
+        EMPLOYEE
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.employeemanagementsystem.web;
+
+import com.example.employeemanagementsystem.exception.InvalidFieldSetException;
+import com.example.employeemanagementsystem.service.DataVersionService;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.security.Principal;
+import java.util.Map;
+
+/**
+ * Answers conditional GETs on {@link ConditionalGet} endpoints from the in-memory data version.
+ * When {@code If-None-Match} matches the current ETag the request ends here with 304;
+ * otherwise the ETag is stashed on the request for {@link ConditionalGetResponseAdvice} to emit.
+ * An employee-scoped ETag carries the employee's version; until that is known the request
+ * proceeds, and the advice tags the response from the employee it returns.
+ */
+@Component
+public class ConditionalGetInterceptor implements HandlerInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConditionalGetInterceptor.class);
+
+    /**
+     * Request attribute carrying the ETag computed before the handler ran.
+     */
+    public static final String ETAG_ATTRIBUTE = "com.example.employeemanagementsystem.web.ConditionalGetInterceptor.etag";
+
+    /**
+     * Request attribute carrying the representation suffix of an employee-scoped ETag.
+     */
+    public static final String SUFFIX_ATTRIBUTE = "com.example.employeemanagementsystem.web.ConditionalGetInterceptor.suffix";
+
+    private final DataVersionService dataVersionService;
+
+    public ConditionalGetInterceptor(DataVersionService dataVersionService) {
+        this.dataVersionService = dataVersionService;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!"GET".equals(request.getMethod()) || !(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        ConditionalGet conditionalGet = handlerMethod.getMethodAnnotation(ConditionalGet.class);
+        Principal principal = request.getUserPrincipal();
+        if (conditionalGet == null || principal == null) {
+            return true;
+        }
+
+        String suffix = representationSuffix(request);
+        if (suffix == null) {
+            return true;
+        }
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        String etag = currentEtag(conditionalGet, request, suffix, principal);
+        if (etag == null) {
+            return true;
+        }
+
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            logger.debug("Not modified: {} {}", request.getRequestURI(), etag);
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            response.setHeader(HttpHeaders.ETAG, etag);
+            return false;
+        }
+        request.setAttribute(ETAG_ATTRIBUTE, etag);
+        return true;
+    }
+
+    // Each wire format and sparse fieldset is a different representation, so both are part of the tag
+    private static String representationSuffix(HttpServletRequest request) {
+        ContentFormat format = ContentFormat.negotiate(request.getHeader(HttpHeaders.ACCEPT));
+        String suffix = format == ContentFormat.JSON ? "" : "." + format.name().toLowerCase();
+        String fields = request.getParameter("fields");
+        if (fields != null) {
+            try {
+                suffix += ".f" + Integer.toHexString(EmployeeFieldSet.compile(fields).getShape());
+            } catch (InvalidFieldSetException e) {
+                return null; // let the handler report the invalid fieldset
+            }
+        }
+        return suffix;
+    }
+
+    // Computes the ETag for the endpoint's version scope, or null if it cannot be determined yet
+    private String currentEtag(ConditionalGet conditionalGet, HttpServletRequest request, String suffix,
+                               Principal principal) {
+        switch (conditionalGet.value()) {
+            case EMPLOYEE: {
+                Long id = pathId(request, conditionalGet.idVariable());
+                if (id == null) {
+                    return null;
+                }
+                request.setAttribute(SUFFIX_ATTRIBUTE, suffix);
+                Long version = dataVersionService.getEmployeeVersion(id);
+                return version == null ? null : DataVersionService.employeeEtag(id, version, suffix, principal);
+            }
+            case GLOBAL:
+            default:
+                return dataVersionService.etag("g" + suffix, dataVersionService.getGlobalVersion(), principal);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Long pathId(HttpServletRequest request, String variable) {
+        Map<String, String> variables =
+                (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (variables == null || variables.get(variable) == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(variables.get(variable));
+        } catch (NumberFormatException e) {
+            return null; // let the handler report the type mismatch
+        }
+    }
+
+    /**
+     * Weak comparison as required for If-None-Match, supporting lists and the "*" wildcard.
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
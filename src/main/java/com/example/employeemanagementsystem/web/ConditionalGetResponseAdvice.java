@@ -0,0 +1,61 @@
+package com.example.employeemanagementsystem.web;
+
+import com.example.employeemanagementsystem.entity.Employee;
+import com.example.employeemanagementsystem.service.DataVersionService;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.security.Principal;
+
+/**
+ * Adds the ETag computed by {@link ConditionalGetInterceptor} to successful responses only,
+ * so error responses are never revalidated into a 304. Employee-scoped responses are tagged
+ * from the version of the employee returned, which is also recorded for later requests.
+ */
+@ControllerAdvice
+public class ConditionalGetResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    private final DataVersionService dataVersionService;
+
+    public ConditionalGetResponseAdvice(DataVersionService dataVersionService) {
+        this.dataVersionService = dataVersionService;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return returnType.hasMethodAnnotation(ConditionalGet.class);
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest servletRequest
+                && response instanceof ServletServerHttpResponse servletResponse) {
+            HttpServletRequest httpRequest = servletRequest.getServletRequest();
+            Object etag = httpRequest.getAttribute(ConditionalGetInterceptor.ETAG_ATTRIBUTE);
+            Object suffix = httpRequest.getAttribute(ConditionalGetInterceptor.SUFFIX_ATTRIBUTE);
+            Principal principal = httpRequest.getUserPrincipal();
+            if (suffix != null && principal != null && body instanceof Employee employee
+                    && employee.getId() != null && employee.getVersion() != null) {
+                dataVersionService.recordEmployeeVersion(employee.getId(), employee.getVersion());
+                etag = DataVersionService.employeeEtag(employee.getId(), employee.getVersion(), suffix.toString(), principal);
+            }
+            int status = servletResponse.getServletResponse().getStatus();
+            if (etag != null && status >= 200 && status < 300) {
+                response.getHeaders().set(HttpHeaders.ETAG, etag.toString());
+            }
+        }
+        return body;
+    }
+}
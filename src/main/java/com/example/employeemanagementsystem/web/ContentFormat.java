@@ -0,0 +1,68 @@
+package com.example.employeemanagementsystem.web;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.List;
+
+/**
+ * Wire formats the API can produce. JSON is the default; CBOR and Smile are compact binary
+ * encodings of the same Jackson data model for service-to-service consumers.
+ */
+public enum ContentFormat {
+
+    JSON(MediaType.APPLICATION_JSON, new JsonFactory()),
+    CBOR(MediaType.APPLICATION_CBOR, new CBORFactory()),
+    SMILE(new MediaType("application", "x-jackson-smile"), new SmileFactory());
+
+    private final MediaType mediaType;
+    private final JsonFactory factory;
+
+    ContentFormat(MediaType mediaType, JsonFactory factory) {
+        this.mediaType = mediaType;
+        this.factory = factory;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * @return a shared, thread-safe generator factory for this format
+     */
+    public JsonFactory getFactory() {
+        return factory;
+    }
+
+    /**
+     * Picks the format for an {@code Accept} header, honoring quality values.
+     * Falls back to JSON when the header is missing, malformed or only lists unsupported types.
+     *
+     * @param acceptHeader the raw Accept header, may be null
+     * @return the negotiated format
+     */
+    public static ContentFormat negotiate(String acceptHeader) {
+        if (acceptHeader == null || acceptHeader.isBlank()) {
+            return JSON;
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = MediaType.parseMediaTypes(acceptHeader);
+        } catch (InvalidMediaTypeException e) {
+            return JSON;
+        }
+        MimeTypeUtils.sortBySpecificity(accepted);
+        for (MediaType candidate : accepted) {
+            for (ContentFormat format : values()) {
+                if (candidate.isCompatibleWith(format.mediaType)) {
+                    return format;
+                }
+            }
+        }
+        return JSON;
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.employeemanagementsystem.web;
+
+import com.example.employeemanagementsystem.exception.InvalidFieldSetException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.Collectors;
+
+/**
+ * A compiled sparse fieldset for employee responses ({@code fields=id,firstName,email}).
+ * Compiling validates the requested names against a whitelist of Employee attributes and
+ * precomputes the selected attribute list plus a per-field serializer, so rows are written
+ * positionally from the query tuple without maps or reflection.
+ * Compiled sets are cached by shape (the set of selected attributes) and by raw parameter,
+ * so repeated requests skip parsing and planning entirely.
+ */
+public final class EmployeeFieldSet {
+
+    @FunctionalInterface
+    private interface ValueWriter {
+        void write(JsonGenerator generator, Object value) throws IOException;
+    }
+
+    // Whitelisted attributes in canonical output order, each with its serializer
+    private enum Attribute {
+        ID("id", (g, v) -> g.writeNumber((Long) v)),
+        FIRST_NAME("firstName", (g, v) -> g.writeString((String) v)),
+        LAST_NAME("lastName", (g, v) -> g.writeString((String) v)),
+        EMAIL("email", (g, v) -> g.writeString((String) v)),
+        PHONE_NUMBER("phoneNumber", (g, v) -> g.writeString((String) v)),
+        JOB_TITLE("jobTitle", (g, v) -> g.writeString((String) v)),
+        SALARY("salary", (g, v) -> g.writeNumber((Double) v)),
+        GENDER("gender", (g, v) -> g.writeString((String) v)),
+        HIRE_DATE("hireDate", (g, v) -> EmployeeJsonWriter.writeDateValue(g, (Date) v)),
+        DATE_OF_BIRTH("dateOfBirth", (g, v) -> EmployeeJsonWriter.writeDateValue(g, (Date) v)),
+        VERSION("version", (g, v) -> g.writeNumber((Long) v));
+
+        private final String attributeName;
+        private final SerializedString serializedName;
+        private final ValueWriter writer;
+
+        Attribute(String attributeName, ValueWriter writer) {
+            this.attributeName = attributeName;
+            this.serializedName = new SerializedString(attributeName);
+            this.writer = writer;
+        }
+    }
+
+    private static final Map<String, Attribute> ATTRIBUTES_BY_NAME = Arrays.stream(Attribute.values())
+            .collect(Collectors.toUnmodifiableMap(a -> a.attributeName, a -> a));
+
+    /**
+     * Allowed attribute names, in canonical order.
+     */
+    public static final List<String> ALLOWED_FIELDS = Arrays.stream(Attribute.values())
+            .map(a -> a.attributeName)
+            .toList();
+
+    // Raw parameter strings are client controlled, so that cache is bounded; shapes are finite
+    private static final int MAX_CACHED_PARAMETERS = 1024;
+    private static final Map<String, EmployeeFieldSet> BY_PARAMETER = new ConcurrentHashMap<>();
+    private static final AtomicReferenceArray<EmployeeFieldSet> BY_SHAPE =
+            new AtomicReferenceArray<>(1 << Attribute.values().length);
+
+    private final int shape;
+    private final List<String> attributes;
+    private final SerializedString[] names;
+    private final ValueWriter[] writers;
+
+    private EmployeeFieldSet(int shape) {
+        List<Attribute> selected = new ArrayList<>();
+        for (Attribute attribute : Attribute.values()) {
+            if ((shape & (1 << attribute.ordinal())) != 0) {
+                selected.add(attribute);
+            }
+        }
+        this.shape = shape;
+        this.attributes = selected.stream().map(a -> a.attributeName).toList();
+        this.names = selected.stream().map(a -> a.serializedName).toArray(SerializedString[]::new);
+        this.writers = selected.stream().map(a -> a.writer).toArray(ValueWriter[]::new);
+    }
+
+    /**
+     * Compile (or fetch from cache) the fieldset for a {@code fields=} parameter.
+     *
+     * @param fields comma-separated attribute names
+     * @return the compiled fieldset
+     * @throws InvalidFieldSetException if the parameter is empty or names an unknown attribute
+     */
+    public static EmployeeFieldSet compile(String fields) {
+        EmployeeFieldSet cached = BY_PARAMETER.get(fields);
+        if (cached != null) {
+            return cached;
+        }
+
+        int shape = parseShape(fields);
+        EmployeeFieldSet fieldSet = BY_SHAPE.get(shape);
+        if (fieldSet == null) {
+            BY_SHAPE.compareAndSet(shape, null, new EmployeeFieldSet(shape));
+            fieldSet = BY_SHAPE.get(shape);
+        }
+        if (BY_PARAMETER.size() < MAX_CACHED_PARAMETERS) {
+            BY_PARAMETER.putIfAbsent(fields, fieldSet);
+        }
+        return fieldSet;
+    }
+
+    private static int parseShape(String fields) {
+        if (fields == null || fields.isBlank()) {
+            throw new InvalidFieldSetException("At least one field must be requested. Allowed fields: " + ALLOWED_FIELDS);
+        }
+        int shape = 0;
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            Attribute attribute = ATTRIBUTES_BY_NAME.get(trimmed);
+            if (attribute == null) {
+                throw new InvalidFieldSetException("Unknown field '" + trimmed + "'. Allowed fields: " + ALLOWED_FIELDS);
+            }
+            shape |= 1 << attribute.ordinal();
+        }
+        if (shape == 0) {
+            throw new InvalidFieldSetException("At least one field must be requested. Allowed fields: " + ALLOWED_FIELDS);
+        }
+        return shape;
+    }
+
+    /**
+     * @return the selected Employee attribute names, in the order the query must select them
+     */
+    public List<String> getAttributes() {
+        return Collections.unmodifiableList(attributes);
+    }
+
+    /**
+     * @return bitmask identifying the set of selected attributes
+     */
+    public int getShape() {
+        return shape;
+    }
+
+    /**
+     * Write one row selected with {@link #getAttributes()} as an object.
+     *
+     * @param generator target generator
+     * @param row       column values in attribute order
+     */
+    public void write(JsonGenerator generator, Object[] row) throws IOException {
+        generator.writeStartObject();
+        for (int i = 0; i < writers.length; i++) {
+            generator.writeFieldName(names[i]);
+            if (row[i] == null) {
+                generator.writeNull();
+            } else {
+                writers[i].write(generator, row[i]);
+            }
+        }
+        generator.writeEndObject();
+    }
+
+    @Override
+    public String toString() {
+        return "EmployeeFieldSet " + attributes;
+    }
+}
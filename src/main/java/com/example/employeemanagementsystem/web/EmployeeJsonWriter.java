@@ -0,0 +1,186 @@
+package com.example.employeemanagementsystem.web;
+
+import com.example.employeemanagementsystem.dto.EmployeeExportDTO;
+import com.example.employeemanagementsystem.entity.Employee;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+import java.util.function.Consumer;
+
+/**
+ * Hand-written serializer for employee rows, plus a streaming response body built on it.
+ * Field names are pre-encoded and values are written straight to the {@link JsonGenerator},
+ * avoiding the reflective bean serializer. The output matches what the default ObjectMapper
+ * produces for {@link Employee}, so clients see the same JSON whichever path served them.
+ */
+public final class EmployeeJsonWriter {
+
+    /**
+     * Rows written between explicit flushes, so the client starts receiving data early.
+     */
+    public static final int DEFAULT_FLUSH_INTERVAL = 500;
+
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString FIRST_NAME = new SerializedString("firstName");
+    private static final SerializedString LAST_NAME = new SerializedString("lastName");
+    private static final SerializedString EMAIL = new SerializedString("email");
+    private static final SerializedString PHONE_NUMBER = new SerializedString("phoneNumber");
+    private static final SerializedString JOB_TITLE = new SerializedString("jobTitle");
+    private static final SerializedString SALARY = new SerializedString("salary");
+    private static final SerializedString GENDER = new SerializedString("gender");
+    private static final SerializedString HIRE_DATE = new SerializedString("hireDate");
+    private static final SerializedString DATE_OF_BIRTH = new SerializedString("dateOfBirth");
+    private static final SerializedString VERSION = new SerializedString("version");
+
+    // Jackson's StdDateFormat with colon in the time zone, which is not thread-safe; DateTimeFormatter is
+    private static final DateTimeFormatter ISO_DATE_TIME =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSxxx").withZone(ZoneOffset.UTC);
+
+    /**
+     * Source of rows for a streamed response; pushes every row to the consumer in order.
+     */
+    @FunctionalInterface
+    public interface RowSource<T> {
+        void forEach(Consumer<T> consumer);
+    }
+
+    /**
+     * Writes a single row to the generator.
+     */
+    @FunctionalInterface
+    public interface RowWriter<T> {
+        void write(JsonGenerator generator, T row) throws IOException;
+    }
+
+    private EmployeeJsonWriter() {
+    }
+
+    /**
+     * Build a response body that writes the export rows as an array while they are produced.
+     *
+     * @see #stream(JsonFactory, RowSource, RowWriter, int)
+     */
+    public static StreamingResponseBody stream(JsonFactory factory, RowSource<EmployeeExportDTO> source, int flushInterval) {
+        return stream(factory, source, EmployeeJsonWriter::write, flushInterval);
+    }
+
+    /**
+     * Build a response body that writes the rows as an array while they are produced,
+     * flushing every {@code flushInterval} rows. Nothing is buffered beyond the generator's own buffer.
+     * If the source fails, the array is left open: the response has already started, so the
+     * client must be able to tell a truncated body from a complete one.
+     *
+     * @param factory       factory for the output format (JSON, or a binary Jackson format)
+     * @param source        produces the rows, typically a streaming database query
+     * @param writer        serializes one row
+     * @param flushInterval rows written between flushes
+     * @return the streaming response body
+     */
+    public static <T> StreamingResponseBody stream(JsonFactory factory, RowSource<T> source, RowWriter<T> writer,
+                                                   int flushInterval) {
+        return outputStream -> {
+            try (JsonGenerator generator = factory.createGenerator(outputStream)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT)) {
+                generator.writeStartArray();
+                int[] written = {0};
+                source.forEach(row -> {
+                    try {
+                        writer.write(generator, row);
+                        if (++written[0] % flushInterval == 0) {
+                            generator.flush();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+    }
+
+    /**
+     * Write one export row as a JSON object.
+     */
+    public static void write(JsonGenerator generator, EmployeeExportDTO employee) throws IOException {
+        writeFields(generator, employee.getId(), employee.getFirstName(), employee.getLastName(),
+                employee.getEmail(), employee.getPhoneNumber(), employee.getJobTitle(), employee.getSalary(),
+                employee.getGender(), employee.getHireDate(), employee.getDateOfBirth(), employee.getVersion());
+    }
+
+    /**
+     * Write one employee entity as a JSON object, skipping the ignored associations.
+     */
+    public static void write(JsonGenerator generator, Employee employee) throws IOException {
+        writeFields(generator, employee.getId(), employee.getFirstName(), employee.getLastName(),
+                employee.getEmail(), employee.getPhoneNumber(), employee.getJobTitle(), employee.getSalary(),
+                employee.getGender(), employee.getHireDate(), employee.getDateOfBirth(), employee.getVersion());
+    }
+
+    private static void writeFields(JsonGenerator generator, Long id, String firstName, String lastName,
+                                    String email, String phoneNumber, String jobTitle, Double salary,
+                                    String gender, Date hireDate, Date dateOfBirth, Long version) throws IOException {
+        generator.writeStartObject();
+        generator.writeFieldName(ID);
+        if (id == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(id);
+        }
+        writeString(generator, FIRST_NAME, firstName);
+        writeString(generator, LAST_NAME, lastName);
+        writeString(generator, EMAIL, email);
+        writeString(generator, PHONE_NUMBER, phoneNumber);
+        writeString(generator, JOB_TITLE, jobTitle);
+        generator.writeFieldName(SALARY);
+        if (salary == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(salary);
+        }
+        writeString(generator, GENDER, gender);
+        writeDate(generator, HIRE_DATE, hireDate);
+        writeDate(generator, DATE_OF_BIRTH, dateOfBirth);
+        generator.writeFieldName(VERSION);
+        if (version == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(version);
+        }
+        generator.writeEndObject();
+    }
+
+    private static void writeString(JsonGenerator generator, SerializedString name, String value) throws IOException {
+        generator.writeFieldName(name);
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeString(value);
+        }
+    }
+
+    private static void writeDate(JsonGenerator generator, SerializedString name, Date value) throws IOException {
+        generator.writeFieldName(name);
+        writeDateValue(generator, value);
+    }
+
+    // Same representation as Jackson's defaults: java.sql.Date as yyyy-MM-dd, other dates as ISO-8601
+    static void writeDateValue(JsonGenerator generator, Date value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else if (value instanceof java.sql.Date) {
+            generator.writeString(value.toString());
+        } else {
+            generator.writeString(ISO_DATE_TIME.format(value.toInstant()));
+        }
+    }
+}
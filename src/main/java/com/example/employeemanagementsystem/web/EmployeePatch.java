@@ -0,0 +1,115 @@
+package com.example.employeemanagementsystem.web;
+
+import com.example.employeemanagementsystem.exception.InvalidFieldSetException;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A partial employee update in JSON merge-patch form ({@code {"phoneNumber": "555-0100"}}).
+ * Parsing validates each member against the patchable attributes and converts it to the
+ * column type, so the service can issue one {@code UPDATE ... SET} of just those columns.
+ * A JSON null clears the column. The expected version travels in {@code If-Match} as the
+ * employee's ETag (see {@link com.example.employeemanagementsystem.service.DataVersionService#employeeEtag}).
+ */
+public final class EmployeePatch {
+
+    // Patchable attributes with their converters; associations and the version are not patchable
+    private static final Map<String, Function<JsonNode, Object>> CONVERTERS = new LinkedHashMap<>();
+
+    static {
+        CONVERTERS.put("firstName", EmployeePatch::toText);
+        CONVERTERS.put("lastName", EmployeePatch::toText);
+        CONVERTERS.put("email", EmployeePatch::toText);
+        CONVERTERS.put("phoneNumber", EmployeePatch::toText);
+        CONVERTERS.put("jobTitle", EmployeePatch::toText);
+        CONVERTERS.put("salary", EmployeePatch::toSalary);
+        CONVERTERS.put("gender", EmployeePatch::toText);
+        CONVERTERS.put("hireDate", EmployeePatch::toDate);
+        CONVERTERS.put("dateOfBirth", EmployeePatch::toDate);
+    }
+
+    /**
+     * Patchable attribute names.
+     */
+    public static final List<String> PATCHABLE_FIELDS = List.copyOf(CONVERTERS.keySet());
+
+    private final Map<String, Object> changes;
+
+    private EmployeePatch(Map<String, Object> changes) {
+        this.changes = Collections.unmodifiableMap(changes);
+    }
+
+    /**
+     * Parse a merge-patch body.
+     *
+     * @param body JSON object with the attributes to change
+     * @return the validated patch
+     * @throws InvalidFieldSetException if the body is not an object, is empty, or has unknown or mistyped members
+     */
+    public static EmployeePatch parse(JsonNode body) {
+        if (body == null || !body.isObject() || body.isEmpty()) {
+            throw new InvalidFieldSetException("Patch must be a non-empty JSON object. Patchable fields: " + PATCHABLE_FIELDS);
+        }
+        Map<String, Object> changes = new LinkedHashMap<>();
+        Iterator<Map.Entry<String, JsonNode>> members = body.fields();
+        while (members.hasNext()) {
+            Map.Entry<String, JsonNode> member = members.next();
+            Function<JsonNode, Object> converter = CONVERTERS.get(member.getKey());
+            if (converter == null) {
+                throw new InvalidFieldSetException("Field '" + member.getKey() + "' cannot be patched. Patchable fields: " + PATCHABLE_FIELDS);
+            }
+            JsonNode value = member.getValue();
+            try {
+                changes.put(member.getKey(), value.isNull() ? null : converter.apply(value));
+            } catch (IllegalArgumentException e) {
+                throw new InvalidFieldSetException("Invalid value for field '" + member.getKey() + "': " + e.getMessage());
+            }
+        }
+        return new EmployeePatch(changes);
+    }
+
+    /**
+     * @return changed attributes and their new column values, in request order
+     */
+    public Map<String, Object> getChanges() {
+        return changes;
+    }
+
+    private static Object toText(JsonNode value) {
+        if (!value.isTextual()) {
+            throw new IllegalArgumentException("expected a string");
+        }
+        return value.textValue();
+    }
+
+    private static Object toSalary(JsonNode value) {
+        if (!value.isNumber()) {
+            throw new IllegalArgumentException("expected a number");
+        }
+        return value.doubleValue();
+    }
+
+    // ISO dates (exactly yyyy-MM-dd) or epoch milliseconds
+    private static Object toDate(JsonNode value) {
+        if (value.isIntegralNumber()) {
+            return new java.sql.Date(value.longValue());
+        }
+        if (!value.isTextual()) {
+            throw new IllegalArgumentException("expected a date (yyyy-MM-dd)");
+        }
+        try {
+            return java.sql.Date.valueOf(LocalDate.parse(value.textValue()));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("expected a date (yyyy-MM-dd)", e);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.employeemanagementsystem.web;
+
+import com.example.employeemanagementsystem.datasource.QueryDeadline;
+import com.example.employeemanagementsystem.web.Bulkhead.Workload;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * Gives each API request a {@link QueryDeadline}, so its queries are cancelled on the database
+ * once the client would no longer wait for them. The deadline is the endpoint's default, set per
+ * {@link Bulkhead} workload with {@code app.deadline.<workload>.timeout-ms} and
+ * {@code app.deadline.timeout-ms} as fallback; a client may shorten it with the
+ * {@code X-Request-Timeout} header (in milliseconds), but not extend it. A timeout of 0 sets no
+ * deadline. The deadline starts before the request waits for a permit, so time spent queuing
+ * counts against it. It carries the request's priority (see {@link ConcurrencyLimitInterceptor#priority})
+ * to the JDBC governor, where the requests of every bulkhead wait for connections together.
+ * <p>
+ * Streamed responses keep the deadline while they are written on the async thread, and their
+ * queries are cancelled as soon as the container reports that the client has gone away. Blocking
+ * requests learn of a disconnect only when writing the response, so their deadline is what stops
+ * abandoned queries.
+ */
+@Component
+public class QueryDeadlineInterceptor implements AsyncHandlerInterceptor, CallableProcessingInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryDeadlineInterceptor.class);
+
+    /**
+     * Request header with which clients shorten the deadline of a request, in milliseconds.
+     */
+    public static final String TIMEOUT_HEADER = "X-Request-Timeout";
+
+    private static final String DEADLINE_ATTRIBUTE = QueryDeadlineInterceptor.class.getName() + ".deadline";
+
+    private final Map<Workload, Long> timeouts = new EnumMap<>(Workload.class);
+    private final boolean enabled;
+
+    public QueryDeadlineInterceptor(Environment environment) {
+        long defaultTimeout = environment.getProperty("app.deadline.timeout-ms", Long.class, 10_000L);
+        for (Workload workload : Workload.values()) {
+            timeouts.put(workload, Math.max(0, environment.getProperty(
+                    "app.deadline." + workload.name().toLowerCase(Locale.ROOT) + ".timeout-ms", Long.class, defaultTimeout)));
+        }
+        this.enabled = environment.getProperty("app.deadline.enabled", Boolean.class, true);
+    }
+
+    /**
+     * @return the timeout of a request: the endpoint's default, shortened by the client's header; 0 for none
+     */
+    static long timeout(HttpServletRequest request, long endpointTimeout) {
+        String header = request.getHeader(TIMEOUT_HEADER);
+        if (header == null) {
+            return endpointTimeout;
+        }
+        long requested;
+        try {
+            requested = Long.parseLong(header.trim());
+        } catch (NumberFormatException e) {
+            logger.debug("Ignoring invalid {} header '{}'", TIMEOUT_HEADER, header);
+            return endpointTimeout;
+        }
+        if (requested <= 0) {
+            return endpointTimeout;
+        }
+        return endpointTimeout > 0 ? Math.min(requested, endpointTimeout) : requested;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // The async dispatch that ends a streamed response runs no queries
+        if (!enabled || request.getDispatcherType() != DispatcherType.REQUEST
+                || !(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        Workload workload = ConcurrencyLimitInterceptor.workload(handlerMethod);
+        QueryDeadline deadline = new QueryDeadline(timeout(request, timeouts.get(workload)),
+                ConcurrencyLimitInterceptor.priority(request, workload));
+        request.setAttribute(DEADLINE_ATTRIBUTE, deadline);
+        QueryDeadline.set(deadline);
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // The request thread is released; the async thread binds the deadline in preProcess
+        QueryDeadline.clear();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        QueryDeadline.clear();
+    }
+
+    @Override
+    public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+        QueryDeadline.set(deadline(request));
+    }
+
+    @Override
+    public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+        QueryDeadline.clear();
+    }
+
+    @Override
+    public <T> Object handleError(NativeWebRequest request, Callable<T> task, Throwable t) {
+        // Reported by the container when the client disconnects during a streamed response
+        cancel(request, "failed: " + t.getMessage());
+        return RESULT_NONE;
+    }
+
+    @Override
+    public <T> Object handleTimeout(NativeWebRequest request, Callable<T> task) {
+        cancel(request, "timed out");
+        return RESULT_NONE;
+    }
+
+    private static void cancel(NativeWebRequest request, String reason) {
+        QueryDeadline deadline = deadline(request);
+        if (deadline != null) {
+            logger.info("Cancelling the queries of {}: async request {}", request.getDescription(false), reason);
+            deadline.cancel();
+        }
+    }
+
+    private static QueryDeadline deadline(NativeWebRequest request) {
+        return (QueryDeadline) request.getAttribute(DEADLINE_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.employeemanagementsystem.analytics;
+
+import com.example.employeemanagementsystem.analytics.EmployeeColumnStore.Column;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EmployeeColumnStoreTest {
+
+    private EmployeeColumnStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new EmployeeColumnStore();
+        store.upsert(1, "IT", "Developer", "F", 100.0, LocalDate.of(2020, 1, 1), LocalDate.of(1990, 5, 1));
+        store.upsert(2, "IT", "Developer", "M", 200.0, LocalDate.of(2021, 6, 1), LocalDate.of(1985, 1, 1));
+        store.upsert(3, "HR", "Recruiter", "F", 300.0, LocalDate.of(2022, 3, 1), null);
+        store.upsert(4, "HR", null, "F", null, null, null);
+    }
+
+    private static GroupAggregate group(List<GroupAggregate> groups, String... key) {
+        return groups.stream().filter(g -> g.key().equals(Arrays.asList(key))).findFirst().orElseThrow();
+    }
+
+    // Test: without grouping every row falls into one group; rows without salary are counted but not summed
+    @Test
+    void testAggregateAll() {
+        List<GroupAggregate> groups = store.aggregate(ColumnFilter.all(), List.of());
+
+        assertEquals(1, groups.size());
+        GroupAggregate all = groups.get(0);
+        assertEquals(4, all.count());
+        assertEquals(3, all.salaryCount());
+        assertEquals(600.0, all.salarySum());
+        assertEquals(100.0, all.salaryMin());
+        assertEquals(300.0, all.salaryMax());
+        assertEquals(200.0, all.salaryAverage());
+        assertEquals(Math.sqrt(20000.0 / 3), all.salaryStandardDeviation(), 1e-9);
+    }
+
+    // Test: grouping by two columns yields one aggregate per existing combination, including null values
+    @Test
+    void testAggregateGroupBy() {
+        List<GroupAggregate> groups = store.aggregate(ColumnFilter.all(), List.of(Column.DEPARTMENT, Column.GENDER));
+
+        assertEquals(3, groups.size());
+        assertEquals(2, group(groups, "HR", "F").count());
+        assertEquals(300.0, group(groups, "HR", "F").salarySum());
+        assertEquals(1, group(groups, "IT", "M").count());
+
+        List<GroupAggregate> byJobTitle = store.aggregate(ColumnFilter.all(), List.of(Column.JOB_TITLE));
+        GroupAggregate unset = group(byJobTitle, (String) null);
+        assertEquals(1, unset.count());
+        assertNull(unset.salaryAverage());
+    }
+
+    // Test: value and range filters combine; null salaries and dates never match a range
+    @Test
+    void testAggregateFilters() {
+        ColumnFilter filter = ColumnFilter.all()
+                .whereIn(Column.GENDER, List.of("F"))
+                .salaryBetween(150.0, null);
+        assertEquals(1, store.aggregate(filter, List.of()).get(0).count());
+
+        ColumnFilter hired = ColumnFilter.all().hiredBetween(LocalDate.of(2021, 1, 1), null);
+        assertEquals(2, store.aggregate(hired, List.of()).get(0).count());
+
+        ColumnFilter born = ColumnFilter.all().bornBetween(null, LocalDate.of(1989, 12, 31));
+        assertEquals(1, store.aggregate(born, List.of()).get(0).count());
+
+        ColumnFilter unknown = ColumnFilter.all().whereIn(Column.DEPARTMENT, List.of("Sales"));
+        assertTrue(store.aggregate(unknown, List.of()).isEmpty());
+    }
+
+    // Test: updates replace the row in place and removals keep the remaining rows intact
+    @Test
+    void testUpsertAndRemove() {
+        store.upsert(2, "HR", "Developer", "M", 250.0, null, null);
+        store.remove(1);
+
+        assertEquals(3, store.size());
+        assertFalse(store.contains(1));
+        List<GroupAggregate> groups = store.aggregate(ColumnFilter.all(), List.of(Column.DEPARTMENT));
+        assertEquals(1, groups.size());
+        assertEquals(3, group(groups, "HR").count());
+        assertEquals(550.0, group(groups, "HR").salarySum());
+    }
+
+    // Test: renaming values over and over compacts the dictionaries instead of exhausting the group-key space
+    @Test
+    void testChurnCompactsDictionaries() {
+        for (int i = 0; i < 50_000; i++) {
+            store.upsert(1, "Dept " + (i % 3), "Title " + i, "F", 100.0 + i, null, null);
+        }
+        store.remove(2);
+
+        List<GroupAggregate> groups = store.aggregate(ColumnFilter.all(),
+                List.of(Column.JOB_TITLE, Column.DEPARTMENT, Column.GENDER));
+        assertEquals(3, groups.size());
+        assertEquals(1, group(groups, "Title 49999", "Dept 1", "F").count());
+        assertEquals(50_099.0, group(groups, "Title 49999", "Dept 1", "F").salarySum());
+        assertEquals(1, group(groups, "Recruiter", "HR", "F").count());
+        assertEquals(1, group(groups, null, "HR", "F").count());
+
+        assertEquals(List.of("Recruiter", "Title 49999"), List.copyOf(store.salarySketches(Column.JOB_TITLE).keySet()));
+        assertEquals(1, store.salarySketches(Column.JOB_TITLE).get("Title 49999").getCount());
+    }
+
+    // Test: salary sketches follow moves between groups, salary changes and removals
+    @Test
+    void testSalarySketches() {
+        assertEquals(2, store.salarySketches(Column.DEPARTMENT).get("IT").getCount());
+        assertFalse(store.salarySketches(Column.JOB_TITLE).containsKey(null));
+
+        store.upsert(2, "HR", "Developer", "M", 250.0, null, null);
+        store.remove(3);
+
+        var byDepartment = store.salarySketches(Column.DEPARTMENT);
+        assertEquals(1, byDepartment.get("IT").getCount());
+        assertEquals(1, byDepartment.get("HR").getCount());
+        assertEquals(250.0, byDepartment.get("HR").quantile(0.5), 250.0 * SalarySketch.RELATIVE_ACCURACY);
+        assertFalse(store.salarySketches(Column.JOB_TITLE).containsKey("Recruiter"));
+    }
+}
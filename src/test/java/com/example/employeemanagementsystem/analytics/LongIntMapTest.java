@@ -0,0 +1,37 @@
+package com.example.employeemanagementsystem.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LongIntMapTest {
+
+    // Test: random puts and removes agree with a HashMap, across resizes and probe-run deletions
+    @Test
+    void testMatchesHashMap() {
+        LongIntMap map = new LongIntMap(4);
+        Map<Long, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 100_000; i++) {
+            long key = random.nextInt(5_000);
+            if (random.nextInt(3) == 0) {
+                Integer removed = expected.remove(key);
+                assertEquals(removed != null ? removed : LongIntMap.MISSING, map.remove(key));
+            } else {
+                expected.put(key, i);
+                map.put(key, i);
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        for (long key = 0; key < 5_000; key++) {
+            Integer value = expected.get(key);
+            assertEquals(value != null ? value : LongIntMap.MISSING, map.get(key));
+        }
+    }
+}
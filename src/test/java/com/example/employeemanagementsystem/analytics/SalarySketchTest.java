@@ -0,0 +1,99 @@
+package com.example.employeemanagementsystem.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SalarySketchTest {
+
+    private static final double[] QUANTILES = {0, 0.1, 0.5, 0.9, 0.99, 1};
+
+    private static double[] salaries(long seed, int n) {
+        Random random = new Random(seed);
+        double[] salaries = new double[n];
+        for (int i = 0; i < n; i++) {
+            // Log-normal around 50k, with a long upper tail
+            salaries[i] = Math.round(Math.exp(10.8 + 0.5 * random.nextGaussian()));
+        }
+        return salaries;
+    }
+
+    private static SalarySketch sketch(double[] salaries) {
+        SalarySketch sketch = new SalarySketch();
+        for (double salary : salaries) {
+            sketch.add(salary);
+        }
+        return sketch;
+    }
+
+    private static void assertQuantiles(double[] salaries, SalarySketch sketch) {
+        double[] sorted = salaries.clone();
+        Arrays.sort(sorted);
+        for (double q : QUANTILES) {
+            double exact = sorted[(int) Math.floor(q * (sorted.length - 1))];
+            assertEquals(exact, sketch.quantile(q), exact * SalarySketch.RELATIVE_ACCURACY, "quantile " + q);
+        }
+    }
+
+    // Test: every quantile is within the relative accuracy of the exact value
+    @Test
+    void testQuantileAccuracy() {
+        double[] salaries = salaries(1, 50_000);
+        SalarySketch sketch = sketch(salaries);
+
+        assertEquals(salaries.length, sketch.getCount());
+        assertQuantiles(salaries, sketch);
+        assertNull(new SalarySketch().quantile(0.5));
+    }
+
+    // Test: merging two sketches gives the same quantiles as sketching all values together
+    @Test
+    void testMerge() {
+        double[] first = salaries(2, 10_000);
+        double[] second = Arrays.stream(salaries(3, 5_000)).map(s -> s * 3).toArray();
+        SalarySketch merged = sketch(first);
+        merged.merge(sketch(second));
+
+        double[] all = new double[first.length + second.length];
+        System.arraycopy(first, 0, all, 0, first.length);
+        System.arraycopy(second, 0, all, first.length, second.length);
+        SalarySketch combined = sketch(all);
+
+        assertEquals(all.length, merged.getCount());
+        for (double q : QUANTILES) {
+            assertEquals(combined.quantile(q), merged.quantile(q));
+        }
+        assertQuantiles(all, merged);
+    }
+
+    // Test: removing values restores the distribution of the remaining ones
+    @Test
+    void testRemove() {
+        double[] salaries = salaries(4, 2_000);
+        SalarySketch sketch = sketch(salaries);
+        for (int i = 1_000; i < salaries.length; i++) {
+            sketch.remove(salaries[i]);
+        }
+
+        assertEquals(1_000, sketch.getCount());
+        assertQuantiles(Arrays.copyOf(salaries, 1_000), sketch);
+        assertThrows(IllegalStateException.class, () -> new SalarySketch().remove(100.0));
+    }
+
+    // Test: histogram bins add up to the count; salaries below 1 are counted as zero
+    @Test
+    void testHistogram() {
+        SalarySketch sketch = sketch(new double[]{0, 1000, 1000, 5000, 9000, 10000});
+
+        long[] histogram = sketch.histogram(0, 10000, 10);
+
+        assertEquals(6, Arrays.stream(histogram).sum());
+        assertEquals(3, histogram[0] + histogram[1]);
+        assertEquals(1, histogram[4] + histogram[5]);
+        assertEquals(2, histogram[8] + histogram[9]);
+        assertEquals(0.0, sketch.quantile(0));
+    }
+}
@@ -0,0 +1,220 @@
+package com.example.employeemanagementsystem.audit;
+
+import com.example.employeemanagementsystem.entity.OutboxEvent;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+
+class AuditJournalTest {
+
+    private static final Instant START = Instant.parse("2025-01-01T00:00:00Z");
+
+    @TempDir
+    Path directory;
+
+    private static AuditRecord record(long employeeId, Instant timestamp) {
+        return new AuditRecord(timestamp, employeeId, OutboxEvent.ChangeType.UPDATED, "admin",
+                List.of(new AuditRecord.FieldChange("jobTitle", "Engineer", "Lead"),
+                        new AuditRecord.FieldChange("salary", null, "5000.0")));
+    }
+
+    private static Path onlySegment(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().findFirst().orElseThrow();
+        }
+    }
+
+    // Test: Appended records are found by employee and by time range, oldest first
+    @Test
+    void testAppendAndQuery() throws IOException {
+        try (AuditJournal journal = AuditJournal.open(directory, 1 << 20, 60_000)) {
+            for (int i = 0; i < 100; i++) {
+                journal.append(record(i % 10, START.plusSeconds(i)));
+            }
+
+            List<AuditRecord> employee3 = journal.query(3L, null, null, 100);
+            assertThat(employee3).hasSize(10);
+            assertThat(employee3).extracting(AuditRecord::employeeId).containsOnly(3L);
+            assertThat(employee3.get(0).timestamp()).isEqualTo(START.plusSeconds(3));
+            assertThat(employee3.get(0).changes()).containsExactly(
+                    new AuditRecord.FieldChange("jobTitle", "Engineer", "Lead"),
+                    new AuditRecord.FieldChange("salary", null, "5000.0"));
+
+            List<AuditRecord> range = journal.query(null, START.plusSeconds(40), START.plusSeconds(50), 100);
+            assertThat(range).extracting(AuditRecord::timestamp)
+                    .containsExactlyElementsOf(Stream.iterate(START.plusSeconds(40), t -> t.plusSeconds(1)).limit(10).toList());
+
+            assertThat(journal.query(null, null, null, 7)).hasSize(7);
+            assertThat(journal.query(42L, null, null, 100)).isEmpty();
+        }
+    }
+
+    // Test: An append becomes durable at the next group commit
+    @Test
+    void testAppend_CompletesAtSync() throws IOException {
+        try (AuditJournal journal = AuditJournal.open(directory, 1 << 20, 60_000)) {
+            CompletableFuture<Void> first = journal.append(record(1, START));
+            CompletableFuture<Void> second = journal.append(record(2, START));
+            assertThat(first).isNotDone();
+
+            journal.sync();
+            assertThat(first).isCompleted();
+            assertThat(second).isCompleted();
+        }
+    }
+
+    // Test: Concurrent writers each get their own slot, across segment rolls
+    @Test
+    void testAppend_Concurrent() throws Exception {
+        try (AuditJournal journal = AuditJournal.open(directory, 16 << 10, 10)) {
+            ExecutorService executor = Executors.newFixedThreadPool(8);
+            List<Future<List<CompletableFuture<Void>>>> writers = new ArrayList<>();
+            for (int w = 0; w < 8; w++) {
+                long employeeId = w;
+                writers.add(executor.submit(() -> {
+                    List<CompletableFuture<Void>> durable = new ArrayList<>();
+                    for (int i = 0; i < 500; i++) {
+                        durable.add(journal.append(record(employeeId, START.plusMillis(i))));
+                    }
+                    return durable;
+                }));
+            }
+            for (Future<List<CompletableFuture<Void>>> writer : writers) {
+                writer.get().forEach(CompletableFuture::join);
+            }
+            executor.shutdown();
+
+            assertThat(journal.getSegmentCount()).isGreaterThan(1);
+            assertThat(journal.query(null, null, null, 10_000)).hasSize(4000);
+            for (long employeeId = 0; employeeId < 8; employeeId++) {
+                List<AuditRecord> records = journal.query(employeeId, null, null, 10_000);
+                assertThat(records).hasSize(500);
+                Set<Instant> timestamps = new HashSet<>();
+                records.forEach(record -> timestamps.add(record.timestamp()));
+                assertThat(timestamps).hasSize(500);
+            }
+        }
+    }
+
+    // Test: Reopening keeps the earlier segments, and only starts a new one at the first append
+    @Test
+    void testReopen() throws IOException {
+        try (AuditJournal journal = AuditJournal.open(directory, 512, 60_000)) {
+            for (int i = 0; i < 20; i++) {
+                journal.append(record(i, START.plusSeconds(i)));
+            }
+        }
+        try (AuditJournal journal = AuditJournal.open(directory, 512, 60_000)) {
+            int segments = journal.getSegmentCount();
+            assertThat(journal.query(null, null, null, 100)).hasSize(20);
+            assertThat(journal.getSegmentCount()).isEqualTo(segments);
+
+            journal.append(record(99, START.plusSeconds(99)));
+
+            List<AuditRecord> records = journal.query(null, null, null, 100);
+            assertThat(records).hasSize(21);
+            assertThat(records).extracting(AuditRecord::employeeId).startsWith(0L, 1L, 2L).endsWith(19L, 99L);
+            assertThat(journal.getSegmentCount()).isEqualTo(segments + 1);
+        }
+    }
+
+    // Test: Journals sharing a directory append to segments of their own, and each reads the other's records
+    @Test
+    void testSharedDirectory() throws IOException {
+        try (AuditJournal first = AuditJournal.open(directory, 512, 60_000);
+             AuditJournal second = AuditJournal.open(directory, 512, 60_000)) {
+            for (int i = 0; i < 20; i++) {
+                first.append(record(i, START.plusSeconds(i)));
+                second.append(record(100 + i, START.plusSeconds(i)));
+            }
+
+            for (AuditJournal journal : List.of(first, second)) {
+                List<AuditRecord> records = journal.query(null, null, null, 100);
+                assertThat(records).hasSize(40);
+                assertThat(records).extracting(AuditRecord::employeeId).contains(19L, 119L);
+            }
+            assertThat(second.query(5L, null, null, 100)).hasSize(1);
+        }
+    }
+
+    // Test: A damaged record ends its segment; the records before it are still read
+    @Test
+    void testDamagedRecord() throws IOException {
+        try (AuditJournal journal = AuditJournal.open(directory, 1 << 20, 60_000)) {
+            for (int i = 0; i < 3; i++) {
+                journal.append(record(i, START.plusSeconds(i)));
+            }
+        }
+        Path segment = onlySegment(directory);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer size = ByteBuffer.allocate(Integer.BYTES);
+            channel.read(size, 0);
+            // Flip a byte in the payload of the second record
+            ByteBuffer value = ByteBuffer.allocate(1);
+            long offset = size.flip().getInt() + 20;
+            channel.read(value, offset);
+            channel.write(ByteBuffer.wrap(new byte[]{(byte) ~value.get(0)}), offset);
+        }
+
+        try (AuditJournal journal = AuditJournal.open(directory, 1 << 20, 60_000)) {
+            assertThat(journal.query(null, null, null, 100)).extracting(AuditRecord::employeeId).containsExactly(0L);
+        }
+    }
+
+    // Test: Retention deletes the segments whose records are all past the cutoff, never the active one
+    @Test
+    void testDeleteSegmentsBefore() throws IOException {
+        Instant now = Instant.now();
+        try (AuditJournal journal = AuditJournal.open(directory, 512, 60_000)) {
+            for (int i = 0; i < 20; i++) {
+                journal.append(record(i, START.plusSeconds(i)));
+            }
+            for (int i = 20; i < 40; i++) {
+                journal.append(record(i, now));
+            }
+            int segments = journal.getSegmentCount();
+
+            int deleted = journal.deleteSegmentsBefore(now.minus(Duration.ofDays(1)));
+            assertThat(deleted).isPositive();
+            assertThat(journal.getSegmentCount()).isEqualTo(segments - deleted);
+            assertThat(journal.query(null, null, null, 100)).extracting(AuditRecord::employeeId).contains(39L)
+                    .doesNotContain(0L);
+
+            journal.deleteSegmentsBefore(now.plus(Duration.ofDays(1)));
+            assertThat(journal.getSegmentCount()).isEqualTo(1);
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files.count()).isEqualTo(1);
+        }
+    }
+
+    // Test: Records larger than a segment and appends after close are rejected
+    @Test
+    void testAppend_Rejected() throws IOException {
+        AuditJournal journal = AuditJournal.open(directory, 64, 60_000);
+        assertThatThrownBy(() -> journal.append(record(1, START))).isInstanceOf(IllegalArgumentException.class);
+        journal.close();
+        assertThatThrownBy(() -> journal.append(new AuditRecord(START, 1, OutboxEvent.ChangeType.DELETED, "a", List.of())))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
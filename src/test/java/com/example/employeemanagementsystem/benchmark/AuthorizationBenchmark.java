@@ -0,0 +1,118 @@
+package com.example.employeemanagementsystem.benchmark;
+
+import com.example.employeemanagementsystem.dto.PrincipalScopeDTO;
+import com.example.employeemanagementsystem.entity.Employee;
+import com.example.employeemanagementsystem.entity.Role;
+import com.example.employeemanagementsystem.entity.User;
+import com.example.employeemanagementsystem.repository.EmployeeRepository;
+import com.example.employeemanagementsystem.repository.UserRepository;
+import com.example.employeemanagementsystem.security.EmployeePrincipal;
+import com.example.employeemanagementsystem.service.CustomUserDetailsService;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongPredicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Compares the per-request cost of authenticating a regular employee and authorizing their
+ * GET /api/employees/{id} (HTTP Basic authenticates every request): the user lookup followed by the
+ * repository lookups of isAuthorizedEmployee, versus the one login query followed by the in-memory
+ * check on the principal. Repository calls are stubbed with a fixed simulated round trip, so the numbers show the
+ * effect of the query count rather than of a particular database.
+ * Run with: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+public class AuthorizationBenchmark {
+
+    private static final long SIMULATED_QUERY_NANOS = 100_000;
+    private static final int CHECKS = 2_000;
+    private static final int WARMUP = 2;
+    private static final int ITERATIONS = 5;
+
+    private final AtomicInteger queries = new AtomicInteger();
+
+    private <T> T query(T result) {
+        queries.incrementAndGet();
+        LockSupport.parkNanos(SIMULATED_QUERY_NANOS);
+        return result;
+    }
+
+    private static double median(long[] nanos) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2] / 1e3 / CHECKS;
+    }
+
+    // Median microseconds per request
+    private double measure(LongPredicate check) {
+        for (int i = 0; i < WARMUP; i++) {
+            for (long id = 0; id < CHECKS; id++) {
+                check.test(id);
+            }
+        }
+        long[] nanos = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            for (long id = 0; id < CHECKS; id++) {
+                check.test(id);
+            }
+            nanos[i] = System.nanoTime() - start;
+        }
+        return median(nanos);
+    }
+
+    @Test
+    void compareAuthorizationChecks() {
+        Role role = new Role();
+        role.setName("ROLE_EMPLOYEE");
+        User user = new User();
+        user.setUsername("employee@example.com");
+        user.setPassword("secret");
+        user.setRoles(Set.of(role));
+        Employee employee = new Employee();
+        employee.setId(42L);
+        employee.setUser(user);
+
+        UserRepository userRepository = mock(UserRepository.class, withSettings().stubOnly());
+        EmployeeRepository employeeRepository = mock(EmployeeRepository.class, withSettings().stubOnly());
+        when(userRepository.findByUsername("employee@example.com")).thenAnswer(inv -> query(Optional.of(user)));
+        when(userRepository.findPrincipalScopesByUsername("employee@example.com"))
+                .thenAnswer(inv -> query(List.of(new PrincipalScopeDTO("employee@example.com", "secret", "ROLE_EMPLOYEE", 42L, null))));
+        when(employeeRepository.findByUser(user)).thenAnswer(inv -> query(Optional.of(employee)));
+        CustomUserDetailsService service = new CustomUserDetailsService(userRepository, employeeRepository);
+
+        // Before: authentication looks up the user, then the check looks up the user and their employee record
+        LongPredicate before = id -> userRepository.findByUsername("employee@example.com").isPresent()
+                && service.isAuthorizedEmployee("employee@example.com", id);
+        // After: authentication reads the user and their scope in one query, then the check compares in memory
+        LongPredicate after = id -> ((EmployeePrincipal) service.loadUserByUsername("employee@example.com")).canAccessEmployee(id);
+
+        queries.set(0);
+        assertTrue(before.test(42L));
+        int queriesBefore = queries.get();
+        queries.set(0);
+        assertTrue(after.test(42L));
+        assertFalse(after.test(43L));
+        int queriesAfter = queries.get() / 2;
+        double beforeMicros = measure(before);
+        double afterMicros = measure(after);
+
+        System.out.printf("Authentication and authorization of a regular employee's request (simulated query: %d us)%n", SIMULATED_QUERY_NANOS / 1000);
+        System.out.printf("isAuthorizedEmployee  queries=%d  %10.3f us/request%n", queriesBefore, beforeMicros);
+        System.out.printf("EmployeePrincipal     queries=%d  %10.3f us/request%n", queriesAfter, afterMicros);
+
+        assertEquals(3, queriesBefore);
+        assertEquals(1, queriesAfter);
+        assertTrue(afterMicros < beforeMicros, "One login query should be cheaper than the three repository lookups");
+    }
+}
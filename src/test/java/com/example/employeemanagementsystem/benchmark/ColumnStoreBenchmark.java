@@ -0,0 +1,78 @@
+package com.example.employeemanagementsystem.benchmark;
+
+import com.example.employeemanagementsystem.analytics.ColumnFilter;
+import com.example.employeemanagementsystem.analytics.EmployeeColumnStore;
+import com.example.employeemanagementsystem.analytics.EmployeeColumnStore.Column;
+import com.example.employeemanagementsystem.analytics.GroupAggregate;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Times ad-hoc aggregations over the in-memory column store at multi-million row scale:
+ * a full scan, a multi-column group-by and a filtered group-by.
+ * Run with: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+public class ColumnStoreBenchmark {
+
+    private static final int ROWS = 2_000_000;
+    private static final int WARMUP = 60;
+    private static final int ITERATIONS = 15;
+
+    private static final String[] DEPARTMENTS = {"IT", "HR", "Sales", "Finance", "Legal", "Support", "Marketing", "Operations"};
+    private static final String[] GENDERS = {"Male", "Female", "Other"};
+
+    // Median milliseconds per query
+    private static double measure(Supplier<List<GroupAggregate>> query) {
+        for (int i = 0; i < WARMUP; i++) {
+            query.get();
+        }
+        long[] nanos = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            query.get();
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return nanos[ITERATIONS / 2] / 1e6;
+    }
+
+    @Test
+    void aggregateMillionsOfRows() {
+        EmployeeColumnStore store = new EmployeeColumnStore();
+        Random random = new Random(7);
+        LocalDate epoch = LocalDate.of(2000, 1, 1);
+        for (int id = 0; id < ROWS; id++) {
+            store.upsert(id, DEPARTMENTS[random.nextInt(DEPARTMENTS.length)], "Title " + random.nextInt(40),
+                    GENDERS[random.nextInt(GENDERS.length)], 30_000 + random.nextInt(120_000) * 1.0,
+                    epoch.plusDays(random.nextInt(9_000)), epoch.minusDays(8_000 + random.nextInt(12_000)));
+        }
+
+        ColumnFilter filter = ColumnFilter.all()
+                .whereIn(Column.DEPARTMENT, List.of("IT", "Sales"))
+                .salaryBetween(50_000.0, 120_000.0)
+                .hiredBetween(LocalDate.of(2010, 1, 1), null);
+
+        double total = measure(() -> store.aggregate(ColumnFilter.all(), List.of()));
+        double grouped = measure(() -> store.aggregate(ColumnFilter.all(), List.of(Column.DEPARTMENT, Column.JOB_TITLE, Column.GENDER)));
+        double filtered = measure(() -> store.aggregate(filter, List.of(Column.DEPARTMENT, Column.GENDER)));
+
+        System.out.printf("Column store aggregation over %,d rows (median of %d)%n", ROWS, ITERATIONS);
+        System.out.printf("total                           %8.2f ms%n", total);
+        System.out.printf("group by department, title, gender %5.2f ms%n", grouped);
+        System.out.printf("filtered group by department, gender %3.2f ms%n", filtered);
+
+        assertEquals(ROWS, store.aggregate(ColumnFilter.all(), List.of()).get(0).count());
+        assertEquals(DEPARTMENTS.length * 40 * GENDERS.length,
+                store.aggregate(ColumnFilter.all(), List.of(Column.DEPARTMENT, Column.JOB_TITLE, Column.GENDER)).size());
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.employeemanagementsystem.benchmark;
+
+import com.example.employeemanagementsystem.entity.Employee;
+import com.example.employeemanagementsystem.web.ContentFormat;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares payload size and encode/decode cost of JSON, CBOR and Smile for 10k employees.
+ * Run with: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+public class ContentFormatBenchmark {
+
+    private static final int ROWS = 10_000;
+    private static final int WARMUP = 20;
+    private static final int ITERATIONS = 30;
+
+    private static final TypeReference<List<Employee>> EMPLOYEE_LIST = new TypeReference<>() {
+    };
+
+    private record Result(int bytes, double encodeMillis, double decodeMillis) {
+    }
+
+    private static List<Employee> employees() {
+        List<Employee> employees = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            employees.add(new Employee((long) i, "First" + i, "Last" + i, "user" + i + "@example.com", "555-" + i,
+                    null, "Engineer", 50_000.0 + i, Date.valueOf("2020-01-15"), Date.valueOf("1990-06-01"), "Female"));
+        }
+        return employees;
+    }
+
+    private static double median(long[] nanos) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2] / 1e6;
+    }
+
+    private static Result measure(ContentFormat format, List<Employee> employees) throws Exception {
+        ObjectMapper mapper = new ObjectMapper(format.getFactory().copy())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        byte[] payload = mapper.writeValueAsBytes(employees);
+        for (int i = 0; i < WARMUP; i++) {
+            mapper.readValue(mapper.writeValueAsBytes(employees), EMPLOYEE_LIST);
+        }
+
+        long[] encode = new long[ITERATIONS];
+        long[] decode = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            payload = mapper.writeValueAsBytes(employees);
+            encode[i] = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            List<Employee> decoded = mapper.readValue(payload, EMPLOYEE_LIST);
+            decode[i] = System.nanoTime() - start;
+            assertEquals(ROWS, decoded.size());
+        }
+        return new Result(payload.length, median(encode), median(decode));
+    }
+
+    @Test
+    void compareFormats() throws Exception {
+        List<Employee> employees = employees();
+        Map<ContentFormat, Result> results = new EnumMap<>(ContentFormat.class);
+        for (ContentFormat format : ContentFormat.values()) {
+            results.put(format, measure(format, employees));
+        }
+
+        System.out.println("Encoding " + ROWS + " employees");
+        results.forEach((format, result) -> System.out.printf("%-6s size=%8.1f KB  encode=%7.2f ms  decode=%7.2f ms%n",
+                format, result.bytes() / 1024.0, result.encodeMillis(), result.decodeMillis()));
+
+        Result json = results.get(ContentFormat.JSON);
+        assertTrue(results.get(ContentFormat.CBOR).bytes() < json.bytes(), "CBOR should be smaller than JSON");
+        assertTrue(results.get(ContentFormat.SMILE).bytes() < json.bytes(), "Smile should be smaller than JSON");
+    }
+}
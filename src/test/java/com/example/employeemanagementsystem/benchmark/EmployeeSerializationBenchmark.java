@@ -0,0 +1,170 @@
+package com.example.employeemanagementsystem.benchmark;
+
+import com.example.employeemanagementsystem.dto.EmployeeExportDTO;
+import com.example.employeemanagementsystem.entity.Employee;
+import com.example.employeemanagementsystem.web.EmployeeJsonWriter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the buffered List&lt;Employee&gt; response path with the streaming writer for 100k rows.
+ * Run with: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+public class EmployeeSerializationBenchmark {
+
+    private static final int ROWS = 100_000;
+    private static final int WARMUP = 3;
+    private static final int ITERATIONS = 5;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    // Records when the first byte reaches the "client"
+    private static class TimingSink extends OutputStream {
+        long start = System.nanoTime();
+        long firstByte = -1;
+        long bytes;
+
+        private void mark(int length) {
+            if (firstByte < 0 && length > 0) {
+                firstByte = System.nanoTime();
+            }
+            bytes += length;
+        }
+
+        @Override
+        public void write(int b) {
+            mark(1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            mark(len);
+        }
+    }
+
+    // Samples used heap in the background to estimate the peak during a run
+    private static class HeapSampler implements AutoCloseable {
+        private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        private final AtomicLong peak = new AtomicLong();
+        private final long baseline;
+        private volatile boolean running = true;
+        private final Thread thread;
+
+        HeapSampler() {
+            System.gc();
+            baseline = memory.getHeapMemoryUsage().getUsed();
+            thread = Thread.ofPlatform().daemon().start(() -> {
+                while (running) {
+                    peak.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+                    Thread.onSpinWait();
+                }
+            });
+        }
+
+        long peakAboveBaseline() {
+            return Math.max(0, peak.get() - baseline);
+        }
+
+        @Override
+        public void close() {
+            running = false;
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private record Result(long ttfbNanos, long totalNanos, long peakHeapBytes) {
+    }
+
+    private static Employee employee(int i) {
+        return new Employee((long) i, "First" + i, "Last" + i, "user" + i + "@example.com", "555-" + i,
+                null, "Engineer", 50_000.0 + i, Date.valueOf("2020-01-15"), Date.valueOf("1990-06-01"), "Female");
+    }
+
+    private static EmployeeExportDTO row(int i) {
+        return new EmployeeExportDTO((long) i, "First" + i, "Last" + i, "user" + i + "@example.com", "555-" + i,
+                "Engineer", 50_000.0 + i, "Female", Date.valueOf("2020-01-15"), Date.valueOf("1990-06-01"));
+    }
+
+    // Current path: load the whole list, serialize it reflectively into one buffer, then send
+    private Result buffered() throws Exception {
+        try (HeapSampler sampler = new HeapSampler()) {
+            TimingSink sink = new TimingSink();
+            List<Employee> employees = new ArrayList<>(ROWS);
+            for (int i = 0; i < ROWS; i++) {
+                employees.add(employee(i));
+            }
+            sink.write(objectMapper.writeValueAsBytes(employees));
+            long end = System.nanoTime();
+            return new Result(sink.firstByte - sink.start, end - sink.start, sampler.peakAboveBaseline());
+        }
+    }
+
+    // Streaming path: rows are written as they are produced and flushed in chunks
+    private Result streaming() throws Exception {
+        try (HeapSampler sampler = new HeapSampler()) {
+            TimingSink sink = new TimingSink();
+            EmployeeJsonWriter.stream(objectMapper.getFactory(), consumer -> {
+                for (int i = 0; i < ROWS; i++) {
+                    consumer.accept(row(i));
+                }
+            }, EmployeeJsonWriter.DEFAULT_FLUSH_INTERVAL).writeTo(sink);
+            long end = System.nanoTime();
+            return new Result(sink.firstByte - sink.start, end - sink.start, sampler.peakAboveBaseline());
+        }
+    }
+
+    private interface Scenario {
+        Result run() throws Exception;
+    }
+
+    private static Result median(Scenario scenario) throws Exception {
+        for (int i = 0; i < WARMUP; i++) {
+            scenario.run();
+        }
+        Result[] results = new Result[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            results[i] = scenario.run();
+        }
+        long[] ttfb = Arrays.stream(results).mapToLong(Result::ttfbNanos).sorted().toArray();
+        long[] total = Arrays.stream(results).mapToLong(Result::totalNanos).sorted().toArray();
+        long[] heap = Arrays.stream(results).mapToLong(Result::peakHeapBytes).sorted().toArray();
+        return new Result(ttfb[ITERATIONS / 2], total[ITERATIONS / 2], heap[ITERATIONS / 2]);
+    }
+
+    private static void print(String name, Result result) {
+        System.out.printf("%-10s ttfb=%8.2f ms  total=%8.2f ms  peakHeap=%8.2f MB%n", name,
+                result.ttfbNanos() / 1e6, result.totalNanos() / 1e6, result.peakHeapBytes() / 1048576.0);
+    }
+
+    @Test
+    void compareBufferedAndStreaming() throws Exception {
+        Result buffered = median(this::buffered);
+        Result streaming = median(this::streaming);
+
+        System.out.println("Serializing " + ROWS + " employees");
+        print("buffered", buffered);
+        print("streaming", streaming);
+
+        assertTrue(streaming.ttfbNanos() * 10 < buffered.ttfbNanos(), "time to first byte should drop sharply");
+        assertTrue(streaming.peakHeapBytes() < buffered.peakHeapBytes(), "peak heap should drop");
+    }
+}
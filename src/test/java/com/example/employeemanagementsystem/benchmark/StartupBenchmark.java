@@ -0,0 +1,146 @@
+package com.example.employeemanagementsystem.benchmark;
+
+import com.example.employeemanagementsystem.EmployeeManagementSystemApplication;
+import com.example.employeemanagementsystem.entity.Role;
+import com.example.employeemanagementsystem.entity.User;
+import com.example.employeemanagementsystem.repository.RoleRepository;
+import com.example.employeemanagementsystem.repository.UserRepository;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares time to first request of a regular start with the fast-startup profile (lazy
+ * initialization, deferred repositories, schema validation instead of update), against an
+ * in-memory H2 database. Both starts run in this JVM with its classes already loaded, so the
+ * numbers leave out what the CDS archive and AOT processing of mvn -Pfast-startup package save.
+ * The two modes alternate, so drift in the machine's speed affects both alike, and the medians are
+ * compared with a tolerance for the noise left over. The median fast start must also stay within
+ * an absolute budget, so both modes slowing down alike does not go unnoticed. The audit journal
+ * and the directory snapshot are kept in a temporary directory.
+ * Run with: mvn test -Pstartup-benchmark (optionally -Dstartup.tolerance=0.2 -Dstartup.budget-ms=8000)
+ */
+@Tag("startup-benchmark")
+public class StartupBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupBenchmark.class);
+
+    private static final int WARMUP = 1;
+    private static final int ITERATIONS = 5;
+
+    // How much slower than a regular start the median fast start may be before the benchmark fails
+    private static final double TOLERANCE = Double.parseDouble(System.getProperty("startup.tolerance", "0.1"));
+
+    // Longest the median fast start may take to answer its first request; recorded at about 3.5 s on a single-core build machine
+    private static final long BUDGET_MILLIS = Long.getLong("startup.budget-ms", 8000);
+
+    private static final String USERNAME = "admin";
+    private static final String PASSWORD = "admin";
+
+    private static final String[] DATABASE = {
+            "--spring.datasource.url=jdbc:h2:mem:startup;DB_CLOSE_DELAY=-1;MODE=MySQL;NON_KEYWORDS=USER",
+            "--spring.datasource.driver-class-name=org.h2.Driver",
+            "--spring.datasource.username=sa",
+            "--spring.datasource.password=",
+            "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+            "--server.port=0"
+    };
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @TempDir
+    Path dataDirectory;
+
+    private ConfigurableApplicationContext start(String... args) {
+        String[] storage = {
+                "--app.audit.directory=" + dataDirectory.resolve("audit"),
+                "--app.snapshot.path=" + dataDirectory.resolve("employee-directory.snap")
+        };
+        String[] all = Arrays.copyOf(DATABASE, DATABASE.length + storage.length + args.length);
+        System.arraycopy(storage, 0, all, DATABASE.length, storage.length);
+        System.arraycopy(args, 0, all, DATABASE.length + storage.length, args.length);
+        return new SpringApplicationBuilder(EmployeeManagementSystemApplication.class).run(all);
+    }
+
+    // Creates the schema and the user the measured requests authenticate as
+    private void createDatabase() {
+        try (ConfigurableApplicationContext context = start("--spring.jpa.hibernate.ddl-auto=create")) {
+            Role role = context.getBean(RoleRepository.class).save(new Role("ROLE_ADMIN"));
+            User user = new User();
+            user.setUsername(USERNAME);
+            user.setPassword(new BCryptPasswordEncoder().encode(PASSWORD));
+            user.setRoles(Set.of(role));
+            context.getBean(UserRepository.class).save(user);
+        }
+    }
+
+    // Milliseconds from start until the first API request has been answered
+    private long timeToFirstRequest(String... args) throws Exception {
+        long start = System.nanoTime();
+        try (ConfigurableApplicationContext context = start(args)) {
+            String port = context.getEnvironment().getProperty("local.server.port");
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/reports/total-employees"))
+                    .header("Authorization", "Basic " + Base64.getEncoder()
+                            .encodeToString((USERNAME + ":" + PASSWORD).getBytes(StandardCharsets.UTF_8)))
+                    .build();
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            long elapsed = System.nanoTime() - start;
+            assertEquals(200, response.statusCode(), response.body());
+            return elapsed / 1_000_000;
+        }
+    }
+
+    private static long median(List<Long> millis) {
+        List<Long> sorted = new ArrayList<>(millis);
+        sorted.sort(null);
+        return sorted.get(sorted.size() / 2);
+    }
+
+    @Test
+    void compareStartupModes() throws Exception {
+        createDatabase();
+        String[] fastStartup = {"--spring.profiles.active=fast-startup"};
+
+        for (int i = 0; i < WARMUP; i++) {
+            timeToFirstRequest();
+            timeToFirstRequest(fastStartup);
+        }
+        List<Long> regularMillis = new ArrayList<>();
+        List<Long> fastMillis = new ArrayList<>();
+        for (int i = 0; i < ITERATIONS; i++) {
+            regularMillis.add(timeToFirstRequest());
+            fastMillis.add(timeToFirstRequest(fastStartup));
+        }
+        long regular = median(regularMillis);
+        long fast = median(fastMillis);
+
+        logger.info("Time to first request, median of {}: regular {} ms {}, fast-startup {} ms {}", ITERATIONS,
+                regular, regularMillis, fast, fastMillis);
+
+        assertTrue(fast <= regular * (1 + TOLERANCE), String.format(
+                "Lazy initialization should answer the first request no later than a regular start: %d ms vs %d ms (tolerance %.0f%%)",
+                fast, regular, TOLERANCE * 100));
+        assertTrue(fast <= BUDGET_MILLIS, String.format(
+                "The fast start should answer the first request within %d ms, took %d ms", BUDGET_MILLIS, fast));
+    }
+}
@@ -1,18 +1,33 @@
 package com.example.employeemanagementsystem.controller;
 
+import com.example.employeemanagementsystem.audit.AuditRecord;
+import com.example.employeemanagementsystem.dto.EmployeeChangesDTO;
+import com.example.employeemanagementsystem.dto.EmployeeExportDTO;
+import com.example.employeemanagementsystem.dto.EmployeePageDTO;
 import com.example.employeemanagementsystem.dto.EmployeeRequest;
 import com.example.employeemanagementsystem.dto.EmployeeSearchRequestDTO;
+import com.example.employeemanagementsystem.dto.ManagerAssignmentDTO;
+import com.example.employeemanagementsystem.dto.OrgChartEntryDTO;
 import com.example.employeemanagementsystem.entity.Department;
 import com.example.employeemanagementsystem.entity.Employee;
+import com.example.employeemanagementsystem.entity.OutboxEvent;
 import com.example.employeemanagementsystem.exception.AccessDeniedException;
+import com.example.employeemanagementsystem.exception.ChangeStreamCapacityException;
 import com.example.employeemanagementsystem.exception.EmployeeNotFoundException;
 import com.example.employeemanagementsystem.exception.ManagerAlreadyExistsException;
 import com.example.employeemanagementsystem.exception.ResourceNotFoundException;
 import com.example.employeemanagementsystem.exception.UserAlreadyExistsException;
+import com.example.employeemanagementsystem.service.AuditService;
+import com.example.employeemanagementsystem.service.ChangeStreamService;
+import com.example.employeemanagementsystem.service.DataVersionService;
+import com.example.employeemanagementsystem.service.EmployeeChangeLogService;
 import com.example.employeemanagementsystem.service.EmployeeService;
+import com.example.employeemanagementsystem.service.OrgChartService;
 import com.example.employeemanagementsystem.repository.DepartmentRepository;
 import com.example.employeemanagementsystem.repository.EmployeeRepository;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -21,16 +36,22 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
 import java.sql.Date;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.Calendar;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -39,6 +60,18 @@ class EmployeeControllerTest {
     @Mock
     private EmployeeService employeeService;
 
+    @Mock
+    private OrgChartService orgChartService;
+
+    @Mock
+    private ChangeStreamService changeStreamService;
+
+    @Mock
+    private EmployeeChangeLogService employeeChangeLogService;
+
+    @Mock
+    private AuditService auditService;
+
     @Mock
     private EmployeeRepository employeeRepository;
 
@@ -134,35 +167,50 @@ class EmployeeControllerTest {
     
     //Test for getEmployees
 
+    // Streams the rows pushed by the mocked service into a string
+    @SuppressWarnings("unchecked")
+    private String streamedBody(ResponseEntity<?> response, String username, String role) throws Exception {
+        doAnswer(invocation -> {
+            ((Consumer<EmployeeExportDTO>) invocation.getArgument(2)).accept(new EmployeeExportDTO(1L, "John", "Doe",
+                    "john@example.com", null, "Developer", 100.0, "Male", null, null, 3L));
+            return null;
+        }).when(employeeService).streamEmployees(eq(username), eq(role), any());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ((StreamingResponseBody) response.getBody()).writeTo(out);
+        return out.toString();
+    }
+
     @Test
-    void getEmployees_AdminRole_ReturnsAllEmployees() {
+    void getEmployees_AdminRole_ReturnsAllEmployees() throws Exception {
         String username = "admin@example.com";
 
         when(authentication.getName()).thenReturn(username);
         when(employeeService.getUserRole(username)).thenReturn("ROLE_ADMIN");
-        when(employeeService.getAllEmployees()).thenReturn(List.of(sampleEmployee));
 
-        ResponseEntity<?> response = employeeController.getEmployees(authentication);
+        ResponseEntity<?> response = employeeController.getEmployees(authentication, null, "\"v1\"");
 
         assertEquals(200, response.getStatusCodeValue());
-        assertTrue(response.getBody() instanceof List<?>);
+        assertEquals("\"v1\"", response.getHeaders().getETag());
+        JsonNode rows = new ObjectMapper().readTree(streamedBody(response, username, "ROLE_ADMIN"));
+        assertEquals(1, rows.size());
+        assertEquals("john@example.com", rows.get(0).get("email").asText());
+        assertEquals(3, rows.get(0).get("version").asInt());
         verify(employeeService).getUserRole(username);
-        verify(employeeService).getAllEmployees();
+        verify(employeeService, never()).getAllEmployees();
     }
 
     @Test
-    void getEmployees_ManagerRole_ReturnsEmployeesByDepartment() {
+    void getEmployees_ManagerRole_ReturnsEmployeesByDepartment() throws Exception {
         String username = "manager@example.com";
 
         when(authentication.getName()).thenReturn(username);
         when(employeeService.getUserRole(username)).thenReturn("ROLE_MANAGER");
-        when(employeeService.getEmployeesForManager(username)).thenReturn(List.of(sampleEmployee));
 
-        ResponseEntity<?> response = employeeController.getEmployees(authentication);
+        ResponseEntity<?> response = employeeController.getEmployees(authentication, null, null);
 
         assertEquals(200, response.getStatusCodeValue());
-        assertTrue(response.getBody() instanceof List<?>);
-        verify(employeeService).getEmployeesForManager(username);
+        assertTrue(streamedBody(response, username, "ROLE_MANAGER").startsWith("[{\"id\":1,"));
+        verify(employeeService).streamEmployees(eq(username), eq("ROLE_MANAGER"), any());
     }
 
     @Test
@@ -172,7 +220,7 @@ class EmployeeControllerTest {
         when(authentication.getName()).thenReturn(username);
         when(employeeService.getUserRole(username)).thenReturn("ROLE_USER");
 
-        ResponseEntity<?> response = employeeController.getEmployees(authentication);
+        ResponseEntity<?> response = employeeController.getEmployees(authentication, null, null);
 
         assertEquals(403, response.getStatusCodeValue());
         assertEquals(Map.of("error", "Access denied: unauthorized role for user " + username), response.getBody());
@@ -186,7 +234,7 @@ class EmployeeControllerTest {
         when(authentication.getName()).thenReturn(username);
         when(employeeService.getUserRole(username)).thenReturn("ROLE_UNKNOWN");
 
-        ResponseEntity<?> response = employeeController.getEmployees(authentication);
+        ResponseEntity<?> response = employeeController.getEmployees(authentication, null, null);
 
         assertEquals(403, response.getStatusCodeValue());
         assertEquals(Map.of("error", "Access denied: unauthorized role for user " + username), response.getBody());
@@ -199,7 +247,7 @@ class EmployeeControllerTest {
         when(authentication.getName()).thenReturn(username);
         when(employeeService.getUserRole(username)).thenThrow(new RuntimeException("Unexpected Error"));
 
-        ResponseEntity<?> response = employeeController.getEmployees(authentication);
+        ResponseEntity<?> response = employeeController.getEmployees(authentication, null, null);
 
         assertEquals(500, response.getStatusCodeValue());
         assertEquals(Map.of("error", "Internal server error while fetching employees"), response.getBody());
@@ -411,6 +459,58 @@ class EmployeeControllerTest {
         verify(employeeService, times(1)).deleteEmployee(employeeId);
     }
 
+    //test for patchEmployee
+    @Test
+    void testPatchEmployee_Success() throws Exception {
+        JsonNode body = new ObjectMapper().readTree("{\"phoneNumber\":\"555-0100\"}");
+        when(authentication.getName()).thenReturn("adminUser");
+        when(employeeService.getUserRole("adminUser")).thenReturn("ROLE_ADMIN");
+        when(employeeService.patchEmployee(1L, 3L, Map.of("phoneNumber", "555-0100"))).thenReturn(4L);
+        String etag = DataVersionService.employeeEtag(1L, 3L, "", authentication);
+
+        ResponseEntity<?> response = employeeController.patchEmployee(1L, body, etag, authentication);
+
+        assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+        assertEquals(DataVersionService.employeeEtag(1L, 4L, "", authentication), response.getHeaders().getETag());
+    }
+
+    @Test
+    void testPatchEmployee_OtherEmployeesEtag() throws Exception {
+        JsonNode body = new ObjectMapper().readTree("{\"phoneNumber\":\"555-0100\"}");
+        when(authentication.getName()).thenReturn("adminUser");
+        when(employeeService.getUserRole("adminUser")).thenReturn("ROLE_ADMIN");
+
+        ResponseEntity<?> response = employeeController.patchEmployee(1L, body,
+                DataVersionService.employeeEtag(2L, 3L, "", authentication), authentication);
+
+        assertEquals(HttpStatus.PRECONDITION_FAILED, response.getStatusCode());
+        verify(employeeService, never()).patchEmployee(anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void testPatchEmployee_MissingIfMatch() throws Exception {
+        JsonNode body = new ObjectMapper().readTree("{\"phoneNumber\":\"555-0100\"}");
+        when(authentication.getName()).thenReturn("adminUser");
+        when(employeeService.getUserRole("adminUser")).thenReturn("ROLE_ADMIN");
+
+        ResponseEntity<?> response = employeeController.patchEmployee(1L, body, null, authentication);
+
+        assertEquals(HttpStatus.PRECONDITION_REQUIRED, response.getStatusCode());
+        verify(employeeService, never()).patchEmployee(anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void testPatchEmployee_Forbidden() throws Exception {
+        JsonNode body = new ObjectMapper().readTree("{\"phoneNumber\":\"555-0100\"}");
+        when(authentication.getName()).thenReturn("managerUser");
+        when(employeeService.getUserRole("managerUser")).thenReturn("ROLE_MANAGER");
+
+        ResponseEntity<?> response = employeeController.patchEmployee(1L, body, "\"3\"", authentication);
+
+        assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
+        verify(employeeService, never()).patchEmployee(anyLong(), anyLong(), any());
+    }
+
     //test to search and filter
     
     @Test
@@ -498,7 +598,110 @@ class EmployeeControllerTest {
 
         verify(employeeService).searchEmployees(searchRequest, "managerUser");
     }
-    
- 
-    
+
+    // Test: A manager gets the subtree of an employee in their reporting line
+    @Test
+    void testGetReports_AsManager() {
+        List<OrgChartEntryDTO> reports = List.of(new OrgChartEntryDTO(2L, "Jane", "Doe", "Dev", 1L, 1));
+        when(authentication.getName()).thenReturn("managerUser");
+        when(employeeService.getUserRole("managerUser")).thenReturn("ROLE_MANAGER");
+        when(orgChartService.getReports(1L, 1, "managerUser", "MANAGER")).thenReturn(reports);
+
+        ResponseEntity<List<OrgChartEntryDTO>> response = employeeController.getReports(1L, 1, authentication);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(reports, response.getBody());
+    }
+
+    // Test: Only an admin can move an employee to another manager
+    @Test
+    void testAssignManager() {
+        ManagerAssignmentDTO assignment = new ManagerAssignmentDTO();
+        assignment.setManagerId(3L);
+        when(authentication.getName()).thenReturn("adminUser");
+        when(employeeService.getUserRole("adminUser")).thenReturn("ROLE_ADMIN");
+        when(employeeService.getUserRole("managerUser")).thenReturn("ROLE_MANAGER");
+
+        assertEquals(HttpStatus.NO_CONTENT, employeeController.assignManager(1L, assignment, authentication).getStatusCode());
+        verify(orgChartService).moveSubtree(1L, 3L);
+
+        when(authentication.getName()).thenReturn("managerUser");
+        assertEquals(HttpStatus.FORBIDDEN, employeeController.assignManager(1L, assignment, authentication).getStatusCode());
+        verifyNoMoreInteractions(orgChartService);
+    }
+
+    // Test: An admin gets a page of all employees, a manager a page of their own
+    @Test
+    void testGetEmployeesPage() {
+        EmployeePageDTO adminPage = new EmployeePageDTO(List.of(sampleEmployee), 0, 10, 1);
+        EmployeePageDTO managerPage = new EmployeePageDTO(List.of(), 2, 10, 5);
+        when(employeeService.getUserRole("adminUser")).thenReturn("ROLE_ADMIN");
+        when(employeeService.getUserRole("managerUser")).thenReturn("ROLE_MANAGER");
+        when(employeeService.getAllEmployees(0, 10)).thenReturn(adminPage);
+        when(employeeService.getEmployeesForManager("managerUser", 2, 10)).thenReturn(managerPage);
+
+        when(authentication.getName()).thenReturn("adminUser");
+        assertEquals(adminPage, employeeController.getEmployeesPage(0, 10, authentication).getBody());
+
+        when(authentication.getName()).thenReturn("managerUser");
+        assertEquals(managerPage, employeeController.getEmployeesPage(2, 10, authentication).getBody());
+    }
+
+    // Test: A manager subscribes with their role; employees cannot subscribe, and a full stream refuses with 503
+    @Test
+    void testStreamChanges() {
+        SseEmitter emitter = new SseEmitter();
+        when(employeeService.getUserRole("managerUser")).thenReturn("ROLE_MANAGER");
+        when(employeeService.getUserRole("employeeUser")).thenReturn("ROLE_EMPLOYEE");
+        when(changeStreamService.subscribe("managerUser", "MANAGER"))
+                .thenReturn(emitter)
+                .thenThrow(new ChangeStreamCapacityException("full"));
+
+        when(authentication.getName()).thenReturn("managerUser");
+        assertSame(emitter, employeeController.streamChanges(authentication).getBody());
+        ResponseEntity<SseEmitter> refused = employeeController.streamChanges(authentication);
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, refused.getStatusCode());
+        assertEquals("30", refused.getHeaders().getFirst("Retry-After"));
+
+        when(authentication.getName()).thenReturn("employeeUser");
+        assertEquals(HttpStatus.FORBIDDEN, employeeController.streamChanges(authentication).getStatusCode());
+    }
+
+    // Test: Admins read the change log from a resume token; managers are refused
+    @Test
+    void testGetEmployeeChanges() {
+        EmployeeChangesDTO changes = new EmployeeChangesDTO(sampleEmployees, List.of(9L), 42L, false);
+        when(employeeService.getUserRole("adminUser")).thenReturn("ROLE_ADMIN");
+        when(employeeService.getUserRole("managerUser")).thenReturn("ROLE_MANAGER");
+        when(employeeChangeLogService.getChanges(40L, 100)).thenReturn(changes);
+
+        when(authentication.getName()).thenReturn("adminUser");
+        ResponseEntity<?> response = employeeController.getEmployeeChanges(40L, 100, authentication);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertSame(changes, response.getBody());
+
+        when(authentication.getName()).thenReturn("managerUser");
+        assertEquals(HttpStatus.FORBIDDEN, employeeController.getEmployeeChanges(40L, 100, authentication).getStatusCode());
+        verify(employeeChangeLogService, times(1)).getChanges(anyLong(), anyInt());
+    }
+
+    // Test: Admins read the audit trail of an employee; managers are refused
+    @Test
+    void testGetAuditRecords() {
+        List<AuditRecord> records = List.of(new AuditRecord(Instant.EPOCH, 1L, OutboxEvent.ChangeType.DELETED,
+                "adminUser", List.of()));
+        when(employeeService.getUserRole("adminUser")).thenReturn("ROLE_ADMIN");
+        when(employeeService.getUserRole("managerUser")).thenReturn("ROLE_MANAGER");
+        when(auditService.getAuditRecords(1L, Instant.EPOCH, null, 100)).thenReturn(records);
+
+        when(authentication.getName()).thenReturn("adminUser");
+        ResponseEntity<?> response = employeeController.getAuditRecords(1L, Instant.EPOCH, null, 100, authentication);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertSame(records, response.getBody());
+
+        when(authentication.getName()).thenReturn("managerUser");
+        assertEquals(HttpStatus.FORBIDDEN,
+                employeeController.getAuditRecords(1L, null, null, 100, authentication).getStatusCode());
+        verify(auditService, times(1)).getAuditRecords(any(), any(), any(), anyInt());
+    }
 }
\ No newline at end of file
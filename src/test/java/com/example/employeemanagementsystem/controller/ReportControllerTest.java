@@ -1,8 +1,22 @@
 package com.example.employeemanagementsystem.controller;
 
+import com.example.employeemanagementsystem.analytics.EmployeeColumnStore.Column;
+import com.example.employeemanagementsystem.analytics.PivotQuery;
 import com.example.employeemanagementsystem.dto.EmployeeReportDTO;
+import com.example.employeemanagementsystem.dto.PivotReportDTO;
+import com.example.employeemanagementsystem.dto.SalaryDistributionDTO;
+import com.example.employeemanagementsystem.dto.SpanOfControlDTO;
+import com.example.employeemanagementsystem.dto.TimeSeriesDTO;
+import com.example.employeemanagementsystem.entity.ReportSnapshot.Dimension;
+import com.example.employeemanagementsystem.exception.InvalidReportQueryException;
+import com.example.employeemanagementsystem.exception.QueryDeadlineExceededException;
 import com.example.employeemanagementsystem.service.EmployeeService;
+import com.example.employeemanagementsystem.service.OrgChartService;
+import com.example.employeemanagementsystem.service.PivotReportService;
 import com.example.employeemanagementsystem.service.ReportService;
+import com.example.employeemanagementsystem.service.ReportSnapshotService;
+import com.example.employeemanagementsystem.service.ReportSnapshotService.Aggregation;
+import com.example.employeemanagementsystem.service.SalaryDistributionService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -11,6 +25,8 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -24,6 +40,18 @@ public class ReportControllerTest {
     @Mock
     private EmployeeService employeeService;
 
+    @Mock
+    private ReportSnapshotService reportSnapshotService;
+
+    @Mock
+    private PivotReportService pivotReportService;
+
+    @Mock
+    private SalaryDistributionService salaryDistributionService;
+
+    @Mock
+    private OrgChartService orgChartService;
+
     @Mock
     private Authentication authentication;
 
@@ -103,6 +131,15 @@ public class ReportControllerTest {
         assertEquals("Engineering", response.getBody().get(0).getLabel());
     }
 
+    // Test: a report that ran out of time is left to the global handler instead of becoming a 500
+    @Test
+    void testGetEmployeesByJobTitle_DeadlineExceeded() {
+        when(reportService.getEmployeesByJobTitle())
+                .thenThrow(new QueryDeadlineExceededException("Request did not complete within 100 ms", 100));
+
+        assertThrows(QueryDeadlineExceededException.class, () -> reportController.getEmployeesByJobTitle());
+    }
+
     // Test: should return employee count grouped by gender
     @Test
     void testGetEmployeesByGender() {
@@ -149,4 +186,102 @@ public class ReportControllerTest {
 
         assertEquals(403, response.getStatusCodeValue());
     }
+
+    // Test: Manager time series query is scoped to their department, with step and enum parsing
+    @Test
+    void testGetTimeSeries_Manager() {
+        Instant from = Instant.parse("2026-01-01T00:00:00Z");
+        Instant to = Instant.parse("2026-02-01T00:00:00Z");
+        when(authentication.getName()).thenReturn("manager@example.com");
+        when(employeeService.getUserRole("manager@example.com")).thenReturn("ROLE_MANAGER");
+        when(reportSnapshotService.getTimeSeries(Dimension.DEPARTMENT, from, to, Duration.ofDays(7), Aggregation.AVG,
+                "manager@example.com", "MANAGER")).thenReturn(List.of(new TimeSeriesDTO("Engineering", List.of())));
+
+        ResponseEntity<List<TimeSeriesDTO>> response = reportController.getTimeSeries("department", from, to, "7d", "avg", authentication);
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals("Engineering", response.getBody().get(0).getLabel());
+    }
+
+    // Test: Unknown dimension is rejected as an invalid query
+    @Test
+    void testGetTimeSeries_InvalidDimension() {
+        when(authentication.getName()).thenReturn("admin@example.com");
+
+        assertThrows(InvalidReportQueryException.class, () -> reportController.getTimeSeries(
+                "salary", Instant.now(), null, "P1D", "last", authentication));
+    }
+
+    // Test: Pivot query parameters are normalized and passed to the service with the manager scope
+    @Test
+    void testGetPivotReport_Manager() {
+        when(authentication.getName()).thenReturn("manager@example.com");
+        when(employeeService.getUserRole("manager@example.com")).thenReturn("ROLE_MANAGER");
+        PivotReportDTO report = new PivotReportDTO(List.of("jobTitle", "gender"), List.of(), 0);
+        when(pivotReportService.getPivotReport(argThat(query -> query.shape().equals(
+                new PivotQuery(List.of(Column.JOB_TITLE,
+                        Column.GENDER), 50)
+                        .where(Column.GENDER, List.of("F"))
+                        .shape())), eq("manager@example.com"), eq("MANAGER"))).thenReturn(report);
+
+        ResponseEntity<PivotReportDTO> response = reportController.getPivotReport("job-title, gender", null, null, List.of("F"),
+                null, null, null, null, null, null, 50, authentication);
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertSame(report, response.getBody());
+    }
+
+    // Test: More than three or unknown group-by dimensions are rejected as an invalid query
+    @Test
+    void testGetPivotReport_InvalidGroupBy() {
+        when(authentication.getName()).thenReturn("admin@example.com");
+
+        assertThrows(InvalidReportQueryException.class, () -> reportController.getPivotReport("department,gender,jobTitle,department",
+                null, null, null, null, null, null, null, null, null, 10, authentication));
+        assertThrows(InvalidReportQueryException.class, () -> reportController.getPivotReport("salary",
+                null, null, null, null, null, null, null, null, null, 10, authentication));
+    }
+
+    // Test: "total" asks for the company-wide salary distribution
+    @Test
+    void testGetSalaryDistribution_Total() {
+        when(authentication.getName()).thenReturn("admin@example.com");
+        when(employeeService.getUserRole("admin@example.com")).thenReturn("ROLE_ADMIN");
+        List<SalaryDistributionDTO> distributions = List.of(new SalaryDistributionDTO("total", 3, 5000.0, 6000.0, 6000.0, List.of()));
+        when(salaryDistributionService.getSalaryDistributions(null, 5, null, "ADMIN")).thenReturn(distributions);
+
+        ResponseEntity<List<SalaryDistributionDTO>> response = reportController.getSalaryDistribution("Total", 5, authentication);
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(distributions, response.getBody());
+    }
+
+    // Test: Employees cannot fetch salary distributions; unknown dimensions are invalid
+    @Test
+    void testGetSalaryDistribution_Denied() {
+        when(authentication.getName()).thenReturn("employee@example.com");
+        when(employeeService.getUserRole("employee@example.com")).thenReturn("ROLE_EMPLOYEE");
+
+        assertEquals(403, reportController.getSalaryDistribution("department", 10, authentication).getStatusCodeValue());
+        assertThrows(InvalidReportQueryException.class, () -> reportController.getSalaryDistribution("salary", 10, authentication));
+        verifyNoInteractions(salaryDistributionService);
+    }
+
+    // Test: Only admins can fetch the span of control of every manager
+    @Test
+    void testGetSpanOfControlReport() {
+        List<SpanOfControlDTO> spans = List.of(new SpanOfControlDTO(1L, "Ann", "Lee", 2L, 5L));
+        when(orgChartService.getSpansOfControl()).thenReturn(spans);
+        when(employeeService.getUserRole("admin@example.com")).thenReturn("ROLE_ADMIN");
+        when(employeeService.getUserRole("manager@example.com")).thenReturn("ROLE_MANAGER");
+
+        when(authentication.getName()).thenReturn("admin@example.com");
+        ResponseEntity<List<SpanOfControlDTO>> response = reportController.getSpanOfControlReport(authentication);
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(spans, response.getBody());
+
+        when(authentication.getName()).thenReturn("manager@example.com");
+        assertEquals(403, reportController.getSpanOfControlReport(authentication).getStatusCodeValue());
+        verify(orgChartService, times(1)).getSpansOfControl();
+    }
 }
@@ -0,0 +1,121 @@
+package com.example.employeemanagementsystem.datasource;
+
+import com.example.employeemanagementsystem.limiter.WeightedFairScheduler.Priority;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class ConcurrencyLimitingDataSourceTest {
+
+    private DataSource target;
+    private ConcurrencyLimitingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        target = mock(DataSource.class);
+        when(target.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+        dataSource = new ConcurrencyLimitingDataSource(target, 2, 50);
+    }
+
+    // Test: permits are held while connections are open and returned on close
+    @Test
+    void testPermitReleasedOnClose() throws SQLException {
+        Connection first = dataSource.getConnection();
+        Connection second = dataSource.getConnection();
+        assertEquals(2, dataSource.getActiveConnections());
+
+        first.close();
+        second.close();
+        assertEquals(0, dataSource.getActiveConnections());
+    }
+
+    // Test: closing the same connection twice must not hand out an extra permit
+    @Test
+    void testDoubleCloseReleasesOnce() throws SQLException {
+        Connection connection = dataSource.getConnection();
+        connection.close();
+        connection.close();
+
+        assertEquals(0, dataSource.getActiveConnections());
+        dataSource.getConnection();
+        dataSource.getConnection();
+        assertThrows(SQLTransientConnectionException.class, () -> dataSource.getConnection());
+    }
+
+    // Test: callers beyond the limit time out instead of reaching the pool
+    @Test
+    void testLimitReached() throws SQLException {
+        dataSource.getConnection();
+        dataSource.getConnection();
+
+        assertThrows(SQLTransientConnectionException.class, () -> dataSource.getConnection());
+        verify(target, times(2)).getConnection();
+    }
+
+    // Test: a failing pool must not leak the permit
+    @Test
+    void testPermitReleasedWhenPoolFails() throws SQLException {
+        when(target.getConnection()).thenThrow(new SQLException("pool exhausted"));
+
+        assertThrows(SQLException.class, () -> dataSource.getConnection());
+        assertEquals(0, dataSource.getActiveConnections());
+    }
+
+    // Test: a freed connection goes to a waiting high-priority caller before a low-priority one that waited longer
+    @Test
+    void testHighPriorityAdmittedFirst() throws Exception {
+        ThreadLocal<Priority> priority = ThreadLocal.withInitial(() -> Priority.NORMAL);
+        ConcurrencyLimitingDataSource prioritized = new ConcurrencyLimitingDataSource(target, 1, 5_000,
+                Map.of(Priority.HIGH, 8, Priority.NORMAL, 4, Priority.LOW, 1), 60_000, priority::get);
+        Connection held = prioritized.getConnection();
+
+        List<Priority> admitted = new CopyOnWriteArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> low = executor.submit(() -> connect(prioritized, priority, Priority.LOW, admitted));
+            waitForCaller(prioritized, Priority.LOW);
+            Future<?> high = executor.submit(() -> connect(prioritized, priority, Priority.HIGH, admitted));
+            waitForCaller(prioritized, Priority.HIGH);
+
+            held.close();
+            low.get(5, TimeUnit.SECONDS);
+            high.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(List.of(Priority.HIGH, Priority.LOW), admitted);
+    }
+
+    // Takes a connection at a priority, records the admission and hands the connection back
+    private static Void connect(ConcurrencyLimitingDataSource dataSource, ThreadLocal<Priority> current,
+                                Priority priority, List<Priority> admitted) throws SQLException {
+        current.set(priority);
+        Connection connection = dataSource.getConnection();
+        admitted.add(priority);
+        connection.close();
+        return null;
+    }
+
+    private static void waitForCaller(ConcurrencyLimitingDataSource dataSource, Priority priority) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (dataSource.getWaitingCallers(priority) == 0) {
+            assertTrue(System.nanoTime() < deadline, "No " + priority + " caller started waiting");
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.employeemanagementsystem.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class QueryTimeoutDataSourceTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private Connection target;
+    private QueryTimeoutDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        target = mock(Connection.class);
+        when(target.prepareStatement(anyString())).thenAnswer(invocation -> mock(PreparedStatement.class));
+        DataSource pool = mock(DataSource.class);
+        when(pool.getConnection()).thenReturn(target);
+        dataSource = new QueryTimeoutDataSource(pool);
+    }
+
+    @AfterEach
+    void tearDown() {
+        QueryDeadline.clear();
+    }
+
+    private QueryDeadline deadline(long timeoutMillis) {
+        return new QueryDeadline(timeoutMillis, null, clock::get);
+    }
+
+    private void advance(long millis) {
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    // Test: statements get the remaining time in whole seconds, rounded up, and none without a deadline
+    @Test
+    void testQueryTimeoutFromDeadline() throws SQLException {
+        Connection connection = dataSource.getConnection();
+        verify(connection.prepareStatement("SELECT 1")).setQueryTimeout(0);
+
+        QueryDeadline.set(deadline(5000));
+        advance(2500);
+        verify(connection.prepareStatement("SELECT 1")).setQueryTimeout(3);
+    }
+
+    // Test: once the deadline has passed, no statement reaches the database
+    @Test
+    void testExpiredDeadline() throws SQLException {
+        Connection connection = dataSource.getConnection();
+        QueryDeadline.set(deadline(100));
+        advance(100);
+
+        assertThrows(SQLTimeoutException.class, () -> connection.prepareStatement("SELECT 1"));
+        verify(target, never()).prepareStatement(anyString());
+    }
+
+    // Test: cancelling a deadline cancels the open statements of its children on other threads, but not closed ones
+    @Test
+    void testCancelPropagates() throws Exception {
+        Connection connection = dataSource.getConnection();
+        QueryDeadline request = deadline(0);
+        QueryDeadline.set(request);
+        Statement open = connection.prepareStatement("SELECT 1");
+        Statement closed = connection.prepareStatement("SELECT 2");
+        when(closed.isClosed()).thenReturn(true);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Statement forked;
+        try {
+            forked = executor.submit(QueryDeadline.propagate(() -> {
+                assertSame(request, QueryDeadline.current());
+                QueryDeadline.set(request.child(1000));
+                return connection.prepareStatement("SELECT 3");
+            })).get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        request.cancel();
+        verify(open).cancel();
+        verify(forked).cancel();
+        verify(closed, never()).cancel();
+        assertThrows(SQLTimeoutException.class, () -> connection.prepareStatement("SELECT 4"));
+    }
+}
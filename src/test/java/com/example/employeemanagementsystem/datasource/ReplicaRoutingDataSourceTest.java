@@ -0,0 +1,161 @@
+package com.example.employeemanagementsystem.datasource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Routes against embedded H2 databases that each identify themselves in a {@code node} table.
+ */
+public class ReplicaRoutingDataSourceTest {
+
+    private final AtomicReference<String> principal = new AtomicReference<>();
+    private final AtomicLong clock = new AtomicLong();
+
+    private DataSource primary;
+    private DataSource replica;
+    private ReadYourWritesTracker tracker;
+
+    private static DataSource database(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE node (name VARCHAR(20))");
+        jdbc.update("INSERT INTO node VALUES (?)", name);
+        return dataSource;
+    }
+
+    private static DataSource unreachable() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:missing-" + UUID.randomUUID() + ";IFEXISTS=TRUE");
+        return dataSource;
+    }
+
+    @BeforeEach
+    void setUp() {
+        primary = database("primary");
+        replica = database("replica");
+        tracker = new ReadYourWritesTracker(1_000, clock::get);
+    }
+
+    private ReplicaRoutingDataSource router(ReplicaRoutingDataSource.Strategy strategy, DataSource... replicas) {
+        return new ReplicaRoutingDataSource(primary, List.of(replicas), strategy, 60_000, tracker, principal::get);
+    }
+
+    // Same wiring as ReplicaRoutingConfig
+    private DataSource routed(ReplicaRoutingDataSource router) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(
+                new WriteTrackingDataSource(primary, tracker, principal::get));
+        proxy.setReadOnlyDataSource(router);
+        return proxy;
+    }
+
+    private String node(DataSource dataSource, boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status ->
+                new JdbcTemplate(dataSource).queryForObject("SELECT name FROM node", String.class));
+    }
+
+    // Test: read-only transactions go to the replica, read-write transactions to the primary
+    @Test
+    void testReadOnlyTransactionsUseReplica() {
+        DataSource dataSource = routed(router(ReplicaRoutingDataSource.Strategy.ROUND_ROBIN, replica));
+
+        assertEquals("replica", node(dataSource, true));
+        assertEquals("primary", node(dataSource, false));
+    }
+
+    // Test: round-robin alternates between replicas
+    @Test
+    void testRoundRobin() {
+        DataSource second = database("second");
+        DataSource dataSource = routed(router(ReplicaRoutingDataSource.Strategy.ROUND_ROBIN, replica, second));
+
+        assertEquals("replica", node(dataSource, true));
+        assertEquals("second", node(dataSource, true));
+        assertEquals("replica", node(dataSource, true));
+    }
+
+    // Test: least-loaded picks the replica with fewer connections in use
+    @Test
+    void testLeastLoaded() throws Exception {
+        DataSource second = database("second");
+        ReplicaRoutingDataSource router = router(ReplicaRoutingDataSource.Strategy.LEAST_LOADED, replica, second);
+
+        Connection busy = router.getConnection();
+        try {
+            assertEquals("second", node(routed(router), true));
+        } finally {
+            busy.close();
+        }
+        assertEquals("replica", node(routed(router), true));
+    }
+
+    // Test: connections with explicit credentials are routed like the others
+    @Test
+    void testGetConnectionWithCredentials() throws Exception {
+        ReplicaRoutingDataSource router = router(ReplicaRoutingDataSource.Strategy.ROUND_ROBIN, replica);
+
+        try (Connection connection = router.getConnection("", "")) {
+            assertEquals("replica", new JdbcTemplate(new SingleConnectionDataSource(connection, true))
+                    .queryForObject("SELECT name FROM node", String.class));
+        }
+    }
+
+    // Test: after a committed write the same principal reads from the primary until the window passes
+    @Test
+    void testReadYourWrites() {
+        ReplicaRoutingDataSource router = router(ReplicaRoutingDataSource.Strategy.ROUND_ROBIN, replica);
+        DataSource dataSource = routed(router);
+        principal.set("alice");
+
+        node(dataSource, false);
+        assertEquals("primary", node(dataSource, true));
+        assertEquals(1, router.getStickyReads());
+
+        principal.set("bob");
+        assertEquals("replica", node(dataSource, true));
+
+        principal.set("alice");
+        clock.addAndGet(2_000_000_000L);
+        assertEquals("replica", node(dataSource, true));
+    }
+
+    // Test: a failing replica is skipped and reads fall back to the primary
+    @Test
+    void testFallbackToPrimary() {
+        ReplicaRoutingDataSource router = router(ReplicaRoutingDataSource.Strategy.ROUND_ROBIN, unreachable());
+        DataSource dataSource = routed(router);
+
+        assertEquals("primary", node(dataSource, true));
+        assertEquals(0, router.getHealthyReplicaCount());
+        assertEquals(1, router.getPrimaryFallbacks());
+    }
+
+    // Test: a failing replica is skipped in favour of a healthy one
+    @Test
+    void testFailoverToHealthyReplica() {
+        ReplicaRoutingDataSource router = router(ReplicaRoutingDataSource.Strategy.ROUND_ROBIN, unreachable(), replica);
+        DataSource dataSource = routed(router);
+
+        assertEquals("replica", node(dataSource, true));
+        assertEquals("replica", node(dataSource, true));
+        assertEquals(1, router.getHealthyReplicaCount());
+        assertEquals(0, router.getPrimaryFallbacks());
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.employeemanagementsystem.limiter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private AdaptiveConcurrencyLimiter limiter(int initialLimit) {
+        return new AdaptiveConcurrencyLimiter(initialLimit, 2, 10, 100, 0.5, clock::get);
+    }
+
+    private void advance(long millis) {
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    private static List<AdaptiveConcurrencyLimiter.Permit> acquire(AdaptiveConcurrencyLimiter limiter, int count) {
+        List<AdaptiveConcurrencyLimiter.Permit> permits = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            permits.add(limiter.tryAcquire());
+        }
+        return permits;
+    }
+
+    // Test: requests beyond the limit are rejected at once, and admitted again once others complete
+    @Test
+    void testRejectsBeyondLimit() {
+        AdaptiveConcurrencyLimiter limiter = limiter(4);
+        List<AdaptiveConcurrencyLimiter.Permit> permits = acquire(limiter, 4);
+
+        assertNull(limiter.tryAcquire());
+        assertEquals(4, limiter.getInFlight());
+
+        limiter.release(permits.get(0));
+        assertNotNull(limiter.tryAcquire());
+    }
+
+    // Test: fast requests at the limit raise it by about one per round, up to the maximum
+    @Test
+    void testIncreasesWhileFast() {
+        AdaptiveConcurrencyLimiter limiter = limiter(4);
+        for (int round = 0; round < 20; round++) {
+            List<AdaptiveConcurrencyLimiter.Permit> permits = acquire(limiter, limiter.getLimit());
+            advance(10);
+            permits.forEach(limiter::release);
+        }
+        assertEquals(10, limiter.getLimit());
+    }
+
+    // Test: an idle service does not grow its limit
+    @Test
+    void testNoIncreaseWhenIdle() {
+        AdaptiveConcurrencyLimiter limiter = limiter(4);
+        for (int i = 0; i < 50; i++) {
+            AdaptiveConcurrencyLimiter.Permit permit = limiter.tryAcquire();
+            advance(10);
+            limiter.release(permit);
+        }
+        assertEquals(4, limiter.getLimit());
+    }
+
+    // Test: slow requests cut the limit once per round, never below the minimum
+    @Test
+    void testBacksOffWhenSlow() {
+        AdaptiveConcurrencyLimiter limiter = limiter(8);
+        List<AdaptiveConcurrencyLimiter.Permit> permits = acquire(limiter, 8);
+        advance(500);
+        permits.forEach(limiter::release);
+        assertEquals(4, limiter.getLimit());
+        assertEquals(1, limiter.getBackoffs());
+
+        for (int round = 0; round < 3; round++) {
+            permits = acquire(limiter, limiter.getLimit());
+            advance(500);
+            permits.forEach(limiter::release);
+        }
+        assertEquals(2, limiter.getLimit());
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.employeemanagementsystem.limiter;
+
+import com.example.employeemanagementsystem.limiter.WeightedFairScheduler.Priority;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WeightedFairSchedulerTest {
+
+    private record Admitted(Priority priority, AdaptiveConcurrencyLimiter.Permit permit) {
+    }
+
+    private final AtomicLong clock = new AtomicLong();
+    private final BlockingQueue<Admitted> admitted = new LinkedBlockingQueue<>();
+
+    // One request at a time, so every other request waits its turn
+    private WeightedFairScheduler scheduler(int maxQueueDepth) {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 1, 100, 0.5, clock::get);
+        return new WeightedFairScheduler(limiter, Map.of(Priority.HIGH, 8, Priority.NORMAL, 4, Priority.LOW, 1),
+                maxQueueDepth, 1000, clock::get);
+    }
+
+    // Starts a request that waits for a permit, and returns once it is queued
+    private void enqueue(WeightedFairScheduler scheduler, Priority priority) throws InterruptedException {
+        int depth = scheduler.getQueueDepth(priority);
+        Thread.startVirtualThread(() -> {
+            try {
+                admitted.add(new Admitted(priority, scheduler.acquire(priority, 5000)));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        while (scheduler.getQueueDepth(priority) == depth) {
+            Thread.sleep(1);
+        }
+    }
+
+    // Completes the running request and each one admitted after it; returns their priorities in order of admission
+    private List<Priority> drain(WeightedFairScheduler scheduler, AdaptiveConcurrencyLimiter.Permit running,
+                                 int waiting) throws InterruptedException {
+        List<Priority> order = new ArrayList<>();
+        AdaptiveConcurrencyLimiter.Permit permit = running;
+        for (int i = 0; i < waiting; i++) {
+            scheduler.release(permit);
+            Admitted next = admitted.poll(5, TimeUnit.SECONDS);
+            assertNotNull(next);
+            order.add(next.priority());
+            permit = next.permit();
+        }
+        scheduler.release(permit);
+        return order;
+    }
+
+    // Test: high-priority requests jump ahead of low ones queued earlier, but low ones still get their weight's share
+    @Test
+    void testWeightedOrder() throws InterruptedException {
+        WeightedFairScheduler scheduler = scheduler(100);
+        AdaptiveConcurrencyLimiter.Permit running = scheduler.acquire(Priority.NORMAL, 0);
+        assertNotNull(running);
+
+        enqueue(scheduler, Priority.LOW);
+        for (int i = 0; i < 10; i++) {
+            enqueue(scheduler, Priority.HIGH);
+        }
+        List<Priority> expected = new ArrayList<>(Collections.nCopies(8, Priority.HIGH));
+        expected.add(Priority.LOW);
+        expected.addAll(Collections.nCopies(2, Priority.HIGH));
+        assertEquals(expected, drain(scheduler, running, 11));
+        assertEquals(0, scheduler.getLimiter().getInFlight());
+    }
+
+    // Test: a low-priority request waiting past the starvation threshold is admitted before newer high ones
+    @Test
+    void testStarvationProtection() throws InterruptedException {
+        WeightedFairScheduler scheduler = scheduler(100);
+        AdaptiveConcurrencyLimiter.Permit running = scheduler.acquire(Priority.HIGH, 0);
+
+        enqueue(scheduler, Priority.LOW);
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1500));
+        enqueue(scheduler, Priority.HIGH);
+        enqueue(scheduler, Priority.HIGH);
+
+        assertEquals(List.of(Priority.LOW, Priority.HIGH, Priority.HIGH), drain(scheduler, running, 3));
+    }
+
+    // Test: requests that may not wait, whose queue is full or that time out are rejected and leave no trace in the queue
+    @Test
+    void testRejections() throws InterruptedException {
+        WeightedFairScheduler scheduler = scheduler(1);
+        AdaptiveConcurrencyLimiter.Permit running = scheduler.acquire(Priority.HIGH, 0);
+
+        assertNull(scheduler.acquire(Priority.HIGH, 0));
+        assertNull(scheduler.acquire(Priority.HIGH, 10));
+        assertEquals(0, scheduler.getQueueDepth(Priority.HIGH));
+
+        enqueue(scheduler, Priority.LOW);
+        assertNull(scheduler.acquire(Priority.LOW, 5000));
+        assertEquals(3, scheduler.getRejected());
+
+        assertEquals(List.of(Priority.LOW), drain(scheduler, running, 1));
+        assertNotNull(scheduler.acquire(Priority.LOW, 0));
+    }
+}
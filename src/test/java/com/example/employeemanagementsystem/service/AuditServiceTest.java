@@ -0,0 +1,119 @@
+package com.example.employeemanagementsystem.service;
+
+import com.example.employeemanagementsystem.audit.AuditJournal;
+import com.example.employeemanagementsystem.audit.AuditRecord;
+import com.example.employeemanagementsystem.entity.OutboxEvent.ChangeType;
+import com.example.employeemanagementsystem.events.ChangeEvent;
+import com.example.employeemanagementsystem.exception.InvalidPageRequestException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuditServiceTest {
+
+    private static final Instant OCCURRED_AT = Instant.parse("2025-01-01T10:15:30.123456Z");
+
+    @TempDir
+    Path directory;
+
+    private AuditService auditService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        auditService = new AuditService(AuditJournal.open(directory, 1 << 20, 60_000), Duration.ofDays(365));
+    }
+
+    @AfterEach
+    void tearDown() {
+        auditService.close();
+    }
+
+    private static Map<String, Object> state(String jobTitle, Double salary) {
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("firstName", "John");
+        state.put("jobTitle", jobTitle);
+        state.put("salary", salary);
+        state.put("hireDate", Date.valueOf("2020-03-01"));
+        return state;
+    }
+
+    private static ChangeEvent event(long id, String entityType, String actor, List<AuditRecord.FieldChange> fieldChanges) {
+        return new ChangeEvent(id, entityType, id, ChangeType.UPDATED, List.of(), List.of(), 1L, OCCURRED_AT, actor,
+                fieldChanges);
+    }
+
+    // Test: An update records the changed fields only
+    @Test
+    void testChanges_Update() {
+        assertEquals(List.of(new AuditRecord.FieldChange("jobTitle", "Engineer", "Lead"),
+                        new AuditRecord.FieldChange("salary", "4000.0", null)),
+                AuditService.changes(state("Engineer", 4000.0), state("Lead", null)));
+    }
+
+    // Test: An insert records every field, with dates as ISO dates
+    @Test
+    void testChanges_Insert() {
+        List<AuditRecord.FieldChange> changes = AuditService.changes(Map.of(), state("Engineer", 4000.0));
+
+        assertEquals(4, changes.size());
+        assertEquals(new AuditRecord.FieldChange("hireDate", null, "2020-03-01"), changes.get(3));
+    }
+
+    // Test: A partial update records every assigned field, including those cleared, with only the new value
+    @Test
+    void testAssignments() {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        changes.put("jobTitle", "Lead");
+        changes.put("salary", null);
+
+        assertEquals(List.of(new AuditRecord.FieldChange("jobTitle", null, "Lead"),
+                        new AuditRecord.FieldChange("salary", null, null)),
+                AuditService.assignments(changes));
+    }
+
+    // Test: Employee change events are journaled with their actor and field changes, durably before onEvents returns
+    @Test
+    void testOnEvents() {
+        List<AuditRecord.FieldChange> changes = List.of(new AuditRecord.FieldChange("jobTitle", "Engineer", "Lead"));
+
+        auditService.onEvents(List.of(event(1, OutboxService.EMPLOYEE, "adminUser", changes),
+                event(2, OutboxService.EMPLOYEE, OutboxService.SYSTEM_ACTOR, List.of())));
+
+        List<AuditRecord> records = auditService.getAuditRecords(null, null, null, 10);
+        assertEquals(2, records.size());
+        assertEquals(new AuditRecord(Instant.parse("2025-01-01T10:15:30.123Z"), 1L, ChangeType.UPDATED, "adminUser",
+                changes), records.get(0));
+        assertEquals(OutboxService.SYSTEM_ACTOR, records.get(1).actor());
+    }
+
+    // Test: Events of other entities, and those appended before the outbox recorded the actor, are skipped
+    @Test
+    void testOnEvents_Skipped() {
+        auditService.onEvents(List.of(event(1, "Department", "adminUser", List.of()),
+                event(2, OutboxService.EMPLOYEE, null, List.of())));
+
+        assertTrue(auditService.getAuditRecords(null, null, null, 10).isEmpty());
+    }
+
+    // Test: Invalid limits and time ranges are rejected
+    @Test
+    void testGetAuditRecords_Invalid() {
+        Instant now = Instant.now();
+        assertThrows(InvalidPageRequestException.class, () -> auditService.getAuditRecords(null, null, null, 0));
+        assertThrows(InvalidPageRequestException.class,
+                () -> auditService.getAuditRecords(null, null, null, EmployeeService.MAX_PAGE_SIZE + 1));
+        assertThrows(InvalidPageRequestException.class, () -> auditService.getAuditRecords(null, now, now, 10));
+    }
+}
@@ -0,0 +1,354 @@
+package com.example.employeemanagementsystem.service;
+
+import com.example.employeemanagementsystem.audit.AuditJournal;
+import com.example.employeemanagementsystem.audit.AuditRecord;
+import com.example.employeemanagementsystem.entity.OutboxEvent;
+import com.example.employeemanagementsystem.events.ChangeEvent;
+import com.example.employeemanagementsystem.events.ChangeEventListener;
+import com.example.employeemanagementsystem.repository.OutboxCheckpointRepository;
+import com.example.employeemanagementsystem.repository.OutboxEventRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Delivers outbox events committed to an embedded H2 database. Tests run outside a test-managed
+ * transaction, since the dispatcher only reads committed events.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:outbox;NON_KEYWORDS=USER",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ChangeEventDispatcherTest {
+
+    @Autowired
+    private OutboxEventRepository eventRepository;
+
+    @Autowired
+    private OutboxCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<ChangeEventDispatcher> dispatchers = new ArrayList<>();
+
+    @Autowired
+    private DataSource dataSource;
+
+    private static class RecordingListener implements ChangeEventListener {
+
+        private final String name;
+        private final boolean instanceScoped;
+        private final List<List<Long>> batches = new CopyOnWriteArrayList<>();
+        private volatile boolean failing;
+
+        RecordingListener(String name) {
+            this(name, false);
+        }
+
+        RecordingListener(String name, boolean instanceScoped) {
+            this.name = name;
+            this.instanceScoped = instanceScoped;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public boolean isInstanceScoped() {
+            return instanceScoped;
+        }
+
+        @Override
+        public void onEvents(List<ChangeEvent> events) {
+            if (failing) {
+                throw new IllegalStateException("listener unavailable");
+            }
+            batches.add(events.stream().map(ChangeEvent::entityId).toList());
+        }
+
+        List<Long> received() {
+            return batches.stream().flatMap(List::stream).toList();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        eventRepository.deleteAll();
+        checkpointRepository.deleteAll();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        for (ChangeEventDispatcher dispatcher : dispatchers) {
+            dispatcher.shutdown();
+        }
+    }
+
+    private ChangeEventDispatcher dispatcher(int batchSize, ChangeEventListener... listeners) {
+        return dispatcher(batchSize, 60_000, 5_000, listeners);
+    }
+
+    private ChangeEventDispatcher dispatcher(int batchSize, long retryDelayMs, long gapTimeoutMs,
+                                             ChangeEventListener... listeners) {
+        Map<String, Object> beans = new LinkedHashMap<>();
+        for (ChangeEventListener listener : listeners) {
+            beans.put(listener.getName(), listener);
+        }
+        ChangeEventDispatcher dispatcher = new ChangeEventDispatcher(
+                new StaticListableBeanFactory(beans).getBeanProvider(ChangeEventListener.class),
+                eventRepository, checkpointRepository, transactionManager, batchSize, retryDelayMs, gapTimeoutMs,
+                600_000, 30_000, 0);
+        dispatchers.add(dispatcher);
+        return dispatcher;
+    }
+
+    // Appends one UPDATED event per employee ID, in a single transaction
+    private void append(ChangeEventDispatcher dispatcher, long... employeeIds) {
+        OutboxService outboxService = new OutboxService(eventRepository, dispatcher);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            for (long employeeId : employeeIds) {
+                outboxService.recordEmployeeChange(employeeId, OutboxEvent.ChangeType.UPDATED, List.of("salary"),
+                        List.of(), 1L);
+            }
+        });
+    }
+
+    private long checkpoint(String listenerName) {
+        return checkpointRepository.findById(listenerName).orElseThrow().getLastEventId();
+    }
+
+    // Test: events reach each listener in outbox order, in batches, and the checkpoint follows
+    @Test
+    void testDeliverInOrderInBatches() {
+        RecordingListener listener = new RecordingListener("recorder");
+        ChangeEventDispatcher dispatcher = dispatcher(2, listener);
+
+        append(dispatcher, 11, 12, 13, 14, 15);
+        dispatcher.dispatch();
+
+        assertEquals(List.of(List.of(11L, 12L), List.of(13L, 14L), List.of(15L)), listener.batches);
+        List<OutboxEvent> stored = eventRepository.findAll(Sort.by("id"));
+        assertEquals(stored.get(4).getId(), checkpoint("recorder"));
+        assertEquals(0, dispatcher.getLag());
+        assertEquals("salary", stored.get(0).getChangedFields());
+        assertEquals(OutboxService.EMPLOYEE, stored.get(0).getEntityType());
+    }
+
+    // Test: the audit journal receives who made a change and the values before and after, as recorded in its transaction
+    @Test
+    void testAuditJournalListener(@TempDir Path directory) throws IOException {
+        AuditService auditService = new AuditService(AuditJournal.open(directory, 1 << 20, 60_000), Duration.ofDays(365));
+        ChangeEventDispatcher dispatcher = dispatcher(10, auditService);
+        OutboxService outboxService = new OutboxService(eventRepository, dispatcher);
+        List<AuditRecord.FieldChange> fieldChanges = List.of(new AuditRecord.FieldChange("jobTitle", "Engineer", "Lead"),
+                new AuditRecord.FieldChange("salary", "4000.0", null));
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("adminUser", null, List.of()));
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> outboxService.recordEmployeeChange(
+                    7L, OutboxEvent.ChangeType.UPDATED, List.of("jobTitle", "salary"), fieldChanges, 2L, 1L));
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        append(dispatcher, 8);
+        dispatcher.dispatch();
+
+        List<AuditRecord> records = auditService.getAuditRecords(null, null, null, 10);
+        assertEquals(List.of(7L, 8L), records.stream().map(AuditRecord::employeeId).toList());
+        assertEquals("adminUser", records.get(0).actor());
+        assertEquals(fieldChanges, records.get(0).changes());
+        assertEquals(OutboxService.SYSTEM_ACTOR, records.get(1).actor());
+        assertEquals(eventRepository.findAll(Sort.by("id")).get(1).getId(), checkpoint(auditService.getName()));
+        auditService.close();
+    }
+
+    // Test: a failed batch is redelivered, and a failing listener does not hold up the others
+    @Test
+    void testRedeliverAfterFailure() {
+        RecordingListener failing = new RecordingListener("failing");
+        RecordingListener healthy = new RecordingListener("healthy");
+        failing.failing = true;
+        ChangeEventDispatcher dispatcher = dispatcher(10, 0, 5_000, failing, healthy);
+
+        append(dispatcher, 1, 2);
+        dispatcher.dispatch();
+        assertEquals(List.of(), failing.received());
+        assertEquals(List.of(1L, 2L), healthy.received());
+        assertEquals(2, dispatcher.getLag());
+
+        failing.failing = false;
+        dispatcher.dispatch();
+        assertEquals(List.of(1L, 2L), failing.received());
+        assertEquals(List.of(1L, 2L), healthy.received());
+    }
+
+    // Test: after a restart delivery resumes from the stored checkpoint
+    @Test
+    void testReplayAfterRestart() throws InterruptedException {
+        ChangeEventDispatcher first = dispatcher(10, new RecordingListener("recorder"));
+        append(first, 1, 2);
+        first.dispatch();
+        first.shutdown();
+
+        // Committed while the listener was down
+        append(first, 3, 4);
+
+        RecordingListener restarted = new RecordingListener("recorder");
+        dispatcher(10, restarted).dispatch();
+        assertEquals(List.of(3L, 4L), restarted.received());
+    }
+
+    // Test: delivery stops at a recent gap in the IDs, and continues past it once it times out
+    @Test
+    void testDeliverableStopsAtGap() {
+        Instant now = Instant.now();
+        List<OutboxEvent> batch = List.of(event(5, now), event(6, now), event(8, now), event(9, now));
+        List<Long> skipped = new ArrayList<>();
+
+        assertEquals(List.of(5L, 6L), ids(ChangeEventDispatcher.deliverable(batch, 4, now, Duration.ofSeconds(5), skipped::add)));
+        assertEquals(List.of(), skipped);
+        assertEquals(List.of(5L, 6L, 8L, 9L),
+                ids(ChangeEventDispatcher.deliverable(batch, 4, now.plusSeconds(6), Duration.ofSeconds(5), skipped::add)));
+        assertEquals(List.of(7L), skipped);
+        skipped.clear();
+        assertEquals(List.of(), ids(ChangeEventDispatcher.deliverable(batch, 3, now, Duration.ofSeconds(5), skipped::add)));
+        assertEquals(List.of(5L, 6L), ids(ChangeEventDispatcher.deliverable(batch, 0, now, Duration.ofSeconds(5), skipped::add)));
+        assertEquals(List.of(), skipped);
+    }
+
+    // Test: an event committed after delivery went past its gap is still delivered, and the checkpoint waits for it
+    @Test
+    void testLateCommitDelivered() {
+        RecordingListener listener = new RecordingListener("recorder");
+        ChangeEventDispatcher dispatcher = dispatcher(10, 60_000, 0, listener);
+        // Appended through another instance, so nothing is delivered before the test dispatches
+        ChangeEventDispatcher writer = dispatcher(10);
+        append(writer, 1);
+        append(writer, 2);
+        append(writer, 3);
+        List<OutboxEvent> stored = eventRepository.findAll(Sort.by("id"));
+        long lateId = stored.get(1).getId();
+        // Not yet committed, as far as the dispatcher can tell
+        eventRepository.deleteById(lateId);
+
+        dispatcher.dispatch();
+        assertEquals(List.of(1L, 3L), listener.received());
+        assertEquals(stored.get(0).getId(), checkpoint("recorder"));
+
+        new JdbcTemplate(dataSource).update("INSERT INTO outbox_event (id, entity_type, entity_id, change_type, created_at) "
+                + "VALUES (?, ?, 2, 'UPDATED', ?)", lateId, OutboxService.EMPLOYEE, Timestamp.from(Instant.now()));
+        dispatcher.dispatch();
+        assertEquals(List.of(1L, 3L, 2L), listener.received());
+        assertEquals(stored.get(2).getId(), checkpoint("recorder"));
+    }
+
+    // Test: of two instances, only the lease holder delivers to a shared listener; the other resumes from its checkpoint
+    @Test
+    void testSharedListenerDeliveredByOneInstance() throws InterruptedException {
+        RecordingListener first = new RecordingListener("recorder");
+        RecordingListener second = new RecordingListener("recorder");
+        ChangeEventDispatcher firstInstance = dispatcher(10, first);
+        ChangeEventDispatcher secondInstance = dispatcher(10, second);
+        ChangeEventDispatcher writer = dispatcher(10);
+
+        append(writer, 1, 2);
+        firstInstance.dispatch();
+        secondInstance.dispatch();
+        append(writer, 3);
+        secondInstance.dispatch();
+        firstInstance.dispatch();
+        assertEquals(List.of(1L, 2L, 3L), first.received());
+        assertEquals(List.of(), second.received());
+
+        firstInstance.shutdown();
+        append(writer, 4);
+        secondInstance.dispatch();
+        assertEquals(List.of(4L), second.received());
+    }
+
+    // Test: every instance delivers every event to its instance-scoped listener, without a stored checkpoint,
+    // and tells where that delivery began
+    @Test
+    void testInstanceScopedListener() {
+        RecordingListener first = new RecordingListener("cache", true);
+        RecordingListener second = new RecordingListener("cache", true);
+        ChangeEventDispatcher firstInstance = dispatcher(10, first);
+        ChangeEventDispatcher secondInstance = dispatcher(10, second);
+
+        append(firstInstance, 1, 2);
+        assertEquals(-1, firstInstance.getStartPosition("cache"));
+        firstInstance.dispatch();
+        long firstEventId = eventRepository.findAll().stream().mapToLong(OutboxEvent::getId).min().orElseThrow();
+        assertEquals(firstEventId - 1, firstInstance.getStartPosition("cache"));
+        secondInstance.dispatch();
+        append(secondInstance, 3);
+        firstInstance.dispatch();
+        secondInstance.dispatch();
+
+        assertEquals(List.of(1L, 2L, 3L), first.received());
+        assertEquals(List.of(1L, 2L, 3L), second.received());
+        assertFalse(checkpointRepository.existsById("cache"));
+    }
+
+    // Test: events every listener has received are purged after the retention period
+    @Test
+    void testPurge() {
+        RecordingListener listener = new RecordingListener("recorder");
+        ChangeEventDispatcher dispatcher = dispatcher(10, listener);
+        append(dispatcher, 1, 2);
+        dispatcher.dispatch();
+        // Not yet delivered
+        append(dispatcher(10), 3);
+
+        dispatcher.purge();
+        assertEquals(1, eventRepository.count());
+    }
+
+    private static OutboxEvent event(long id, Instant createdAt) {
+        OutboxEvent event = new OutboxEvent(OutboxService.EMPLOYEE, id, OutboxEvent.ChangeType.UPDATED, null, null, null,
+                null, null, createdAt);
+        ReflectionTestUtils.setField(event, "id", id);
+        return event;
+    }
+
+    private static List<Long> ids(List<ChangeEvent> events) {
+        return events.stream().map(ChangeEvent::id).toList();
+    }
+}
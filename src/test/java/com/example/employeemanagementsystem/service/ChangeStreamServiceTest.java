@@ -0,0 +1,201 @@
+package com.example.employeemanagementsystem.service;
+
+import com.example.employeemanagementsystem.dto.ChangeNotificationDTO;
+import com.example.employeemanagementsystem.dto.EmployeeChangeDTO;
+import com.example.employeemanagementsystem.entity.OutboxEvent.ChangeType;
+import com.example.employeemanagementsystem.entity.Department;
+import com.example.employeemanagementsystem.events.ChangeEvent;
+import com.example.employeemanagementsystem.exception.AccessDeniedException;
+import com.example.employeemanagementsystem.exception.ChangeStreamCapacityException;
+import com.example.employeemanagementsystem.repository.DepartmentRepository;
+import com.example.employeemanagementsystem.repository.EmployeeRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+class ChangeStreamServiceTest {
+
+    private final AtomicLong eventIds = new AtomicLong();
+
+    private EmployeeRepository employeeRepository;
+    private DepartmentRepository departmentRepository;
+    private ChangeStreamService changeStreamService;
+
+    @RestController
+    static class StreamController {
+
+        private final ChangeStreamService changeStreamService;
+
+        StreamController(ChangeStreamService changeStreamService) {
+            this.changeStreamService = changeStreamService;
+        }
+
+        @GetMapping("/stream")
+        SseEmitter stream(@RequestParam String username, @RequestParam String role) {
+            return changeStreamService.subscribe(username, role);
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        employeeRepository = mock(EmployeeRepository.class);
+        departmentRepository = mock(DepartmentRepository.class);
+        changeStreamService = new ChangeStreamService(employeeRepository, departmentRepository, mock(PlatformTransactionManager.class),
+                new ObjectMapper(), 5, 2, 3, 60_000, 60_000, 500, 2, 200);
+    }
+
+    @AfterEach
+    void tearDown() {
+        changeStreamService.shutdown();
+    }
+
+    private ChangeEvent event(long employeeId, ChangeType type, List<String> fields, Long... departmentIds) {
+        return new ChangeEvent(eventIds.incrementAndGet(), OutboxService.EMPLOYEE, employeeId, type, fields,
+                List.of(departmentIds), 1L, Instant.now());
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 200 && !condition.getAsBoolean(); i++) {
+            Thread.sleep(10);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+
+    // Test: changes to one employee merge into one entry, and an employee added and removed drops out
+    @Test
+    void testNotification_Coalesces() {
+        List<ChangeEvent> events = List.of(
+                event(1, ChangeType.UPDATED, List.of("salary"), 3L),
+                event(2, ChangeType.CREATED, List.of(), 3L),
+                event(1, ChangeType.UPDATED, List.of("jobTitle", "salary"), 3L),
+                event(2, ChangeType.UPDATED, List.of("phoneNumber"), 3L),
+                event(7, ChangeType.CREATED, List.of(), 4L),
+                event(7, ChangeType.DELETED, List.of(), 4L),
+                event(5, ChangeType.UPDATED, List.of("department"), 3L, 4L));
+
+        ChangeNotificationDTO notification = ChangeStreamService.notification(events, ChangeStreamService.Scope.ALL, 10);
+
+        List<EmployeeChangeDTO> changes = notification.getEmployees();
+        assertEquals(List.of(1L, 2L, 5L), changes.stream().map(EmployeeChangeDTO::getId).toList());
+        assertEquals(List.of("salary", "jobTitle"), changes.get(0).getFields());
+        assertEquals("CREATED", changes.get(1).getChange());
+        assertEquals(Map.of(4L, 1L), notification.getHeadcountDeltas());
+        assertEquals(events.get(6).id(), notification.getLastEventId());
+        assertTrue(notification.getReports().containsAll(List.of("total-employees", "employees-by-job-title", "span-of-control")));
+        assertFalse(notification.isResync());
+    }
+
+    // Test: managers get only their department's headcount and no admin-only reports; large bursts ask for a resync
+    @Test
+    void testNotification_ManagerScopeAndResync() {
+        List<ChangeEvent> events = List.of(
+                event(5, ChangeType.UPDATED, List.of("department"), 3L, 4L),
+                event(6, ChangeType.UPDATED, List.of("manager"), 3L));
+
+        ChangeNotificationDTO notification = ChangeStreamService.notification(events,
+                ChangeStreamService.Scope.department(3L), 1);
+
+        assertEquals(Map.of(3L, -1L), notification.getHeadcountDeltas());
+        assertEquals(List.of("employees-by-department", "pivot", "salary-distribution", "total-salary-by-department"),
+                notification.getReports());
+        assertTrue(notification.isResync());
+        assertNull(notification.getEmployees());
+    }
+
+    // Test: subscribers receive the changes of their scope; patched employees are placed by their current department
+    @Test
+    void testStream() throws Exception {
+        Department department = new Department();
+        department.setId(3L);
+        when(departmentRepository.findByManagerUsername("manager")).thenReturn(department);
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new StreamController(changeStreamService)).build();
+        MockHttpServletResponse admin = mockMvc.perform(get("/stream").param("username", "admin").param("role", "ADMIN"))
+                .andReturn().getResponse();
+        MockHttpServletResponse manager = mockMvc.perform(get("/stream").param("username", "manager").param("role", "MANAGER"))
+                .andReturn().getResponse();
+        List<Object[]> departments = new ArrayList<>();
+        departments.add(new Object[]{6L, 3L});
+        when(employeeRepository.findDepartmentIdsByIds(any())).thenReturn(departments);
+
+        changeStreamService.onEvents(List.of(
+                event(1, ChangeType.UPDATED, List.of("salary"), 4L),
+                event(6, ChangeType.UPDATED, List.of("phoneNumber"))));
+
+        await(() -> contentOf(admin).contains("event:changes") && contentOf(manager).contains("event:changes"));
+        assertTrue(contentOf(admin).contains("\"id\":1,"));
+        assertTrue(contentOf(admin).contains("\"id\":6,"));
+        assertFalse(contentOf(manager).contains("\"id\":1,"));
+        assertTrue(contentOf(manager).contains("\"id\":6,"));
+        assertEquals(2, changeStreamService.getSubscriberCount());
+    }
+
+    // Test: a subscriber that stops reading is disconnected once its buffer is full
+    @Test
+    void testSlowSubscriberEvicted() throws Exception {
+        SseEmitter emitter = changeStreamService.subscribe(ChangeStreamService.Scope.ALL);
+        assertEquals(1, changeStreamService.getSubscriberCount());
+
+        // Writes to the emitter block while its monitor is held, as they would on a stalled connection
+        synchronized (emitter) {
+            for (long employeeId = 1; employeeId <= 100 && changeStreamService.getSubscriberCount() > 0; employeeId++) {
+                changeStreamService.onEvents(List.of(event(employeeId, ChangeType.UPDATED, List.of("salary"), 3L)));
+                Thread.sleep(30);
+            }
+            assertEquals(0, changeStreamService.getSubscriberCount());
+        }
+    }
+
+    // Test: a subscriber whose write stays blocked past the write timeout is disconnected; the others stay
+    @Test
+    void testStalledWriteTimesOut() throws Exception {
+        SseEmitter stalled = changeStreamService.subscribe(ChangeStreamService.Scope.ALL);
+        changeStreamService.subscribe(ChangeStreamService.Scope.ALL);
+
+        synchronized (stalled) {
+            // One event fits in the buffer, so only the timeout can close the stream
+            changeStreamService.onEvents(List.of(event(1, ChangeType.UPDATED, List.of("salary"), 3L)));
+            await(() -> changeStreamService.getSubscriberCount() == 1);
+        }
+    }
+
+    // Test: subscribers beyond the limit are refused, and only admins and managers may subscribe
+    @Test
+    void testSubscriberLimit() {
+        for (int i = 0; i < 3; i++) {
+            changeStreamService.subscribe(ChangeStreamService.Scope.ALL);
+        }
+        assertThrows(ChangeStreamCapacityException.class,
+                () -> changeStreamService.subscribe(ChangeStreamService.Scope.ALL));
+        assertThrows(AccessDeniedException.class, () -> changeStreamService.subscribe("employee", "EMPLOYEE"));
+    }
+
+    private static String contentOf(MockHttpServletResponse response) {
+        try {
+            return response.getContentAsString();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,10 +1,12 @@
 package com.example.employeemanagementsystem.service;
 
+import com.example.employeemanagementsystem.dto.PrincipalScopeDTO;
 import com.example.employeemanagementsystem.entity.Employee;
 import com.example.employeemanagementsystem.entity.Role;
 import com.example.employeemanagementsystem.entity.User;
 import com.example.employeemanagementsystem.repository.EmployeeRepository;
 import com.example.employeemanagementsystem.repository.UserRepository;
+import com.example.employeemanagementsystem.security.EmployeePrincipal;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -13,6 +15,10 @@ import org.mockito.*;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.*;
 
 import static org.assertj.core.api.Assertions.*;
@@ -75,8 +81,8 @@ class CustomUserDetailsServiceTest {
     @Test
     void testLoadUserByUsername_Success() {
         // Test if user details are loaded successfully when user exists
-        when(userRepository.findByUsername("admin@example.com"))
-                .thenReturn(Optional.of(adminUser));
+        when(userRepository.findPrincipalScopesByUsername("admin@example.com"))
+                .thenReturn(List.of(new PrincipalScopeDTO("admin@example.com", "admin123", "admin", null, null)));
 
         UserDetails details = userDetailsService.loadUserByUsername("admin@example.com");
 
@@ -84,11 +90,76 @@ class CustomUserDetailsServiceTest {
         assertThat(details.getAuthorities()).anyMatch(a -> a.getAuthority().equals("ADMIN"));
     }
 
+    @Test
+    void testLoadUserByUsername_CarriesEmployeeScope() {
+        // The user and their employee ID come from one query; record access is then decided in memory
+        when(userRepository.findPrincipalScopesByUsername("employee@example.com"))
+                .thenReturn(List.of(new PrincipalScopeDTO("employee@example.com", "emp123", "EMPLOYEE", 101L, null)));
+
+        EmployeePrincipal principal = (EmployeePrincipal) userDetailsService.loadUserByUsername("employee@example.com");
+
+        assertThat(principal.canAccessEmployee(101L)).isTrue();
+        assertThat(principal.canAccessEmployee(999L)).isFalse();
+        assertThat(principal.getEmployeeId()).isEqualTo(101L);
+        assertThat(principal.getManagedDepartmentIds()).isEmpty();
+        verify(userRepository, times(1)).findPrincipalScopesByUsername("employee@example.com");
+        verify(userRepository, never()).findByUsername(any());
+        verify(employeeRepository, never()).findByUser(any());
+    }
+
+    @Test
+    void testLoadUserByUsername_ScopeSurvivesSerialization() throws Exception {
+        // A principal restored from a session keeps its employee scope
+        when(userRepository.findPrincipalScopesByUsername("employee@example.com"))
+                .thenReturn(List.of(new PrincipalScopeDTO("employee@example.com", "emp123", "EMPLOYEE", 101L, 5L)));
+        EmployeePrincipal principal = (EmployeePrincipal) userDetailsService.loadUserByUsername("employee@example.com");
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(principal);
+        }
+        EmployeePrincipal restored;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            restored = (EmployeePrincipal) in.readObject();
+        }
+
+        assertThat(restored.getEmployeeId()).isEqualTo(101L);
+        assertThat(restored.getManagedDepartmentIds()).containsExactly(5L);
+        assertThat(restored.canAccessEmployee(101L)).isTrue();
+        assertThat(restored.canAccessEmployee(999L)).isFalse();
+    }
+
+    @Test
+    void testLoadUserByUsername_ManagerAccessesAnyEmployee() {
+        // Managers may access any employee, like in isAuthorizedEmployee
+        when(userRepository.findPrincipalScopesByUsername("manager@example.com"))
+                .thenReturn(List.of(new PrincipalScopeDTO("manager@example.com", "mgr123", "ROLE_MANAGER", null, null)));
+
+        EmployeePrincipal principal = (EmployeePrincipal) userDetailsService.loadUserByUsername("manager@example.com");
+
+        assertThat(principal.canAccessEmployee(999L)).isTrue();
+    }
+
+    @Test
+    void testLoadUserByUsername_ManagerOfSeveralDepartments() {
+        // One row per role and managed department; every department is kept and every role counted once
+        when(userRepository.findPrincipalScopesByUsername("employee@example.com"))
+                .thenReturn(List.of(new PrincipalScopeDTO("employee@example.com", "emp123", "EMPLOYEE", 7L, 3L),
+                        new PrincipalScopeDTO("employee@example.com", "emp123", "EMPLOYEE", 7L, 4L)));
+
+        EmployeePrincipal principal = (EmployeePrincipal) userDetailsService.loadUserByUsername("employee@example.com");
+
+        assertThat(principal.getEmployeeId()).isEqualTo(7L);
+        assertThat(principal.getManagedDepartmentIds()).containsExactly(3L, 4L);
+        assertThat(principal.getAuthorities()).hasSize(1);
+        assertThat(principal.canAccessEmployee(7L)).isTrue();
+    }
+
     @Test
     void testLoadUserByUsername_NotFound() {
         // Test if UsernameNotFoundException is thrown when user does not exist
-        when(userRepository.findByUsername("unknown@example.com"))
-                .thenReturn(Optional.empty());
+        when(userRepository.findPrincipalScopesByUsername("unknown@example.com"))
+                .thenReturn(List.of());
 
         assertThatThrownBy(() -> userDetailsService.loadUserByUsername("unknown@example.com"))
                 .isInstanceOf(UsernameNotFoundException.class)
@@ -0,0 +1,140 @@
+package com.example.employeemanagementsystem.service;
+
+import com.example.employeemanagementsystem.dto.DashboardDTO;
+import com.example.employeemanagementsystem.dto.DashboardSectionDTO;
+import com.example.employeemanagementsystem.dto.EmployeeReportDTO;
+import com.example.employeemanagementsystem.exception.ReportGenerationException;
+import com.example.employeemanagementsystem.web.Bulkhead.Workload;
+import com.example.employeemanagementsystem.web.ConcurrencyLimitInterceptor;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class DashboardServiceTest {
+
+    private ReportService reportService;
+    private DashboardService dashboardService;
+
+    private final List<EmployeeReportDTO> report = List.of(new EmployeeReportDTO("IT", 5L, 1000.0, 5000.0));
+
+    @BeforeEach
+    void setUp() {
+        reportService = mock(ReportService.class);
+        dashboardService = new DashboardService(reportService, new ConcurrencyLimitInterceptor(new MockEnvironment()), 300);
+
+        when(reportService.getTotalEmployees()).thenReturn(5L);
+        when(reportService.getEmployeesByDepartment(any(), any())).thenReturn(report);
+        when(reportService.getEmployeesByJobTitle()).thenReturn(report);
+        when(reportService.getEmployeesByGender()).thenReturn(report);
+        when(reportService.getTotalSalaryByDepartment(any(), any())).thenReturn(report);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dashboardService.shutdown();
+    }
+
+    // Test: every section completes and the dashboard is marked complete
+    @Test
+    void testGetDashboard_AllSectionsComplete() {
+        DashboardDTO dashboard = dashboardService.getDashboard(null, "ADMIN");
+
+        assertTrue(dashboard.isComplete());
+        assertEquals(5, dashboard.getSections().size());
+        assertEquals("totalEmployees", dashboard.getSections().get(0).getName());
+        assertEquals(5L, dashboard.getSections().get(0).getData());
+    }
+
+    // Test: manager scoping is passed through to the department and salary reports
+    @Test
+    void testGetDashboard_ManagerScoped() {
+        dashboardService.getDashboard("manager@example.com", "MANAGER");
+
+        verify(reportService).getEmployeesByDepartment("manager@example.com", "MANAGER");
+        verify(reportService).getTotalSalaryByDepartment("manager@example.com", "MANAGER");
+    }
+
+    // Test: queries run concurrently, so latency tracks the slowest query rather than the sum
+    @Test
+    void testGetDashboard_QueriesRunConcurrently() {
+        when(reportService.getEmployeesByJobTitle()).thenAnswer(invocation -> { Thread.sleep(150); return report; });
+        when(reportService.getEmployeesByGender()).thenAnswer(invocation -> { Thread.sleep(150); return report; });
+
+        DashboardDTO dashboard = dashboardService.getDashboard(null, "ADMIN");
+
+        assertTrue(dashboard.isComplete());
+        assertTrue(dashboard.getElapsedMillis() < 290, "took " + dashboard.getElapsedMillis() + " ms");
+    }
+
+    // Test: a slow query is marked TIMEOUT while the other sections are still returned
+    @Test
+    void testGetDashboard_PartialResultOnTimeout() {
+        when(reportService.getEmployeesByGender()).thenAnswer(invocation -> { Thread.sleep(5_000); return report; });
+
+        DashboardDTO dashboard = dashboardService.getDashboard(null, "ADMIN");
+
+        assertFalse(dashboard.isComplete());
+        DashboardSectionDTO gender = dashboard.getSections().get(3);
+        assertEquals(DashboardSectionDTO.STATUS_TIMEOUT, gender.getStatus());
+        assertNull(gender.getData());
+        assertEquals(DashboardSectionDTO.STATUS_OK, dashboard.getSections().get(2).getStatus());
+        assertTrue(dashboard.getElapsedMillis() < 1_000);
+    }
+
+    // Test: queries beyond the reporting bulkhead's spare permits run on the calling thread, and every permit is handed back
+    @Test
+    void testGetDashboard_BoundedByBulkhead() {
+        ConcurrencyLimitInterceptor bulkheads = new ConcurrencyLimitInterceptor(new MockEnvironment()
+                .withProperty("app.limiter.reporting.min-limit", "1")
+                .withProperty("app.limiter.reporting.initial-limit", "2")
+                .withProperty("app.limiter.reporting.max-limit", "2"));
+        DashboardService bounded = new DashboardService(reportService, bulkheads, 300);
+        // The first query holds the one spare permit while the others are started
+        when(reportService.getTotalEmployees()).thenAnswer(invocation -> { Thread.sleep(100); return 5L; });
+        Queue<Thread> threads = new ConcurrentLinkedQueue<>();
+        when(reportService.getEmployeesByJobTitle()).thenAnswer(invocation -> { threads.add(Thread.currentThread()); return report; });
+        when(reportService.getEmployeesByGender()).thenAnswer(invocation -> { threads.add(Thread.currentThread()); return report; });
+        // The dashboard request's own permit
+        Runnable request = bulkheads.tryAcquireExtra(Workload.REPORTING);
+
+        try {
+            DashboardDTO dashboard = bounded.getDashboard(null, "ADMIN");
+
+            assertTrue(dashboard.isComplete());
+            // Left without a permit, these ran here
+            assertEquals(List.of(Thread.currentThread(), Thread.currentThread()), List.copyOf(threads));
+            // The forked query hands its permit back in done(), which may run just after the join returns
+            Runnable spare = bulkheads.tryAcquireExtra(Workload.REPORTING);
+            for (long deadline = System.nanoTime() + 1_000_000_000L; spare == null && System.nanoTime() < deadline; ) {
+                Thread.onSpinWait();
+                spare = bulkheads.tryAcquireExtra(Workload.REPORTING);
+            }
+            assertNotNull(spare);
+            spare.run();
+        } finally {
+            request.run();
+            bounded.shutdown();
+        }
+    }
+
+    // Test: a failing query is marked ERROR without failing the dashboard
+    @Test
+    void testGetDashboard_SectionError() {
+        when(reportService.getEmployeesByJobTitle()).thenThrow(new ReportGenerationException("Failed to generate job title report"));
+
+        DashboardDTO dashboard = dashboardService.getDashboard(null, "ADMIN");
+
+        DashboardSectionDTO jobTitle = dashboard.getSections().get(2);
+        assertEquals(DashboardSectionDTO.STATUS_ERROR, jobTitle.getStatus());
+        assertEquals("Failed to generate job title report", jobTitle.getError());
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.employeemanagementsystem.service;
+
+import com.example.employeemanagementsystem.entity.Department;
+import com.example.employeemanagementsystem.entity.Employee;
+import com.example.employeemanagementsystem.entity.OutboxEvent.ChangeType;
+import com.example.employeemanagementsystem.events.ChangeEvent;
+import com.example.employeemanagementsystem.repository.DepartmentRepository;
+import com.example.employeemanagementsystem.repository.EmployeeChangeLogRepository;
+import com.example.employeemanagementsystem.repository.EmployeeRepository;
+import com.example.employeemanagementsystem.repository.OutboxCheckpointRepository;
+import com.example.employeemanagementsystem.snapshot.DirectoryEntry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.file.Path;
+import java.sql.Date;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Writes snapshots of an embedded H2 database and restores from them, catching up from the change log.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:snapshot;NON_KEYWORDS=USER",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DirectorySnapshotServiceTest {
+
+    @Autowired
+    private EmployeeChangeLogRepository changeLogRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private OutboxCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    private Path directory;
+
+    private final AtomicLong eventIds = new AtomicLong();
+    private final Map<Long, DirectoryEntry> cache = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        changeLogRepository.deleteAll();
+        checkpointRepository.deleteAll();
+        employeeRepository.deleteAll();
+        departmentRepository.deleteAll();
+    }
+
+    private EmployeeChangeLogService changeLog(long retentionDays) {
+        return new EmployeeChangeLogService(changeLogRepository, employeeRepository, checkpointRepository,
+                transactionManager, retentionDays);
+    }
+
+    private DirectorySnapshotService snapshots(EmployeeChangeLogService changeLog) {
+        return new DirectorySnapshotService(employeeRepository, changeLogRepository, changeLog, transactionManager,
+                directory.resolve("directory.snap").toString(), true);
+    }
+
+    private Employee add(String name, Department department, Double salary) {
+        Employee employee = new Employee();
+        employee.setFirstName(name);
+        employee.setEmail(name + "@example.com");
+        employee.setDepartment(department);
+        employee.setSalary(salary);
+        employee.setHireDate(Date.valueOf("2021-03-01"));
+        return employeeRepository.save(employee);
+    }
+
+    private ChangeEvent event(Employee employee, ChangeType type) {
+        return new ChangeEvent(eventIds.incrementAndGet(), OutboxService.EMPLOYEE, employee.getId(), type,
+                List.of(), List.of(), 1L, Instant.now());
+    }
+
+    private boolean restore(DirectorySnapshotService snapshots) {
+        cache.clear();
+        return snapshots.restore(entry -> cache.put(entry.id(), entry), cache::remove) >= 0;
+    }
+
+    // Test: the cache gets the snapshot's employees, then the changes logged after it
+    @Test
+    void testRestoreCatchesUp() {
+        Department it = departmentRepository.save(new Department(null, "IT", null));
+        Employee ann = add("ann", it, 5000.0);
+        Employee bob = add("bob", null, null);
+        EmployeeChangeLogService changeLog = changeLog(30);
+        changeLog.initialize();
+        DirectorySnapshotService snapshots = snapshots(changeLog);
+        snapshots.writeSnapshot();
+
+        assertTrue(restore(snapshots));
+        assertEquals(new DirectoryEntry(ann.getId(), "ann", null, "ann@example.com", "IT", null, null, 5000.0,
+                LocalDate.of(2021, 3, 1), null), cache.get(ann.getId()));
+        assertNull(cache.get(bob.getId()).department());
+
+        ann.setSalary(6000.0);
+        employeeRepository.save(ann);
+        employeeRepository.delete(bob);
+        Employee cat = add("cat", it, 4000.0);
+        changeLog.onEvents(List.of(event(ann, ChangeType.UPDATED), event(bob, ChangeType.DELETED),
+                event(cat, ChangeType.CREATED)));
+
+        assertTrue(restore(snapshots));
+        assertEquals(2, cache.size());
+        assertEquals(6000.0, cache.get(ann.getId()).salary());
+        assertEquals("cat", cache.get(cat.getId()).firstName());
+    }
+
+    // Test: a restored cache keeps following the change log from the sequence it was restored to
+    @Test
+    void testCatchUpFollowsChangeLog() {
+        Employee ann = add("ann", null, 5000.0);
+        EmployeeChangeLogService changeLog = changeLog(30);
+        changeLog.initialize();
+        DirectorySnapshotService snapshots = snapshots(changeLog);
+        snapshots.writeSnapshot();
+        long sequence = snapshots.restore(entry -> cache.put(entry.id(), entry), cache::remove);
+
+        ann.setSalary(6000.0);
+        employeeRepository.save(ann);
+        Employee bob = add("bob", null, null);
+        changeLog.onEvents(List.of(event(ann, ChangeType.UPDATED), event(bob, ChangeType.CREATED)));
+
+        long caughtUp = snapshots.catchUp(sequence, entry -> cache.put(entry.id(), entry), cache::remove);
+        assertTrue(caughtUp > sequence);
+        assertEquals(6000.0, cache.get(ann.getId()).salary());
+        assertEquals("bob", cache.get(bob.getId()).firstName());
+        assertEquals(caughtUp, snapshots.catchUp(caughtUp, entry -> fail("Nothing changed"), id -> fail("Nothing deleted")));
+    }
+
+    // Test: without a snapshot, or once the change log no longer reaches back to it, the cache must be loaded from the database
+    @Test
+    void testRestoreFallsBack() throws InterruptedException {
+        add("ann", null, null);
+        Employee bob = add("bob", null, null);
+        EmployeeChangeLogService changeLog = changeLog(0);
+        changeLog.initialize();
+        DirectorySnapshotService snapshots = snapshots(changeLog);
+        assertFalse(restore(snapshots));
+
+        snapshots.writeSnapshot();
+        employeeRepository.delete(bob);
+        changeLog.onEvents(List.of(event(bob, ChangeType.DELETED)));
+        // With no retention, the tombstone is purged once it is in the past
+        Thread.sleep(5);
+        changeLog.purge();
+
+        assertFalse(restore(snapshots));
+    }
+}
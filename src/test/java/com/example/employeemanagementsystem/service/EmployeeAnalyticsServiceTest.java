@@ -0,0 +1,147 @@
+package com.example.employeemanagementsystem.service;
+
+import com.example.employeemanagementsystem.analytics.ColumnFilter;
+import com.example.employeemanagementsystem.analytics.EmployeeColumnStore;
+import com.example.employeemanagementsystem.analytics.GroupAggregate;
+import com.example.employeemanagementsystem.dto.EmployeeAnalyticsRowDTO;
+import com.example.employeemanagementsystem.repository.EmployeeRepository;
+import com.example.employeemanagementsystem.snapshot.DirectoryEntry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.sql.Date;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class EmployeeAnalyticsServiceTest {
+
+    @Mock
+    private EmployeeRepository employeeRepository;
+
+    @Mock
+    private DirectorySnapshotService directorySnapshotService;
+
+    @Mock
+    private ChangeEventDispatcher changeEventDispatcher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private EmployeeAnalyticsService employeeAnalyticsService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        // No snapshot unless a test provides one
+        when(directorySnapshotService.restore(any(), any())).thenReturn(-1L);
+        // No events replayed yet unless a test says so
+        when(changeEventDispatcher.getStartPosition("employee-analytics")).thenReturn(-1L);
+        employeeAnalyticsService = new EmployeeAnalyticsService(employeeRepository, directorySnapshotService,
+                changeEventDispatcher, transactionManager, false);
+    }
+
+    private static EmployeeAnalyticsRowDTO row(long id, String department, Double salary) {
+        return new EmployeeAnalyticsRowDTO(id, department, "Developer", "F", salary, Date.valueOf("2020-01-01"), null);
+    }
+
+    // Test: the store is loaded once, on the first query
+    @Test
+    void testAggregate_LoadsOnFirstQuery() {
+        when(employeeRepository.streamAnalyticsRows()).thenReturn(Stream.of(row(1, "IT", 100.0), row(2, "IT", 200.0)));
+
+        List<GroupAggregate> first = employeeAnalyticsService.aggregate(ColumnFilter.all(), List.of());
+        employeeAnalyticsService.aggregate(ColumnFilter.all(), List.of());
+
+        assertThat(first.get(0).count()).isEqualTo(2);
+        verify(employeeRepository, times(1)).streamAnalyticsRows();
+    }
+
+    // Test: recorded changes reload just the changed rows; rows that no longer exist are removed
+    @Test
+    void testAggregate_RefreshesChangedRows() {
+        when(employeeRepository.streamAnalyticsRows()).thenReturn(Stream.of(row(1, "IT", 100.0), row(2, "IT", 200.0)));
+        employeeAnalyticsService.aggregate(ColumnFilter.all(), List.of());
+
+        when(employeeRepository.findAnalyticsRows(anyCollection())).thenReturn(List.of(row(1, "IT", 150.0)));
+        employeeAnalyticsService.recordEmployeeChange(1L);
+        employeeAnalyticsService.recordEmployeeChange(2L);
+
+        List<GroupAggregate> groups = employeeAnalyticsService.aggregate(ColumnFilter.all(), List.of());
+        assertThat(groups.get(0).count()).isEqualTo(1);
+        assertThat(groups.get(0).salarySum()).isEqualTo(150.0);
+        assertThat(employeeAnalyticsService.getRowCount()).isEqualTo(1);
+    }
+
+    // Test: the store is filled from the directory snapshot when it can be restored, without scanning the table
+    @Test
+    void testAggregate_LoadsFromSnapshot() {
+        when(directorySnapshotService.restore(any(), any())).thenAnswer(invocation -> {
+            Consumer<DirectoryEntry> upsert = invocation.getArgument(0);
+            upsert.accept(new DirectoryEntry(1, "Ann", "Smith", null, "IT", "Developer", "F", 100.0, null, null));
+            upsert.accept(new DirectoryEntry(2, "Bob", "Jones", null, "IT", "Developer", "M", 200.0, null, null));
+            return 7L;
+        });
+        when(directorySnapshotService.catchUp(anyLong(), any(), any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<GroupAggregate> groups = employeeAnalyticsService.aggregate(ColumnFilter.all(), List.of());
+
+        assertThat(groups.get(0).salarySum()).isEqualTo(300.0);
+        verify(employeeRepository, never()).streamAnalyticsRows();
+    }
+
+    // Test: a store restored from the snapshot follows the change log before each query, from the sequence it reached
+    @Test
+    void testAggregate_FollowsChangeLogAfterRestore() {
+        when(directorySnapshotService.restore(any(), any())).thenAnswer(invocation -> {
+            Consumer<DirectoryEntry> upsert = invocation.getArgument(0);
+            upsert.accept(new DirectoryEntry(1, "Ann", "Smith", null, "IT", "Developer", "F", 100.0, null, null));
+            return 7L;
+        });
+        when(directorySnapshotService.catchUp(anyLong(), any(), any())).thenReturn(7L);
+        employeeAnalyticsService.aggregate(ColumnFilter.all(), List.of());
+
+        // Logged after the restore, by a change older than the replayed events
+        when(directorySnapshotService.catchUp(eq(7L), any(), any())).thenAnswer(invocation -> {
+            Consumer<DirectoryEntry> upsert = invocation.getArgument(1);
+            upsert.accept(new DirectoryEntry(2, "Bob", "Jones", null, "IT", "Developer", "M", 200.0, null, null));
+            return 8L;
+        });
+        List<GroupAggregate> groups = employeeAnalyticsService.aggregate(ColumnFilter.all(), List.of());
+        employeeAnalyticsService.aggregate(ColumnFilter.all(), List.of());
+
+        assertThat(groups.get(0).salarySum()).isEqualTo(300.0);
+        verify(directorySnapshotService).catchUp(eq(8L), any(), any());
+        verify(employeeRepository, never()).streamAnalyticsRows();
+    }
+
+    // Test: a restored store stops following the change log once the log holds every change before the replayed events
+    @Test
+    void testAggregate_StopsFollowingChangeLog() {
+        when(directorySnapshotService.restore(any(), any())).thenReturn(7L);
+        when(directorySnapshotService.catchUp(anyLong(), any(), any())).thenReturn(7L);
+        when(changeEventDispatcher.getStartPosition("employee-analytics")).thenReturn(100L);
+        when(directorySnapshotService.getLoggedPosition()).thenReturn(99L);
+        employeeAnalyticsService.aggregate(ColumnFilter.all(), List.of());
+        employeeAnalyticsService.aggregate(ColumnFilter.all(), List.of());
+        verify(directorySnapshotService, times(2)).catchUp(anyLong(), any(), any());
+
+        // The last catch-up reads the changes logged up to event 100
+        when(directorySnapshotService.getLoggedPosition()).thenReturn(100L);
+        employeeAnalyticsService.aggregate(ColumnFilter.all(), List.of());
+        employeeAnalyticsService.aggregate(ColumnFilter.all(), List.of());
+        employeeAnalyticsService.salarySketches(EmployeeColumnStore.Column.DEPARTMENT);
+
+        verify(directorySnapshotService, times(3)).catchUp(anyLong(), any(), any());
+        verify(directorySnapshotService, times(1)).restore(any(), any());
+    }
+}
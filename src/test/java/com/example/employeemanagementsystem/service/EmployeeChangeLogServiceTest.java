@@ -0,0 +1,170 @@
+package com.example.employeemanagementsystem.service;
+
+import com.example.employeemanagementsystem.dto.EmployeeChangesDTO;
+import com.example.employeemanagementsystem.entity.Employee;
+import com.example.employeemanagementsystem.entity.OutboxEvent.ChangeType;
+import com.example.employeemanagementsystem.events.ChangeEvent;
+import com.example.employeemanagementsystem.exception.ChangeLogExpiredException;
+import com.example.employeemanagementsystem.exception.InvalidPageRequestException;
+import com.example.employeemanagementsystem.repository.EmployeeChangeLogRepository;
+import com.example.employeemanagementsystem.repository.EmployeeRepository;
+import com.example.employeemanagementsystem.repository.OutboxCheckpointRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Keeps the change log in an embedded H2 database. Tests run outside a test-managed transaction,
+ * since the log commits each batch of changes on its own.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:changelog;NON_KEYWORDS=USER",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EmployeeChangeLogServiceTest {
+
+    @Autowired
+    private EmployeeChangeLogRepository changeLogRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private OutboxCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final AtomicLong eventIds = new AtomicLong();
+
+    @BeforeEach
+    void setUp() {
+        changeLogRepository.deleteAll();
+        checkpointRepository.deleteAll();
+        employeeRepository.deleteAll();
+    }
+
+    private EmployeeChangeLogService service(long retentionDays) {
+        return new EmployeeChangeLogService(changeLogRepository, employeeRepository, checkpointRepository,
+                transactionManager, retentionDays);
+    }
+
+    private Employee add(String name) {
+        Employee employee = new Employee();
+        employee.setFirstName(name);
+        return employeeRepository.save(employee);
+    }
+
+    private ChangeEvent event(Employee employee, ChangeType type) {
+        return new ChangeEvent(eventIds.incrementAndGet(), OutboxService.EMPLOYEE, employee.getId(), type,
+                List.of(), List.of(), 1L, Instant.now());
+    }
+
+    private static List<String> names(EmployeeChangesDTO changes) {
+        return changes.getEmployees().stream().map(Employee::getFirstName).toList();
+    }
+
+    // Test: existing employees are copied from sequence 0 in pages, then only later changes are returned
+    @Test
+    void testChangesSince() {
+        Employee ann = add("ann");
+        add("bob");
+        Employee cat = add("cat");
+        EmployeeChangeLogService service = service(30);
+        service.initialize();
+
+        EmployeeChangesDTO first = service.getChanges(0, 2);
+        assertEquals(List.of("ann", "bob"), names(first));
+        assertTrue(first.isHasMore());
+        EmployeeChangesDTO second = service.getChanges(first.getResumeToken(), 2);
+        assertEquals(List.of("cat"), names(second));
+        assertFalse(second.isHasMore());
+
+        ann.setLastName("smith");
+        employeeRepository.save(ann);
+        employeeRepository.delete(cat);
+        service.onEvents(List.of(event(ann, ChangeType.UPDATED), event(cat, ChangeType.DELETED),
+                event(ann, ChangeType.UPDATED)));
+
+        EmployeeChangesDTO changes = service.getChanges(second.getResumeToken(), 10);
+        assertEquals(List.of("ann"), names(changes));
+        assertEquals("smith", changes.getEmployees().get(0).getLastName());
+        assertEquals(List.of(cat.getId()), changes.getDeletedIds());
+        assertEquals(changes.getResumeToken(), service.getChanges(changes.getResumeToken(), 10).getResumeToken());
+        assertEquals(3, changeLogRepository.count());
+    }
+
+    // Test: after tombstones are purged, older resume tokens must resync and a restart continues past the horizon
+    @Test
+    void testPurgeMovesHorizon() throws InterruptedException {
+        Employee ann = add("ann");
+        Employee bob = add("bob");
+        EmployeeChangeLogService service = service(0);
+        service.initialize();
+        long beforeDelete = service.getChanges(0, 10).getResumeToken();
+
+        employeeRepository.delete(bob);
+        service.onEvents(List.of(event(bob, ChangeType.DELETED)));
+        long afterDelete = service.getChanges(beforeDelete, 10).getResumeToken();
+        // With no retention, the tombstone is purged once it is in the past
+        Thread.sleep(5);
+        service.purge();
+
+        assertThrows(ChangeLogExpiredException.class, () -> service.getChanges(beforeDelete, 10));
+        assertEquals(List.of("ann"), names(service.getChanges(0, 10)));
+        assertEquals(List.of(), service.getChanges(afterDelete, 10).getDeletedIds());
+
+        // Not seeded again; the next change is numbered after the purged tombstone
+        EmployeeChangeLogService restarted = service(0);
+        restarted.initialize();
+        restarted.onEvents(List.of(event(ann, ChangeType.UPDATED)));
+        assertEquals(List.of("ann"), names(restarted.getChanges(afterDelete, 10)));
+        assertEquals(1, changeLogRepository.count());
+    }
+
+    // Test: an instance taking over the log numbers its changes after those of the previous one
+    @Test
+    void testTakeoverContinuesNumbering() {
+        Employee ann = add("ann");
+        Employee bob = add("bob");
+        EmployeeChangeLogService first = service(30);
+        EmployeeChangeLogService second = service(30);
+        first.initialize();
+        second.initialize();
+        long seeded = first.getChanges(0, 10).getResumeToken();
+
+        first.onEvents(List.of(event(ann, ChangeType.UPDATED)));
+        second.onEvents(List.of(event(bob, ChangeType.UPDATED)));
+        first.onEvents(List.of(event(ann, ChangeType.UPDATED)));
+
+        EmployeeChangesDTO changes = second.getChanges(seeded, 10);
+        assertEquals(List.of("bob", "ann"), names(changes));
+        assertEquals(seeded + 3, changes.getResumeToken());
+    }
+
+    // Test: negative sequences and out-of-range limits are rejected
+    @Test
+    void testInvalidRequest() {
+        EmployeeChangeLogService service = service(30);
+        assertThrows(InvalidPageRequestException.class, () -> service.getChanges(-1, 10));
+        assertThrows(InvalidPageRequestException.class, () -> service.getChanges(0, 0));
+        assertThrows(InvalidPageRequestException.class,
+                () -> service.getChanges(0, EmployeeService.MAX_PAGE_SIZE + 1));
+    }
+}
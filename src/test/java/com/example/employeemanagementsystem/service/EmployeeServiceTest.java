@@ -1,11 +1,14 @@
 package com.example.employeemanagementsystem.service;
 
+import com.example.employeemanagementsystem.audit.AuditRecord;
+import com.example.employeemanagementsystem.dto.EmployeePageDTO;
 import com.example.employeemanagementsystem.dto.EmployeeSearchRequestDTO;
 import com.example.employeemanagementsystem.entity.*;
 import com.example.employeemanagementsystem.exception.*;
 import com.example.employeemanagementsystem.repository.*;
 import com.example.employeemanagementsystem.specification.EmployeeSpecification;
 
+import jakarta.persistence.Tuple;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -14,11 +17,15 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.time.LocalDate;
 import java.util.*;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -35,6 +42,12 @@ public class EmployeeServiceTest {
     @Mock private RoleRepository roleRepository;
     @Mock private DepartmentRepository departmentRepository;
     @Mock private PasswordEncoder passwordEncoder;
+    @Mock private DataVersionService dataVersionService;
+    @Mock private EmployeeFieldRepository employeeFieldRepository;
+    @Mock private EmployeeAnalyticsService employeeAnalyticsService;
+    @Mock private OrgChartService orgChartService;
+    @Mock private ShardedEmployeeService shardedEmployeeService;
+    @Mock private OutboxService outboxService;
 
     private Employee employee;
     private User user;
@@ -145,6 +158,12 @@ public class EmployeeServiceTest {
 
         Employee result = employeeService.updateEmployee(1L, updated);
         assertThat(result).isNotNull();
+        verify(outboxService).recordEmployeeChange(1L, OutboxEvent.ChangeType.UPDATED,
+                List.of("firstName", "lastName", "email"),
+                List.of(new AuditRecord.FieldChange("firstName", null, "New"),
+                        new AuditRecord.FieldChange("lastName", null, "Name"),
+                        new AuditRecord.FieldChange("email", "test@example.com", null)),
+                null, 1L, 1L);
     }
 
     // Test deleting a regular employee
@@ -156,6 +175,11 @@ public class EmployeeServiceTest {
 
         verify(employeeRepository).deleteById(1L);
         verify(userRepository).deleteById(user.getId());
+        verify(dataVersionService).recordEmployeeChange(1L, null);
+        verify(outboxService).recordEmployeeChange(1L, OutboxEvent.ChangeType.DELETED, null,
+                List.of(new AuditRecord.FieldChange("email", "test@example.com", null),
+                        new AuditRecord.FieldChange("department", "1", null)),
+                null, 1L);
     }
 
     // Test deleting a manager and unassigning them from department
@@ -169,6 +193,43 @@ public class EmployeeServiceTest {
         verify(departmentRepository).save(department);
     }
 
+    // Test patching an employee at the expected version returns the next version with one statement, recording the new values
+    @Test
+    void testPatchEmployee() {
+        Map<String, Object> changes = Map.of("phoneNumber", "555-0100");
+        when(employeeFieldRepository.updateFields(1L, 3L, changes)).thenReturn(1);
+
+        assertThat(employeeService.patchEmployee(1L, 3L, changes)).isEqualTo(4L);
+        verify(dataVersionService).recordEmployeeChange(1L, 4L);
+        verify(outboxService).recordEmployeeChange(1L, OutboxEvent.ChangeType.UPDATED, changes.keySet(),
+                List.of(new AuditRecord.FieldChange("phoneNumber", null, "555-0100")), 4L);
+        verify(employeeFieldRepository).updateFields(1L, 3L, changes);
+        verifyNoMoreInteractions(employeeFieldRepository);
+        verify(employeeRepository, never()).findById(any());
+        verify(employeeRepository, never()).findDepartmentIdsByIds(any());
+    }
+
+    // Test patching a stale version is a conflict
+    @Test
+    void testPatchEmployee_VersionConflict() {
+        when(employeeFieldRepository.updateFields(eq(1L), eq(2L), any())).thenReturn(0);
+        when(employeeRepository.existsById(1L)).thenReturn(true);
+
+        assertThatThrownBy(() -> employeeService.patchEmployee(1L, 2L, Map.of("jobTitle", "Lead")))
+            .isInstanceOf(EmployeeVersionConflictException.class);
+        verifyNoInteractions(dataVersionService);
+    }
+
+    // Test patching a missing employee
+    @Test
+    void testPatchEmployee_NotFound() {
+        when(employeeFieldRepository.updateFields(eq(99L), eq(0L), any())).thenReturn(0);
+        when(employeeRepository.existsById(99L)).thenReturn(false);
+
+        assertThatThrownBy(() -> employeeService.patchEmployee(99L, 0L, Map.of("jobTitle", "Lead")))
+            .isInstanceOf(EmployeeNotFoundException.class);
+    }
+
     // Test searching employees by department name
     @Test
     void testSearchByDepartment() {
@@ -227,6 +288,42 @@ public class EmployeeServiceTest {
             .isInstanceOf(AccessDeniedException.class);
     }
 
+    // Test streaming selected fields passes each tuple on as an array
+    @Test
+    void testStreamEmployeeFields_Admin() {
+        Tuple tuple = mock(Tuple.class);
+        when(tuple.toArray()).thenReturn(new Object[]{1L, "john@example.com"});
+        when(employeeFieldRepository.streamFields(eq(List.of("id", "email")), any()))
+            .thenReturn(Stream.of(tuple));
+
+        List<Object[]> rows = new ArrayList<>();
+        employeeService.streamEmployeeFields("admin", "ROLE_ADMIN", null, List.of("id", "email"), rows::add);
+
+        assertThat(rows).hasSize(1);
+        assertThat(rows.get(0)).containsExactly(1L, "john@example.com");
+    }
+
+    // Test streaming selected fields for an unknown department returns nothing
+    @Test
+    void testStreamEmployeeFields_UnknownDepartment() {
+        EmployeeSearchRequestDTO dto = new EmployeeSearchRequestDTO();
+        dto.setDepartmentId(99L);
+        when(departmentRepository.existsById(99L)).thenReturn(false);
+
+        List<Object[]> rows = new ArrayList<>();
+        employeeService.streamEmployeeFields("admin", "ROLE_ADMIN", dto, List.of("id"), rows::add);
+
+        assertThat(rows).isEmpty();
+        verifyNoInteractions(employeeFieldRepository);
+    }
+
+    // Test streaming selected fields is denied for regular employees
+    @Test
+    void testStreamEmployeeFields_AccessDenied() {
+        assertThatThrownBy(() -> employeeService.streamEmployeeFields("employee", "ROLE_EMPLOYEE", null, List.of("id"), row -> { }))
+            .isInstanceOf(AccessDeniedException.class);
+    }
+
     // Test fetching user role by username
     @Test
     void testGetUserRole() {
@@ -272,4 +369,34 @@ public class EmployeeServiceTest {
         ).isInstanceOf(EmployeeNotFoundException.class);
     }
 
+    // Test paging all employees from the primary database, and rejecting out-of-range pages
+    @Test
+    void testGetAllEmployees_Paged() {
+        when(employeeRepository.findAllEmployeesWithDepartment(PageRequest.of(1, 2, Sort.by("id"))))
+                .thenReturn(new PageImpl<>(List.of(employee), PageRequest.of(1, 2), 3));
+
+        EmployeePageDTO page = employeeService.getAllEmployees(1, 2);
+        assertThat(page.getContent()).containsExactly(employee);
+        assertThat(page.getTotalElements()).isEqualTo(3);
+
+        assertThatThrownBy(() -> employeeService.getAllEmployees(-1, 2))
+                .isInstanceOf(InvalidPageRequestException.class);
+        assertThatThrownBy(() -> employeeService.getAllEmployees(0, EmployeeService.MAX_PAGE_SIZE + 1))
+                .isInstanceOf(InvalidPageRequestException.class);
+    }
+
+    // Test that lists and admin searches are served from the shards when sharding is enabled
+    @Test
+    void testGetAllEmployees_Sharded() {
+        EmployeeSearchRequestDTO searchRequest = new EmployeeSearchRequestDTO();
+        when(shardedEmployeeService.isEnabled()).thenReturn(true);
+        when(shardedEmployeeService.getAllEmployees()).thenReturn(List.of(employee));
+        when(shardedEmployeeService.searchEmployees(searchRequest, null)).thenReturn(List.of(employee));
+        when(userRepository.findRoleByUsername("admin")).thenReturn("ROLE_ADMIN");
+
+        assertThat(employeeService.getAllEmployees()).containsExactly(employee);
+        assertThat(employeeService.searchEmployees(searchRequest, "admin")).containsExactly(employee);
+        verifyNoInteractions(employeeRepository);
+    }
+
 }
@@ -0,0 +1,173 @@
+package com.example.employeemanagementsystem.service;
+
+import com.example.employeemanagementsystem.audit.AuditRecord;
+import com.example.employeemanagementsystem.dto.OrgChartEntryDTO;
+import com.example.employeemanagementsystem.dto.SpanOfControlDTO;
+import com.example.employeemanagementsystem.entity.Employee;
+import com.example.employeemanagementsystem.events.ChangeEvent;
+import com.example.employeemanagementsystem.exception.EmployeeNotFoundException;
+import com.example.employeemanagementsystem.exception.InvalidReportingLineException;
+import com.example.employeemanagementsystem.repository.EmployeeHierarchyRepository;
+import com.example.employeemanagementsystem.repository.EmployeeRepository;
+import com.example.employeemanagementsystem.repository.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the closure-table queries against an embedded H2 database.
+ * Reporting lines: ceo &gt; (vp1 &gt; (lead &gt; dev), analyst), vp2.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:orgchart;NON_KEYWORDS=USER",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({OrgChartService.class, DataVersionService.class, OutboxService.class, ChangeEventDispatcher.class})
+class OrgChartServiceTest {
+
+    @Autowired
+    private OrgChartService orgChartService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private EmployeeHierarchyRepository hierarchyRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    private Employee ceo;
+    private Employee vp1;
+    private Employee vp2;
+    private Employee lead;
+    private Employee dev;
+    private Employee analyst;
+
+    @BeforeEach
+    void setUp() {
+        ceo = add("ceo", null);
+        vp1 = add("vp1", ceo);
+        vp2 = add("vp2", ceo);
+        lead = add("lead", vp1);
+        dev = add("dev", lead);
+        analyst = add("analyst", vp1);
+    }
+
+    private Employee add(String name, Employee manager) {
+        Employee employee = new Employee();
+        employee.setFirstName(name);
+        employee.setManager(manager);
+        employee = employeeRepository.save(employee);
+        orgChartService.addEmployee(employee);
+        return employee;
+    }
+
+    // The audited manager changes by employee, from the outbox events
+    private Map<Long, List<AuditRecord.FieldChange>> managerChanges() {
+        return outboxEventRepository.findAll(Sort.by("id")).stream().map(ChangeEvent::of)
+                .collect(Collectors.toMap(ChangeEvent::entityId, ChangeEvent::fieldChanges));
+    }
+
+    private static List<AuditRecord.FieldChange> managerChange(Employee from, Employee to) {
+        return List.of(new AuditRecord.FieldChange("manager", from.getId().toString(), to.getId().toString()));
+    }
+
+    private Map<String, Integer> depths(Employee root, Integer maxDepth) {
+        return orgChartService.getReports(root.getId(), maxDepth, null, "ADMIN").stream()
+                .collect(Collectors.toMap(OrgChartEntryDTO::getFirstName, OrgChartEntryDTO::getDepth));
+    }
+
+    // Test: subtrees include every level below the root, or only the first levels with maxDepth
+    @Test
+    void testGetReports() {
+        assertEquals(Map.of("lead", 1, "analyst", 1, "dev", 2), depths(vp1, null));
+        assertEquals(Map.of("vp1", 1, "vp2", 1), depths(ceo, 1));
+        assertEquals(Map.of(), depths(dev, null));
+
+        List<OrgChartEntryDTO> reports = orgChartService.getReports(vp1.getId(), null, null, "ADMIN");
+        assertEquals("dev", reports.get(2).getFirstName());
+        assertEquals(lead.getId(), reports.get(2).getManagerId());
+    }
+
+    // Test: span of control counts direct reports and the whole subtree
+    @Test
+    void testSpanOfControl() {
+        SpanOfControlDTO span = orgChartService.getSpanOfControl(ceo.getId(), null, "ADMIN");
+        assertEquals(2, span.getDirectReports());
+        assertEquals(5, span.getTotalReports());
+        assertEquals(0, orgChartService.getSpanOfControl(dev.getId(), null, "ADMIN").getTotalReports());
+
+        List<SpanOfControlDTO> spans = orgChartService.getSpansOfControl();
+        assertEquals(List.of("ceo", "vp1", "lead"), spans.stream().map(SpanOfControlDTO::getFirstName).toList());
+    }
+
+    // Test: moving a manager moves their whole subtree and leaves the old line without it; the move is audited
+    @Test
+    void testMoveSubtree() {
+        orgChartService.moveSubtree(lead.getId(), vp2.getId());
+
+        assertEquals(Map.of("analyst", 1), depths(vp1, null));
+        assertEquals(Map.of("lead", 1, "dev", 2), depths(vp2, null));
+        assertEquals(Map.of("vp1", 1, "vp2", 1, "lead", 2, "analyst", 2, "dev", 3), depths(ceo, null));
+        assertEquals(vp2.getId(), employeeRepository.findById(lead.getId()).orElseThrow().getManager().getId());
+        assertEquals(Map.of(lead.getId(), managerChange(vp1, vp2)), managerChanges());
+
+        // To the top and back
+        orgChartService.moveSubtree(lead.getId(), null);
+        assertEquals(Map.of("dev", 1), depths(lead, null));
+        assertEquals(3, orgChartService.getSpanOfControl(ceo.getId(), null, "ADMIN").getTotalReports());
+        orgChartService.moveSubtree(lead.getId(), analyst.getId());
+        assertEquals(Map.of("analyst", 1, "lead", 2, "dev", 3), depths(vp1, null));
+    }
+
+    // Test: an employee cannot be moved under themselves or anyone under them
+    @Test
+    void testMoveSubtree_Invalid() {
+        assertThrows(InvalidReportingLineException.class, () -> orgChartService.moveSubtree(vp1.getId(), dev.getId()));
+        assertThrows(InvalidReportingLineException.class, () -> orgChartService.moveSubtree(vp1.getId(), vp1.getId()));
+        assertThrows(EmployeeNotFoundException.class, () -> orgChartService.moveSubtree(vp1.getId(), -1L));
+        assertEquals(Map.of("lead", 1, "analyst", 1, "dev", 2), depths(vp1, null));
+    }
+
+    // Test: removing a manager moves their reports up a level, recording their change of manager for the audit
+    @Test
+    void testRemoveEmployee() {
+        orgChartService.removeEmployee(employeeRepository.findById(vp1.getId()).orElseThrow());
+        employeeRepository.deleteById(vp1.getId());
+
+        assertEquals(Map.of("vp2", 1, "lead", 1, "analyst", 1, "dev", 2), depths(ceo, null));
+        assertEquals(ceo.getId(), employeeRepository.findById(analyst.getId()).orElseThrow().getManager().getId());
+        assertTrue(hierarchyRepository.findAncestorIds(dev.getId()).containsAll(List.of(lead.getId(), ceo.getId())));
+        assertEquals(Map.of(lead.getId(), managerChange(vp1, ceo), analyst.getId(), managerChange(vp1, ceo)),
+                managerChanges());
+    }
+
+    // Test: employees saved without the hierarchy get their own closure row at startup
+    @Test
+    void testInitialize() {
+        Employee legacy = new Employee();
+        legacy.setFirstName("legacy");
+        legacy = employeeRepository.save(legacy);
+
+        orgChartService.initialize();
+
+        assertEquals(List.of(legacy.getId()), hierarchyRepository.findSubtreeIds(legacy.getId()));
+        orgChartService.moveSubtree(legacy.getId(), vp2.getId());
+        assertEquals(Map.of("legacy", 1), depths(vp2, null));
+    }
+}
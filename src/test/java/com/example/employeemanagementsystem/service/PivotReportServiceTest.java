@@ -0,0 +1,182 @@
+package com.example.employeemanagementsystem.service;
+
+import com.example.employeemanagementsystem.analytics.EmployeeColumnStore.Column;
+import com.example.employeemanagementsystem.analytics.GroupAggregate;
+import com.example.employeemanagementsystem.analytics.PivotQuery;
+import com.example.employeemanagementsystem.dto.PivotReportDTO;
+import com.example.employeemanagementsystem.dto.PivotRowDTO;
+import com.example.employeemanagementsystem.entity.Department;
+import com.example.employeemanagementsystem.exception.InvalidReportQueryException;
+import com.example.employeemanagementsystem.repository.DepartmentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class PivotReportServiceTest {
+
+    @Mock
+    private EmployeeAnalyticsService employeeAnalyticsService;
+
+    @Mock
+    private DepartmentRepository departmentRepository;
+
+    @Mock
+    private DataVersionService dataVersionService;
+
+    private PivotReportService pivotReportService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        pivotReportService = new PivotReportService(employeeAnalyticsService, departmentRepository, dataVersionService);
+    }
+
+    private static GroupAggregate group(String department, String gender, long count, double... salaries) {
+        double sum = 0;
+        double sumOfSquares = 0;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (double salary : salaries) {
+            sum += salary;
+            sumOfSquares += salary * salary;
+            min = Math.min(min, salary);
+            max = Math.max(max, salary);
+        }
+        return new GroupAggregate(List.of(department, gender), count, salaries.length, sum, min, max, sumOfSquares);
+    }
+
+    // Test: Rows are labelled by dimension name, ordered by size and capped at the limit
+    @Test
+    void testGetPivotReport_SortsAndTruncates() {
+        when(employeeAnalyticsService.aggregate(any(), eq(List.of(Column.DEPARTMENT, Column.GENDER)))).thenReturn(List.of(
+                group("HR", "F", 1, 3000),
+                group("IT", "M", 3, 4000, 6000),
+                group("IT", "F", 2)));
+
+        PivotReportDTO report = pivotReportService.getPivotReport(
+                new PivotQuery(List.of(Column.DEPARTMENT, Column.GENDER), 2), null, "ADMIN");
+
+        assertEquals(List.of("department", "gender"), report.getGroupBy());
+        assertEquals(3, report.getTotalGroups());
+        assertTrue(report.isTruncated());
+        assertEquals(2, report.getRows().size());
+
+        PivotRowDTO largest = report.getRows().get(0);
+        assertEquals(Map.of("department", "IT", "gender", "M"), largest.getGroup());
+        assertEquals(3, largest.getCount());
+        assertEquals(10000.0, largest.getTotalSalary());
+        assertEquals(5000.0, largest.getAverageSalary());
+        assertEquals(4000.0, largest.getMinSalary());
+        assertEquals(6000.0, largest.getMaxSalary());
+        assertEquals(1000.0, largest.getSalaryStandardDeviation(), 1e-9);
+
+        // No salaries in the group: statistics are absent rather than zero
+        PivotRowDTO unpaid = report.getRows().get(1);
+        assertEquals(2, unpaid.getCount());
+        assertNull(unpaid.getTotalSalary());
+        assertNull(unpaid.getMinSalary());
+        assertNull(unpaid.getAverageSalary());
+    }
+
+    // Test: Equivalent queries share a cache entry until the data version changes
+    @Test
+    void testGetPivotReport_CachedByShapeAndVersion() {
+        when(dataVersionService.getGlobalVersion()).thenReturn(1L);
+        when(employeeAnalyticsService.aggregate(any(), any())).thenReturn(List.of(group("IT", "F", 1, 5000)));
+
+        PivotReportDTO first = pivotReportService.getPivotReport(new PivotQuery(List.of(Column.GENDER), 10)
+                .where(Column.DEPARTMENT, List.of("IT", "HR")), null, "ADMIN");
+        PivotReportDTO second = pivotReportService.getPivotReport(new PivotQuery(List.of(Column.GENDER), 10)
+                .where(Column.DEPARTMENT, List.of("HR", "IT", "HR")), null, "ADMIN");
+
+        assertSame(first, second);
+        verify(employeeAnalyticsService, times(1)).aggregate(any(), any());
+
+        pivotReportService.getPivotReport(new PivotQuery(List.of(Column.GENDER), 5), null, "ADMIN");
+        verify(employeeAnalyticsService, times(2)).aggregate(any(), any());
+
+        when(dataVersionService.getGlobalVersion()).thenReturn(2L);
+        PivotReportDTO third = pivotReportService.getPivotReport(new PivotQuery(List.of(Column.GENDER), 10)
+                .where(Column.DEPARTMENT, List.of("IT", "HR")), null, "ADMIN");
+
+        assertNotSame(first, third);
+        verify(employeeAnalyticsService, times(3)).aggregate(any(), any());
+    }
+
+    // Test: Values containing the list separator do not collide with a different set of values
+    @Test
+    void testGetPivotReport_CacheKeyIsStructural() {
+        when(dataVersionService.getGlobalVersion()).thenReturn(1L);
+        when(employeeAnalyticsService.aggregate(any(), any())).thenReturn(List.of());
+
+        PivotQuery joined = new PivotQuery(List.of(Column.GENDER), 10).where(Column.JOB_TITLE, List.of("A, B"));
+        PivotQuery separate = new PivotQuery(List.of(Column.GENDER), 10).where(Column.JOB_TITLE, List.of("A", "B"));
+        assertNotEquals(joined.shape(), separate.shape());
+
+        PivotReportDTO first = pivotReportService.getPivotReport(joined, null, "ADMIN");
+        PivotReportDTO second = pivotReportService.getPivotReport(separate, null, "ADMIN");
+
+        assertNotSame(first, second);
+        verify(employeeAnalyticsService, times(2)).aggregate(any(), any());
+    }
+
+    // Test: The logged form of a query lists its filters in column order, and works without any
+    @Test
+    void testShapeToString() {
+        assertEquals("by=[GENDER];limit=10", new PivotQuery(List.of(Column.GENDER), 10).shape().toString());
+
+        PivotQuery filtered = new PivotQuery(List.of(), 5)
+                .where(Column.GENDER, List.of("F"))
+                .where(Column.DEPARTMENT, List.of("IT", "HR"));
+        assertEquals("by=[];DEPARTMENT=[HR, IT];GENDER=[F];limit=5", filtered.shape().toString());
+    }
+
+    // Test: A manager's report is restricted to their department, whatever department filter they pass
+    @Test
+    void testGetPivotReport_ManagerScope() {
+        Department department = new Department();
+        department.setName("IT");
+        when(departmentRepository.findByManagerUsername("manager@example.com")).thenReturn(department);
+        when(employeeAnalyticsService.aggregate(any(), any())).thenReturn(List.of());
+
+        PivotQuery query = new PivotQuery(List.of(Column.JOB_TITLE), 10).where(Column.DEPARTMENT, List.of("HR"));
+        pivotReportService.getPivotReport(query, "manager@example.com", "MANAGER");
+
+        assertEquals(List.of(), query.shape().values().get(Column.DEPARTMENT));
+
+        PivotQuery own = new PivotQuery(List.of(Column.JOB_TITLE), 10);
+        pivotReportService.getPivotReport(own, "manager@example.com", "MANAGER");
+
+        assertEquals(List.of("IT"), own.shape().values().get(Column.DEPARTMENT));
+    }
+
+    // Test: A manager without a department gets an empty report
+    @Test
+    void testGetPivotReport_ManagerWithoutDepartment() {
+        PivotReportDTO report = pivotReportService.getPivotReport(
+                new PivotQuery(List.of(Column.GENDER), 10), "manager@example.com", "MANAGER");
+
+        assertTrue(report.getRows().isEmpty());
+        assertEquals(List.of("gender"), report.getGroupBy());
+        verifyNoInteractions(employeeAnalyticsService);
+    }
+
+    // Test: Limits above the cap and too many groups are invalid queries
+    @Test
+    void testGetPivotReport_Invalid() {
+        assertThrows(InvalidReportQueryException.class, () -> pivotReportService.getPivotReport(
+                new PivotQuery(List.of(Column.GENDER), PivotReportService.MAX_ROWS + 1), null, "ADMIN"));
+
+        when(employeeAnalyticsService.aggregate(any(), any())).thenThrow(new IllegalArgumentException("Too many groups"));
+        assertThrows(InvalidReportQueryException.class, () -> pivotReportService.getPivotReport(
+                new PivotQuery(List.of(Column.DEPARTMENT, Column.JOB_TITLE), 10), null, "ADMIN"));
+    }
+}
@@ -1,11 +1,14 @@
 package com.example.employeemanagementsystem.service;
 
+import com.example.employeemanagementsystem.datasource.QueryDeadline;
 import com.example.employeemanagementsystem.dto.EmployeeReportDTO;
+import com.example.employeemanagementsystem.exception.QueryDeadlineExceededException;
 import com.example.employeemanagementsystem.exception.ReportGenerationException;
 import com.example.employeemanagementsystem.repository.EmployeeRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.dao.QueryTimeoutException;
 
 import java.util.Arrays;
 import java.util.Collections;
@@ -19,6 +22,9 @@ class ReportServiceTest {
     @Mock
     private EmployeeRepository employeeRepository;
 
+    @Mock
+    private ShardedEmployeeService shardedEmployeeService;
+
     @InjectMocks
     private ReportService reportService;
 
@@ -46,6 +52,20 @@ class ReportServiceTest {
             .hasMessageContaining("Unable to fetch total employee count");
     }
 
+    @Test
+    void testGetTotalEmployees_DeadlineExceeded() {
+        QueryDeadline deadline = new QueryDeadline(0);
+        deadline.cancel();
+        QueryDeadline.set(deadline);
+        try {
+            when(employeeRepository.getTotalEmployees()).thenThrow(new QueryTimeoutException("Request was cancelled"));
+            assertThatThrownBy(() -> reportService.getTotalEmployees())
+                .isInstanceOf(QueryDeadlineExceededException.class);
+        } finally {
+            QueryDeadline.clear();
+        }
+    }
+
     // ---------------------------------------
     // getEmployeesByDepartment()
     // ---------------------------------------
@@ -0,0 +1,158 @@
+package com.example.employeemanagementsystem.service;
+
+import com.example.employeemanagementsystem.dto.EmployeeReportDTO;
+import com.example.employeemanagementsystem.dto.TimeSeriesDTO;
+import com.example.employeemanagementsystem.entity.Department;
+import com.example.employeemanagementsystem.entity.ReportSnapshot;
+import com.example.employeemanagementsystem.entity.ReportSnapshot.Dimension;
+import com.example.employeemanagementsystem.exception.InvalidReportQueryException;
+import com.example.employeemanagementsystem.repository.DepartmentRepository;
+import com.example.employeemanagementsystem.repository.EmployeeRepository;
+import com.example.employeemanagementsystem.repository.ReportSnapshotRepository;
+import com.example.employeemanagementsystem.service.ReportSnapshotService.Aggregation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ReportSnapshotServiceTest {
+
+    private static final Instant T0 = Instant.parse("2026-01-01T00:00:00Z");
+    private static final Duration DAY = Duration.ofDays(1);
+
+    @Mock
+    private ReportSnapshotRepository snapshotRepository;
+
+    @Mock
+    private EmployeeRepository employeeRepository;
+
+    @Mock
+    private DepartmentRepository departmentRepository;
+
+    @Mock
+    private DataVersionService dataVersionService;
+
+    @InjectMocks
+    private ReportSnapshotService reportSnapshotService;
+
+    @Captor
+    private ArgumentCaptor<List<ReportSnapshot>> rowsCaptor;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    private static ReportSnapshot row(Instant capturedAt, String label, long count, double salary) {
+        return new ReportSnapshot(capturedAt, Dimension.DEPARTMENT, label, count, salary);
+    }
+
+    // ---------------------------------------
+    // captureSnapshot()
+    // ---------------------------------------
+
+    // Test: a capture writes every dimension plus the total derived from the gender rows
+    @Test
+    void testCaptureSnapshot_WritesAllDimensions() {
+        when(dataVersionService.getGlobalVersion()).thenReturn(3L);
+        when(employeeRepository.getEmployeesByDepartment()).thenReturn(List.of(new EmployeeReportDTO("IT", 2L, 150.0, 300.0)));
+        when(employeeRepository.getEmployeesByJobTitle()).thenReturn(List.of(new EmployeeReportDTO("Dev", 2L, 150.0, 300.0)));
+        when(employeeRepository.getEmployeesByGender()).thenReturn(List.of(
+                new EmployeeReportDTO("F", 1L, 100.0, 100.0), new EmployeeReportDTO("M", 2L, 100.0, 200.0)));
+
+        assertThat(reportSnapshotService.captureSnapshot()).isEqualTo(5);
+
+        verify(snapshotRepository).saveAll(rowsCaptor.capture());
+        ReportSnapshot total = rowsCaptor.getValue().get(4);
+        assertThat(total.getDimension()).isEqualTo(Dimension.TOTAL);
+        assertThat(total.getEmployeeCount()).isEqualTo(3L);
+        assertThat(total.getTotalSalary()).isEqualTo(300.0);
+    }
+
+    // Test: no capture is written while the data version is unchanged
+    @Test
+    void testCaptureSnapshot_SkipsUnchangedData() {
+        when(dataVersionService.getGlobalVersion()).thenReturn(7L);
+        when(employeeRepository.getEmployeesByGender()).thenReturn(List.of());
+
+        reportSnapshotService.captureSnapshot();
+        assertThat(reportSnapshotService.captureSnapshot()).isZero();
+
+        when(dataVersionService.getGlobalVersion()).thenReturn(8L);
+        assertThat(reportSnapshotService.captureSnapshot()).isEqualTo(1);
+        verify(snapshotRepository, times(2)).saveAll(anyList());
+    }
+
+    // ---------------------------------------
+    // getTimeSeries()
+    // ---------------------------------------
+
+    // Test: the value in effect before the range is carried into buckets without captures
+    @Test
+    void testGetTimeSeries_CarriesValuesForward() {
+        Instant seed = T0.minus(Duration.ofHours(6));
+        when(snapshotRepository.findLastCaptureAtOrBefore(Dimension.DEPARTMENT, T0)).thenReturn(seed);
+        when(snapshotRepository.findRange(Dimension.DEPARTMENT, seed, T0.plus(DAY.multipliedBy(3)))).thenReturn(List.of(
+                row(seed, "IT", 5, 500),
+                row(T0.plus(Duration.ofDays(2)), "IT", 7, 700),
+                row(T0.plus(Duration.ofDays(2)), "HR", 1, 50)));
+
+        List<TimeSeriesDTO> series = reportSnapshotService.getTimeSeries(Dimension.DEPARTMENT, T0,
+                T0.plus(DAY.multipliedBy(3)), DAY, Aggregation.LAST, null, "ADMIN");
+
+        assertThat(series).extracting(TimeSeriesDTO::getLabel).containsExactly("HR", "IT");
+        assertThat(series.get(0).getPoints()).hasSize(1);
+        assertThat(series.get(1).getPoints()).extracting(point -> point.getCount()).containsExactly(5.0, 5.0, 7.0);
+        assertThat(series.get(1).getPoints().get(2).getAverageSalary()).isEqualTo(100.0);
+    }
+
+    // Test: captures within one bucket are combined with the requested aggregation
+    @Test
+    void testDownsample_Aggregations() {
+        List<ReportSnapshot> rows = List.of(
+                row(T0, "IT", 2, 200),
+                row(T0.plus(Duration.ofHours(8)), "IT", 6, 600),
+                row(T0.plus(Duration.ofHours(16)), "IT", 4, 400));
+
+        assertThat(ReportSnapshotService.downsample(rows, T0, DAY, 1, Aggregation.LAST).get(0).getPoints().get(0).getCount()).isEqualTo(4.0);
+        assertThat(ReportSnapshotService.downsample(rows, T0, DAY, 1, Aggregation.AVG).get(0).getPoints().get(0).getCount()).isEqualTo(4.0);
+        assertThat(ReportSnapshotService.downsample(rows, T0, DAY, 1, Aggregation.MIN).get(0).getPoints().get(0).getTotalSalary()).isEqualTo(200.0);
+        assertThat(ReportSnapshotService.downsample(rows, T0, DAY, 1, Aggregation.MAX).get(0).getPoints().get(0).getCount()).isEqualTo(6.0);
+    }
+
+    // Test: a manager's series is restricted to their department
+    @Test
+    void testGetTimeSeries_ManagerScopedToDepartment() {
+        Department department = new Department();
+        department.setName("IT");
+        when(departmentRepository.findByManagerUsername("manager1")).thenReturn(department);
+        when(snapshotRepository.findRangeForLabel(eq(Dimension.DEPARTMENT), eq("IT"), any(), any())).thenReturn(List.of(row(T0, "IT", 3, 300)));
+
+        List<TimeSeriesDTO> series = reportSnapshotService.getTimeSeries(Dimension.DEPARTMENT, T0, T0.plus(DAY), DAY,
+                Aggregation.LAST, "manager1", "MANAGER");
+
+        assertThat(series).extracting(TimeSeriesDTO::getLabel).containsExactly("IT");
+        verify(snapshotRepository, never()).findRange(any(), any(), any());
+        assertThatThrownBy(() -> reportSnapshotService.getTimeSeries(Dimension.GENDER, T0, T0.plus(DAY), DAY,
+                Aggregation.LAST, "manager1", "MANAGER"))
+            .isInstanceOf(InvalidReportQueryException.class);
+    }
+
+    // Test: empty ranges and ranges with too many buckets are rejected
+    @Test
+    void testGetTimeSeries_InvalidRange() {
+        assertThatThrownBy(() -> reportSnapshotService.getTimeSeries(Dimension.TOTAL, T0, T0, DAY, Aggregation.LAST, null, "ADMIN"))
+            .isInstanceOf(InvalidReportQueryException.class);
+        assertThatThrownBy(() -> reportSnapshotService.getTimeSeries(Dimension.TOTAL, T0, T0.plus(Duration.ofDays(365)),
+                Duration.ofMinutes(1), Aggregation.LAST, null, "ADMIN"))
+            .isInstanceOf(InvalidReportQueryException.class)
+            .hasMessageContaining("buckets");
+    }
+}
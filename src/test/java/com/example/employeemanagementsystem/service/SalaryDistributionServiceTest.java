@@ -0,0 +1,117 @@
+package com.example.employeemanagementsystem.service;
+
+import com.example.employeemanagementsystem.analytics.EmployeeColumnStore.Column;
+import com.example.employeemanagementsystem.analytics.SalarySketch;
+import com.example.employeemanagementsystem.dto.HistogramBinDTO;
+import com.example.employeemanagementsystem.dto.SalaryDistributionDTO;
+import com.example.employeemanagementsystem.entity.Department;
+import com.example.employeemanagementsystem.exception.InvalidReportQueryException;
+import com.example.employeemanagementsystem.repository.DepartmentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class SalaryDistributionServiceTest {
+
+    @Mock
+    private EmployeeAnalyticsService employeeAnalyticsService;
+
+    @Mock
+    private DepartmentRepository departmentRepository;
+
+    private SalaryDistributionService salaryDistributionService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        salaryDistributionService = new SalaryDistributionService(employeeAnalyticsService, departmentRepository);
+
+        Map<String, SalarySketch> byDepartment = new LinkedHashMap<>();
+        byDepartment.put("IT", sketch(4000, 5000, 6000, 7000));
+        byDepartment.put("HR", sketch(3000));
+        byDepartment.put(null, sketch(10000));
+        when(employeeAnalyticsService.salarySketches(Column.DEPARTMENT)).thenReturn(byDepartment);
+    }
+
+    private static SalarySketch sketch(double... salaries) {
+        SalarySketch sketch = new SalarySketch();
+        for (double salary : salaries) {
+            sketch.add(salary);
+        }
+        return sketch;
+    }
+
+    private static void assertApproximately(double expected, Double actual) {
+        assertEquals(expected, actual, expected * SalarySketch.RELATIVE_ACCURACY);
+    }
+
+    // Test: One distribution per department, ordered by label, with percentiles and a histogram over the salary range
+    @Test
+    void testGetSalaryDistributions_ByDepartment() {
+        List<SalaryDistributionDTO> result = salaryDistributionService.getSalaryDistributions(Column.DEPARTMENT, 3, null, "ADMIN");
+
+        assertEquals(3, result.size());
+        assertNull(result.get(0).getLabel());
+        assertEquals("HR", result.get(1).getLabel());
+
+        SalaryDistributionDTO it = result.get(2);
+        assertEquals(4, it.getCount());
+        assertApproximately(5000, it.getP50());
+        assertApproximately(6000, it.getP90());
+        assertApproximately(6000, it.getP99());
+        assertEquals(3, it.getHistogram().size());
+        assertEquals(4, it.getHistogram().stream().mapToLong(HistogramBinDTO::getCount).sum());
+        assertApproximately(4000, it.getHistogram().get(0).getLowerBound());
+        assertApproximately(7000, it.getHistogram().get(2).getUpperBound());
+
+        // A single salary collapses into one bin
+        assertEquals(1, result.get(1).getHistogram().size());
+    }
+
+    // Test: The company-wide distribution merges the department sketches
+    @Test
+    void testGetSalaryDistributions_Total() {
+        List<SalaryDistributionDTO> result = salaryDistributionService.getSalaryDistributions(null, 10, null, "ADMIN");
+
+        assertEquals(1, result.size());
+        assertEquals("total", result.get(0).getLabel());
+        assertEquals(6, result.get(0).getCount());
+        assertApproximately(5000, result.get(0).getP50());
+        assertApproximately(7000, result.get(0).getP99());
+    }
+
+    // Test: A manager only gets their own department, and only by department
+    @Test
+    void testGetSalaryDistributions_Manager() {
+        Department department = new Department();
+        department.setName("HR");
+        when(departmentRepository.findByManagerUsername("manager@example.com")).thenReturn(department);
+
+        List<SalaryDistributionDTO> result = salaryDistributionService.getSalaryDistributions(
+                Column.DEPARTMENT, 10, "manager@example.com", "MANAGER");
+
+        assertEquals(1, result.size());
+        assertEquals("HR", result.get(0).getLabel());
+        assertThrows(InvalidReportQueryException.class, () -> salaryDistributionService.getSalaryDistributions(
+                Column.JOB_TITLE, 10, "manager@example.com", "MANAGER"));
+        assertThrows(InvalidReportQueryException.class, () -> salaryDistributionService.getSalaryDistributions(
+                null, 10, "manager@example.com", "MANAGER"));
+    }
+
+    // Test: The bin count must be between 1 and the maximum
+    @Test
+    void testGetSalaryDistributions_InvalidBins() {
+        assertThrows(InvalidReportQueryException.class, () -> salaryDistributionService.getSalaryDistributions(
+                Column.DEPARTMENT, 0, null, "ADMIN"));
+        assertThrows(InvalidReportQueryException.class, () -> salaryDistributionService.getSalaryDistributions(
+                Column.DEPARTMENT, SalaryDistributionService.MAX_BINS + 1, null, "ADMIN"));
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.employeemanagementsystem.sharding;
+
+import com.example.employeemanagementsystem.dto.EmployeeReportDTO;
+import com.example.employeemanagementsystem.dto.EmployeeSearchRequestDTO;
+import com.example.employeemanagementsystem.entity.Department;
+import com.example.employeemanagementsystem.entity.Employee;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Shards employees across three embedded H2 databases.
+ * Employee i is in department i % 4 + 1 (department 4 on shard 1), with salary 1000 * i;
+ * every fifth employee has no department.
+ */
+class ShardedEmployeeStoreTest {
+
+    private static final int EMPLOYEES = 40;
+
+    private ShardedEmployeeStore store;
+
+    private static DataSource database() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:shard-" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        return dataSource;
+    }
+
+    private static Employee employee(long id, Long departmentId) {
+        Employee employee = new Employee();
+        employee.setId(id);
+        employee.setFirstName("Name" + id);
+        employee.setJobTitle(id % 2 == 0 ? "Dev" : "QA");
+        employee.setGender(id % 3 == 0 ? "FEMALE" : "MALE");
+        employee.setSalary(1000.0 * id);
+        employee.setVersion(0L);
+        if (departmentId != null) {
+            Department department = new Department();
+            department.setId(departmentId);
+            department.setName("D" + departmentId);
+            employee.setDepartment(department);
+        }
+        return employee;
+    }
+
+    @BeforeEach
+    void setUp() {
+        store = new ShardedEmployeeStore(List.of(database(), database(), database()));
+        store.createSchema();
+        List<Employee> employees = new ArrayList<>();
+        for (long id = 1; id <= EMPLOYEES; id++) {
+            employees.add(employee(id, id % 5 == 0 ? null : id % 4 + 1));
+        }
+        store.upsert(employees);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        store.close();
+    }
+
+    private static List<Long> ids(List<Employee> employees) {
+        return employees.stream().map(Employee::getId).toList();
+    }
+
+    // Test: a department's employees are all on its shard, and department queries need only that shard
+    @Test
+    void testDepartmentPlacement() {
+        assertEquals(1, store.shardOf(4L));
+        assertEquals(0, store.shardOf(null));
+        assertEquals(EMPLOYEES, LongStream.range(0, 3).map(s -> store.countOnShard((int) s)).sum());
+
+        List<Employee> department2 = store.findAll(ShardFilter.department(2L));
+        assertEquals(List.of(1L, 9L, 13L, 17L, 21L, 29L, 33L, 37L), ids(department2));
+        assertEquals("D2", department2.get(0).getDepartment().getName());
+        assertEquals(1000.0, department2.get(0).getSalary());
+    }
+
+    // Test: pages merged from every shard match paging over the sorted union
+    @Test
+    void testFindPaged() {
+        List<Long> expected = LongStream.rangeClosed(1, EMPLOYEES).filter(id -> id % 5 != 0).boxed().toList();
+
+        List<Long> paged = new ArrayList<>();
+        for (int page = 0; page < 5; page++) {
+            ShardedEmployeeStore.Page result = store.find(ShardFilter.withDepartment(), page * 7L, 7);
+            assertEquals(expected.size(), result.total());
+            paged.addAll(ids(result.rows()));
+        }
+        assertEquals(expected, paged);
+        assertTrue(store.find(ShardFilter.withDepartment(), 100, 7).rows().isEmpty());
+        assertEquals(EMPLOYEES, store.count(ShardFilter.all()));
+    }
+
+    // Test: search filters apply on every shard, with a partial case-insensitive name match
+    @Test
+    void testSearch() {
+        EmployeeSearchRequestDTO searchRequest = new EmployeeSearchRequestDTO();
+        searchRequest.setName("name1");
+        searchRequest.setJobTitle("Dev");
+        assertEquals(List.of(10L, 12L, 14L, 16L, 18L), ids(store.findAll(ShardFilter.of(searchRequest))));
+
+        searchRequest.setDepartmentId(3L);
+        assertEquals(List.of(14L, 18L), ids(store.findAll(ShardFilter.of(searchRequest))));
+    }
+
+    // Test: group totals from several shards add up, and averages are recomputed from the sums
+    @Test
+    void testAggregate() {
+        List<EmployeeReportDTO> byTitle = store.aggregate(ShardedEmployeeStore.GroupBy.JOB_TITLE, ShardFilter.all());
+        assertEquals(2, byTitle.size());
+        EmployeeReportDTO dev = byTitle.get(0);
+        assertEquals("Dev", dev.getLabel());
+        assertEquals(20L, dev.getCount());
+        assertEquals(420_000.0, dev.getTotalSalary());
+        assertEquals(21_000.0, dev.getAverageSalary());
+
+        List<EmployeeReportDTO> byDepartment = store.aggregate(ShardedEmployeeStore.GroupBy.DEPARTMENT, ShardFilter.all());
+        assertEquals(List.of("D1", "D2", "D3", "D4"), byDepartment.stream().map(EmployeeReportDTO::getLabel).toList());
+        assertEquals(EMPLOYEES - 8, byDepartment.stream().mapToLong(EmployeeReportDTO::getCount).sum());
+    }
+
+    // Test: an employee moving department moves shard, and deleted employees disappear from every shard
+    @Test
+    void testUpsertAndDelete() {
+        store.upsert(List.of(employee(1L, 3L)));
+        assertFalse(ids(store.findAll(ShardFilter.department(2L))).contains(1L));
+        assertTrue(ids(store.findAll(ShardFilter.department(3L))).contains(1L));
+        assertEquals(EMPLOYEES, store.count(ShardFilter.all()));
+
+        store.delete(List.of(1L, 5L));
+        assertEquals(List.of(2L), ids(store.findByIds(List.of(1L, 2L, 5L))));
+        assertEquals(EMPLOYEES - 2, store.count(ShardFilter.all()));
+    }
+
+    // Test: one instance claims the initial load; others wait until it finishes or its claim goes stale
+    @Test
+    void testClaimLoad() {
+        Duration timeout = Duration.ofMinutes(5);
+        assertEquals(ShardedEmployeeStore.LoadClaim.CLAIMED, store.claimLoad(timeout));
+        assertEquals(ShardedEmployeeStore.LoadClaim.BUSY, store.claimLoad(timeout));
+
+        // A claim not renewed in time is taken over
+        assertEquals(ShardedEmployeeStore.LoadClaim.CLAIMED, store.claimLoad(Duration.ZERO));
+        store.renewLoadClaim();
+        assertEquals(ShardedEmployeeStore.LoadClaim.BUSY, store.claimLoad(timeout));
+
+        store.markLoaded();
+        assertEquals(ShardedEmployeeStore.LoadClaim.LOADED, store.claimLoad(timeout));
+        assertEquals(ShardedEmployeeStore.LoadClaim.LOADED, store.claimLoad(Duration.ZERO));
+
+        // Creating the schema again keeps both the rows and the load state
+        store.createSchema();
+        assertEquals(ShardedEmployeeStore.LoadClaim.LOADED, store.claimLoad(timeout));
+        assertEquals(EMPLOYEES, store.count(ShardFilter.all()));
+    }
+
+    // Test: the IDs of every shard are listed
+    @Test
+    void testFindAllIds() {
+        List<Long> ids = new ArrayList<>(store.findAllIds());
+        ids.sort(null);
+        assertEquals(LongStream.rangeClosed(1, EMPLOYEES).boxed().toList(), ids);
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.employeemanagementsystem.snapshot;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DirectorySnapshotTest {
+
+    @TempDir
+    private Path directory;
+
+    private static final List<DirectoryEntry> ENTRIES = List.of(
+            new DirectoryEntry(1, "Ann", "Smith", "ann@example.com", "IT", "Developer", "Female", 5000.0,
+                    LocalDate.of(2020, 1, 15), LocalDate.of(1990, 6, 1)),
+            new DirectoryEntry(2, "Zoë", "Ødegård", null, "IT", "Developer", "Female", null, null, null),
+            new DirectoryEntry(3, "Bob", null, "bob@example.com", null, null, null, 0.0,
+                    LocalDate.of(1969, 12, 31), null));
+
+    // Test: every field, including nulls and non-ASCII names, survives a write and a mapped read
+    @Test
+    void testRoundTrip() throws IOException {
+        Path path = directory.resolve("directory.snap");
+        DirectorySnapshot.write(path, 42, ENTRIES.iterator());
+
+        DirectorySnapshot snapshot = DirectorySnapshot.open(path);
+        assertEquals(42, snapshot.getSequence());
+        assertEquals(ENTRIES.size(), snapshot.size());
+        List<DirectoryEntry> read = new ArrayList<>();
+        snapshot.forEach(read::add);
+        assertEquals(ENTRIES, read);
+        assertEquals(ENTRIES.get(2), snapshot.get(2));
+        assertThrows(IndexOutOfBoundsException.class, () -> snapshot.get(3));
+        // Only the snapshot itself is left behind
+        try (var files = Files.list(directory)) {
+            assertEquals(List.of(path), files.toList());
+        }
+    }
+
+    // Test: a damaged or truncated file is rejected rather than loaded
+    @Test
+    void testCorruptSnapshotRejected() throws IOException {
+        Path path = directory.resolve("directory.snap");
+        DirectorySnapshot.write(path, 42, ENTRIES.iterator());
+        long length = Files.size(path);
+
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.seek(length - 1);
+            int last = file.read();
+            file.seek(length - 1);
+            file.write(last ^ 1);
+        }
+        IOException damaged = assertThrows(IOException.class, () -> DirectorySnapshot.open(path));
+        assertTrue(damaged.getMessage().contains("checksum"));
+
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.setLength(length - 10);
+        }
+        assertThrows(IOException.class, () -> DirectorySnapshot.open(path));
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.employeemanagementsystem.web;
+
+import com.example.employeemanagementsystem.exception.GlobalExceptionHandler;
+import com.example.employeemanagementsystem.limiter.WeightedFairScheduler.Priority;
+import com.example.employeemanagementsystem.web.Bulkhead.Workload;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.method.HandlerMethod;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ConcurrencyLimitInterceptorTest {
+
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @RestController
+    @Bulkhead(Workload.REPORTING)
+    class ReportingController {
+
+        @GetMapping("/report")
+        public String report() throws InterruptedException {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return "done";
+        }
+
+        @GetMapping("/export")
+        @Bulkhead(Workload.BULK)
+        public String export() {
+            return "done";
+        }
+    }
+
+    @RestController
+    static class InteractiveController {
+
+        @GetMapping("/profile")
+        public String profile() {
+            return "done";
+        }
+    }
+
+    // Test: with the only reporting permit taken, reports are shed with 503 and Retry-After while interactive requests still run
+    @Test
+    void testBulkheadIsolation() throws Exception {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("app.limiter.max-limit", "10")
+                .withProperty("app.limiter.reporting.max-limit", "1")
+                .withProperty("app.limiter.retry-after-seconds", "2")
+                .withProperty("app.scheduler.max-wait-ms", "0");
+        ConcurrencyLimitInterceptor interceptor = new ConcurrencyLimitInterceptor(environment);
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new ReportingController(), new InteractiveController())
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .addInterceptors(interceptor)
+                .build();
+        assertEquals(1, interceptor.getScheduler(Workload.REPORTING).getLimiter().getLimit());
+        assertEquals(10, interceptor.getScheduler(Workload.INTERACTIVE).getLimiter().getLimit());
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> first = executor.submit(() -> mockMvc.perform(get("/report")).andExpect(status().isOk()));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            mockMvc.perform(get("/report"))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string("Retry-After", "2"));
+            mockMvc.perform(get("/profile")).andExpect(status().isOk());
+            mockMvc.perform(get("/export")).andExpect(status().isOk());
+            assertEquals(1, interceptor.getScheduler(Workload.REPORTING).getRejected());
+
+            release.countDown();
+            first.get(5, TimeUnit.SECONDS);
+            assertEquals(0, interceptor.getScheduler(Workload.REPORTING).getLimiter().getInFlight());
+            assertEquals(0, interceptor.getScheduler(Workload.INTERACTIVE).getLimiter().getInFlight());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // Test: a method's workload overrides its controller's, and unannotated endpoints are interactive
+    @Test
+    void testWorkload() throws NoSuchMethodException {
+        ReportingController reporting = new ReportingController();
+        assertEquals(Workload.REPORTING, ConcurrencyLimitInterceptor.workload(new HandlerMethod(reporting, "report")));
+        assertEquals(Workload.BULK, ConcurrencyLimitInterceptor.workload(new HandlerMethod(reporting, "export")));
+        assertEquals(Workload.INTERACTIVE,
+                ConcurrencyLimitInterceptor.workload(new HandlerMethod(new InteractiveController(), "profile")));
+    }
+
+    // Test: admins and managers get high priority on interactive endpoints only, and batch clients always get low
+    @Test
+    void testPriority() {
+        MockHttpServletRequest employee = new MockHttpServletRequest();
+        MockHttpServletRequest manager = new MockHttpServletRequest();
+        manager.addUserRole("MANAGER");
+        MockHttpServletRequest batch = new MockHttpServletRequest();
+        batch.addUserRole("ADMIN");
+        batch.addHeader(ConcurrencyLimitInterceptor.CLIENT_CLASS_HEADER, "Batch");
+
+        assertEquals(Priority.NORMAL, ConcurrencyLimitInterceptor.priority(employee, Workload.INTERACTIVE));
+        assertEquals(Priority.HIGH, ConcurrencyLimitInterceptor.priority(manager, Workload.INTERACTIVE));
+        assertEquals(Priority.NORMAL, ConcurrencyLimitInterceptor.priority(manager, Workload.REPORTING));
+        assertEquals(Priority.LOW, ConcurrencyLimitInterceptor.priority(manager, Workload.BULK));
+        assertEquals(Priority.LOW, ConcurrencyLimitInterceptor.priority(batch, Workload.INTERACTIVE));
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.employeemanagementsystem.web;
+
+import com.example.employeemanagementsystem.controller.EmployeeController;
+import com.example.employeemanagementsystem.controller.ReportController;
+import com.example.employeemanagementsystem.service.DataVersionService;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.security.Principal;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+public class ConditionalGetInterceptorTest {
+
+    private DataVersionService dataVersionService;
+    private ConditionalGetInterceptor interceptor;
+    private HandlerMethod listHandler;
+    private HandlerMethod byIdHandler;
+
+    @BeforeEach
+    void setUp() throws NoSuchMethodException {
+        dataVersionService = new DataVersionService();
+        interceptor = new ConditionalGetInterceptor(dataVersionService);
+        listHandler = new HandlerMethod(mock(ReportController.class),
+                ReportController.class.getMethod("getEmployeesByGender"));
+        byIdHandler = new HandlerMethod(mock(EmployeeController.class),
+                EmployeeController.class.getMethod("getEmployeeById", Long.class, Authentication.class));
+    }
+
+    private MockHttpServletRequest request(String ifNoneMatch) {
+        return request(ifNoneMatch, () -> "admin@example.com");
+    }
+
+    private MockHttpServletRequest request(String ifNoneMatch, Principal principal) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/employees/7");
+        request.setUserPrincipal(principal);
+        request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Map.of("id", "7"));
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return request;
+    }
+
+    // Test: first request proceeds and stashes the ETag for the response
+    @Test
+    void testFirstRequestProceeds() {
+        MockHttpServletRequest request = request(null);
+
+        assertTrue(interceptor.preHandle(request, new MockHttpServletResponse(), listHandler));
+        assertNotNull(request.getAttribute(ConditionalGetInterceptor.ETAG_ATTRIBUTE));
+    }
+
+    // Test: a matching If-None-Match is answered with 304 without reaching the handler
+    @Test
+    void testNotModified() {
+        MockHttpServletRequest first = request(null);
+        interceptor.preHandle(first, new MockHttpServletResponse(), listHandler);
+        String etag = (String) first.getAttribute(ConditionalGetInterceptor.ETAG_ATTRIBUTE);
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertFalse(interceptor.preHandle(request(etag), response, listHandler));
+        assertEquals(304, response.getStatus());
+        assertEquals(etag, response.getHeader(HttpHeaders.ETAG));
+    }
+
+    // Test: a write bumps the global version and invalidates the ETag
+    @Test
+    void testWriteInvalidatesGlobalEtag() {
+        MockHttpServletRequest first = request(null);
+        interceptor.preHandle(first, new MockHttpServletResponse(), listHandler);
+        String etag = (String) first.getAttribute(ConditionalGetInterceptor.ETAG_ATTRIBUTE);
+
+        dataVersionService.recordEmployeeChange(99L, 1L);
+
+        assertTrue(interceptor.preHandle(request(etag), new MockHttpServletResponse(), listHandler));
+    }
+
+    // Test: employee-scoped ETags carry the employee's version and only change when that employee changes
+    @Test
+    void testEmployeeScopedEtag() {
+        MockHttpServletRequest unknown = request(null);
+        assertTrue(interceptor.preHandle(unknown, new MockHttpServletResponse(), byIdHandler));
+        assertNull(unknown.getAttribute(ConditionalGetInterceptor.ETAG_ATTRIBUTE));
+        assertEquals("", unknown.getAttribute(ConditionalGetInterceptor.SUFFIX_ATTRIBUTE));
+
+        dataVersionService.recordEmployeeVersion(7L, 3L);
+        MockHttpServletRequest first = request(null);
+        interceptor.preHandle(first, new MockHttpServletResponse(), byIdHandler);
+        String etag = (String) first.getAttribute(ConditionalGetInterceptor.ETAG_ATTRIBUTE);
+        assertEquals(3L, DataVersionService.parseEmployeeVersion(etag, 7L));
+
+        dataVersionService.recordEmployeeChange(99L, 1L);
+        assertFalse(interceptor.preHandle(request(etag), new MockHttpServletResponse(), byIdHandler));
+
+        dataVersionService.recordEmployeeChange(7L, 4L);
+        assertTrue(interceptor.preHandle(request(etag), new MockHttpServletResponse(), byIdHandler));
+    }
+
+    // Test: a stale read never moves a version back, and a deleted employee is never answered with 304
+    @Test
+    void testEmployeeVersionOnlyMovesForward() {
+        dataVersionService.recordEmployeeChange(7L, 4L);
+        dataVersionService.recordEmployeeVersion(7L, 3L);
+        assertEquals(4L, dataVersionService.getEmployeeVersion(7L));
+
+        dataVersionService.recordEmployeeChange(7L, null);
+        dataVersionService.recordEmployeeVersion(7L, 4L);
+        assertNull(dataVersionService.getEmployeeVersion(7L));
+    }
+
+    // Test: If-Match must hold exactly one strong ETag of the patched employee
+    @Test
+    void testParseEmployeeVersion() {
+        Principal principal = () -> "admin@example.com";
+        assertEquals(3L, DataVersionService.parseEmployeeVersion(DataVersionService.employeeEtag(7L, 3L, "", principal), 7L));
+        assertEquals(3L, DataVersionService.parseEmployeeVersion(DataVersionService.employeeEtag(7L, 3L, ".cbor", principal), 7L));
+        assertNull(DataVersionService.parseEmployeeVersion(DataVersionService.employeeEtag(7L, 3L, "", principal), 71L));
+        assertNull(DataVersionService.parseEmployeeVersion(DataVersionService.employeeEtag(71L, 3L, "", principal), 7L));
+        assertNull(DataVersionService.parseEmployeeVersion("*", 7L));
+        assertNull(DataVersionService.parseEmployeeVersion("\"3\"", 7L));
+        assertNull(DataVersionService.parseEmployeeVersion("W/\"e7-3-abc\"", 7L));
+        assertNull(DataVersionService.parseEmployeeVersion("\"e7-3-abc\", \"e7-4-abc\"", 7L));
+        assertNull(DataVersionService.parseEmployeeVersion("\"e7-x-abc\"", 7L));
+    }
+
+    // Test: ETags differ per user and per set of roles, so callers never share a cached response
+    @Test
+    void testEtagScopedToPrincipal() {
+        String admin = etag(new UsernamePasswordAuthenticationToken("alice", null,
+                AuthorityUtils.createAuthorityList("ROLE_ADMIN")));
+        String manager = etag(new UsernamePasswordAuthenticationToken("alice", null,
+                AuthorityUtils.createAuthorityList("ROLE_MANAGER")));
+        String otherUser = etag(new UsernamePasswordAuthenticationToken("bob", null,
+                AuthorityUtils.createAuthorityList("ROLE_ADMIN")));
+
+        assertNotEquals(admin, manager);
+        assertNotEquals(admin, otherUser);
+        assertEquals(admin, etag(new UsernamePasswordAuthenticationToken("alice", null,
+                AuthorityUtils.createAuthorityList("ROLE_ADMIN"))));
+        assertFalse(admin.contains("alice"));
+    }
+
+    private String etag(Principal principal) {
+        MockHttpServletRequest request = request(null, principal);
+        interceptor.preHandle(request, new MockHttpServletResponse(), listHandler);
+        return (String) request.getAttribute(ConditionalGetInterceptor.ETAG_ATTRIBUTE);
+    }
+
+    // Test: If-None-Match lists, weak tags and wildcards are honored
+    @Test
+    void testMatches() {
+        assertTrue(ConditionalGetInterceptor.matches("\"a\", \"b\"", "\"b\""));
+        assertTrue(ConditionalGetInterceptor.matches("W/\"b\"", "\"b\""));
+        assertTrue(ConditionalGetInterceptor.matches("*", "\"b\""));
+        assertFalse(ConditionalGetInterceptor.matches("\"a\"", "\"b\""));
+        assertFalse(ConditionalGetInterceptor.matches(null, "\"b\""));
+    }
+}
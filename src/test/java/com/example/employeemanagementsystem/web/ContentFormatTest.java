@@ -0,0 +1,51 @@
+package com.example.employeemanagementsystem.web;
+
+import com.example.employeemanagementsystem.dto.EmployeeExportDTO;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ContentFormatTest {
+
+    // Test: JSON is the default for missing, wildcard and unsupported Accept headers
+    @Test
+    void testNegotiateDefaultsToJson() {
+        assertEquals(ContentFormat.JSON, ContentFormat.negotiate(null));
+        assertEquals(ContentFormat.JSON, ContentFormat.negotiate("*/*"));
+        assertEquals(ContentFormat.JSON, ContentFormat.negotiate("text/html"));
+        assertEquals(ContentFormat.JSON, ContentFormat.negotiate("not a media type"));
+    }
+
+    // Test: binary formats are picked when requested
+    @Test
+    void testNegotiateBinary() {
+        assertEquals(ContentFormat.CBOR, ContentFormat.negotiate("application/cbor"));
+        assertEquals(ContentFormat.SMILE, ContentFormat.negotiate("application/x-jackson-smile"));
+    }
+
+    // Test: quality values decide between several acceptable formats
+    @Test
+    void testNegotiateHonorsQuality() {
+        assertEquals(ContentFormat.CBOR, ContentFormat.negotiate("application/json;q=0.5, application/cbor"));
+        assertEquals(ContentFormat.JSON, ContentFormat.negotiate("application/json, application/cbor;q=0.5"));
+    }
+
+    // Test: the streaming writer produces valid CBOR with the negotiated factory
+    @Test
+    void testStreamCbor() throws Exception {
+        List<EmployeeExportDTO> rows = List.of(
+                new EmployeeExportDTO(1L, "John", "Doe", "john@example.com", null, "Developer", 100.0, "Male", null, null));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        EmployeeJsonWriter.stream(ContentFormat.CBOR.getFactory(), rows::forEach, 10).writeTo(out);
+
+        EmployeeExportDTO[] parsed = new ObjectMapper(new CBORFactory()).readValue(out.toByteArray(), EmployeeExportDTO[].class);
+        assertEquals("john@example.com", parsed[0].getEmail());
+    }
+}
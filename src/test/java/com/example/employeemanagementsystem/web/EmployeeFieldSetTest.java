@@ -0,0 +1,60 @@
+package com.example.employeemanagementsystem.web;
+
+import com.example.employeemanagementsystem.exception.InvalidFieldSetException;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.sql.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EmployeeFieldSetTest {
+
+    // Test: attributes are selected in canonical order, whatever order they were requested in
+    @Test
+    void testCompileCanonicalOrder() {
+        EmployeeFieldSet fieldSet = EmployeeFieldSet.compile("email, id,firstName");
+        assertEquals(List.of("id", "firstName", "email"), fieldSet.getAttributes());
+    }
+
+    // Test: requests for the same set of fields share one compiled fieldset
+    @Test
+    void testCompileCachedByShape() {
+        EmployeeFieldSet first = EmployeeFieldSet.compile("id,salary");
+        assertSame(first, EmployeeFieldSet.compile("id,salary"));
+        assertSame(first, EmployeeFieldSet.compile("salary,id,id"));
+    }
+
+    // Test: unknown and empty fieldsets are rejected
+    @Test
+    void testCompileRejectsInvalidFields() {
+        InvalidFieldSetException ex = assertThrows(InvalidFieldSetException.class,
+                () -> EmployeeFieldSet.compile("id,password"));
+        assertTrue(ex.getMessage().contains("password"));
+        assertThrows(InvalidFieldSetException.class, () -> EmployeeFieldSet.compile(""));
+        assertThrows(InvalidFieldSetException.class, () -> EmployeeFieldSet.compile(" , "));
+        assertThrows(InvalidFieldSetException.class, () -> EmployeeFieldSet.compile("department"));
+    }
+
+    // Test: rows are written positionally with the same value representation as the full serializer
+    @Test
+    void testStreamRows() throws Exception {
+        EmployeeFieldSet fieldSet = EmployeeFieldSet.compile("id,salary,hireDate,phoneNumber");
+        assertEquals(List.of("id", "phoneNumber", "salary", "hireDate"), fieldSet.getAttributes());
+        List<Object[]> rows = List.<Object[]>of(new Object[]{1L, null, 100.5, Date.valueOf("2020-01-15")});
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        EmployeeJsonWriter.stream(ContentFormat.JSON.getFactory(), rows::forEach, fieldSet::write, 10).writeTo(out);
+
+        JsonNode row = new ObjectMapper().readTree(out.toByteArray()).get(0);
+        assertEquals(4, row.size());
+        assertEquals(1L, row.get("id").asLong());
+        assertEquals(100.5, row.get("salary").asDouble());
+        assertEquals("2020-01-15", row.get("hireDate").asText());
+        assertTrue(row.get("phoneNumber").isNull());
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.employeemanagementsystem.web;
+
+import com.example.employeemanagementsystem.dto.EmployeeExportDTO;
+import com.example.employeemanagementsystem.entity.Employee;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.sql.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EmployeeJsonWriterTest {
+
+    // Same date handling as the Spring Boot default ObjectMapper
+    private final ObjectMapper objectMapper = new ObjectMapper().disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private Employee sampleEmployee() {
+        Employee employee = new Employee();
+        employee.setId(1L);
+        employee.setFirstName("John");
+        employee.setLastName("O\"Brien");
+        employee.setEmail("john@example.com");
+        employee.setJobTitle("Developer");
+        employee.setSalary(50000.5);
+        employee.setGender("Male");
+        employee.setHireDate(Date.valueOf("2020-01-15"));
+        return employee;
+    }
+
+    // Test: the hand-written serializer produces exactly what Jackson's reflective serializer does
+    @Test
+    void testWriteMatchesObjectMapper() throws Exception {
+        Employee employee = sampleEmployee();
+
+        StringWriter writer = new StringWriter();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(writer)) {
+            EmployeeJsonWriter.write(generator, employee);
+        }
+
+        assertEquals(objectMapper.writeValueAsString(employee), writer.toString());
+    }
+
+    // Test: timestamps, as opposed to SQL dates, are written like Jackson's ISO-8601 format
+    @Test
+    void testWriteTimestampMatchesObjectMapper() throws Exception {
+        Employee employee = sampleEmployee();
+        employee.setDateOfBirth(new java.util.Date(-123456789012L));
+
+        StringWriter writer = new StringWriter();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(writer)) {
+            EmployeeJsonWriter.write(generator, employee);
+        }
+
+        assertEquals(objectMapper.writeValueAsString(employee), writer.toString());
+    }
+
+    // Test: streamed rows form a valid JSON array
+    @Test
+    void testStreamWritesArray() throws Exception {
+        List<EmployeeExportDTO> rows = List.of(
+                new EmployeeExportDTO(1L, "John", "Doe", "john@example.com", null, "Developer", 100.0, "Male", null, null),
+                new EmployeeExportDTO(2L, "Jane", "Roe", "jane@example.com", null, "Manager", 200.0, "Female", null, null),
+                new EmployeeExportDTO(3L, "Jim", "Poe", "jim@example.com", null, "Tester", 300.0, "Male", null, null));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        EmployeeJsonWriter.stream(objectMapper.getFactory(), rows::forEach, 2).writeTo(out);
+
+        EmployeeExportDTO[] parsed = objectMapper.readValue(out.toByteArray(), EmployeeExportDTO[].class);
+        assertEquals(3, parsed.length);
+        assertEquals("jane@example.com", parsed[1].getEmail());
+    }
+
+    // Test: a source failing mid-stream leaves the array open, so the body is not valid JSON
+    @Test
+    void testStreamFailureLeavesArrayOpen() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        EmployeeExportDTO row = new EmployeeExportDTO(1L, "John", "Doe", "john@example.com", null, "Developer",
+                100.0, "Male", null, null);
+
+        assertThrows(IllegalStateException.class, () -> EmployeeJsonWriter.stream(objectMapper.getFactory(), consumer -> {
+            consumer.accept(row);
+            throw new IllegalStateException("cursor failed");
+        }, 2).writeTo(out));
+
+        assertTrue(out.toString().startsWith("[{\"id\":1,"));
+        assertFalse(out.toString().endsWith("]"));
+        assertThrows(IOException.class, () -> objectMapper.readValue(out.toByteArray(), EmployeeExportDTO[].class));
+    }
+
+    // Test: an empty source still produces an empty array
+    @Test
+    void testStreamEmpty() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        EmployeeJsonWriter.stream(objectMapper.getFactory(), consumer -> { }, 2).writeTo(out);
+
+        assertEquals("[]", out.toString());
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.employeemanagementsystem.web;
+
+import com.example.employeemanagementsystem.exception.InvalidFieldSetException;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Date;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EmployeePatchTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private EmployeePatch parse(String json) throws Exception {
+        return EmployeePatch.parse(objectMapper.readTree(json));
+    }
+
+    // Test: members are converted to column values, and null clears a column
+    @Test
+    void testParseConvertsValues() throws Exception {
+        EmployeePatch patch = parse("{\"phoneNumber\":null,\"salary\":1200,\"hireDate\":\"2021-03-01\"}");
+
+        Map<String, Object> changes = patch.getChanges();
+        assertEquals(3, changes.size());
+        assertNull(changes.get("phoneNumber"));
+        assertEquals(1200.0, changes.get("salary"));
+        assertEquals(Date.valueOf("2021-03-01"), changes.get("hireDate"));
+    }
+
+    // Test: unknown, non-patchable and mistyped members are rejected
+    @Test
+    void testParseRejectsInvalidPatches() {
+        assertThrows(InvalidFieldSetException.class, () -> parse("{}"));
+        assertThrows(InvalidFieldSetException.class, () -> parse("[]"));
+        assertThrows(InvalidFieldSetException.class, () -> parse("{\"id\":5}"));
+        assertThrows(InvalidFieldSetException.class, () -> parse("{\"version\":5}"));
+        assertThrows(InvalidFieldSetException.class, () -> parse("{\"salary\":\"lots\"}"));
+        assertThrows(InvalidFieldSetException.class, () -> parse("{\"hireDate\":\"yesterday\"}"));
+        assertThrows(InvalidFieldSetException.class, () -> parse("{\"hireDate\":\"2021-03-01garbage\"}"));
+        assertThrows(InvalidFieldSetException.class, () -> parse("{\"hireDate\":\"2021-02-30\"}"));
+    }
+}
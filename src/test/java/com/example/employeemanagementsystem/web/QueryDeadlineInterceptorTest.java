@@ -0,0 +1,84 @@
+package com.example.employeemanagementsystem.web;
+
+import com.example.employeemanagementsystem.datasource.QueryDeadline;
+import com.example.employeemanagementsystem.limiter.WeightedFairScheduler.Priority;
+import com.example.employeemanagementsystem.web.Bulkhead.Workload;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+
+class QueryDeadlineInterceptorTest {
+
+    @RestController
+    static class DeadlineController {
+
+        @GetMapping("/search")
+        public long search() {
+            return QueryDeadline.current().getTimeoutMillis();
+        }
+
+        @GetMapping("/report")
+        @Bulkhead(Workload.REPORTING)
+        public long report() {
+            return QueryDeadline.current().getTimeoutMillis();
+        }
+
+        @GetMapping("/priority")
+        public String priority() {
+            return QueryDeadline.currentPriority().name();
+        }
+    }
+
+    // Test: each request runs under its endpoint's deadline, shortened by the client, and the deadline is unbound afterwards
+    @Test
+    void testDeadlineBound() throws Exception {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("app.deadline.timeout-ms", "2000")
+                .withProperty("app.deadline.reporting.timeout-ms", "30000");
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new DeadlineController())
+                .addInterceptors(new QueryDeadlineInterceptor(environment))
+                .build();
+
+        mockMvc.perform(get("/search")).andExpect(content().string("2000"));
+        mockMvc.perform(get("/report")).andExpect(content().string("30000"));
+        mockMvc.perform(get("/report").header(QueryDeadlineInterceptor.TIMEOUT_HEADER, "500"))
+                .andExpect(content().string("500"));
+        assertNull(QueryDeadline.current());
+    }
+
+    // Test: the deadline carries the request's priority to the JDBC governor, lowered for batch clients
+    @Test
+    void testPriorityBound() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new DeadlineController())
+                .addInterceptors(new QueryDeadlineInterceptor(new MockEnvironment()))
+                .build();
+
+        mockMvc.perform(get("/priority")).andExpect(content().string("NORMAL"));
+        mockMvc.perform(get("/priority").header(ConcurrencyLimitInterceptor.CLIENT_CLASS_HEADER, "batch"))
+                .andExpect(content().string("LOW"));
+        assertEquals(Priority.NORMAL, QueryDeadline.currentPriority());
+    }
+
+    // Test: the header can shorten the endpoint's deadline or set one where there is none, but never extend it
+    @Test
+    void testTimeout() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        assertEquals(1000, QueryDeadlineInterceptor.timeout(request, 1000));
+
+        request.addHeader(QueryDeadlineInterceptor.TIMEOUT_HEADER, "5000");
+        assertEquals(1000, QueryDeadlineInterceptor.timeout(request, 1000));
+        assertEquals(5000, QueryDeadlineInterceptor.timeout(request, 0));
+
+        MockHttpServletRequest invalid = new MockHttpServletRequest();
+        invalid.addHeader(QueryDeadlineInterceptor.TIMEOUT_HEADER, "soon");
+        assertEquals(1000, QueryDeadlineInterceptor.timeout(invalid, 1000));
+    }
+}